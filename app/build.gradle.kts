@@ -2,6 +2,7 @@ version = "1.0.0"
 
 plugins {
     application
+    `java-test-fixtures`
     id("org.openjfx.javafxplugin") version "0.1.0"
     id("com.github.ben-manes.versions") version "0.52.0"
 }
@@ -26,6 +27,13 @@ javafx {
     modules = listOf("javafx.controls", "javafx.fxml")
 }
 
+tasks.register<JavaExec>("runCli") {
+    group = "application"
+    description = "Runs the headless command-line mode, e.g. --args=\"coverage --format csv\""
+    mainClass = "org.pz.polyglot.cli.PolyglotCli"
+    classpath = sourceSets.main.get().runtimeClasspath
+}
+
 tasks.named<Test>("test") {
     useJUnitPlatform()
     testLogging {
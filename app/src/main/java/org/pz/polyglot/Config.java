@@ -61,6 +61,27 @@ public class Config {
     /** Whether the cache path is editable. */
     @JsonProperty("cachePathEditable")
     private boolean cachePathEditable = true;
+    /** Whether translation files are parsed in parallel on startup. */
+    @JsonProperty("parallelLoading")
+    private boolean parallelLoading = true;
+    /** Whether source folders are scanned concurrently on startup. */
+    @JsonProperty("parallelDiscovery")
+    private boolean parallelDiscovery = true;
+    /** Whether parsed translation files are cached on disk between runs. */
+    @JsonProperty("translationCache")
+    private boolean translationCache = true;
+    /** Whether translation files are reloaded when they change on disk. */
+    @JsonProperty("watchTranslationFiles")
+    private boolean watchTranslationFiles = true;
+    /** Whether loaded variants are stored compactly until they are viewed. */
+    @JsonProperty("compactVariants")
+    private boolean compactVariants = true;
+    /** Whether variant texts of hidden languages are loaded only when needed. */
+    @JsonProperty("lazyVariantTexts")
+    private boolean lazyVariantTexts = false;
+    /** Number of previous versions kept when a translation file is saved. */
+    @JsonProperty("translationBackups")
+    private int translationBackups = 0;
 
     /** Last time the config was saved. */
     private volatile Instant lastSaveTime = Instant.EPOCH;
@@ -169,13 +190,23 @@ public class Config {
         return config;
     }
 
+    /**
+     * Returns the directory holding the config file and other application data,
+     * which is the current working directory.
+     * 
+     * @return Path to the config directory
+     */
+    public static Path getConfigDirectory() {
+        return Path.of(System.getProperty("user.dir"));
+    }
+
     /**
      * Returns the path to the config file in the current working directory.
      * 
      * @return Path to config.json
      */
     private static Path getConfigFilePath() {
-        return Path.of(System.getProperty("user.dir"), CONFIG_FILE_NAME);
+        return getConfigDirectory().resolve(CONFIG_FILE_NAME);
     }
 
     // Config values related methods
@@ -334,6 +365,147 @@ public class Config {
         save();
     }
 
+    /**
+     * Returns whether translation files are parsed in parallel on startup.
+     * 
+     * @return true if parallel loading is enabled
+     */
+    public boolean isParallelLoading() {
+        return parallelLoading;
+    }
+
+    /**
+     * Sets whether translation files are parsed in parallel and saves config.
+     * 
+     * @param parallelLoading parallel loading flag
+     */
+    public void setParallelLoading(boolean parallelLoading) {
+        this.parallelLoading = parallelLoading;
+        save();
+    }
+
+    /**
+     * Returns whether source folders are scanned concurrently on startup.
+     * 
+     * @return true if parallel discovery is enabled
+     */
+    public boolean isParallelDiscovery() {
+        return parallelDiscovery;
+    }
+
+    /**
+     * Sets whether source folders are scanned concurrently and saves config.
+     * 
+     * @param parallelDiscovery parallel discovery flag
+     */
+    public void setParallelDiscovery(boolean parallelDiscovery) {
+        this.parallelDiscovery = parallelDiscovery;
+        save();
+    }
+
+    /**
+     * Returns whether parsed translation files are cached on disk between runs.
+     * 
+     * @return true if the translation cache is enabled
+     */
+    public boolean isTranslationCache() {
+        return translationCache;
+    }
+
+    /**
+     * Sets whether parsed translation files are cached on disk and saves config.
+     * 
+     * @param translationCache translation cache flag
+     */
+    public void setTranslationCache(boolean translationCache) {
+        this.translationCache = translationCache;
+        save();
+    }
+
+    /**
+     * Returns whether translation files are reloaded when they change on disk.
+     * 
+     * @return true if file watching is enabled
+     */
+    public boolean isWatchTranslationFiles() {
+        return watchTranslationFiles;
+    }
+
+    /**
+     * Sets whether translation files are reloaded when they change on disk and
+     * saves config.
+     * 
+     * @param watchTranslationFiles file watching flag
+     */
+    public void setWatchTranslationFiles(boolean watchTranslationFiles) {
+        this.watchTranslationFiles = watchTranslationFiles;
+        save();
+    }
+
+    /**
+     * Returns whether loaded variants are stored compactly until they are
+     * viewed or edited.
+     * 
+     * @return true if compact variant storage is enabled
+     */
+    public boolean isCompactVariants() {
+        return compactVariants;
+    }
+
+    /**
+     * Sets whether loaded variants are stored compactly and saves config. Takes
+     * effect on the next load.
+     * 
+     * @param compactVariants compact variant storage flag
+     */
+    public void setCompactVariants(boolean compactVariants) {
+        this.compactVariants = compactVariants;
+        save();
+    }
+
+    /**
+     * Returns whether variant texts of languages that are not visible are left
+     * out at startup and loaded when a language is shown or an entry is opened.
+     * Only used with compact variant storage.
+     * 
+     * @return true if lazy variant texts are enabled
+     */
+    public boolean isLazyVariantTexts() {
+        return lazyVariantTexts;
+    }
+
+    /**
+     * Sets whether variant texts of hidden languages are loaded lazily and saves
+     * config. Takes effect on the next load.
+     * 
+     * @param lazyVariantTexts lazy variant texts flag
+     */
+    public void setLazyVariantTexts(boolean lazyVariantTexts) {
+        this.lazyVariantTexts = lazyVariantTexts;
+        save();
+    }
+
+    /**
+     * Returns the number of previous versions kept when a translation file is
+     * saved.
+     * 
+     * @return number of backups, 0 if none are kept
+     */
+    public int getTranslationBackups() {
+        return translationBackups;
+    }
+
+    /**
+     * Sets the number of previous versions kept when a translation file is saved
+     * and saves config.
+     * 
+     * @param translationBackups number of backups, 0 to keep none
+     */
+    public void setTranslationBackups(int translationBackups) {
+        this.translationBackups = Math.max(0, translationBackups);
+        save();
+    }
+
     /**
      * Gets the enabled translation sources.
      * 
@@ -1,5 +1,6 @@
 package org.pz.polyglot;
 
+import java.io.PrintStream;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Set;
@@ -25,6 +26,10 @@ public class Logger {
      */
     private static Set<Level> enabledLevels = Set.of(Level.ERROR, Level.WARNING, Level.INFO);
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    /**
+     * Stream log lines are written to.
+     */
+    private static PrintStream output = System.out;
 
     // Tracks last logged message for grouping repeated logs
     private static String lastMessage = null;
@@ -48,6 +53,18 @@ public class Logger {
         enabledLevels = Set.of(Level.ERROR, Level.WARNING, Level.INFO, Level.DEBUG);
     }
 
+    /**
+     * Sends log lines to another stream, for example standard error when
+     * standard output carries command results.
+     * 
+     * @param stream the stream to write log lines to
+     */
+    public static void setOutput(PrintStream stream) {
+        finishPreviousGroup();
+        resetTracking();
+        output = stream;
+    }
+
     /**
      * Enables only production log levels (ERROR, WARNING).
      */
@@ -73,8 +90,8 @@ public class Logger {
 
         if (throwable != null) {
             finishPreviousGroup();
-            System.out.println(currentLine);
-            throwable.printStackTrace();
+            output.println(currentLine);
+            throwable.printStackTrace(output);
             resetTracking();
             return;
         }
@@ -82,13 +99,13 @@ public class Logger {
         // Group repeated messages for compact output
         if (lastMessage != null && lastMessage.equals(message) && lastLevel == level) {
             repeatCount++;
-            System.out.print("\r" + originalLine + " x" + repeatCount);
-            System.out.flush();
+            output.print("\r" + originalLine + " x" + repeatCount);
+            output.flush();
         } else {
             finishPreviousGroup();
 
-            System.out.print(currentLine);
-            System.out.flush();
+            output.print(currentLine);
+            output.flush();
 
             lastMessage = message;
             lastLevel = level;
@@ -102,7 +119,7 @@ public class Logger {
      */
     private static void finishPreviousGroup() {
         if (lastMessage != null) {
-            System.out.println();
+            output.println();
         }
     }
 
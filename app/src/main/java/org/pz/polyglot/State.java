@@ -68,6 +68,10 @@ public class State {
     private final BooleanProperty enabledSourcesChanged = new SimpleBooleanProperty(false);
     /** Controls visibility of the SourcesPanel. */
     private final BooleanProperty sourcesPanelVisible = new SimpleBooleanProperty(false);
+    /** Whether the table shows only keys with format problems. */
+    private final BooleanProperty problemsOnly = new SimpleBooleanProperty(false);
+    /** Whether the table shows only keys defined by several sources. */
+    private final BooleanProperty overriddenOnly = new SimpleBooleanProperty(false);
     /** Current work mode (Discovery, Focus, etc.). */
     private final ObjectProperty<WorkMode> currentWorkMode = new SimpleObjectProperty<>(WorkMode.DISCOVERY);
 
@@ -193,6 +197,20 @@ public class State {
         return sourcesPanelVisible;
     }
 
+    /**
+     * Property for observing the problems-only table filter.
+     */
+    public BooleanProperty problemsOnlyProperty() {
+        return problemsOnly;
+    }
+
+    /**
+     * Property for observing the overridden-only table filter.
+     */
+    public BooleanProperty overriddenOnlyProperty() {
+        return overriddenOnly;
+    }
+
     /**
      * Property for observing work mode changes.
      */
@@ -432,6 +450,44 @@ public class State {
         sourcesPanelVisible.set(visible);
     }
 
+    /**
+     * Returns whether the table shows only keys with format problems.
+     * 
+     * @return true if the problems-only filter is on
+     */
+    public boolean isProblemsOnly() {
+        return problemsOnly.get();
+    }
+
+    /**
+     * Sets whether the table shows only keys with format problems.
+     * 
+     * @param problemsOnly true to hide keys without problems
+     */
+    public void setProblemsOnly(boolean problemsOnly) {
+        this.problemsOnly.set(problemsOnly);
+    }
+
+    /**
+     * Returns whether the table shows only keys whose definitions in one
+     * source are overridden by another.
+     * 
+     * @return true if the overridden-only filter is on
+     */
+    public boolean isOverriddenOnly() {
+        return overriddenOnly.get();
+    }
+
+    /**
+     * Sets whether the table shows only keys whose definitions in one source
+     * are overridden by another.
+     * 
+     * @param overriddenOnly true to hide keys without overrides
+     */
+    public void setOverriddenOnly(boolean overriddenOnly) {
+        this.overriddenOnly.set(overriddenOnly);
+    }
+
     /**
      * Returns the current work mode.
      */
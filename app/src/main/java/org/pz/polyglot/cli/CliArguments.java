@@ -0,0 +1,159 @@
+package org.pz.polyglot.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Parsed command line of {@link PolyglotCli}: a command name followed by
+ * options written as {@code --name value} or {@code --name=value}, and flags
+ * written as {@code --name}. List options take comma-separated values and may
+ * be repeated.
+ */
+public final class CliArguments {
+    /** The command name, or null if none was given. */
+    private final String command;
+    /** Option values by name; repeated options are joined with commas. */
+    private final Map<String, String> options;
+    /** Names of the flags that were given. */
+    private final Set<String> flags;
+
+    /**
+     * Creates parsed arguments.
+     *
+     * @param command the command name, or null
+     * @param options option values by name
+     * @param flags   names of the given flags
+     */
+    private CliArguments(String command, Map<String, String> options, Set<String> flags) {
+        this.command = command;
+        this.options = options;
+        this.flags = flags;
+    }
+
+    /**
+     * Parses a command line.
+     *
+     * @param args      the command line arguments
+     * @param flagNames names of the options that take no value
+     * @return the parsed arguments
+     * @throws IllegalArgumentException if an option has no value or a second
+     *                                  command name is given
+     */
+    public static CliArguments parse(String[] args, Set<String> flagNames) {
+        String command = null;
+        Map<String, String> options = new LinkedHashMap<>();
+        Set<String> flags = new HashSet<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (command != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                command = arg;
+                continue;
+            }
+            String name = arg.substring(2);
+            String value = null;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            }
+            if (flagNames.contains(name)) {
+                if (value != null) {
+                    throw new IllegalArgumentException("Option --" + name + " takes no value");
+                }
+                flags.add(name);
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Option --" + name + " needs a value");
+                }
+                value = args[++i];
+            }
+            options.merge(name, value, (first, second) -> first + "," + second);
+        }
+        return new CliArguments(command, options, flags);
+    }
+
+    /**
+     * Returns the command name.
+     *
+     * @return the command name, or null if none was given
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the value of an option.
+     *
+     * @param name the option name, without dashes
+     * @return the value, or empty if the option was not given
+     */
+    public Optional<String> getOption(String name) {
+        return Optional.ofNullable(options.get(name));
+    }
+
+    /**
+     * Returns the value of an option that must be given.
+     *
+     * @param name the option name, without dashes
+     * @return the value
+     * @throws IllegalArgumentException if the option was not given
+     */
+    public String getRequiredOption(String name) {
+        return getOption(name).orElseThrow(() -> new IllegalArgumentException("Missing option --" + name));
+    }
+
+    /**
+     * Returns the values of a list option.
+     *
+     * @param name the option name, without dashes
+     * @return the non-blank values in order, empty if the option was not given
+     */
+    public List<String> getList(String name) {
+        List<String> values = new ArrayList<>();
+        getOption(name).ifPresent(value -> Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .forEach(values::add));
+        return values;
+    }
+
+    /**
+     * Returns whether a flag was given.
+     *
+     * @param name the flag name, without dashes
+     * @return true if the flag was given
+     */
+    public boolean hasFlag(String name) {
+        return flags.contains(name);
+    }
+
+    /**
+     * Checks that only known options and flags were given.
+     *
+     * @param allowed names of the accepted options and flags
+     * @throws IllegalArgumentException if an unknown option or flag was given
+     */
+    public void checkOptions(Set<String> allowed) {
+        for (String name : options.keySet()) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        for (String name : flags) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+    }
+}
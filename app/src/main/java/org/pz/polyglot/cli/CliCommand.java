@@ -0,0 +1,56 @@
+package org.pz.polyglot.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Set;
+
+/**
+ * A subcommand of {@link PolyglotCli}. Commands run after sources and
+ * languages have been discovered and, unless they read translation files
+ * themselves, after all translations have been loaded.
+ */
+interface CliCommand {
+    /**
+     * Returns the name used on the command line.
+     *
+     * @return the command name
+     */
+    String getName();
+
+    /**
+     * Returns the usage lines shown in the help text.
+     *
+     * @return the usage, one option per line
+     */
+    String getUsage();
+
+    /**
+     * Returns the options and flags the command accepts, besides the common
+     * ones.
+     *
+     * @return the option names, without dashes
+     */
+    Set<String> getOptions();
+
+    /**
+     * Returns whether the command works on the loaded translations. Commands
+     * that read translation files themselves skip loading them.
+     *
+     * @return true if all translations are loaded before the command runs
+     */
+    default boolean needsTranslations() {
+        return true;
+    }
+
+    /**
+     * Runs the command.
+     *
+     * @param arguments the parsed command line
+     * @param out       the stream for results
+     * @return the exit code: 0 on success, 1 if problems were found or writing
+     *         failed
+     * @throws IOException              if an output file cannot be written
+     * @throws IllegalArgumentException if an option value is invalid
+     */
+    int run(CliArguments arguments, PrintStream out) throws IOException;
+}
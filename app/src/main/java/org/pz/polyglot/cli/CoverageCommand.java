@@ -0,0 +1,222 @@
+package org.pz.polyglot.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.translations.PZCoverageStats;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslations;
+import org.pz.polyglot.utils.CsvUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Reports, per language, how many keys of the reference language have a
+ * translation. Works on the variant columns only, so no variant objects or
+ * texts are created.
+ */
+final class CoverageCommand implements CliCommand {
+    /**
+     * Coverage of one language.
+     *
+     * @param language   the language code
+     * @param translated the number of reference keys translated to the language
+     * @param total      the number of reference keys
+     */
+    record Row(String language, int translated, int total) {
+        /**
+         * Returns the coverage in percent.
+         *
+         * @return the percentage of translated keys, 100 if there are no keys
+         */
+        double percent() {
+            return total == 0 ? 100.0 : translated * 100.0 / total;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "coverage";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  coverage             translation coverage per language
+                    --reference CODE   language all keys are counted from (default EN)
+                    --language CODES   languages to report (default all)
+                    --source NAMES     sources to count (default all)
+                    --type TYPES       translation types to count (default all)
+                    --format FORMAT    text, csv or json (default text)
+                    --by-source        report every source and type separately""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        Set<String> options = new HashSet<>(VariantSelection.OPTIONS);
+        options.add("reference");
+        options.add("format");
+        options.add("by-source");
+        return options;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) throws IOException {
+        String reference = arguments.getOption("reference").orElse("EN");
+        OutputFormat format = OutputFormat.parse(arguments.getOption("format").orElse("text"),
+                OutputFormat.TEXT, OutputFormat.CSV, OutputFormat.JSON);
+        if (arguments.hasFlag("by-source")) {
+            return runBySource(reference, format, VariantSelection.from(arguments), out);
+        }
+        List<Row> rows = compute(PZTranslations.getInstance().getAllTranslations().values(), reference,
+                VariantSelection.from(arguments));
+        switch (format) {
+            case TEXT -> {
+                out.printf("%-10s %10s %10s %9s%n", "Language", "Translated", "Total", "Coverage");
+                for (Row row : rows) {
+                    out.printf(Locale.ROOT, "%-10s %10d %10d %8.1f%%%n", row.language(), row.translated(),
+                            row.total(), row.percent());
+                }
+            }
+            case CSV -> {
+                out.println(CsvUtils.line("language", "translated", "total", "coverage"));
+                for (Row row : rows) {
+                    out.println(CsvUtils.line(row.language(), row.translated(), row.total(),
+                            String.format(Locale.ROOT, "%.2f", row.percent())));
+                }
+            }
+            case JSON -> {
+                List<Map<String, Object>> objects = new ArrayList<>();
+                for (Row row : rows) {
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    object.put("language", row.language());
+                    object.put("translated", row.translated());
+                    object.put("total", row.total());
+                    object.put("coverage", Math.round(row.percent() * 100) / 100.0);
+                    objects.add(object);
+                }
+                out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValueAsString(objects));
+            }
+        }
+        return PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Prints the coverage matrix of {@link PZCoverageStats}, one line per
+     * source, type and language.
+     *
+     * @param reference the reference language code
+     * @param format    the output format
+     * @param selection the selected sources, types and languages
+     * @param out       the stream to print to
+     * @return the exit code
+     * @throws IOException if JSON output fails
+     */
+    private static int runBySource(String reference, OutputFormat format, VariantSelection selection,
+            PrintStream out) throws IOException {
+        PZCoverageStats stats = PZCoverageStats.getInstance();
+        stats.setReference(reference);
+        List<PZCoverageStats.Cell> cells = stats.getCells().stream()
+                .filter(cell -> selection.acceptsFile(cell.source(), cell.type()))
+                .filter(cell -> selection.languages().isEmpty() || selection.languages().contains(cell.language()))
+                .toList();
+        switch (format) {
+            case TEXT -> {
+                out.printf("%-32s %-12s %-8s %8s %10s %8s %9s%n", "Source", "Type", "Language", "Keys",
+                        "Translated", "Missing", "Coverage");
+                for (PZCoverageStats.Cell cell : cells) {
+                    out.printf(Locale.ROOT, "%-32s %-12s %-8s %8d %10d %8d %8.1f%%%n", cell.source().getName(),
+                            Objects.toString(cell.type(), ""), cell.language(), cell.referenceKeys(),
+                            cell.translated(), cell.missing(), cell.percent());
+                }
+            }
+            case CSV -> out.print(PZCoverageStats.toCsv(cells));
+            case JSON -> {
+                List<Map<String, Object>> objects = new ArrayList<>();
+                for (PZCoverageStats.Cell cell : cells) {
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    object.put("source", cell.source().getName());
+                    object.put("type", Objects.toString(cell.type(), null));
+                    object.put("language", cell.language());
+                    object.put("referenceKeys", cell.referenceKeys());
+                    object.put("keys", cell.keys());
+                    object.put("translated", cell.translated());
+                    object.put("missing", cell.missing());
+                    object.put("coverage", Math.round(cell.percent() * 100) / 100.0);
+                    objects.add(object);
+                }
+                out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValueAsString(objects));
+            }
+        }
+        return PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Computes the coverage of every selected language. A key counts if it has
+     * a reference variant in a selected source and type; it is translated to a
+     * language if it also has a selected variant in that language. As in
+     * {@link PZCoverageStats}, only variants with saved, non-empty text count.
+     *
+     * @param entries   the translation entries
+     * @param reference the reference language code
+     * @param selection the selected variants
+     * @return one row per language, the reference first and the rest by code
+     */
+    static List<Row> compute(Collection<PZTranslationEntry> entries, String reference,
+            VariantSelection selection) {
+        int total = 0;
+        Map<String, Integer> translated = new TreeMap<>();
+        for (String code : selection.languages()) {
+            translated.put(code, 0);
+        }
+        Set<String> keyLanguages = new HashSet<>();
+        for (PZTranslationEntry entry : entries) {
+            boolean hasReference = false;
+            keyLanguages.clear();
+            for (int i = 0; i < entry.getVariantCount(); i++) {
+                PZLanguage language = entry.getVariantLanguage(i);
+                if (language == null || !entry.hasSavedVariantText(i)
+                        || !selection.acceptsFile(entry.getVariantSource(i), entry.getVariantType(i))) {
+                    continue;
+                }
+                if (language.getCode().equals(reference)) {
+                    hasReference = true;
+                }
+                if (selection.acceptsLanguage(language)) {
+                    keyLanguages.add(language.getCode());
+                    translated.putIfAbsent(language.getCode(), 0);
+                }
+            }
+            if (hasReference) {
+                total++;
+                for (String code : keyLanguages) {
+                    translated.merge(code, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Row> rows = new ArrayList<>(translated.size());
+        Integer referenceCount = translated.remove(reference);
+        if (referenceCount != null) {
+            rows.add(new Row(reference, referenceCount, total));
+        }
+        for (Map.Entry<String, Integer> language : translated.entrySet()) {
+            rows.add(new Row(language.getKey(), language.getValue(), total));
+        }
+        return rows;
+    }
+}
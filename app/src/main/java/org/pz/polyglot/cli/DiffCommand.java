@@ -0,0 +1,186 @@
+package org.pz.polyglot.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import org.pz.polyglot.Config;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.PZSources;
+import org.pz.polyglot.models.translations.PZTranslationDiff;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.structs.SemanticVersion;
+import org.pz.polyglot.utils.CsvUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Reports the keys added, removed and changed between the Build 41 and Build
+ * 42 sources of a mod, or between two game installs, per language and type.
+ * See {@link PZTranslationDiff}.
+ */
+final class DiffCommand implements CliCommand {
+    @Override
+    public String getName() {
+        return "diff";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  diff                 keys added, removed and changed between two builds
+                    --mod NAME         compare the [41] and [42] sources of a mod
+                    --from PATH        older game directory, compared with --to
+                    --to PATH          newer game directory (default the configured game)
+                    --language CODES   languages to compare (default all)
+                    --type TYPES       translation types to compare (default all)
+                    --format FORMAT    text, csv or json (default text)""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        return Set.of("mod", "from", "to", "language", "type", "format");
+    }
+
+    @Override
+    public boolean needsTranslations() {
+        // Both sides are read from disk by PZTranslationDiff.Snapshot
+        return false;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) throws IOException {
+        OutputFormat format = OutputFormat.parse(arguments.getOption("format").orElse("text"),
+                OutputFormat.TEXT, OutputFormat.CSV, OutputFormat.JSON);
+        VariantSelection selection = VariantSelection.from(arguments);
+        Optional<String> mod = arguments.getOption("mod");
+        Optional<String> from = arguments.getOption("from");
+        if (mod.isPresent() == from.isPresent()) {
+            throw new IllegalArgumentException("Expected either --mod or --from");
+        }
+
+        List<PZSource> older;
+        List<PZSource> newer;
+        if (mod.isPresent()) {
+            older = modSources(mod.get(), 41);
+            newer = modSources(mod.get(), 42);
+            if (older.isEmpty() && newer.isEmpty()) {
+                throw new IllegalArgumentException("Unknown mod: " + mod.get());
+            }
+        } else {
+            older = List.of(gameSource(from.get()));
+            newer = List.of(gameSource(arguments.getOption("to").orElse(Config.getInstance().getGamePath())));
+        }
+
+        BiPredicate<PZLanguage, PZTranslationType> selected = (language, type) -> selection.acceptsLanguage(language)
+                && selection.acceptsType(type);
+        List<PZTranslationDiff.Difference> differences = PZTranslationDiff.compare(
+                PZTranslationDiff.Snapshot.read(older, selected), PZTranslationDiff.Snapshot.read(newer, selected));
+        switch (format) {
+            case TEXT -> printText(differences, out);
+            case CSV -> {
+                out.println(CsvUtils.line("language", "type", "key", "change", "old_text", "new_text"));
+                for (PZTranslationDiff.Difference difference : differences) {
+                    out.println(CsvUtils.line(difference.language(), difference.type(), difference.key(),
+                            difference.change(), Objects.toString(difference.oldText(), ""),
+                            Objects.toString(difference.newText(), "")));
+                }
+            }
+            case JSON -> {
+                List<Map<String, Object>> objects = new ArrayList<>();
+                for (PZTranslationDiff.Difference difference : differences) {
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    object.put("language", difference.language());
+                    object.put("type", difference.type().toString());
+                    object.put("key", difference.key());
+                    object.put("change", difference.change().name());
+                    object.put("old", difference.oldText());
+                    object.put("new", difference.newText());
+                    objects.add(object);
+                }
+                out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValueAsString(objects));
+            }
+        }
+        return PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Prints the differences grouped by language and type, each group headed
+     * by its counts.
+     *
+     * @param differences the differences, ordered by language, type and key
+     * @param out         the stream to print to
+     */
+    private static void printText(List<PZTranslationDiff.Difference> differences, PrintStream out) {
+        int start = 0;
+        while (start < differences.size()) {
+            PZTranslationDiff.Difference first = differences.get(start);
+            int end = start;
+            Map<PZTranslationDiff.Change, Integer> counts = new EnumMap<>(PZTranslationDiff.Change.class);
+            while (end < differences.size() && differences.get(end).language().equals(first.language())
+                    && differences.get(end).type() == first.type()) {
+                counts.merge(differences.get(end).change(), 1, Integer::sum);
+                end++;
+            }
+            out.println(first.language() + " " + first.type() + ": "
+                    + counts.getOrDefault(PZTranslationDiff.Change.ADDED, 0) + " added, "
+                    + counts.getOrDefault(PZTranslationDiff.Change.REMOVED, 0) + " removed, "
+                    + counts.getOrDefault(PZTranslationDiff.Change.CHANGED, 0) + " changed");
+            for (PZTranslationDiff.Difference difference : differences.subList(start, end)) {
+                switch (difference.change()) {
+                    case ADDED -> out.println("  + " + difference.key() + " = " + difference.newText());
+                    case REMOVED -> out.println("  - " + difference.key() + " = " + difference.oldText());
+                    case CHANGED -> out.println("  ~ " + difference.key() + " = " + difference.oldText() + " -> "
+                            + difference.newText());
+                }
+            }
+            start = end;
+        }
+        out.println(differences.size() + " differences");
+    }
+
+    /**
+     * Returns the loaded sources of one build of a mod, in load order.
+     *
+     * @param mod   the mod name
+     * @param build the major build
+     * @return the sources, possibly empty
+     */
+    private static List<PZSource> modSources(String mod, int build) {
+        String name = mod + " [" + build + "]";
+        return PZSources.getInstance().getSources().stream().filter(source -> source.getName().equals(name))
+                .toList();
+    }
+
+    /**
+     * Creates a source for the translations of a game directory. Game files
+     * are always read as Build 42, like {@link PZSources} does.
+     *
+     * @param gamePath the game directory
+     * @return the source
+     * @throws IllegalArgumentException if the directory has no translations
+     */
+    private static PZSource gameSource(String gamePath) {
+        if (gamePath == null || gamePath.isEmpty()) {
+            throw new IllegalArgumentException("No game directory configured, use --to");
+        }
+        Path translatePath = Path.of(gamePath, "media", "lua", "shared", "Translate");
+        if (!Files.isDirectory(translatePath)) {
+            throw new IllegalArgumentException("No translations in game directory: " + gamePath);
+        }
+        return new PZSource("Game Files", new SemanticVersion("42"), translatePath, false, 0);
+    }
+}
@@ -0,0 +1,113 @@
+package org.pz.polyglot.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.translations.PZTranslationExporter;
+import org.pz.polyglot.models.translations.PZTranslations;
+
+/**
+ * Writes the selected translations through {@link PZTranslationExporter}.
+ * CSV and JSON formats write one row per variant: key, language, source, type
+ * and text, ordered by key, then by source priority. XLIFF and PO pair the
+ * reference texts with the texts of one target language.
+ */
+final class ExportCommand implements CliCommand {
+    /** Format names accepted by {@code --format}. */
+    private static final Map<String, PZTranslationExporter.Format> FORMATS = Map.of(
+            "csv", PZTranslationExporter.Format.CSV,
+            "json", PZTranslationExporter.Format.JSON,
+            "jsonl", PZTranslationExporter.Format.JSON_LINES,
+            "xliff", PZTranslationExporter.Format.XLIFF,
+            "po", PZTranslationExporter.Format.PO);
+
+    @Override
+    public String getName() {
+        return "export";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  export               export translations
+                    --output FILE      file to write (default standard output)
+                    --format FORMAT    csv, json, jsonl, xliff or po (default csv)
+                    --language CODES   languages to export (default all); exactly one for xliff and po
+                    --reference CODE   language of the source texts for xliff and po (default EN)
+                    --source NAMES     sources to export (default all)
+                    --type TYPES       translation types to export (default all)""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        Set<String> options = new HashSet<>(VariantSelection.OPTIONS);
+        options.add("output");
+        options.add("format");
+        options.add("reference");
+        return options;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) throws IOException {
+        String name = arguments.getOption("format").orElse("csv");
+        PZTranslationExporter.Format format = FORMATS.get(name.toLowerCase(Locale.ROOT));
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported format: " + name
+                    + " (expected csv, json, jsonl, xliff, po)");
+        }
+        VariantSelection selection = VariantSelection.from(arguments);
+        PZLanguage reference = null;
+        PZLanguage target = null;
+        if (format.isBilingual()) {
+            reference = language(arguments.getOption("reference").orElse("EN"));
+            if (selection.languages().size() != 1) {
+                throw new IllegalArgumentException(format.getLabel()
+                        + " holds one target language, choose it with --language");
+            }
+            target = language(selection.languages().iterator().next());
+        }
+
+        Optional<Path> output = arguments.getOption("output").map(Path::of);
+        OutputStream stream = output.isPresent() ? Files.newOutputStream(output.get()) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        int rows;
+        try {
+            rows = PZTranslationExporter.export(PZTranslations.getInstance().getAllTranslations().values(), format,
+                    selection::accepts, reference, target, writer);
+        } finally {
+            // Standard output stays open for the caller
+            if (output.isPresent()) {
+                writer.close();
+            }
+        }
+        Logger.info("Exported " + rows + " translations" + output.map(path -> " to " + path).orElse(""));
+        return PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Looks up a language by code.
+     *
+     * @param code the language code
+     * @return the language
+     * @throws IllegalArgumentException if the language is unknown
+     */
+    private static PZLanguage language(String code) {
+        return PZLanguages.getInstance().getLanguage(code)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown language: " + code));
+    }
+}
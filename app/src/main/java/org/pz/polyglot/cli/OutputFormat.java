@@ -0,0 +1,38 @@
+package org.pz.polyglot.cli;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Output formats of the reporting commands.
+ */
+enum OutputFormat {
+    /** Aligned columns for reading in a terminal. */
+    TEXT,
+    /** Comma-separated values with a header row. */
+    CSV,
+    /** A JSON array of objects. */
+    JSON;
+
+    /**
+     * Parses a format name.
+     *
+     * @param name    the format name, case-insensitive
+     * @param allowed the formats the command supports
+     * @return the format
+     * @throws IllegalArgumentException if the name is not one of the allowed
+     *                                  formats
+     */
+    static OutputFormat parse(String name, OutputFormat... allowed) {
+        for (OutputFormat format : allowed) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name + " (expected "
+                + Arrays.stream(allowed).map(format -> format.name().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.joining(", "))
+                + ")");
+    }
+}
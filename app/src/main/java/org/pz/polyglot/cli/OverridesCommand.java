@@ -0,0 +1,151 @@
+package org.pz.polyglot.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationOverrides;
+import org.pz.polyglot.models.translations.PZTranslations;
+import org.pz.polyglot.utils.CsvUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Reports keys that several sources define for the same language and game
+ * build, with the definition the game uses and the ones it shadows. See
+ * {@link PZTranslationOverrides} for how the effective definition is chosen.
+ */
+final class OverridesCommand implements CliCommand {
+    @Override
+    public String getName() {
+        return "overrides";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  overrides            keys defined by several sources and the definition that wins
+                    --language CODES   languages to report (default all)
+                    --source NAMES     sources whose definitions count (default all)
+                    --type TYPES       types of the winning definitions to report (default all)
+                    --format FORMAT    text, csv or json (default text)
+                    --differing        report only definitions whose texts differ""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        Set<String> options = new HashSet<>(VariantSelection.OPTIONS);
+        options.add("format");
+        options.add("differing");
+        return options;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) throws IOException {
+        OutputFormat format = OutputFormat.parse(arguments.getOption("format").orElse("text"),
+                OutputFormat.TEXT, OutputFormat.CSV, OutputFormat.JSON);
+        List<PZTranslationOverrides.Resolution> resolutions = compute(
+                PZTranslations.getInstance().getAllTranslations().values(), VariantSelection.from(arguments),
+                arguments.hasFlag("differing"));
+        switch (format) {
+            case TEXT -> {
+                for (PZTranslationOverrides.Resolution resolution : resolutions) {
+                    out.println(resolution.key() + " [" + resolution.language() + ", build " + resolution.build()
+                            + "]: " + describe(resolution.effective()) + " overrides "
+                            + resolution.shadowed().stream().map(OverridesCommand::describe)
+                                    .collect(Collectors.joining(", "))
+                            + (resolution.isAmbiguous() ? " (same priority, decided by mod load order)" : ""));
+                }
+                out.println(resolutions.size() + " overridden definitions");
+            }
+            case CSV -> {
+                out.println(CsvUtils.line("key", "language", "build", "source", "type", "text",
+                        "shadowed_sources", "ambiguous", "differs"));
+                for (PZTranslationOverrides.Resolution resolution : resolutions) {
+                    PZTranslationOverrides.Definition effective = resolution.effective();
+                    out.println(CsvUtils.line(resolution.key(), resolution.language(), resolution.build(),
+                            effective.source().getName(), Objects.toString(effective.type(), ""),
+                            Objects.toString(effective.text(), ""),
+                            resolution.shadowed().stream().map(definition -> definition.source().getName())
+                                    .collect(Collectors.joining("; ")),
+                            resolution.isAmbiguous(), resolution.differs()));
+                }
+            }
+            case JSON -> {
+                List<Map<String, Object>> objects = new ArrayList<>();
+                for (PZTranslationOverrides.Resolution resolution : resolutions) {
+                    Map<String, Object> object = new LinkedHashMap<>();
+                    object.put("key", resolution.key());
+                    object.put("language", resolution.language());
+                    object.put("build", resolution.build());
+                    object.put("effective", toJson(resolution.effective()));
+                    object.put("shadowed", resolution.shadowed().stream().map(OverridesCommand::toJson).toList());
+                    object.put("ambiguous", resolution.isAmbiguous());
+                    object.put("differs", resolution.differs());
+                    objects.add(object);
+                }
+                out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValueAsString(objects));
+            }
+        }
+        return PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Resolves the selected entries in parallel.
+     *
+     * @param entries       the translation entries
+     * @param selection     the selected languages, sources and types
+     * @param differingOnly whether to keep only resolutions whose texts differ
+     * @return the resolutions, by key, language and build
+     */
+    static List<PZTranslationOverrides.Resolution> compute(Collection<PZTranslationEntry> entries,
+            VariantSelection selection, boolean differingOnly) {
+        return entries.parallelStream()
+                .flatMap(entry -> PZTranslationOverrides.resolve(entry, selection::acceptsSource).stream())
+                .filter(resolution -> selection.languages().isEmpty()
+                        || selection.languages().contains(resolution.language()))
+                .filter(resolution -> selection.acceptsType(resolution.effective().type()))
+                .filter(resolution -> !differingOnly || resolution.differs())
+                .sorted(Comparator.comparing(PZTranslationOverrides.Resolution::key)
+                        .thenComparing(PZTranslationOverrides.Resolution::language)
+                        .thenComparingInt(PZTranslationOverrides.Resolution::build))
+                .toList();
+    }
+
+    /**
+     * Describes a definition for text output.
+     *
+     * @param definition the definition
+     * @return the source name and priority
+     */
+    private static String describe(PZTranslationOverrides.Definition definition) {
+        return definition.source().getName() + " (priority " + definition.source().getPriority() + ")";
+    }
+
+    /**
+     * Converts a definition to a JSON object.
+     *
+     * @param definition the definition
+     * @return the object
+     */
+    private static Map<String, Object> toJson(PZTranslationOverrides.Definition definition) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("source", definition.source().getName());
+        object.put("priority", definition.source().getPriority());
+        object.put("type", Objects.toString(definition.type(), null));
+        object.put("text", definition.text());
+        return object;
+    }
+}
@@ -0,0 +1,184 @@
+package org.pz.polyglot.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.pz.polyglot.Config;
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguageManager;
+import org.pz.polyglot.models.sources.PZSources;
+import org.pz.polyglot.models.translations.PZTranslationManager;
+import org.pz.polyglot.models.translations.PZTranslations;
+
+/**
+ * Headless entry point for batch operations. Loads the configured sources,
+ * languages and translations exactly like the GUI does, but never starts the
+ * JavaFX toolkit, so it is usable in scripts and CI.
+ * <p>
+ * Path options override the saved configuration for one run only; the
+ * configuration file is never written.
+ */
+public final class PolyglotCli {
+    /** Exit code for a successful run. */
+    static final int EXIT_OK = 0;
+    /** Exit code when problems were found or an operation failed. */
+    static final int EXIT_PROBLEMS = 1;
+    /** Exit code for invalid command lines. */
+    static final int EXIT_USAGE = 2;
+
+    /** Options that take no value. */
+    static final Set<String> FLAGS = Set.of("help", "verbose", "dry-run", "by-source", "differing");
+    /** Options accepted by every command. */
+    private static final Set<String> COMMON_OPTIONS = Set.of("help", "verbose", "game", "steam-mods", "cache");
+
+    /** Available commands, in help order. */
+    private static final List<CliCommand> COMMANDS = List.of(
+            new CoverageCommand(),
+            new ExportCommand(),
+            new ValidateCommand(),
+            new OverridesCommand(),
+            new DiffCommand(),
+            new RewriteCommand());
+
+    private PolyglotCli() {
+    }
+
+    /**
+     * Runs a command and exits with its exit code.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        int code = run(args, System.out, System.err);
+        System.out.flush();
+        System.exit(code);
+    }
+
+    /**
+     * Parses the command line, loads all translations if the command needs
+     * them and runs the command.
+     *
+     * @param args command-line arguments
+     * @param out  the stream for command results
+     * @param err  the stream for log lines and error messages
+     * @return the exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Logger.setOutput(err);
+        Logger.enableProductionMode();
+
+        CliArguments arguments;
+        try {
+            arguments = CliArguments.parse(args, FLAGS);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+        if (arguments.getCommand() == null) {
+            printUsage(arguments.hasFlag("help") ? out : err);
+            return arguments.hasFlag("help") ? EXIT_OK : EXIT_USAGE;
+        }
+        Optional<CliCommand> found = findCommand(arguments.getCommand());
+        if (found.isEmpty()) {
+            err.println("Unknown command: " + arguments.getCommand());
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+        CliCommand command = found.get();
+        if (arguments.hasFlag("help")) {
+            out.println(command.getUsage());
+            return EXIT_OK;
+        }
+
+        try {
+            Set<String> allowed = new HashSet<>(COMMON_OPTIONS);
+            allowed.addAll(command.getOptions());
+            arguments.checkOptions(allowed);
+            if (arguments.hasFlag("verbose")) {
+                Logger.enable(Logger.Level.ERROR, Logger.Level.WARNING, Logger.Level.INFO);
+            }
+            configure(arguments);
+            loadTranslations(command.needsTranslations());
+            return command.run(arguments, out);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(command.getUsage());
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_PROBLEMS;
+        } finally {
+            Logger.flush();
+        }
+    }
+
+    /**
+     * Applies the path options to the in-memory configuration. Lazy variant
+     * texts are turned off because commands read texts of every language.
+     *
+     * @param arguments the parsed command line
+     */
+    private static void configure(CliArguments arguments) {
+        Config config = Config.getInstance();
+        config.setLazyVariantTexts(false);
+        arguments.getOption("game").ifPresent(config::setGamePath);
+        arguments.getOption("steam-mods").ifPresent(config::setSteamModsPath);
+        arguments.getOption("cache").ifPresent(config::setCachePath);
+    }
+
+    /**
+     * Discovers sources and languages and loads all translations.
+     *
+     * @param translations whether to load the translations, or only discover
+     *                     sources and languages
+     */
+    private static void loadTranslations(boolean translations) {
+        long startTime = System.nanoTime();
+        PZSources.getInstance();
+        PZLanguageManager.load();
+        if (!translations) {
+            return;
+        }
+        PZTranslationManager.loadFilesFromSources();
+        Logger.info("Loaded " + PZTranslations.getInstance().getAllTranslations().size() + " keys from "
+                + PZSources.getInstance().getSources().size() + " sources in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Finds a command by name.
+     *
+     * @param name the command name
+     * @return the command, or empty if there is none with that name
+     */
+    private static Optional<CliCommand> findCommand(String name) {
+        return COMMANDS.stream().filter(command -> command.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Prints the usage of all commands.
+     *
+     * @param stream the stream to print to
+     */
+    private static void printUsage(PrintStream stream) {
+        stream.println("Usage: pz-polyglot <command> [options]");
+        stream.println();
+        stream.println("Common options:");
+        stream.println("  --game PATH          game directory, overrides the saved setting");
+        stream.println("  --steam-mods PATH    Steam Workshop directory, overrides the saved setting");
+        stream.println("  --cache PATH         Zomboid user directory, overrides the saved setting");
+        stream.println("  --verbose            log loading progress to standard error");
+        stream.println("  --help               show help for a command");
+        stream.println();
+        stream.println("Commands:");
+        for (CliCommand command : COMMANDS) {
+            stream.println(command.getUsage());
+            stream.println();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.pz.polyglot.cli;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationManager;
+import org.pz.polyglot.models.translations.PZTranslationVariant;
+import org.pz.polyglot.models.translations.PZTranslations;
+
+/**
+ * Replaces a regular expression in the texts of the selected translations and
+ * saves the changed files. Only editable sources are rewritten; the game files
+ * and read-only mods are left alone.
+ */
+final class RewriteCommand implements CliCommand {
+    @Override
+    public String getName() {
+        return "rewrite";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  rewrite              replace text in translations and save the files
+                    --find REGEX       regular expression to search for
+                    --replace TEXT     replacement, may use $1-style group references
+                    --dry-run          print the changes without saving
+                    --language CODES   languages to rewrite (default all)
+                    --source NAMES     sources to rewrite (default all editable)
+                    --type TYPES       translation types to rewrite (default all)""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        Set<String> options = new HashSet<>(VariantSelection.OPTIONS);
+        options.add("find");
+        options.add("replace");
+        options.add("dry-run");
+        return options;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) {
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(arguments.getRequiredOption("find"));
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid --find pattern: " + e.getDescription());
+        }
+        String replacement = arguments.getRequiredOption("replace");
+        boolean dryRun = arguments.hasFlag("dry-run");
+        VariantSelection selection = VariantSelection.from(arguments);
+
+        List<PZTranslationEntry> entries = new ArrayList<>(PZTranslations.getInstance().getAllTranslations().values());
+        entries.sort(Comparator.comparing(PZTranslationEntry::getKey));
+        int changed = 0;
+        for (PZTranslationEntry entry : entries) {
+            // Cheap column scan first so untouched entries keep their compact rows
+            if (!entry.anyVariantText(text -> pattern.matcher(text).find())) {
+                continue;
+            }
+            for (PZTranslationVariant variant : entry.getVariants()) {
+                if (!variant.getSource().isEditable() || variant.getLanguage() == null
+                        || !selection.accepts(variant.getSource(), variant.getLanguage(), variant.getType())) {
+                    continue;
+                }
+                String text = variant.getEditedText();
+                Matcher matcher = pattern.matcher(text);
+                if (!matcher.find()) {
+                    continue;
+                }
+                String rewritten;
+                try {
+                    rewritten = matcher.replaceAll(replacement);
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("Invalid --replace text: " + e.getMessage());
+                }
+                if (rewritten.equals(text)) {
+                    continue;
+                }
+                out.println(entry.getKey() + " [" + variant.getLanguage().getCode() + "] "
+                        + variant.getSource().getName() + ": " + quote(text) + " -> " + quote(rewritten));
+                if (!dryRun) {
+                    variant.setEditedText(rewritten);
+                }
+                changed++;
+            }
+        }
+
+        if (changed == 0) {
+            out.println("No translations matched");
+            return PolyglotCli.EXIT_OK;
+        }
+        if (dryRun) {
+            out.println(changed + " translations would change");
+            return PolyglotCli.EXIT_OK;
+        }
+        int failed = 0;
+        for (PZTranslationManager.FileSaveResult result : PZTranslationManager.saveAll()) {
+            if (!result.success()) {
+                out.println("Failed to save " + result.path() + ": " + result.error());
+                failed++;
+            }
+        }
+        out.println("Rewrote " + changed + " translations" + (failed > 0 ? ", " + failed + " files failed" : ""));
+        return failed > 0 ? PolyglotCli.EXIT_PROBLEMS : PolyglotCli.EXIT_OK;
+    }
+
+    /**
+     * Quotes a text for one-line output.
+     *
+     * @param text the text
+     * @return the text in double quotes with line breaks escaped
+     */
+    private static String quote(String text) {
+        return '"' + text.replace("\r", "\\r").replace("\n", "\\n") + '"';
+    }
+}
@@ -0,0 +1,123 @@
+package org.pz.polyglot.cli;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.pz.polyglot.models.translations.PZCharsetStats;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationLint;
+import org.pz.polyglot.models.translations.PZTranslations;
+
+/**
+ * Checks the loaded translations and prints one line per problem:
+ * <ul>
+ * <li>files that could only be decoded with a fallback charset, or not at
+ * all;</li>
+ * <li>keys defined more than once in the same file;</li>
+ * <li>format problems found by {@link PZTranslationLint}: placeholders or
+ * rich-text tags that differ from the reference language, unbalanced quotes
+ * and trailing {@code ..}.</li>
+ * </ul>
+ */
+final class ValidateCommand implements CliCommand {
+    @Override
+    public String getName() {
+        return "validate";
+    }
+
+    @Override
+    public String getUsage() {
+        return """
+                  validate             report charset, duplicate key and format problems
+                    --reference CODE   language placeholders and tags are compared with (default EN)
+                    --language CODES   languages to check (default all)
+                    --source NAMES     sources to check (default all)
+                    --type TYPES       translation types to check (default all)""";
+    }
+
+    @Override
+    public Set<String> getOptions() {
+        Set<String> options = new HashSet<>(VariantSelection.OPTIONS);
+        options.add("reference");
+        return options;
+    }
+
+    @Override
+    public int run(CliArguments arguments, PrintStream out) {
+        String reference = arguments.getOption("reference").orElse("EN");
+        VariantSelection selection = VariantSelection.from(arguments);
+        List<String> problems = new ArrayList<>();
+
+        for (PZCharsetStats.FileReport report : PZCharsetStats.getInstance().getReports()) {
+            if (report.charset() == null) {
+                problems.add("charset: " + report.path() + ": not decodable (" + report.reason() + ")");
+            } else if (report.fallback()) {
+                problems.add("charset: " + report.path() + ": decoded as " + report.charset() + " ("
+                        + report.reason() + ")");
+            }
+        }
+
+        List<PZTranslationEntry> entries = new ArrayList<>(PZTranslations.getInstance().getAllTranslations().values());
+        entries.sort(Comparator.comparing(PZTranslationEntry::getKey));
+        for (PZTranslationEntry entry : entries) {
+            checkDuplicates(entry, selection, problems);
+            checkFormat(entry, reference, selection, problems);
+        }
+
+        problems.forEach(out::println);
+        out.println(problems.isEmpty() ? "No problems found" : problems.size() + " problems found");
+        return problems.isEmpty() ? PolyglotCli.EXIT_OK : PolyglotCli.EXIT_PROBLEMS;
+    }
+
+    /**
+     * Reports variants that come from the same file as an earlier variant of
+     * the entry. Uses the variant columns only.
+     *
+     * @param entry     the entry to check
+     * @param selection the selected variants
+     * @param problems  the list to add problems to
+     */
+    private static void checkDuplicates(PZTranslationEntry entry, VariantSelection selection, List<String> problems) {
+        int count = entry.getVariantCount();
+        if (count < 2) {
+            return;
+        }
+        Set<String> files = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            if (entry.getVariantLanguage(i) == null
+                    || !selection.accepts(entry.getVariantSource(i), entry.getVariantLanguage(i), entry.getVariantType(i))) {
+                continue;
+            }
+            String file = entry.getVariantSourceId(i) + "/" + entry.getVariantLanguageId(i) + "/"
+                    + entry.getVariantType(i);
+            if (!files.add(file)) {
+                problems.add("duplicate: " + entry.getKey() + " [" + entry.getVariantLanguage(i).getCode() + "] in "
+                        + entry.getVariantSource(i).getName() + " (" + entry.getVariantType(i) + ")");
+            }
+        }
+    }
+
+    /**
+     * Reports the format problems of the selected variants. Uses the variant
+     * columns only.
+     *
+     * @param entry     the entry to check
+     * @param reference the reference language code
+     * @param selection the selected variants
+     * @param problems  the list to add problems to
+     */
+    private static void checkFormat(PZTranslationEntry entry, String reference, VariantSelection selection,
+            List<String> problems) {
+        for (PZTranslationLint.Finding finding : PZTranslationLint.check(entry, reference)) {
+            if (selection.accepts(finding.source(), finding.language(), finding.type())) {
+                problems.add(finding.problem().getLabel() + ": " + entry.getKey() + " ["
+                        + finding.language().getCode() + "] in " + finding.source().getName() + " ("
+                        + finding.type() + "): " + finding.detail());
+            }
+        }
+    }
+}
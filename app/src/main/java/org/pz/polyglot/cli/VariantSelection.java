@@ -0,0 +1,100 @@
+package org.pz.polyglot.cli;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.translations.PZTranslationType;
+
+/**
+ * The variants a command works on, from the {@code --language},
+ * {@code --source} and {@code --type} options. An empty set selects
+ * everything.
+ *
+ * @param languages language codes
+ * @param sources   source names; a mod name also selects its
+ *                  {@code "<mod> [<build>]"} sources
+ * @param types     translation types
+ */
+record VariantSelection(Set<String> languages, Set<String> sources, Set<PZTranslationType> types) {
+    /** Options read by {@link #from(CliArguments)}. */
+    static final Set<String> OPTIONS = Set.of("language", "source", "type");
+
+    /**
+     * Reads the selection from the command line.
+     *
+     * @param arguments the parsed command line
+     * @return the selection
+     * @throws IllegalArgumentException if a type is unknown
+     */
+    static VariantSelection from(CliArguments arguments) {
+        Set<PZTranslationType> types = EnumSet.noneOf(PZTranslationType.class);
+        for (String name : arguments.getList("type")) {
+            types.add(PZTranslationType.fromString(name)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown translation type: " + name)));
+        }
+        return new VariantSelection(new HashSet<>(arguments.getList("language")),
+                new HashSet<>(arguments.getList("source")), types);
+    }
+
+    /**
+     * Checks whether a variant is selected.
+     *
+     * @param source   the source of the variant
+     * @param language the language of the variant, may be null
+     * @param type     the type of the variant, may be null
+     * @return true if the variant is selected
+     */
+    boolean accepts(PZSource source, PZLanguage language, PZTranslationType type) {
+        return acceptsLanguage(language) && acceptsFile(source, type);
+    }
+
+    /**
+     * Checks whether a language is selected.
+     *
+     * @param language the language, may be null
+     * @return true if the language is selected
+     */
+    boolean acceptsLanguage(PZLanguage language) {
+        return languages.isEmpty() || (language != null && languages.contains(language.getCode()));
+    }
+
+    /**
+     * Checks whether variants of a source and type are selected, whatever
+     * their language.
+     *
+     * @param source the source
+     * @param type   the type, may be null
+     * @return true if the source and type are selected
+     */
+    boolean acceptsFile(PZSource source, PZTranslationType type) {
+        if (!types.isEmpty() && (type == null || !types.contains(type))) {
+            return false;
+        }
+        return acceptsSource(source);
+    }
+
+    /**
+     * Checks whether variants of a source are selected, whatever their
+     * language and type.
+     *
+     * @param source the source
+     * @return true if the source is selected
+     */
+    boolean acceptsSource(PZSource source) {
+        return sources.isEmpty() || sources.contains(source.getName())
+                || sources.stream().anyMatch(name -> source.getName().startsWith(name + " ["));
+    }
+
+    /**
+     * Checks whether a translation type is selected.
+     *
+     * @param type the type, may be null
+     * @return true if the type is selected
+     */
+    boolean acceptsType(PZTranslationType type) {
+        return types.isEmpty() || (type != null && types.contains(type));
+    }
+}
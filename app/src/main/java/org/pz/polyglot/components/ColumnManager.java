@@ -195,14 +195,15 @@ public class ColumnManager {
     private void createLanguageColumn(String lang, boolean visible) {
         TableColumn<TranslationEntryViewModel, String> col = new TableColumn<>(lang);
         col.setId(lang);
+        int languageId = PZLanguages.getLanguageId(lang);
         col.setCellValueFactory(param -> {
             TranslationEntryViewModel entryViewModel = param.getValue();
             if (entryViewModel == null) {
                 return new SimpleStringProperty("");
             }
 
-            boolean present = entryViewModel.hasTranslationForLanguage(lang);
-            boolean hasChanges = entryViewModel.hasChangesForLanguage(lang);
+            boolean present = entryViewModel.hasTranslationForLanguageId(languageId);
+            boolean hasChanges = entryViewModel.hasChangesForLanguageId(languageId);
 
             String content = "";
             if (present) {
@@ -231,15 +232,9 @@ public class ColumnManager {
                     if (entryViewModel != null) {
                         String filterText = stateManager.filterTextProperty().get();
                         if (filterText != null && !filterText.isBlank()) {
-                            boolean matches = entryViewModel.getVariantViewModels().stream()
-                                    .filter(variant -> {
-                                        var language = variant.getVariant().getLanguage();
-                                        return language != null && lang.equals(language.getCode());
-                                    })
-                                    .anyMatch(variant -> {
-                                        String text = variant.getVariant().getEditedText();
-                                        return text != null && text.toLowerCase().contains(filterText.toLowerCase());
-                                    });
+                            String lowerFilter = filterText.toLowerCase();
+                            boolean matches = entryViewModel.getEntry().anyVariantText(languageId,
+                                    text -> text.toLowerCase().contains(lowerFilter));
                             if (matches) {
                                 getStyleClass().add("highlight-cell");
                             }
@@ -273,14 +268,15 @@ public class ColumnManager {
     private void createLanguageColumnAtEnd(String lang, boolean visible) {
         TableColumn<TranslationEntryViewModel, String> col = new TableColumn<>(lang);
         col.setId(lang);
+        int languageId = PZLanguages.getLanguageId(lang);
         col.setCellValueFactory(param -> {
             TranslationEntryViewModel entryViewModel = param.getValue();
             if (entryViewModel == null) {
                 return new SimpleStringProperty("");
             }
 
-            boolean present = entryViewModel.hasTranslationForLanguage(lang);
-            boolean hasChanges = entryViewModel.hasChangesForLanguage(lang);
+            boolean present = entryViewModel.hasTranslationForLanguageId(languageId);
+            boolean hasChanges = entryViewModel.hasChangesForLanguageId(languageId);
 
             String content = "";
             if (present) {
@@ -309,15 +305,9 @@ public class ColumnManager {
                     if (entryViewModel != null) {
                         String filterText = stateManager.filterTextProperty().get();
                         if (filterText != null && !filterText.isBlank()) {
-                            boolean matches = entryViewModel.getVariantViewModels().stream()
-                                    .filter(variant -> {
-                                        var language = variant.getVariant().getLanguage();
-                                        return language != null && lang.equals(language.getCode());
-                                    })
-                                    .anyMatch(variant -> {
-                                        String text = variant.getVariant().getEditedText();
-                                        return text != null && text.toLowerCase().contains(filterText.toLowerCase());
-                                    });
+                            String lowerFilter = filterText.toLowerCase();
+                            boolean matches = entryViewModel.getEntry().anyVariantText(languageId,
+                                    text -> text.toLowerCase().contains(lowerFilter));
                             if (matches) {
                                 getStyleClass().add("highlight-cell");
                             }
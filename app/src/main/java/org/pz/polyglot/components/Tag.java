@@ -24,7 +24,9 @@ public class Tag extends StackPane {
         /** Blue theme for the tag. */
         BLUE("blue"),
         /** Purple theme for the tag. */
-        PURPLE("purple");
+        PURPLE("purple"),
+        /** Red theme for the tag, used for warnings. */
+        RED("red");
 
         /** CSS class name for the theme. */
         private final String tag;
@@ -1,12 +1,16 @@
 package org.pz.polyglot.components;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.SetChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToolBar;
@@ -15,8 +19,14 @@ import javafx.stage.Stage;
 import org.pz.polyglot.State;
 import org.pz.polyglot.components.addKeyDialog.AddKeyDialogManager;
 import org.pz.polyglot.components.addModDialog.AddModDialogManager;
+import org.pz.polyglot.components.coverageDialog.CoverageDialogManager;
+import org.pz.polyglot.components.exportDialog.ExportDialogManager;
 import org.pz.polyglot.models.TranslationSession;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationLint;
 import org.pz.polyglot.models.translations.PZTranslationManager;
+import org.pz.polyglot.models.translations.PZTranslationMemory;
+import org.pz.polyglot.models.translations.PZTranslationOverrides;
 import org.pz.polyglot.models.translations.PZTranslationVariant;
 import org.pz.polyglot.models.translations.PZTranslations;
 import org.pz.polyglot.utils.FolderUtils;
@@ -40,6 +50,12 @@ public class ToolbarComponent extends ToolBar {
     /** Button for saving all translation variants. Disabled if no changes. */
     @FXML
     private Button saveAllToolbarButton;
+    /** Button for opening the translation coverage dialog. */
+    @FXML
+    private Button coverageButton;
+    /** Button for opening the translation export dialog. */
+    @FXML
+    private Button exportButton;
     /** Toggle button for showing/hiding the Types panel. */
     @FXML
     private ToggleButton typesButton;
@@ -49,6 +65,12 @@ public class ToolbarComponent extends ToolBar {
     /** Toggle button for showing/hiding the Languages panel. */
     @FXML
     private ToggleButton languagesButton;
+    /** Toggle button for showing only keys with format problems. */
+    @FXML
+    private ToggleButton problemsButton;
+    /** Toggle button for showing only keys defined by several sources. */
+    @FXML
+    private ToggleButton overriddenButton;
 
     /** Application state manager singleton. */
     private final State stateManager = State.getInstance();
@@ -86,7 +108,8 @@ public class ToolbarComponent extends ToolBar {
             Stage stage = (Stage) addKeyButton.getScene().getWindow();
             String newKey = AddKeyDialogManager.showAddKeyDialog(stage);
             if (newKey != null && !newKey.trim().isEmpty()) {
-                PZTranslations.getInstance().getOrCreateTranslation(newKey.trim());
+                PZTranslationEntry entry = PZTranslations.getInstance().getOrCreateTranslation(newKey.trim());
+                PZTranslationMemory.getInstance().updateInBackground(List.of(entry));
                 stateManager.requestTableRebuild();
             }
         });
@@ -99,9 +122,22 @@ public class ToolbarComponent extends ToolBar {
 
         // Save All button: saves all translation variants and updates state
         saveAllToolbarButton.setOnAction(e -> {
-            PZTranslationManager.saveAll();
+            List<PZTranslationManager.FileSaveResult> results = PZTranslationManager.saveAll();
             stateManager.updateHasChangesFromSession();
             stateManager.triggerSaveAllEvent();
+            showSaveFailures(results);
+        });
+
+        // Coverage button: opens the coverage matrix
+        coverageButton.setOnAction(e -> {
+            Stage stage = (Stage) coverageButton.getScene().getWindow();
+            CoverageDialogManager.showCoverageDialog(stage);
+        });
+
+        // Export button: opens the export dialog
+        exportButton.setOnAction(e -> {
+            Stage stage = (Stage) exportButton.getScene().getWindow();
+            ExportDialogManager.showExportDialog(stage);
         });
 
         // Types panel toggle: updates visibility state
@@ -125,6 +161,18 @@ public class ToolbarComponent extends ToolBar {
             stateManager.setLanguagesPanelVisible(show);
         });
 
+        // Problems toggle: shows only keys with format problems
+        problemsButton.selectedProperty().bindBidirectional(stateManager.problemsOnlyProperty());
+        PZTranslationLint.getInstance().revisionProperty()
+                .addListener(observable -> Platform.runLater(this::updateProblemsButtonText));
+        updateProblemsButtonText();
+
+        // Overridden toggle: shows only keys whose definitions shadow each other
+        overriddenButton.selectedProperty().bindBidirectional(stateManager.overriddenOnlyProperty());
+        PZTranslationOverrides.getInstance().revisionProperty()
+                .addListener(observable -> Platform.runLater(this::updateOverriddenButtonText));
+        updateOverriddenButtonText();
+
         // Update button text when selected types change
         stateManager.selectedTypesChangedProperty().addListener((obs, oldVal, newVal) -> updateTypesButtonText());
         updateTypesButtonText();
@@ -197,4 +245,41 @@ public class ToolbarComponent extends ToolBar {
         int count = stateManager.getVisibleLanguages().size();
         languagesButton.setText("Languages (" + count + ")");
     }
+
+    /**
+     * Updates the Problems button text to reflect the number of keys with
+     * format problems.
+     */
+    private void updateProblemsButtonText() {
+        int count = PZTranslationLint.getInstance().getProblemEntryCount();
+        problemsButton.setText("Problems (" + count + ")");
+    }
+
+    /**
+     * Updates the Overridden button text to reflect the number of keys defined
+     * by several enabled sources.
+     */
+    private void updateOverriddenButtonText() {
+        int count = PZTranslationOverrides.getInstance().getOverriddenCount();
+        overriddenButton.setText("Overridden (" + count + ")");
+    }
+
+    /**
+     * Shows an error dialog listing the files that could not be saved.
+     *
+     * @param results the per-file save results
+     */
+    private void showSaveFailures(List<PZTranslationManager.FileSaveResult> results) {
+        List<PZTranslationManager.FileSaveResult> failed = results.stream().filter(r -> !r.success()).toList();
+        if (failed.isEmpty()) {
+            return;
+        }
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Save Failed");
+        alert.setHeaderText(failed.size() + " of " + results.size() + " files could not be saved");
+        alert.setContentText(failed.stream()
+                .map(r -> r.path() + ": " + r.error())
+                .collect(Collectors.joining("\n")));
+        alert.showAndWait();
+    }
 }
@@ -22,14 +22,17 @@ import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.FlowPane;
 
 import org.pz.polyglot.State;
 import org.pz.polyglot.models.languages.PZLanguage;
 import org.pz.polyglot.models.languages.PZLanguages;
 import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.translations.PZCoverageStats;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationMemory;
 import org.pz.polyglot.models.translations.PZTranslationType;
-import org.pz.polyglot.models.translations.PZTranslationVariant;
 import org.pz.polyglot.models.translations.PZTranslations;
 import org.pz.polyglot.viewModels.TranslationEntryViewModel;
 import org.pz.polyglot.viewModels.TranslationVariantViewModel;
@@ -58,6 +61,9 @@ public class TranslationPanel extends VBox {
             List<TranslationVariantField> variantFields) {
     }
 
+    /** Number of translation memory suggestions shown per language. */
+    private static final int MAX_SUGGESTIONS = 3;
+
     /** Title label for the panel header. */
     private final Label panelTitleLabel;
     /** Button to close the translation panel. */
@@ -278,6 +284,12 @@ public class TranslationPanel extends VBox {
             languageFieldsContainer.getChildren().add(sourceGroup.container());
         }
 
+        // Offer translations of similar texts from other keys
+        VBox suggestionsSection = createSuggestionsSection(visibleLanguageCodes);
+        if (!suggestionsSection.getChildren().isEmpty()) {
+            languageFieldsContainer.getChildren().add(suggestionsSection);
+        }
+
         // Create active languages section for adding new variants
         VBox activeLanguagesSection = createActiveLanguagesSection();
 
@@ -346,6 +358,53 @@ public class TranslationPanel extends VBox {
         return new SourceGroup(sourceName, sourceHeader, sourceContainer, variantFields);
     }
 
+    /**
+     * Creates a section with translation memory suggestions for each visible
+     * language: translations of keys whose English text is similar to this
+     * key's. Clicking a suggestion copies it to the clipboard.
+     * 
+     * @param languageCodes the visible language codes
+     * @return VBox with the suggestions, without children if there are none
+     */
+    private VBox createSuggestionsSection(List<String> languageCodes) {
+        VBox sectionContainer = new VBox();
+        sectionContainer.getStyleClass().add("translation-panel-suggestions-section");
+
+        PZTranslationMemory memory = PZTranslationMemory.getInstance();
+        for (String langCode : languageCodes) {
+            List<PZTranslationMemory.Suggestion> suggestions = memory.suggest(currentEntryViewModel.getEntry(),
+                    langCode, MAX_SUGGESTIONS);
+            for (PZTranslationMemory.Suggestion suggestion : suggestions) {
+                Label languageLabel = new Label(langCode);
+                languageLabel.getStyleClass().add("translation-panel-suggestion-language");
+                Label similarityLabel = new Label(Math.round(suggestion.similarity() * 100) + "%");
+                similarityLabel.getStyleClass().add("translation-panel-suggestion-similarity");
+                Label textLabel = new Label(suggestion.translation());
+                textLabel.getStyleClass().add("translation-panel-suggestion-text");
+                textLabel.setWrapText(true);
+                HBox.setHgrow(textLabel, Priority.ALWAYS);
+
+                HBox row = new HBox(6, languageLabel, similarityLabel, textLabel);
+                row.getStyleClass().add("translation-panel-suggestion");
+                Tooltip.install(row, new Tooltip(suggestion.key() + ": " + suggestion.sourceText()
+                        + "\nClick to copy the translation"));
+                row.setOnMouseClicked(e -> {
+                    var content = new javafx.scene.input.ClipboardContent();
+                    content.putString(suggestion.translation());
+                    javafx.scene.input.Clipboard.getSystemClipboard().setContent(content);
+                });
+                sectionContainer.getChildren().add(row);
+            }
+        }
+
+        if (!sectionContainer.getChildren().isEmpty()) {
+            Label headerLabel = new Label("Similar translations:");
+            headerLabel.getStyleClass().add("translation-panel-source-header");
+            sectionContainer.getChildren().add(0, headerLabel);
+        }
+        return sectionContainer;
+    }
+
     /**
      * Creates a section showing active languages (languages that are currently
      * selected in the state manager)
@@ -495,18 +554,11 @@ public class TranslationPanel extends VBox {
             Charset charset = language.getCharset(source.getVersion())
                     .orElse(StandardCharsets.UTF_8);
 
-            // Create new translation variant
-            PZTranslationVariant newVariant = new PZTranslationVariant(
-                    currentEntryViewModel.getEntry(),
-                    source,
-                    language,
-                    type,
-                    "", // Empty initial text
-                    charset,
-                    charset);
-
-            // Add the variant to the entry
-            currentEntryViewModel.getEntry().getVariants().add(newVariant);
+            // Add a variant with empty initial text; the entry rechecks lint and overrides
+            PZTranslationEntry entry = currentEntryViewModel.getEntry();
+            PZCoverageStats.getInstance().update(entry,
+                    () -> entry.addVariant(source, language, type, "", charset));
+            PZTranslationMemory.getInstance().updateInBackground(List.of(entry));
 
             // Refresh the view model and UI
             currentEntryViewModel.refresh();
@@ -1,7 +1,8 @@
 package org.pz.polyglot.components;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.io.IOException;
 
 import javafx.collections.FXCollections;
@@ -16,13 +17,13 @@ import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
-import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 
 import org.pz.polyglot.Logger;
 import org.pz.polyglot.State;
 import org.pz.polyglot.models.TranslationSession;
 import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationOverrides;
 import org.pz.polyglot.models.translations.PZTranslations;
 import org.pz.polyglot.viewModels.TranslationEntryViewModel;
 import org.pz.polyglot.viewModels.registries.TranslationEntryViewModelRegistry;
@@ -33,14 +34,25 @@ import org.pz.polyglot.viewModels.registries.TranslationEntryViewModelRegistry;
  */
 public class TranslationTable extends TableView<TranslationEntryViewModel> {
     /**
-     * Backing list for all translation entry view models.
+     * Backing list for the translation entry view models that pass the filter.
      */
     private final ObservableList<TranslationEntryViewModel> backingList = FXCollections.observableArrayList();
 
     /**
-     * Filtered list for table virtualization and filtering.
+     * View models for all translation entries, in model order.
      */
-    private FilteredList<TranslationEntryViewModel> filteredTableItems;
+    private final List<TranslationEntryViewModel> allViewModels = new ArrayList<>();
+
+    /**
+     * Computes filter results off the JavaFX thread.
+     */
+    private final TranslationTableFilter tableFilter = new TranslationTableFilter();
+
+    /**
+     * Whether a filter result is being published, so selection changes are not
+     * reported to the global state.
+     */
+    private boolean publishingFilterResult;
 
     /**
      * Sorted list for table virtualization and sorting.
@@ -90,8 +102,7 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
      * Also listens for selection changes to update global state.
      */
     private void setupTableVirtualization() {
-        filteredTableItems = new FilteredList<>(backingList, p -> true);
-        sortedTableItems = new SortedList<>(filteredTableItems);
+        sortedTableItems = new SortedList<>(backingList);
         sortedTableItems.comparatorProperty().bind(comparatorProperty());
         setItems(sortedTableItems);
         setRowFactory(tableView -> {
@@ -136,7 +147,7 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
 
         // Listen for selection changes to support keyboard navigation and update state
         getSelectionModel().selectedItemProperty().addListener((obs, oldItem, newItem) -> {
-            if (newItem != null) {
+            if (newItem != null && !publishingFilterResult) {
                 String newKey = newItem.getKey();
                 stateManager.setSelectedTranslationKey(newKey);
                 stateManager.setRightPanelVisible(true);
@@ -174,7 +185,7 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
             } else {
                 var selectedItem = getSelectionModel().getSelectedItem();
                 if (selectedItem == null || !Objects.equals(selectedItem.getKey(), newVal)) {
-                    for (var item : filteredTableItems) {
+                    for (var item : backingList) {
                         if (item.getKey().equals(newVal)) {
                             getSelectionModel().select(item);
                             break;
@@ -193,6 +204,8 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
                 .addListener((obs, oldVal, newVal) -> applyFilter());
         stateManager.getFilteredLanguages()
                 .addListener((ListChangeListener<? super String>) change -> applyFilter());
+        stateManager.problemsOnlyProperty().addListener((obs, oldVal, newVal) -> applyFilter());
+        stateManager.overriddenOnlyProperty().addListener((obs, oldVal, newVal) -> applyFilter());
     }
 
     /**
@@ -206,12 +219,12 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
     }
 
     /**
-     * Rebuilds the backing list from all entries and applies the current filter.
+     * Rebuilds the view models from all entries and applies the current filter.
      */
     private void rebuildFilteredList() {
-        backingList.clear();
+        allViewModels.clear();
         for (var entry : allEntries) {
-            backingList.add((TranslationEntryViewModel) TranslationEntryViewModelRegistry.getViewModel(entry));
+            allViewModels.add((TranslationEntryViewModel) TranslationEntryViewModelRegistry.getViewModel(entry));
         }
         applyFilter();
     }
@@ -227,41 +240,47 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
      * languages
      * are shown, unless the key is new.</li>
      * <li>- Items are also filtered by type and source.</li>
+     * <li>- With the problems-only filter on, only items with format problems
+     * are shown. Fixing a problem does not hide the item until the filter is
+     * applied again.</li>
+     * <li>- With the overridden-only filter on, only items defined by several
+     * enabled sources are shown.</li>
      * </ul>
+     * The rows are evaluated on a worker thread; a newer call cancels an
+     * unfinished one, and the result replaces the table items in one change.
      */
     private void applyFilter() {
         Logger.info("Applying filter");
-        var selectedTypes = stateManager.getSelectedTypes();
-        var enabledSources = stateManager.getEnabledSources();
-
-        // Filter by filteredLanguages (subset of visibleLanguages)
-        var filteredLanguages = stateManager.getFilteredLanguages();
-        filteredTableItems.setPredicate(
-                item -> {
-                    boolean matchesText = filterText.isBlank()
-                            || item.getKey().toLowerCase().contains(filterText.toLowerCase())
-                            || item.getVariantViewModels().stream()
-                                    .anyMatch(variant -> {
-                                        String text = variant.getVariant().getEditedText();
-                                        return text != null && text.toLowerCase().contains(filterText.toLowerCase());
-                                    });
-                    boolean matchesType = item.getTypes().isEmpty() || selectedTypes.contains(item.getType());
-                    boolean matchesSource = item.getSources().isEmpty() ||
-                            (!enabledSources.isEmpty()
-                                    && item.getSources().stream().anyMatch(enabledSources::contains));
-
-                    // New key: no variants at all
-                    boolean isNewKey = item.getVariantViewModels().isEmpty();
+        // Resolves again only the keys of sources toggled since the last call
+        PZTranslationOverrides.getInstance().setEnabledSources(stateManager.getEnabledSources());
+        var criteria = new TranslationTableFilter.Criteria(filterText, stateManager.getSelectedTypes(),
+                stateManager.getEnabledSources(), stateManager.getFilteredLanguages(), stateManager.isProblemsOnly(),
+                stateManager.isOverriddenOnly());
+        tableFilter.submit(allViewModels, criteria, this::publishFilterResult);
+    }
 
-                    if (filteredLanguages.isEmpty()) {
-                        return matchesText && matchesType && matchesSource;
+    /**
+     * Replaces the table items with a filter result and restores the selection
+     * of the selected key if it is still shown.
+     *
+     * @param matches the view models that pass the filter
+     */
+    private void publishFilterResult(List<TranslationEntryViewModel> matches) {
+        publishingFilterResult = true;
+        try {
+            backingList.setAll(matches);
+            String selectedKey = stateManager.getSelectedTranslationKey();
+            if (selectedKey != null && !selectedKey.isEmpty()) {
+                for (var item : backingList) {
+                    if (item.getKey().equals(selectedKey)) {
+                        getSelectionModel().select(item);
+                        break;
                     }
-
-                    // If any filtered language is missing, exclude unless new key
-                    Set<String> presentLanguages = item.getLanguages();
-                    boolean hasAllFiltered = filteredLanguages.stream().allMatch(presentLanguages::contains);
-                    return (matchesText && matchesType && matchesSource && (hasAllFiltered || isNewKey));
-                });
+                }
+            }
+        } finally {
+            publishingFilterResult = false;
+        }
     }
 
     /**
@@ -277,7 +296,7 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
      * Refreshes all table indicators for visible items.
      */
     public void refreshTableIndicators() {
-        for (TranslationEntryViewModel entryViewModel : filteredTableItems) {
+        for (TranslationEntryViewModel entryViewModel : backingList) {
             if (entryViewModel != null) {
                 entryViewModel.refresh();
             }
@@ -291,7 +310,7 @@ public class TranslationTable extends TableView<TranslationEntryViewModel> {
      * @param translationKey the key to refresh
      */
     public void refreshTableIndicatorsForKey(String translationKey) {
-        for (TranslationEntryViewModel item : filteredTableItems) {
+        for (TranslationEntryViewModel item : backingList) {
             if (item.getKey().equals(translationKey)) {
                 item.refresh();
                 refresh();
@@ -0,0 +1,215 @@
+package org.pz.polyglot.components;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javafx.application.Platform;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSources;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationLint;
+import org.pz.polyglot.models.translations.PZTranslationOverrides;
+import org.pz.polyglot.models.translations.PZTranslationSearchIndex;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.viewModels.TranslationEntryViewModel;
+
+/**
+ * Background filter engine for {@link TranslationTable}.
+ * <p>
+ * Each request snapshots the filter criteria and the rows on the JavaFX thread
+ * and evaluates them on a single worker thread. A newer request cancels the
+ * one still running, and only the latest result is handed back, on the JavaFX
+ * thread, so the table can publish it in one change.
+ */
+public class TranslationTableFilter {
+    /**
+     * Snapshot of the filter settings, as bit sets matching the summaries of
+     * {@link TranslationEntryViewModel}.
+     *
+     * @param text        the filter text, may be blank
+     * @param typeBits    ordinals of the selected translation types
+     * @param sourceIds   ids of the enabled sources
+     * @param languageIds  ids of the languages every shown entry must have
+     * @param problemsOnly   whether only entries with format problems are shown
+     * @param overriddenOnly whether only entries defined by several enabled
+     *                       sources are shown
+     */
+    public record Criteria(String text, long typeBits, BitSet sourceIds, BitSet languageIds, boolean problemsOnly,
+            boolean overriddenOnly) {
+        /**
+         * Creates the criteria from the filter settings.
+         *
+         * @param text      the filter text, may be null
+         * @param types     the selected translation types
+         * @param sources   the enabled source names
+         * @param languages the languages every shown entry must have, may be empty
+         */
+        public Criteria(String text, Set<PZTranslationType> types, Set<String> sources, List<String> languages) {
+            this(text, types, sources, languages, false, false);
+        }
+
+        /**
+         * Creates the criteria from the filter settings.
+         *
+         * @param text         the filter text, may be null
+         * @param types        the selected translation types
+         * @param sources      the enabled source names
+         * @param languages    the languages every shown entry must have, may be
+         *                     empty
+         * @param problemsOnly   whether only entries with format problems are
+         *                       shown
+         * @param overriddenOnly whether only entries defined by several enabled
+         *                       sources are shown
+         */
+        public Criteria(String text, Set<PZTranslationType> types, Set<String> sources, List<String> languages,
+                boolean problemsOnly, boolean overriddenOnly) {
+            this(text == null ? "" : text, typeBits(types), sourceIds(sources), languageIds(languages), problemsOnly,
+                    overriddenOnly);
+        }
+
+        private static long typeBits(Set<PZTranslationType> types) {
+            long bits = 0;
+            for (PZTranslationType type : types) {
+                bits |= 1L << type.ordinal();
+            }
+            return bits;
+        }
+
+        private static BitSet sourceIds(Set<String> sources) {
+            BitSet ids = new BitSet();
+            for (String source : sources) {
+                ids.set(PZSources.getSourceId(source));
+            }
+            return ids;
+        }
+
+        private static BitSet languageIds(List<String> languages) {
+            BitSet ids = new BitSet();
+            for (String language : languages) {
+                ids.set(PZLanguages.getLanguageId(language));
+            }
+            return ids;
+        }
+    }
+
+    /** Rows checked between cancellation checks. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    /** Worker thread that evaluates filter requests. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = Executors.defaultThreadFactory().newThread(runnable);
+        t.setName("translation-table-filter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** The request currently running or queued, if any. */
+    private Future<?> pending;
+
+    /** Number of the latest request; older results are dropped. */
+    private long generation;
+
+    /**
+     * Filters the rows in the background, cancelling any earlier request. Must
+     * be called on the JavaFX thread.
+     *
+     * @param rows     all rows of the table
+     * @param criteria the filter settings
+     * @param onResult receives the matching rows, in their original order, on
+     *                 the JavaFX thread; not called if a newer request arrives
+     *                 first
+     */
+    public void submit(List<TranslationEntryViewModel> rows, Criteria criteria,
+            Consumer<List<TranslationEntryViewModel>> onResult) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        long requestGeneration = ++generation;
+        List<TranslationEntryViewModel> snapshot = List.copyOf(rows);
+        pending = worker.submit(() -> {
+            long startTime = System.nanoTime();
+            List<TranslationEntryViewModel> matches;
+            try {
+                matches = filter(snapshot, criteria);
+            } catch (CancellationException e) {
+                return;
+            }
+            Logger.debug("Filtered " + snapshot.size() + " rows to " + matches.size() + " in "
+                    + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+            Platform.runLater(() -> {
+                // A newer request may have been submitted after this one finished
+                if (requestGeneration == generation) {
+                    pending = null;
+                    onResult.accept(matches);
+                }
+            });
+        });
+    }
+
+    /**
+     * Evaluates the criteria against the rows. The text check reads variant
+     * texts under the entry monitor, so edits on the JavaFX thread are safe.
+     *
+     * @param rows     the rows to filter
+     * @param criteria the filter settings
+     * @return the matching rows
+     * @throws CancellationException if the worker is interrupted
+     */
+    private static List<TranslationEntryViewModel> filter(List<TranslationEntryViewModel> rows, Criteria criteria) {
+        Predicate<PZTranslationEntry> textMatcher = criteria.text().isBlank() ? null
+                : PZTranslationSearchIndex.getInstance().matcher(criteria.text());
+        List<TranslationEntryViewModel> matches = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            TranslationEntryViewModel row = rows.get(i);
+            if (matches(row, criteria, textMatcher)) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks one row against the criteria using its precomputed summaries and
+     * the findings of {@link PZTranslationLint} and
+     * {@link PZTranslationOverrides}.
+     * <p>
+     * Entries without any variants (new keys) pass the type, source and
+     * language checks.
+     *
+     * @param row         the row
+     * @param criteria    the filter settings
+     * @param textMatcher matcher for the filter text, or null if it is blank
+     * @return true if the row should be shown
+     */
+    static boolean matches(TranslationEntryViewModel row, Criteria criteria,
+            Predicate<PZTranslationEntry> textMatcher) {
+        if (textMatcher != null && !textMatcher.test(row.getEntry())) {
+            return false;
+        }
+        if (criteria.problemsOnly() && !PZTranslationLint.getInstance().hasProblems(row.getEntry())) {
+            return false;
+        }
+        if (criteria.overriddenOnly() && !PZTranslationOverrides.getInstance().isOverridden(row.getEntry())) {
+            return false;
+        }
+        if (row.hasNoVariants()) {
+            return true;
+        }
+        return row.hasTypeIn(criteria.typeBits())
+                && row.hasAnySource(criteria.sourceIds())
+                && row.hasAllLanguages(criteria.languageIds());
+    }
+}
@@ -1,9 +1,14 @@
 package org.pz.polyglot.components;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Hyperlink;
@@ -17,7 +22,11 @@ import javafx.scene.Cursor;
 
 import org.pz.polyglot.State;
 import org.pz.polyglot.models.TranslationSession;
+import org.pz.polyglot.models.translations.PZCharsetStats;
+import org.pz.polyglot.models.translations.PZCoverageStats;
+import org.pz.polyglot.models.translations.PZTranslationLint;
 import org.pz.polyglot.models.translations.PZTranslationManager;
+import org.pz.polyglot.models.translations.PZTranslationOverrides;
 import org.pz.polyglot.viewModels.TranslationVariantViewModel;
 import org.pz.polyglot.viewModels.registries.TranslationEntryViewModelRegistry;
 
@@ -61,6 +70,14 @@ public class TranslationVariantField extends VBox {
     @FXML
     private Rectangle hitArea;
 
+    /** Tag listing the format problems of the variant, or null if it has none. */
+    private Tag lintTag;
+    /**
+     * Updates the lint tag after the findings change; kept in a field so the
+     * weak listener stays registered as long as this field exists.
+     */
+    private final InvalidationListener lintListener = observable -> Platform.runLater(this::updateLintTag);
+
     /** Indicates if the text area has been manually resized by the user. */
     private boolean manuallyResized = false;
 
@@ -102,6 +119,28 @@ public class TranslationVariantField extends VBox {
         TypeTag typeTag = new TypeTag(viewModel.getVariant().getType());
         tagsContainer.getChildren().addAll(langTag, typeTag);
 
+        // Show the charset the file was decoded with and why it was chosen
+        PZCharsetStats.getInstance()
+                .getReport(PZTranslationManager.constructFilePath(viewModel.getVariant()))
+                .filter(report -> report.charset() != null)
+                .ifPresent(report -> tagsContainer.getChildren().add(
+                        new Tag(Tag.Theme.PURPLE, report.charset().name(), report.reason(), null)));
+
+        // Flag variants whose file changed on disk while they had unsaved edits
+        if (TranslationSession.getInstance().isConflict(viewModel.getVariant())) {
+            tagsContainer.getChildren().add(new Tag(Tag.Theme.RED, "conflict",
+                    "The file changed on disk while this text had unsaved edits. "
+                            + "Saving overwrites the file version, reset restores it.",
+                    null));
+        }
+
+        // Flag format problems that would only show up in game
+        updateLintTag();
+        PZTranslationLint.getInstance().revisionProperty().addListener(new WeakInvalidationListener(lintListener));
+
+        // Show which source wins where several define this key
+        addOverrideTag();
+
         // Setup text area prompt text
         textArea.setPromptText("Enter translation for " + viewModel.getTranslationKey());
 
@@ -174,7 +213,9 @@ public class TranslationVariantField extends VBox {
             var entry = variant.getKey();
 
             // First, remove the variant from the entry's variant list
-            entry.getVariants().remove(variant);
+            PZCoverageStats.getInstance().update(entry, () -> entry.removeVariant(variant));
+            PZTranslationLint.getInstance().recheck(entry);
+            PZTranslationOverrides.getInstance().recheck(entry);
 
             // Then remove from session and registry
             TranslationEntryViewModelRegistry.removeViewModel(entry);
@@ -218,6 +259,55 @@ public class TranslationVariantField extends VBox {
         resizeTextArea(textArea.getText());
     }
 
+    /**
+     * Shows the format problems of the variant as a tag, with the details in
+     * its tooltip.
+     */
+    private void updateLintTag() {
+        var variant = viewModel.getVariant();
+        List<PZTranslationLint.Finding> findings = PZTranslationLint.getInstance().getFindings(variant.getKey())
+                .stream().filter(finding -> finding.isFor(variant)).toList();
+        tagsContainer.getChildren().remove(lintTag);
+        lintTag = null;
+        if (findings.isEmpty()) {
+            return;
+        }
+        String label = findings.size() == 1 ? findings.get(0).problem().getLabel() : findings.size() + " problems";
+        lintTag = new Tag(Tag.Theme.RED, label, findings.stream()
+                .map(finding -> finding.problem().getLabel() + ": " + finding.detail())
+                .collect(Collectors.joining("\n")), null);
+        tagsContainer.getChildren().add(lintTag);
+    }
+
+    /**
+     * Tags the variant if another enabled source defines the same key for the
+     * same language and game build, naming the source the game uses.
+     */
+    private void addOverrideTag() {
+        var variant = viewModel.getVariant();
+        Set<String> enabledSources = State.getInstance().getEnabledSources();
+        for (PZTranslationOverrides.Resolution resolution : PZTranslationOverrides.resolve(variant.getKey(),
+                source -> enabledSources.contains(source.getName()))) {
+            if (!resolution.language().equals(variant.getLanguage().getCode())
+                    || resolution.build() != variant.getSource().getVersion().getMajor()) {
+                continue;
+            }
+            String ambiguity = resolution.isAmbiguous()
+                    ? "\nSources of the same priority are ordered by the mod load order in game."
+                    : "";
+            if (resolution.effective().source() == variant.getSource()) {
+                tagsContainer.getChildren().add(new Tag(Tag.Theme.BLUE, "overrides", "Used instead of "
+                        + resolution.shadowed().stream().map(definition -> definition.source().getName())
+                                .collect(Collectors.joining(", "))
+                        + ambiguity, null));
+            } else if (resolution.shadowed().stream()
+                    .anyMatch(definition -> definition.source() == variant.getSource())) {
+                tagsContainer.getChildren().add(new Tag(Tag.Theme.BLUE, "overridden",
+                        "The game uses the text of " + resolution.effective().source().getName() + ambiguity, null));
+            }
+        }
+    }
+
     /**
      * Dynamically resizes the text area based on its content, unless manually
      * resized.
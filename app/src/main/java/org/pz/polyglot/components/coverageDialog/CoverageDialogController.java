@@ -0,0 +1,249 @@
+package org.pz.polyglot.components.coverageDialog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.translations.PZCoverageStats;
+import org.pz.polyglot.models.translations.PZTranslationType;
+
+/**
+ * Controller for the Coverage dialog.
+ * Shows the coverage matrix of {@link PZCoverageStats} with one row per source
+ * and translation type and one column per language, and follows its updates
+ * while the dialog is open.
+ */
+public class CoverageDialogController {
+    /**
+     * One table row: the cells of a source and translation type.
+     *
+     * @param source        the source
+     * @param type          the translation type, may be null
+     * @param referenceKeys the number of keys with a reference text
+     * @param cells         the cells by language code
+     */
+    private record GroupRow(PZSource source, PZTranslationType type, int referenceKeys,
+            Map<String, PZCoverageStats.Cell> cells) {
+    }
+
+    /**
+     * Combo box for selecting the reference language.
+     */
+    @FXML
+    private ComboBox<String> referenceComboBox;
+
+    /**
+     * Label with the totals of the matrix.
+     */
+    @FXML
+    private Label summaryLabel;
+
+    /**
+     * Table showing the coverage matrix.
+     */
+    @FXML
+    private TableView<GroupRow> coverageTable;
+
+    /**
+     * Button to export the matrix as CSV.
+     */
+    @FXML
+    private Button exportButton;
+
+    /**
+     * Button to close the dialog.
+     */
+    @FXML
+    private Button closeButton;
+
+    /**
+     * The dialog stage associated with this controller.
+     */
+    private Stage dialogStage;
+
+    /**
+     * Language codes of the current language columns.
+     */
+    private List<String> columnLanguages = List.of();
+
+    /**
+     * Refreshes the table after the statistics change; changes may come from
+     * any thread.
+     */
+    private final InvalidationListener revisionListener = observable -> Platform.runLater(this::refresh);
+
+    /**
+     * Sets the dialog stage and stops following updates once it is closed.
+     *
+     * @param dialogStage the dialog stage
+     */
+    public void setDialogStage(Stage dialogStage) {
+        this.dialogStage = dialogStage;
+        dialogStage.setOnHidden(e -> PZCoverageStats.getInstance().revisionProperty()
+                .removeListener(revisionListener));
+    }
+
+    /**
+     * Initializes the dialog with the current matrix.
+     */
+    @FXML
+    private void initialize() {
+        TableColumn<GroupRow, String> sourceColumn = new TableColumn<>("Source");
+        sourceColumn.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue().source().getName()));
+        sourceColumn.setPrefWidth(200);
+        TableColumn<GroupRow, String> typeColumn = new TableColumn<>("Type");
+        typeColumn.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(
+                Objects.toString(row.getValue().type(), "")));
+        TableColumn<GroupRow, Integer> keysColumn = new TableColumn<>("Keys");
+        keysColumn.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue().referenceKeys()));
+        coverageTable.getColumns().setAll(List.of(sourceColumn, typeColumn, keysColumn));
+
+        referenceComboBox.setValue(PZCoverageStats.getInstance().getReference());
+        referenceComboBox.valueProperty().addListener((obs, oldCode, newCode) -> {
+            if (newCode == null || newCode.equals(PZCoverageStats.getInstance().getReference())) {
+                return;
+            }
+            // Rebuilding reads every entry; keep the dialog responsive
+            Thread worker = new Thread(() -> PZCoverageStats.getInstance().setReference(newCode),
+                    "coverage-reference");
+            worker.setDaemon(true);
+            worker.start();
+        });
+
+        PZCoverageStats.getInstance().revisionProperty().addListener(revisionListener);
+        refresh();
+    }
+
+    /**
+     * Reloads the matrix into the table, rebuilding the language columns only
+     * if the set of languages changed.
+     */
+    private void refresh() {
+        PZCoverageStats stats = PZCoverageStats.getInstance();
+        List<PZCoverageStats.Cell> cells = stats.getCells();
+
+        Map<List<Object>, GroupRow> rows = new LinkedHashMap<>();
+        List<String> languages = new ArrayList<>();
+        for (PZCoverageStats.Cell cell : cells) {
+            GroupRow row = rows.computeIfAbsent(Arrays.asList(cell.source(), cell.type()),
+                    group -> new GroupRow(cell.source(), cell.type(), cell.referenceKeys(), new LinkedHashMap<>()));
+            row.cells().put(cell.language(), cell);
+            if (rows.size() == 1) {
+                languages.add(cell.language());
+            }
+        }
+
+        if (!languages.equals(columnLanguages)) {
+            columnLanguages = languages;
+            coverageTable.getColumns().remove(3, coverageTable.getColumns().size());
+            languages.forEach(code -> coverageTable.getColumns().add(createLanguageColumn(code)));
+            List<String> items = new ArrayList<>(languages);
+            if (!items.contains(stats.getReference())) {
+                items.add(0, stats.getReference());
+            }
+            referenceComboBox.getItems().setAll(items);
+        }
+        referenceComboBox.setValue(stats.getReference());
+        coverageTable.getItems().setAll(rows.values());
+
+        int referenceKeys = rows.values().stream().mapToInt(GroupRow::referenceKeys).sum();
+        int missing = cells.stream().filter(cell -> !cell.language().equals(stats.getReference()))
+                .mapToInt(PZCoverageStats.Cell::missing).sum();
+        summaryLabel.setText(referenceKeys + " " + stats.getReference() + " keys in " + rows.size()
+                + " source and type groups, " + missing + " translations missing");
+    }
+
+    /**
+     * Creates the column of one language. Cells show the coverage in percent
+     * and the number of missing translations in the tooltip.
+     *
+     * @param code the language code
+     * @return the column
+     */
+    private TableColumn<GroupRow, PZCoverageStats.Cell> createLanguageColumn(String code) {
+        TableColumn<GroupRow, PZCoverageStats.Cell> column = new TableColumn<>(code);
+        column.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue().cells().get(code)));
+        column.setComparator((a, b) -> Double.compare(a == null ? 0 : a.percent(), b == null ? 0 : b.percent()));
+        column.setCellFactory(col -> new TableCell<>() {
+            @Override
+            protected void updateItem(PZCoverageStats.Cell cell, boolean empty) {
+                super.updateItem(cell, empty);
+                getStyleClass().removeAll("coverage-complete", "coverage-partial", "coverage-empty");
+                if (empty || cell == null) {
+                    setText(null);
+                    setTooltip(null);
+                    return;
+                }
+                if (cell.referenceKeys() == 0) {
+                    setText(cell.keys() > 0 ? cell.keys() + " keys" : "");
+                    setTooltip(null);
+                    return;
+                }
+                setText(String.format(Locale.ROOT, "%.0f%%", Math.floor(cell.percent())));
+                setTooltip(new Tooltip(cell.translated() + " of " + cell.referenceKeys() + " translated, "
+                        + cell.missing() + " missing"));
+                getStyleClass().add(cell.missing() == 0 ? "coverage-complete"
+                        : cell.translated() == 0 ? "coverage-empty" : "coverage-partial");
+            }
+        });
+        return column;
+    }
+
+    /**
+     * Handles the export button action. Writes the matrix to a CSV file chosen
+     * by the user.
+     */
+    @FXML
+    private void onExport() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Coverage");
+        chooser.setInitialFileName("coverage.csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(dialogStage);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.writeString(file.toPath(), PZCoverageStats.toCsv(PZCoverageStats.getInstance().getCells()),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Logger.error("Failed to export coverage: " + e.getMessage());
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Failed to export coverage: " + e.getMessage());
+            alert.initOwner(dialogStage);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Handles the close button action.
+     */
+    @FXML
+    private void onClose() {
+        dialogStage.close();
+    }
+}
@@ -0,0 +1,56 @@
+package org.pz.polyglot.components.coverageDialog;
+
+import java.io.IOException;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import org.pz.polyglot.App;
+import org.pz.polyglot.Logger;
+
+/**
+ * Manager for the Coverage dialog.
+ * <p>
+ * Responsible for displaying the translation coverage matrix. The dialog is
+ * not modal, so it can stay open and update while translations are edited.
+ */
+public class CoverageDialogManager {
+
+    /**
+     * The initial width of the Coverage dialog window in pixels.
+     */
+    private static final int DIALOG_WIDTH = 900;
+
+    /**
+     * The initial height of the Coverage dialog window in pixels.
+     */
+    private static final int DIALOG_HEIGHT = 600;
+
+    /**
+     * Shows the Coverage dialog.
+     *
+     * @param owner the parent stage
+     */
+    public static void showCoverageDialog(Stage owner) {
+        try {
+            FXMLLoader loader = new FXMLLoader(App.class.getResource("/fxml/CoverageDialog.fxml"));
+            Parent root = loader.load();
+            CoverageDialogController controller = loader.getController();
+
+            Stage dialog = new Stage();
+            controller.setDialogStage(dialog);
+            dialog.setTitle("Translation Coverage");
+            dialog.initOwner(owner);
+
+            Scene scene = new Scene(root, DIALOG_WIDTH, DIALOG_HEIGHT);
+            dialog.setScene(scene);
+            dialog.show();
+
+        } catch (IOException e) {
+            Logger.error("Error opening coverage dialog: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
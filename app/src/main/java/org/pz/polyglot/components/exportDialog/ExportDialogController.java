@@ -0,0 +1,257 @@
+package org.pz.polyglot.components.exportDialog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.State;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationExporter;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.models.translations.PZTranslations;
+import org.pz.polyglot.models.translations.PZVariantTextLoader;
+
+/**
+ * Controller for the Export dialog.
+ * Exports the translations of the enabled sources and selected types with
+ * {@link PZTranslationExporter}: the visible languages for row formats, or a
+ * reference and a target language for bilingual formats. The file is written
+ * on a background thread.
+ */
+public class ExportDialogController {
+    /**
+     * Combo box for selecting the export format.
+     */
+    @FXML
+    private ComboBox<PZTranslationExporter.Format> formatComboBox;
+
+    /**
+     * Row with the language selection of bilingual formats.
+     */
+    @FXML
+    private HBox bilingualContainer;
+
+    /**
+     * Combo box for selecting the language of the source texts.
+     */
+    @FXML
+    private ComboBox<String> referenceComboBox;
+
+    /**
+     * Combo box for selecting the language to translate into.
+     */
+    @FXML
+    private ComboBox<String> targetComboBox;
+
+    /**
+     * Label describing what will be exported.
+     */
+    @FXML
+    private Label scopeLabel;
+
+    /**
+     * Label with the progress or result of the export.
+     */
+    @FXML
+    private Label statusLabel;
+
+    /**
+     * Button to choose a file and export.
+     */
+    @FXML
+    private Button exportButton;
+
+    /**
+     * Button to close the dialog.
+     */
+    @FXML
+    private Button closeButton;
+
+    /**
+     * The dialog stage associated with this controller.
+     */
+    private Stage dialogStage;
+
+    /**
+     * Sets the dialog stage.
+     *
+     * @param dialogStage the dialog stage
+     */
+    public void setDialogStage(Stage dialogStage) {
+        this.dialogStage = dialogStage;
+    }
+
+    /**
+     * Initializes the dialog from the current table selection.
+     */
+    @FXML
+    private void initialize() {
+        formatComboBox.getItems().setAll(PZTranslationExporter.Format.values());
+        formatComboBox.setValue(PZTranslationExporter.Format.CSV);
+        formatComboBox.valueProperty().addListener((obs, oldFormat, newFormat) -> updateScope());
+
+        List<String> languages = new ArrayList<>(PZLanguages.getInstance().getAllLanguageCodes());
+        languages.sort(null);
+        referenceComboBox.getItems().setAll(languages);
+        referenceComboBox.setValue("EN");
+        targetComboBox.getItems().setAll(languages);
+        State.getInstance().getVisibleLanguages().stream().filter(code -> !code.equals("EN")).findFirst()
+                .ifPresent(targetComboBox::setValue);
+        targetComboBox.valueProperty().addListener((obs, oldCode, newCode) -> updateScope());
+        updateScope();
+    }
+
+    /**
+     * Shows the language selection of bilingual formats and describes the
+     * export.
+     */
+    private void updateScope() {
+        PZTranslationExporter.Format format = formatComboBox.getValue();
+        bilingualContainer.setVisible(format.isBilingual());
+        bilingualContainer.setManaged(format.isBilingual());
+        State state = State.getInstance();
+        String scope = state.getEnabledSources().size() + " enabled sources and " + state.getSelectedTypes().size()
+                + " selected types";
+        scopeLabel.setText(format.isBilingual() ? "Exports " + scope
+                : "Exports " + state.getVisibleLanguages().size() + " visible languages of " + scope);
+        exportButton.setDisable(format.isBilingual() && targetComboBox.getValue() == null);
+    }
+
+    /**
+     * Handles the export button action. Asks for a file, loads the texts of
+     * the exported languages if needed and writes the file in the background.
+     */
+    @FXML
+    private void onExport() {
+        PZTranslationExporter.Format format = formatComboBox.getValue();
+        PZLanguage reference = null;
+        PZLanguage target = null;
+        List<PZLanguage> languages = new ArrayList<>();
+        if (format.isBilingual()) {
+            reference = PZLanguages.getInstance().getLanguage(referenceComboBox.getValue()).orElse(null);
+            target = PZLanguages.getInstance().getLanguage(targetComboBox.getValue()).orElse(null);
+            if (reference == null || target == null) {
+                return;
+            }
+            languages.add(reference);
+            languages.add(target);
+        } else {
+            for (String code : State.getInstance().getVisibleLanguages()) {
+                PZLanguages.getInstance().getLanguage(code).ifPresent(languages::add);
+            }
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Translations");
+        chooser.setInitialFileName("translations." + format.getExtension());
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.getLabel() + " files",
+                "*." + format.getExtension()));
+        File file = chooser.showSaveDialog(dialogStage);
+        if (file == null) {
+            return;
+        }
+
+        // Copy the selection, the table may change while the file is written
+        Set<String> sources = Set.copyOf(State.getInstance().getEnabledSources());
+        Set<PZTranslationType> types = EnumSet.noneOf(PZTranslationType.class);
+        types.addAll(State.getInstance().getSelectedTypes());
+        Set<PZLanguage> exported = Set.copyOf(languages);
+        PZTranslationExporter.Filter filter = (source, language, type) -> sources.contains(source.getName())
+                && type != null && types.contains(type) && exported.contains(language);
+        PZLanguage referenceLanguage = reference;
+        PZLanguage targetLanguage = target;
+
+        exportButton.setDisable(true);
+        statusLabel.setText("Exporting...");
+        // Keep the texts loaded until the export is done, even under memory pressure
+        PZVariantTextLoader.getInstance().pin(languages);
+        PZVariantTextLoader.getInstance().whenLoaded(languages, () -> {
+            // Only the entry references are taken here; their variants are copied in batches while writing
+            List<PZTranslationEntry> entries = List.copyOf(PZTranslations.getInstance().getAllTranslations().values());
+            Thread worker = new Thread(() -> write(entries, filter, languages, file, format, referenceLanguage,
+                    targetLanguage), "translation-export");
+            worker.setDaemon(true);
+            worker.start();
+        });
+    }
+
+    /**
+     * Writes the export file and reports the result on the UI thread. The
+     * variants of the entries are copied batch by batch on the UI thread,
+     * which changes them, and written on the calling thread.
+     *
+     * @param entries   the entries to export
+     * @param filter    the variants to export
+     * @param languages the exported languages, pinned until the file is written
+     * @param file      the file to write
+     * @param format    the export format
+     * @param reference the reference language of bilingual formats
+     * @param target    the target language of bilingual formats
+     */
+    private void write(List<PZTranslationEntry> entries, PZTranslationExporter.Filter filter,
+            List<PZLanguage> languages, File file, PZTranslationExporter.Format format, PZLanguage reference,
+            PZLanguage target) {
+        long startTime = System.nanoTime();
+        String status = "";
+        Exception failure = null;
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            int written = PZTranslationExporter.export(entries, format, filter, reference, target, writer,
+                    Platform::runLater);
+            Logger.info("Exported " + written + " translations to " + file + " in "
+                    + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+            status = "Exported " + written + " translations to " + file.getName();
+        } catch (IOException | RuntimeException e) {
+            Logger.error("Failed to export translations: " + e.getMessage());
+            failure = e;
+        } finally {
+            String result = status;
+            Exception error = failure;
+            Platform.runLater(() -> finish(languages, result, error));
+        }
+    }
+
+    /**
+     * Unpins the exported languages and restores the dialog after an export.
+     *
+     * @param languages the exported languages
+     * @param status    the status text to show
+     * @param failure   the error the export failed with, or null
+     */
+    private void finish(List<PZLanguage> languages, String status, Exception failure) {
+        PZVariantTextLoader.getInstance().unpin(languages);
+        statusLabel.setText(status);
+        exportButton.setDisable(false);
+        if (failure != null) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Failed to export translations: " + failure.getMessage());
+            alert.initOwner(dialogStage);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Handles the close button action.
+     */
+    @FXML
+    private void onClose() {
+        dialogStage.close();
+    }
+}
@@ -0,0 +1,57 @@
+package org.pz.polyglot.components.exportDialog;
+
+import java.io.IOException;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import org.pz.polyglot.App;
+import org.pz.polyglot.Logger;
+
+/**
+ * Manager for the Export dialog.
+ * <p>
+ * Responsible for displaying the dialog that exports translations for
+ * external translators. The dialog is not modal, so the table can be used
+ * while a large export is written.
+ */
+public class ExportDialogManager {
+
+    /**
+     * The initial width of the Export dialog window in pixels.
+     */
+    private static final int DIALOG_WIDTH = 480;
+
+    /**
+     * The initial height of the Export dialog window in pixels.
+     */
+    private static final int DIALOG_HEIGHT = 260;
+
+    /**
+     * Shows the Export dialog.
+     *
+     * @param owner the parent stage
+     */
+    public static void showExportDialog(Stage owner) {
+        try {
+            FXMLLoader loader = new FXMLLoader(App.class.getResource("/fxml/ExportDialog.fxml"));
+            Parent root = loader.load();
+            ExportDialogController controller = loader.getController();
+
+            Stage dialog = new Stage();
+            controller.setDialogStage(dialog);
+            dialog.setTitle("Export Translations");
+            dialog.initOwner(owner);
+
+            Scene scene = new Scene(root, DIALOG_WIDTH, DIALOG_HEIGHT);
+            dialog.setScene(scene);
+            dialog.show();
+
+        } catch (IOException e) {
+            Logger.error("Error opening export dialog: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
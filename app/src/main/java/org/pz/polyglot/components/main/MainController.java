@@ -1,16 +1,28 @@
 package org.pz.polyglot.components.main;
 
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SplitPane;
 import javafx.application.HostServices;
 
+import org.pz.polyglot.Config;
 import org.pz.polyglot.State;
 import org.pz.polyglot.components.TranslationPanel;
 import org.pz.polyglot.components.TypesPanel;
 import org.pz.polyglot.components.SourcesPanel;
 import org.pz.polyglot.components.LanguagesPanel;
+import org.pz.polyglot.components.SystemMonitor;
+import org.pz.polyglot.models.translations.PZCharsetStats;
+import org.pz.polyglot.models.translations.PZStringPool;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationVariant;
+import org.pz.polyglot.models.translations.PZTranslationWatcher;
+import org.pz.polyglot.models.translations.PZVariantTextLoader;
+import org.pz.polyglot.models.translations.PZTranslations;
+import org.pz.polyglot.viewModels.registries.TranslationEntryViewModelRegistry;
+import org.pz.polyglot.viewModels.registries.TranslationVariantViewModelRegistry;
 
 /**
  * Main controller for the Polyglot application.
@@ -81,6 +93,46 @@ public class MainController {
     private void initialize() {
         initializeMenuActions();
         setupObservableBindings();
+        SystemMonitor.addHook(PZCharsetStats.getInstance()::summary);
+        SystemMonitor.addHook(PZStringPool::summary);
+        if (Config.getInstance().isWatchTranslationFiles()) {
+            PZTranslationWatcher.getInstance().start(Platform::runLater, this::onTranslationsReloaded);
+        }
+        PZVariantTextLoader.getInstance().start(Platform::runLater, stateManager::requestTableRefresh);
+        stateManager.getVisibleLanguages().addListener((ListChangeListener<String>) change -> PZVariantTextLoader
+                .getInstance().showLanguages(stateManager.getVisibleLanguages()));
+        PZVariantTextLoader.getInstance().showLanguages(stateManager.getVisibleLanguages());
+    }
+
+    /**
+     * Updates view models and the table after translation files changed on disk.
+     * Existing rows are refreshed in place; the table is only rebuilt when rows
+     * were added or removed.
+     *
+     * @param result the summary of the applied changes
+     */
+    private void onTranslationsReloaded(PZTranslationWatcher.ReloadResult result) {
+        for (PZTranslationVariant variant : result.changedVariants()) {
+            TranslationVariantViewModelRegistry.refreshViewModel(variant);
+        }
+        for (PZTranslationEntry entry : result.changedEntries()) {
+            TranslationEntryViewModelRegistry.getViewModel(entry).refresh();
+        }
+        stateManager.updateHasChangesFromSession();
+        if (result.structureChanged()) {
+            stateManager.requestTableRebuild();
+        } else {
+            stateManager.requestTableRefresh();
+        }
+
+        // Reopen the selected entry so its fields show the reloaded texts
+        String selectedKey = stateManager.getSelectedTranslationKey();
+        boolean selectedChanged = result.changedEntries().stream()
+                .anyMatch(entry -> entry.getKey().equals(selectedKey));
+        if (selectedChanged && PZTranslations.getInstance().getAllTranslations().containsKey(selectedKey)) {
+            stateManager.setSelectedTranslationKey(null);
+            stateManager.setSelectedTranslationKey(selectedKey);
+        }
     }
 
     /**
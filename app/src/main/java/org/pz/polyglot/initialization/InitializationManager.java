@@ -11,6 +11,8 @@ import org.pz.polyglot.components.main.MainWindowManager;
 import org.pz.polyglot.models.languages.PZLanguageManager;
 import org.pz.polyglot.models.sources.PZSources;
 import org.pz.polyglot.models.translations.PZTranslationManager;
+import org.pz.polyglot.models.translations.PZTranslationMemory;
+import org.pz.polyglot.models.translations.PZTranslations;
 import org.pz.polyglot.utils.FolderValidationUtils;
 
 /**
@@ -198,9 +200,20 @@ public class InitializationManager {
             Platform.runLater(() -> initWindow.updateCurrentStatus("done", false));
 
             Platform.runLater(() -> initWindow.addStatusLine("Loading translation files"));
-            PZTranslationManager.loadFilesFromSources();
+            PZTranslationManager.loadFilesFromSources((source, loadedSources, totalSources) -> {
+                // Throttle UI updates to roughly one per percent of progress
+                int step = Math.max(1, totalSources / 100);
+                if (loadedSources % step == 0 || loadedSources == totalSources) {
+                    String progress = loadedSources + "/" + totalSources + " sources";
+                    Platform.runLater(() -> initWindow.updateCurrentProgress(progress));
+                }
+            });
             Platform.runLater(() -> initWindow.updateCurrentStatus("done", false));
 
+            // Suggestions are optional, so the window does not wait for them
+            PZTranslationMemory.getInstance().rebuildInBackground(
+                    PZTranslations.getInstance().getAllTranslations().values());
+
             Logger.info("Domain models initialized successfully");
             return true;
         } catch (Exception e) {
@@ -126,6 +126,18 @@ public class InitializationWindowManager {
         }
     }
 
+    /**
+     * Shows intermediate progress on the current (latest) status line without
+     * marking it as finished.
+     * 
+     * @param progress the progress message to display
+     */
+    public void updateCurrentProgress(String progress) {
+        if (!statusLines.isEmpty()) {
+            statusLines.get(0).setProgress(progress);
+        }
+    }
+
     /**
      * Refreshes the status display in the window to show all current status lines.
      */
@@ -157,6 +169,10 @@ public class InitializationWindowManager {
          * The result message, if any.
          */
         private String result;
+        /**
+         * The intermediate progress message, shown until a result is set.
+         */
+        private String progress;
         /**
          * Indicates if this status line represents an error.
          */
@@ -189,6 +205,16 @@ public class InitializationWindowManager {
             updateLabel();
         }
 
+        /**
+         * Sets the intermediate progress message for this status line.
+         * 
+         * @param progress the progress message
+         */
+        public void setProgress(String progress) {
+            this.progress = progress;
+            updateLabel();
+        }
+
         /**
          * Updates the label text and style based on the current state.
          * Styles errors in red, successful results in green.
@@ -197,6 +223,8 @@ public class InitializationWindowManager {
             String text = message + "... ";
             if (result != null) {
                 text += result;
+            } else if (progress != null) {
+                text += progress;
             }
 
             String style = "-fx-font-size: 12px;";
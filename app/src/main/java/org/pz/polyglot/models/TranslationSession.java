@@ -21,6 +21,11 @@ public class TranslationSession {
      */
     private final ObservableSet<PZTranslationVariant> variants = FXCollections.observableSet();
 
+    /**
+     * Variants with unsaved edits whose file changed on disk after editing began.
+     */
+    private final ObservableSet<PZTranslationVariant> conflicts = FXCollections.observableSet();
+
     /**
      * The set of translation keys in the current session.
      */
@@ -105,4 +110,42 @@ public class TranslationSession {
     public void removeVariant(PZTranslationVariant variant) {
         variants.remove(variant);
     }
+
+    /**
+     * Gets the set of variants whose file changed on disk while they had unsaved
+     * edits.
+     * 
+     * @return ObservableSet of conflicting PZTranslationVariant
+     */
+    public ObservableSet<PZTranslationVariant> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Flags a translation variant as conflicting with its file on disk.
+     * 
+     * @param variant the translation variant to flag
+     */
+    public void addConflict(PZTranslationVariant variant) {
+        conflicts.add(variant);
+    }
+
+    /**
+     * Clears the conflict flag of a translation variant.
+     * 
+     * @param variant the translation variant to clear
+     */
+    public void removeConflict(PZTranslationVariant variant) {
+        conflicts.remove(variant);
+    }
+
+    /**
+     * Checks whether a translation variant is flagged as conflicting.
+     * 
+     * @param variant the translation variant to check
+     * @return true if the variant conflicts with its file on disk
+     */
+    public boolean isConflict(PZTranslationVariant variant) {
+        return conflicts.contains(variant);
+    }
 }
@@ -14,6 +14,11 @@ public final class PZLanguage {
      */
     private final String code;
 
+    /**
+     * Dense id of the code, see {@link PZLanguages#getLanguageId(String)}.
+     */
+    private final int id;
+
     /**
      * Human-readable language name.
      */
@@ -33,6 +38,7 @@ public final class PZLanguage {
      */
     public PZLanguage(String code, String name) {
         this.code = code;
+        this.id = PZLanguages.getLanguageId(code);
         this.name = name;
         this.charsets = new SemanticVersionMap<>();
         // Default charset for all languages. Should be revised when version 43+ is
@@ -49,6 +55,15 @@ public final class PZLanguage {
         return this.code;
     }
 
+    /**
+     * Gets the dense id of the language code.
+     *
+     * @return language id
+     */
+    public int getId() {
+        return this.id;
+    }
+
     /**
      * Gets the language name.
      *
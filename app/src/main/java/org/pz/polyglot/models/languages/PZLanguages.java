@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Optional;
 import java.util.Set;
 
+import org.pz.polyglot.structs.IdRegistry;
 import org.pz.polyglot.structs.SemanticVersion;
 
 /**
@@ -12,6 +13,12 @@ import org.pz.polyglot.structs.SemanticVersion;
  * versions.
  */
 public final class PZLanguages {
+    /**
+     * Dense ids of language codes. Declared before {@link #INSTANCE} because the
+     * languages created by the constructor intern their codes.
+     */
+    private static final IdRegistry LANGUAGE_IDS = new IdRegistry();
+
     /**
      * Singleton instance of PZLanguages.
      */
@@ -140,6 +147,28 @@ public final class PZLanguages {
         return Optional.ofNullable(this.languages.get(code));
     }
 
+    /**
+     * Returns the dense id of a language code, assigning the next id if the code
+     * has none yet. Ids stay valid for the lifetime of the application and can
+     * be used as bit positions.
+     * 
+     * @param code language code
+     * @return the id of the code
+     */
+    public static int getLanguageId(String code) {
+        return LANGUAGE_IDS.intern(code);
+    }
+
+    /**
+     * Returns the language code with the given id.
+     * 
+     * @param id language id
+     * @return language code
+     */
+    public static String getLanguageCode(int id) {
+        return LANGUAGE_IDS.getName(id);
+    }
+
     /**
      * Returns the number of languages managed.
      * 
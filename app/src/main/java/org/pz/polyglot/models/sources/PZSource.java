@@ -15,6 +15,11 @@ public class PZSource {
      */
     private final String name;
 
+    /**
+     * Dense id of the name, see {@link PZSources#getSourceId(String)}.
+     */
+    private final int id;
+
     /**
      * The semantic version of the source.
      */
@@ -46,6 +51,7 @@ public class PZSource {
      */
     public PZSource(String name, SemanticVersion version, Path path, boolean editable, int priority) {
         this.name = name;
+        this.id = PZSources.getSourceId(name);
         this.version = version;
         this.path = path;
         this.editable = editable;
@@ -61,6 +67,15 @@ public class PZSource {
         return name;
     }
 
+    /**
+     * Gets the dense id of the source name.
+     * 
+     * @return the id
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Gets the semantic version of the source.
      * 
@@ -1,16 +1,29 @@
 package org.pz.polyglot.models.sources;
 
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 import org.pz.polyglot.Config;
 import org.pz.polyglot.Logger;
 import org.pz.polyglot.State;
+import org.pz.polyglot.structs.IdRegistry;
 import org.pz.polyglot.structs.SemanticVersion;
 import org.pz.polyglot.utils.FolderUtils;
 
@@ -27,11 +40,28 @@ public class PZSources {
      */
     private static PZSources instance;
 
+    /**
+     * Folder names leading from a source folder to its translations, compared
+     * ignoring case since mods are not consistent about it.
+     */
+    private static final String[] TRANSLATE_PATH = { "media", "lua", "shared", "Translate" };
+
+    /**
+     * Maximum number of source folders scanned at the same time.
+     */
+    private static final int DISCOVERY_CONCURRENCY = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
     /**
      * List of all discovered sources, unsorted.
      */
     private final ArrayList<PZSource> sources = new ArrayList<>();
 
+    /**
+     * Dense ids of source names, assigned on first use and never reused. Static so
+     * that ids can be looked up without discovering sources.
+     */
+    private static final IdRegistry SOURCE_IDS = new IdRegistry();
+
     /**
      * Returns the singleton instance of PZSources.
      * 
@@ -63,24 +93,60 @@ public class PZSources {
                 .toList();
     }
 
+    /**
+     * Returns the dense id of a source name, assigning the next id if the name
+     * has none yet. Ids stay valid for the lifetime of the application and can
+     * be used as bit positions.
+     * 
+     * @param name source name
+     * @return the id of the name
+     */
+    public static int getSourceId(String name) {
+        return SOURCE_IDS.intern(name);
+    }
+
+    /**
+     * Returns the source name with the given id.
+     * 
+     * @param id source id
+     * @return source name
+     */
+    public static String getSourceName(int id) {
+        return SOURCE_IDS.getName(id);
+    }
+
     /**
      * Discovers and parses all available sources (mods and game files).
      * Also auto-enables new sources in the state.
+     * <p>
+     * Each Steam user folder, Workshop item, local mod and the game folder is
+     * scanned as a separate task. In parallel mode the tasks run on a bounded
+     * pool of virtual threads, but their results are always concatenated in task
+     * order, and folders are visited in name order, so the resulting source order
+     * does not depend on timing or on the file system.
      */
     public void parseSources() {
         this.sources.clear();
+        long startTime = System.nanoTime();
+        List<Supplier<List<PZSource>>> tasks = new ArrayList<>();
 
         // Discover Steam mods: [SteamItemId]/<mods>/[ModName]/
-        FolderUtils.getSteamModsPath().ifPresent(this::processSteamMods);
+        FolderUtils.getSteamModsPath().ifPresent(path -> processSteamMods(path, tasks));
 
         // Discover Workshop mods: [WorkshopProject]/<Contents>/<mods>/[ModName]/
-        FolderUtils.getWorkshopPath().ifPresent(this::processWorkshopMods);
+        FolderUtils.getWorkshopPath().ifPresent(path -> processWorkshopMods(path, tasks));
 
         // Discover local mods: [ModName]/
-        FolderUtils.getModsPath().ifPresent(this::processLocalMods);
+        FolderUtils.getModsPath().ifPresent(path -> processLocalMods(path, tasks));
 
         // Discover game files
-        FolderUtils.getGamePath().ifPresent(this::processGameFiles);
+        FolderUtils.getGamePath().ifPresent(path -> processGameFiles(path, tasks));
+
+        this.sources.addAll(Config.getInstance().isParallelDiscovery()
+                ? runTasksInParallel(tasks)
+                : tasks.stream().flatMap(task -> task.get().stream()).toList());
+        Logger.info("Discovered " + this.sources.size() + " sources in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
 
         // Detect new sources and auto-enable them in the state
         List<String> currentSources = this.sources.stream()
@@ -99,112 +165,174 @@ public class PZSources {
     }
 
     /**
-     * Processes Steam mods and adds them as sources.
+     * Runs discovery tasks concurrently and concatenates their results in task
+     * order.
+     * 
+     * @param tasks the discovery tasks
+     * @return discovered sources in task order
+     */
+    private List<PZSource> runTasksInParallel(List<Supplier<List<PZSource>>> tasks) {
+        List<PZSource> result = new ArrayList<>();
+        Semaphore permits = new Semaphore(DISCOVERY_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<PZSource>>> futures = new ArrayList<>(tasks.size());
+            for (Supplier<List<PZSource>> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.get();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<List<PZSource>> future : futures) {
+                try {
+                    result.addAll(future.get());
+                } catch (ExecutionException e) {
+                    Logger.warning("Failed to discover sources", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.warning("Source discovery was interrupted");
+        }
+        return result;
+    }
+
+    /**
+     * Adds a discovery task for each Steam user folder.
      * 
      * @param steamPath path to Steam mods root
+     * @param tasks     receives the discovery tasks
      */
-    private void processSteamMods(Path steamPath) {
+    private void processSteamMods(Path steamPath, List<Supplier<List<PZSource>>> tasks) {
         boolean editable = Config.getInstance().isSteamModsPathEditable();
         int priority = 3;
         for (Path userFolder : listDirectories(steamPath)) {
-            Path modsFolder = userFolder.resolve("mods");
-            if (Files.isDirectory(modsFolder)) {
-                for (Path modFolder : listDirectories(modsFolder)) {
-                    String modName = modFolder.getFileName().toString();
-                    addSourcesFromFolder(modName, modFolder, editable, priority);
-                }
-            }
+            tasks.add(() -> discoverModsFolder(userFolder.resolve("mods"), editable, priority));
         }
     }
 
     /**
-     * Processes Workshop mods and adds them as sources.
+     * Adds a discovery task for each Workshop item.
      * 
      * @param workshopPath path to Workshop mods root
+     * @param tasks        receives the discovery tasks
      */
-    private void processWorkshopMods(Path workshopPath) {
+    private void processWorkshopMods(Path workshopPath, List<Supplier<List<PZSource>>> tasks) {
         boolean editable = Config.getInstance().isCachePathEditable();
         int priority = 1;
         for (Path workshopFolder : listDirectories(workshopPath)) {
-            Path modsFolder = workshopFolder.resolve("Contents").resolve("mods");
-            if (Files.isDirectory(modsFolder)) {
-                for (Path modFolder : listDirectories(modsFolder)) {
-                    String modName = modFolder.getFileName().toString();
-                    addSourcesFromFolder(modName, modFolder, editable, priority);
-                }
-            }
+            tasks.add(() -> discoverModsFolder(workshopFolder.resolve("Contents").resolve("mods"), editable,
+                    priority));
         }
     }
 
     /**
-     * Processes local mods and adds them as sources.
+     * Adds a discovery task for each local mod.
      * 
      * @param modsPath path to local mods root
+     * @param tasks    receives the discovery tasks
      */
-    private void processLocalMods(Path modsPath) {
+    private void processLocalMods(Path modsPath, List<Supplier<List<PZSource>>> tasks) {
         boolean editable = Config.getInstance().isCachePathEditable();
         int priority = 2;
         for (Path modFolder : listDirectories(modsPath)) {
             String modName = modFolder.getFileName().toString();
-            addSourcesFromFolder(modName, modFolder, editable, priority);
+            tasks.add(() -> discoverSourcesInFolder(modName, modFolder, editable, priority));
         }
     }
 
     /**
-     * Processes game files and adds them as sources. Game files always use
-     * BUILD_42.
+     * Adds a discovery task for the game files. Game files always use BUILD_42.
      * 
      * @param gamePath path to game files root
+     * @param tasks    receives the discovery tasks
      */
-    private void processGameFiles(Path gamePath) {
+    private void processGameFiles(Path gamePath, List<Supplier<List<PZSource>>> tasks) {
         boolean editable = Config.getInstance().isGamePathEditable();
         int priority = 0;
-        // Game files always use BUILD_42, regardless of detected structure
-        for (Path translationPath : findTranslationPaths(gamePath)) {
-            this.sources
-                    .add(createSource("Game Files", translationPath, new SemanticVersion("42"), editable, priority));
+        tasks.add(() -> {
+            List<PZSource> result = new ArrayList<>();
+            // Game files always use BUILD_42, regardless of detected structure
+            for (Path translationPath : findTranslationPaths(gamePath)) {
+                result.add(createSource("Game Files", translationPath, new SemanticVersion("42"), editable, priority));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Discovers sources in every mod folder of a mods folder.
+     * 
+     * @param modsFolder folder containing mod folders
+     * @param editable   whether the sources are editable
+     * @param priority   priority of the sources
+     * @return discovered sources
+     */
+    private List<PZSource> discoverModsFolder(Path modsFolder, boolean editable, int priority) {
+        List<PZSource> result = new ArrayList<>();
+        for (Path modFolder : listDirectories(modsFolder)) {
+            String modName = modFolder.getFileName().toString();
+            result.addAll(discoverSourcesInFolder(modName, modFolder, editable, priority));
         }
+        return result;
     }
 
     /**
-     * Adds sources discovered in a mod or game folder.
+     * Discovers sources in a mod folder.
      * 
      * @param sourceName   name of the source
      * @param sourceFolder folder containing the source
      * @param editable     whether the source is editable
      * @param priority     priority of the source
+     * @return discovered sources
      */
-    private void addSourcesFromFolder(String sourceName, Path sourceFolder, boolean editable, int priority) {
+    private List<PZSource> discoverSourcesInFolder(String sourceName, Path sourceFolder, boolean editable,
+            int priority) {
+        List<PZSource> result = new ArrayList<>();
         for (Path translationPath : findTranslationPaths(sourceFolder)) {
             SemanticVersion version = detectBuildType(translationPath);
             // todo: 42-common, 42.9, etc.
             // Current BUILD implementation is not enough for all cases.
             // Easy to fix but Languages management will need to be reworked.
-            this.sources.add(
+            result.add(
                     createSource(sourceName + " [" + version.getMajor() + "]", translationPath, version, editable,
                             priority));
         }
+        return result;
     }
 
     /**
-     * Returns all subdirectories of the given path, or an empty list if not a
-     * directory.
+     * Returns all subdirectories of the given path sorted by name, or an empty
+     * list if not a directory. Uses a single directory walk, taking the directory
+     * flag from the attributes read with each entry.
      * 
      * @param path the path to list directories from
      * @return list of subdirectories
      */
     private List<Path> listDirectories(Path path) {
         List<Path> result = new ArrayList<>();
-        if (!Files.isDirectory(path))
-            return result;
+        try {
+            Files.walkFileTree(path, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isDirectory()) {
+                        result.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
 
-        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(path, Files::isDirectory)) {
-            for (Path dir : dirs) {
-                result.add(dir);
-            }
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
         } catch (IOException ignored) {
-            // Directory listing failed, return empty result
+            // Directory listing failed, return what was found
         }
+        result.sort(Comparator.comparing(dir -> dir.getFileName().toString()));
         return result;
     }
 
@@ -212,42 +340,110 @@ public class PZSources {
      * Finds all translation paths within a source folder.
      * Looks for both BUILD_41 and BUILD_42 structures, and version-specific
      * subfolders.
+     * <p>
+     * The folder is walked once with a depth limit, descending only into
+     * directories that can lead to {@code [<version>/]media/lua/shared/Translate}.
+     * Results are ordered as BUILD_41, BUILD_42 ({@code common}), then version
+     * subfolders by name.
      * 
      * @param sourcePath the source folder to search
      * @return list of translation paths
      */
-    private List<Path> findTranslationPaths(Path sourcePath) {
+    static List<Path> findTranslationPaths(Path sourcePath) {
         List<Path> translationPaths = new ArrayList<>();
-
-        // Check for BUILD_41 structure: media/lua/shared/Translate
-        Path build41Path = sourcePath.resolve("media/lua/shared/Translate");
-        if (Files.exists(build41Path)) {
-            translationPaths.add(build41Path);
+        try {
+            Files.walkFileTree(sourcePath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), TRANSLATE_PATH.length + 1,
+                    new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                            Path relative = sourcePath.relativize(dir);
+                            if (isTranslatePath(relative)) {
+                                translationPaths.add(dir);
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            return canLeadToTranslatePath(relative) ? FileVisitResult.CONTINUE
+                                    : FileVisitResult.SKIP_SUBTREE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            // Directories at the depth limit are reported as files
+                            if (attrs.isDirectory() && isTranslatePath(sourcePath.relativize(file))) {
+                                translationPaths.add(file);
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException ignored) {
+            // Walking failed, return what was found
         }
+        translationPaths.sort(Comparator
+                .comparingInt((Path path) -> {
+                    int depth = sourcePath.relativize(path).getNameCount();
+                    if (depth == TRANSLATE_PATH.length) {
+                        return 0;
+                    }
+                    return "common".equalsIgnoreCase(sourcePath.relativize(path).getName(0).toString()) ? 1 : 2;
+                })
+                .thenComparing(path -> path.toString()));
+        return translationPaths;
+    }
 
-        // Check for BUILD_42 structure: common/media/lua/shared/Translate
-        Path build42Path = sourcePath.resolve("common/media/lua/shared/Translate");
-        if (Files.exists(build42Path)) {
-            translationPaths.add(build42Path);
+    /**
+     * Checks whether a relative path is {@code [<version>/]media/lua/shared/Translate}.
+     * 
+     * @param relative path relative to the source folder
+     * @return true if it is a translation path
+     */
+    private static boolean isTranslatePath(Path relative) {
+        int count = relative.getNameCount();
+        int offset = count - TRANSLATE_PATH.length;
+        if (offset != 0 && offset != 1) {
+            return false;
         }
+        return matchesTranslatePath(relative, offset, count);
+    }
 
-        // Check subdirectories for version-specific structures (e.g., "41", "42", etc.)
-        try (DirectoryStream<Path> subdirs = Files.newDirectoryStream(sourcePath, Files::isDirectory)) {
-            for (Path subdir : subdirs) {
-                String subdirName = subdir.getFileName().toString();
-                if ("common".equals(subdirName))
-                    continue; // Already checked above
+    /**
+     * Checks whether a relative directory is a prefix of a translation path and
+     * is worth descending into.
+     * 
+     * @param relative path relative to the source folder
+     * @return true if the walk should descend into the directory
+     */
+    private static boolean canLeadToTranslatePath(Path relative) {
+        int count = relative.getNameCount();
+        if (relative.toString().isEmpty() || count == 1) {
+            // The source folder itself, and any first-level folder (version folder or media)
+            return true;
+        }
+        return matchesTranslatePath(relative, 0, count) || matchesTranslatePath(relative, 1, count);
+    }
 
-                Path versionTranslate = subdir.resolve("media/lua/shared/Translate");
-                if (Files.exists(versionTranslate)) {
-                    translationPaths.add(versionTranslate);
-                }
+    /**
+     * Checks whether the names of a relative path from {@code offset} match the
+     * start of {@link #TRANSLATE_PATH}, ignoring case.
+     * 
+     * @param relative path relative to the source folder
+     * @param offset   index of the first name to compare
+     * @param count    number of names in the path
+     * @return true if the names match
+     */
+    private static boolean matchesTranslatePath(Path relative, int offset, int count) {
+        if (count - offset > TRANSLATE_PATH.length) {
+            return false;
+        }
+        for (int i = offset; i < count; i++) {
+            if (!TRANSLATE_PATH[i - offset].equalsIgnoreCase(relative.getName(i).toString())) {
+                return false;
             }
-        } catch (IOException ignored) {
-            // Subdirectory listing failed, return what was found
         }
-
-        return translationPaths;
+        return true;
     }
 
     /**
@@ -260,21 +456,22 @@ public class PZSources {
      * </ul>
      * <p>
      * Note: This method should NOT be used for game files directory - game files
-     * always use BUILD_42 regardless of structure.
+     * always use BUILD_42 regardless of structure. Folder names are compared
+     * ignoring case.
      * 
      * @param translationPath path to translation folder
      * @return detected build version
      */
-    SemanticVersion detectBuildType(Path translationPath) {
-        String pathString = translationPath.toString().replace('\\', '/');
+    static SemanticVersion detectBuildType(Path translationPath) {
+        String pathString = translationPath.toString().replace('\\', '/').toLowerCase(Locale.ROOT);
 
         // Check if path contains common folder - always BUILD_42
-        if (pathString.contains("/common/media/lua/shared/Translate")) {
+        if (pathString.contains("/common/media/lua/shared/translate")) {
             return new SemanticVersion("42");
         }
 
         // Check for version 42 (simple or semver: 42, 42.x, 42.x.x, etc.)
-        if (pathString.matches(".*/42(?:\\.\\d+)*+/media/lua/shared/Translate$")) {
+        if (pathString.matches(".*/42(?:\\.\\d+)*+/media/lua/shared/translate$")) {
             return new SemanticVersion("42");
         }
 
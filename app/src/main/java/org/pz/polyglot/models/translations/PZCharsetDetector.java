@@ -0,0 +1,128 @@
+package org.pz.polyglot.models.translations;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Detects the charset of a translation file from bytes that were read once.
+ * Each candidate is tried with a strict decoder that stops at the first
+ * malformed or unmappable byte; the next candidate then decodes the same
+ * in-memory bytes, so the file is never read from disk again.
+ */
+public final class PZCharsetDetector {
+    /**
+     * A candidate charset that was rejected during detection.
+     *
+     * @param charset    the rejected charset
+     * @param byteOffset offset of the first byte the decoder could not accept
+     * @param reason     short description of the decoding error
+     */
+    public record Rejection(Charset charset, int byteOffset, String reason) {
+        /**
+         * Returns a human-readable description of the rejection.
+         *
+         * @return the description
+         */
+        @Override
+        public String toString() {
+            return charset.name() + " " + reason + " at byte " + byteOffset;
+        }
+    }
+
+    /**
+     * The outcome of a detection.
+     *
+     * @param charset    the charset that decoded the whole input, or null if
+     *                   none did
+     * @param chars      the decoded characters
+     * @param length     the number of valid characters in {@code chars}
+     * @param rejections candidates rejected before the winning one, in order
+     */
+    public record Detection(Charset charset, char[] chars, int length, List<Rejection> rejections) {
+        /**
+         * Checks whether a candidate other than the preferred one was used.
+         *
+         * @return true if at least one candidate was rejected before a match
+         */
+        public boolean isFallback() {
+            return charset != null && !rejections.isEmpty();
+        }
+
+        /**
+         * Explains why the detected charset was chosen.
+         *
+         * @return the explanation
+         */
+        public String describe() {
+            if (charset == null) {
+                return "No candidate charset could decode the file: " + rejections;
+            }
+            if (rejections.isEmpty()) {
+                return charset.name() + ": preferred charset decoded the file";
+            }
+            return charset.name() + ": fallback after " + rejections;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PZCharsetDetector() {
+    }
+
+    /**
+     * Decodes the bytes with the first candidate charset that accepts all of
+     * them. The buffer position is not modified.
+     *
+     * @param bytes      the file contents
+     * @param candidates the charsets to try, in order of preference
+     * @return the detection result
+     */
+    public static Detection detect(ByteBuffer bytes, Collection<Charset> candidates) {
+        List<Rejection> rejections = new ArrayList<>();
+        char[] buffer = null;
+        for (Charset charset : candidates) {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            int capacity = (int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte()) + 1;
+            if (buffer == null || buffer.length < capacity) {
+                buffer = new char[capacity];
+            }
+            ByteBuffer in = bytes.duplicate();
+            CharBuffer out = CharBuffer.wrap(buffer);
+            CoderResult result = decoder.decode(in, out, true);
+            if (result.isUnderflow()) {
+                result = decoder.flush(out);
+            }
+            if (result.isUnderflow()) {
+                return new Detection(charset, buffer, out.position(), List.copyOf(rejections));
+            }
+            rejections.add(new Rejection(charset, in.position() - bytes.position(), describe(result)));
+        }
+        return new Detection(null, new char[0], 0, List.copyOf(rejections));
+    }
+
+    /**
+     * Describes a decoder error result.
+     *
+     * @param result the failed result
+     * @return short description of the error
+     */
+    private static String describe(CoderResult result) {
+        if (result.isMalformed()) {
+            return "malformed input (" + result.length() + " bytes)";
+        }
+        if (result.isUnmappable()) {
+            return "unmappable character (" + result.length() + " bytes)";
+        }
+        return "output overflow";
+    }
+}
@@ -0,0 +1,137 @@
+package org.pz.polyglot.models.translations;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the charset detection outcome of every translation file that was
+ * parsed. Safe to update from parallel loading threads.
+ */
+public final class PZCharsetStats {
+    /**
+     * Detection outcome for a single file.
+     *
+     * @param path     the translation file
+     * @param charset  the charset used to decode the file, or null if none worked
+     * @param fallback whether a less preferred charset was used
+     * @param reason   explanation of why the charset was chosen
+     */
+    public record FileReport(Path path, Charset charset, boolean fallback, String reason) {
+    }
+
+    /** Singleton instance. */
+    private static final PZCharsetStats INSTANCE = new PZCharsetStats();
+
+    /** Reports indexed by normalized file path. */
+    private final Map<Path, FileReport> reports = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZCharsetStats() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZCharsetStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the detection outcome for a file, replacing any previous report.
+     *
+     * @param path      the translation file
+     * @param detection the detection result
+     */
+    public void record(Path path, PZCharsetDetector.Detection detection) {
+        record(path, detection.charset(), detection.isFallback(), detection.describe());
+    }
+
+    /**
+     * Records a previously determined outcome for a file, replacing any previous
+     * report.
+     *
+     * @param path     the translation file
+     * @param charset  the charset used to decode the file, or null if none worked
+     * @param fallback whether a less preferred charset was used
+     * @param reason   explanation of why the charset was chosen
+     */
+    public void record(Path path, Charset charset, boolean fallback, String reason) {
+        Path key = path.toAbsolutePath().normalize();
+        reports.put(key, new FileReport(key, charset, fallback, reason));
+    }
+
+    /**
+     * Returns the report for a file, if it was parsed.
+     *
+     * @param path the translation file
+     * @return the report, or empty if unknown
+     */
+    public Optional<FileReport> getReport(Path path) {
+        return Optional.ofNullable(reports.get(path.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Returns the reports of all parsed files, ordered by path.
+     *
+     * @return the reports
+     */
+    public List<FileReport> getReports() {
+        return reports.values().stream().sorted(Comparator.comparing(FileReport::path)).toList();
+    }
+
+    /**
+     * Returns the number of files with a recorded outcome.
+     *
+     * @return the file count
+     */
+    public int getFileCount() {
+        return reports.size();
+    }
+
+    /**
+     * Returns the number of files decoded with a fallback charset.
+     *
+     * @return the fallback count
+     */
+    public int getFallbackCount() {
+        return (int) reports.values().stream().filter(FileReport::fallback).count();
+    }
+
+    /**
+     * Returns the number of files no candidate charset could decode.
+     *
+     * @return the failure count
+     */
+    public int getFailedCount() {
+        return (int) reports.values().stream().filter(r -> r.charset() == null).count();
+    }
+
+    /**
+     * Returns a one-line summary suitable for the system monitor.
+     *
+     * @return the summary, or an empty string if nothing was parsed yet
+     */
+    public String summary() {
+        if (reports.isEmpty()) {
+            return "";
+        }
+        return String.format("Charsets: %d files, %d fallback, %d failed", getFileCount(), getFallbackCount(),
+                getFailedCount());
+    }
+
+    /**
+     * Removes all recorded outcomes.
+     */
+    public void clear() {
+        reports.clear();
+    }
+}
@@ -0,0 +1,245 @@
+package org.pz.polyglot.models.translations;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+
+/**
+ * Column-oriented storage for the loaded variants of one translation entry.
+ * <p>
+ * Instead of one {@link PZTranslationVariant} per row, the source, language,
+ * type and charsets of each row are kept in parallel arrays. Sources and
+ * languages are stored as references, which cost no more than table indices
+ * and need no shared table; the type is its ordinal and the charsets are
+ * small indices into a table of the few charsets in use. Texts are stored as
+ * given; the loader already shares repeated ones through {@link PZStringPool}.
+ * Reading a row takes no lock. An entry turns its rows into variant objects
+ * only when they are first needed, for example when the entry is shown or
+ * edited.
+ * <p>
+ * A null text means the text has not been loaded, see
+ * {@link PZVariantTextLoader}.
+ * <p>
+ * Rows are only appended, on the loading thread; reads from other threads see
+ * at most the rows that were there when the entry was published.
+ */
+final class PZCompactVariants {
+    /**
+     * Charsets by index; index 0 stands for no charset. Replaced by a longer
+     * copy when a charset is added, so rows are read without locking.
+     */
+    private static volatile Charset[] charsets = new Charset[1];
+    /** All translation types, by ordinal. */
+    private static final PZTranslationType[] TYPES = PZTranslationType.values();
+
+    /** Number of rows. */
+    private int size;
+    /** Source per row. */
+    private PZSource[] sources = new PZSource[1];
+    /** Language per row. */
+    private PZLanguage[] languages = new PZLanguage[1];
+    /** Type ordinal per row, or -1 for no type. */
+    private byte[] types = new byte[1];
+    /** Index of the expected charset per row. */
+    private byte[] supposedCharsets = new byte[1];
+    /** Index of the detected charset per row. */
+    private byte[] usedCharsets = new byte[1];
+    /** Text per row, shared between rows with equal texts, or null if not loaded. */
+    private String[] texts = new String[1];
+
+    /**
+     * Appends a row.
+     *
+     * @param source          the source of the variant
+     * @param language        the language of the variant
+     * @param type            the type of the variant, may be null
+     * @param text            the text of the variant
+     * @param supposedCharset the expected charset, may be null
+     * @param usedCharset     the detected charset, may be null
+     */
+    void add(PZSource source, PZLanguage language, PZTranslationType type, String text, Charset supposedCharset,
+            Charset usedCharset) {
+        if (size == texts.length) {
+            int capacity = size * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            languages = Arrays.copyOf(languages, capacity);
+            types = Arrays.copyOf(types, capacity);
+            supposedCharsets = Arrays.copyOf(supposedCharsets, capacity);
+            usedCharsets = Arrays.copyOf(usedCharsets, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        sources[size] = source;
+        languages[size] = language;
+        supposedCharsets[size] = charsetIndex(supposedCharset);
+        usedCharsets[size] = charsetIndex(usedCharset);
+        texts[size] = text;
+        types[size] = type == null ? -1 : (byte) type.ordinal();
+        size++;
+    }
+
+    /**
+     * Shrinks the arrays to the number of rows.
+     */
+    void trim() {
+        if (size < texts.length) {
+            sources = Arrays.copyOf(sources, size);
+            languages = Arrays.copyOf(languages, size);
+            types = Arrays.copyOf(types, size);
+            supposedCharsets = Arrays.copyOf(supposedCharsets, size);
+            usedCharsets = Arrays.copyOf(usedCharsets, size);
+            texts = Arrays.copyOf(texts, size);
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the source of a row.
+     *
+     * @param row the row
+     * @return the source
+     */
+    PZSource source(int row) {
+        return sources[row];
+    }
+
+    /**
+     * Returns the language of a row.
+     *
+     * @param row the row
+     * @return the language
+     */
+    PZLanguage language(int row) {
+        return languages[row];
+    }
+
+    /**
+     * Returns the source id of a row.
+     *
+     * @param row the row
+     * @return the source id
+     */
+    int sourceId(int row) {
+        return sources[row].getId();
+    }
+
+    /**
+     * Returns the language id of a row.
+     *
+     * @param row the row
+     * @return the language id
+     */
+    int languageId(int row) {
+        return languages[row].getId();
+    }
+
+    /**
+     * Returns the type of a row.
+     *
+     * @param row the row
+     * @return the type, or null if the row has none
+     */
+    PZTranslationType type(int row) {
+        return types[row] < 0 ? null : TYPES[types[row]];
+    }
+
+    /**
+     * Returns the text of a row.
+     *
+     * @param row the row
+     * @return the text, or null if not loaded
+     */
+    String text(int row) {
+        return texts[row];
+    }
+
+    /**
+     * Replaces the text of a row, to load or evict it.
+     *
+     * @param row  the row
+     * @param text the text, or null to evict it
+     */
+    void setText(int row, String text) {
+        texts[row] = text;
+    }
+
+    /**
+     * Returns whether any row has no text loaded.
+     *
+     * @return true if a text is missing
+     */
+    boolean hasMissingText() {
+        for (int i = 0; i < size; i++) {
+            if (texts[i] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a row comes from the file of a source, language and type.
+     *
+     * @param row      the row
+     * @param source   the source
+     * @param language the language
+     * @param type     the type
+     * @return true if the row comes from that file
+     */
+    boolean isFrom(int row, PZSource source, PZLanguage language, PZTranslationType type) {
+        return sources[row] == source && languages[row] == language && type(row) == type;
+    }
+
+    /**
+     * Creates the variant object for a row.
+     *
+     * @param entry the entry the row belongs to
+     * @param row   the row
+     * @return a new variant with the row's data
+     */
+    PZTranslationVariant toVariant(PZTranslationEntry entry, int row) {
+        Charset[] table = charsets;
+        return new PZTranslationVariant(entry, sources[row], languages[row], type(row), texts[row],
+                table[supposedCharsets[row]], table[usedCharsets[row]]);
+    }
+
+    /**
+     * Returns the index of a charset, adding it to the table if needed. The
+     * table only holds the handful of charsets languages are read with.
+     *
+     * @param charset the charset, may be null
+     * @return the index, 0 for null
+     */
+    private static byte charsetIndex(Charset charset) {
+        if (charset == null) {
+            return 0;
+        }
+        Charset[] table = charsets;
+        for (int i = 1; i < table.length; i++) {
+            if (table[i].equals(charset)) {
+                return (byte) i;
+            }
+        }
+        synchronized (PZCompactVariants.class) {
+            table = charsets;
+            for (int i = 1; i < table.length; i++) {
+                if (table[i].equals(charset)) {
+                    return (byte) i;
+                }
+            }
+            Charset[] grown = Arrays.copyOf(table, table.length + 1);
+            grown[table.length] = charset;
+            charsets = grown;
+            return (byte) table.length;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.utils.CsvUtils;
+
+/**
+ * Translation coverage per source, translation type and language.
+ * <p>
+ * For every source and type the matrix holds the number of keys with a
+ * reference language text and, for each language, how many keys have a text
+ * in that language and how many of the reference keys do. A key counts for a
+ * language when one of its variants in that source and type has saved,
+ * non-empty text; a new variant counts once it is saved. Texts that are not
+ * loaded yet count as present.
+ * <p>
+ * The matrix is built in one parallel pass after translations are loaded.
+ * Later changes are applied per entry through
+ * {@link #update(PZTranslationEntry, Runnable)}, which subtracts the entry's
+ * share, applies the change and adds the new share, so no other entry is
+ * looked at. Until the first {@link #recompute(Collection)}, updates are
+ * ignored.
+ */
+public final class PZCoverageStats {
+    /**
+     * Coverage of one language in one source and type.
+     *
+     * @param source        the source
+     * @param type          the translation type, may be null
+     * @param language      the language code
+     * @param referenceKeys the number of keys with a reference text
+     * @param keys          the number of keys with a text in the language
+     * @param translated    the number of reference keys with a text in the
+     *                      language
+     */
+    public record Cell(PZSource source, PZTranslationType type, String language, int referenceKeys, int keys,
+            int translated) {
+        /**
+         * Returns the number of reference keys without a text in the language.
+         *
+         * @return the number of missing translations
+         */
+        public int missing() {
+            return referenceKeys - translated;
+        }
+
+        /**
+         * Returns the share of reference keys that are translated.
+         *
+         * @return the coverage in percent, 100 if there are no reference keys
+         */
+        public double percent() {
+            return referenceKeys == 0 ? 100.0 : translated * 100.0 / referenceKeys;
+        }
+    }
+
+    /**
+     * A source and type pair; sources compare by identity.
+     *
+     * @param source the source
+     * @param type   the translation type, may be null
+     */
+    private record Group(PZSource source, PZTranslationType type) {
+    }
+
+    /**
+     * Counters of one group, indexed by language id.
+     */
+    private static final class Counts {
+        /** Keys with a reference text. */
+        private int referenceKeys;
+        /** Keys with a text, by language id. */
+        private int[] keys = new int[0];
+        /** Reference keys with a text, by language id. */
+        private int[] translated = new int[0];
+
+        /**
+         * Adds or subtracts the share of one key.
+         *
+         * @param languages    ids of the languages the key has a text in
+         * @param hasReference whether the key has a reference text
+         * @param sign         1 to add, -1 to subtract
+         */
+        void add(BitSet languages, boolean hasReference, int sign) {
+            grow(languages.length());
+            if (hasReference) {
+                referenceKeys += sign;
+            }
+            for (int id = languages.nextSetBit(0); id >= 0; id = languages.nextSetBit(id + 1)) {
+                keys[id] += sign;
+                if (hasReference) {
+                    translated[id] += sign;
+                }
+            }
+        }
+
+        /**
+         * Adds the counters of another group.
+         *
+         * @param other the counters to add
+         */
+        void merge(Counts other) {
+            grow(other.keys.length);
+            referenceKeys += other.referenceKeys;
+            for (int id = 0; id < other.keys.length; id++) {
+                keys[id] += other.keys[id];
+                translated[id] += other.translated[id];
+            }
+        }
+
+        /**
+         * Makes room for language ids below the given size.
+         *
+         * @param size the number of language ids needed
+         */
+        private void grow(int size) {
+            if (size > keys.length) {
+                keys = Arrays.copyOf(keys, size);
+                translated = Arrays.copyOf(translated, size);
+            }
+        }
+    }
+
+    /** Singleton instance. */
+    private static final PZCoverageStats INSTANCE = new PZCoverageStats();
+
+    /** Counters by source and type. */
+    private Map<Group, Counts> groups = new HashMap<>();
+    /** Code of the language keys are counted from. */
+    private String reference = "EN";
+    /** Whether the matrix covers all loaded translations. */
+    private boolean built;
+    /** Incremented after every change of the matrix. */
+    private final ReadOnlyIntegerWrapper revision = new ReadOnlyIntegerWrapper();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZCoverageStats() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZCoverageStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a counter that changes whenever the matrix changes. Listeners
+     * are notified on the thread that made the change, while the matrix is
+     * locked, so they should only schedule work.
+     *
+     * @return the revision property
+     */
+    public ReadOnlyIntegerProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the code of the reference language.
+     *
+     * @return the reference language code
+     */
+    public synchronized String getReference() {
+        return reference;
+    }
+
+    /**
+     * Changes the reference language and rebuilds the matrix from all loaded
+     * translations.
+     *
+     * @param code the reference language code
+     */
+    public void setReference(String code) {
+        synchronized (this) {
+            if (code.equals(reference)) {
+                return;
+            }
+            reference = code;
+        }
+        recompute(PZTranslations.getInstance().getAllTranslations().values());
+    }
+
+    /**
+     * Discards the matrix. Until the next {@link #recompute(Collection)},
+     * updates are ignored.
+     */
+    public synchronized void clear() {
+        groups = new HashMap<>();
+        built = false;
+    }
+
+    /**
+     * Rebuilds the matrix from the given entries in one parallel pass. The
+     * entries must not change during the pass.
+     *
+     * @param all all translation entries
+     */
+    public void recompute(Collection<PZTranslationEntry> all) {
+        long startTime = System.nanoTime();
+        int referenceId = PZLanguages.getLanguageId(getReference());
+        Map<Group, Counts> result = all.parallelStream().collect(HashMap::new,
+                (counts, entry) -> accumulate(counts, entry, referenceId, 1),
+                PZCoverageStats::mergeInto);
+        synchronized (this) {
+            groups = result;
+            built = true;
+            revision.set(revision.get() + 1);
+        }
+        Logger.info("Computed coverage of " + all.size() + " translation keys (" + result.size()
+                + " source and type groups) in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Applies a change to one entry and updates the matrix for it. Use for
+     * every change that adds or removes variants of an existing entry or
+     * changes their saved text.
+     *
+     * @param entry  the entry that changes
+     * @param change the change to apply
+     */
+    public synchronized void update(PZTranslationEntry entry, Runnable change) {
+        if (!built) {
+            change.run();
+            return;
+        }
+        int referenceId = PZLanguages.getLanguageId(reference);
+        accumulate(groups, entry, referenceId, -1);
+        change.run();
+        accumulate(groups, entry, referenceId, 1);
+        revision.set(revision.get() + 1);
+    }
+
+    /**
+     * Returns the matrix. Every group gets a cell for every language that has
+     * a text anywhere, so languages missing from a group show up with zero
+     * keys.
+     *
+     * @return the cells, ordered by source priority, source name, type and
+     *         language with the reference language first
+     */
+    public synchronized List<Cell> getCells() {
+        BitSet languages = new BitSet();
+        for (Counts counts : groups.values()) {
+            for (int id = 0; id < counts.keys.length; id++) {
+                if (counts.keys[id] > 0) {
+                    languages.set(id);
+                }
+            }
+        }
+        int referenceId = PZLanguages.getLanguageId(reference);
+        List<String> codes = new ArrayList<>();
+        for (int id = languages.nextSetBit(0); id >= 0; id = languages.nextSetBit(id + 1)) {
+            if (id != referenceId) {
+                codes.add(PZLanguages.getLanguageCode(id));
+            }
+        }
+        codes.sort(Comparator.naturalOrder());
+        codes.add(0, reference);
+
+        List<Map.Entry<Group, Counts>> sorted = new ArrayList<>(groups.entrySet());
+        sorted.sort(Comparator
+                .comparing((Map.Entry<Group, Counts> group) -> group.getKey().source().getPriority())
+                .thenComparing(group -> group.getKey().source().getName())
+                .thenComparing(group -> group.getKey().type(), Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<Cell> cells = new ArrayList<>();
+        for (Map.Entry<Group, Counts> group : sorted) {
+            Counts counts = group.getValue();
+            if (counts.referenceKeys == 0 && Arrays.stream(counts.keys).allMatch(count -> count == 0)) {
+                continue;
+            }
+            for (String code : codes) {
+                int id = PZLanguages.getLanguageId(code);
+                int keys = id < counts.keys.length ? counts.keys[id] : 0;
+                int translated = id < counts.translated.length ? counts.translated[id] : 0;
+                cells.add(new Cell(group.getKey().source(), group.getKey().type(), code, counts.referenceKeys, keys,
+                        translated));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Formats cells as CSV with a header row, one line per cell.
+     *
+     * @param cells the cells to format
+     * @return the CSV text, lines ending with a line feed
+     */
+    public static String toCsv(List<Cell> cells) {
+        StringBuilder csv = new StringBuilder("source,type,language,reference_keys,keys,translated,missing,coverage\n");
+        for (Cell cell : cells) {
+            csv.append(CsvUtils.line(cell.source().getName(), cell.type() != null ? cell.type() : "",
+                    cell.language(), cell.referenceKeys(), cell.keys(), cell.translated(), cell.missing(),
+                    String.format(Locale.ROOT, "%.2f", cell.percent()))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Adds or subtracts the share of one entry. Reads the variant columns only,
+     * so no variant objects are created.
+     *
+     * @param target      the counters to update
+     * @param entry       the entry
+     * @param referenceId the id of the reference language
+     * @param sign        1 to add, -1 to subtract
+     */
+    private static void accumulate(Map<Group, Counts> target, PZTranslationEntry entry, int referenceId, int sign) {
+        int count = entry.getVariantCount();
+        if (count == 0) {
+            return;
+        }
+        Map<Group, BitSet> languages = new HashMap<>(4);
+        for (int i = 0; i < count; i++) {
+            int languageId = entry.getVariantLanguageId(i);
+            if (languageId < 0 || !entry.hasSavedVariantText(i)) {
+                continue;
+            }
+            languages.computeIfAbsent(new Group(entry.getVariantSource(i), entry.getVariantType(i)),
+                    group -> new BitSet()).set(languageId);
+        }
+        for (Map.Entry<Group, BitSet> group : languages.entrySet()) {
+            target.computeIfAbsent(group.getKey(), key -> new Counts())
+                    .add(group.getValue(), group.getValue().get(referenceId), sign);
+        }
+    }
+
+    /**
+     * Merges the counters of one partial result into another.
+     *
+     * @param target the counters to merge into
+     * @param other  the counters to merge
+     */
+    private static void mergeInto(Map<Group, Counts> target, Map<Group, Counts> other) {
+        other.forEach((group, counts) -> target.computeIfAbsent(group, key -> new Counts()).merge(counts));
+    }
+}
@@ -0,0 +1,181 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool that deduplicates keys and values while translation files are
+ * loaded.
+ * <p>
+ * The pool is a fixed-size hash table of strings. A lookup returns the pooled
+ * string if it is equal to the requested text, and otherwise stores the new
+ * string in its slot, evicting whatever was there. Memory use is therefore
+ * bounded, and lookups from parallel loading threads need no locking: a race
+ * only costs a missed deduplication. Text given as a char range is compared in
+ * place, so a hit allocates nothing.
+ * <p>
+ * A pool lives for one bulk parse, such as a full load or the texts of one
+ * language, and is handed to the {@link PZTranslationScanner}s of that parse;
+ * it keeps nothing alive once the parse is done. Each pool counts its own
+ * savings; a full load reports its pool's savings to the system monitor with
+ * {@link #report()}.
+ */
+public final class PZStringPool {
+    /** Number of slots; a power of two. */
+    private static final int CAPACITY = 1 << 18;
+    /** Approximate size of a string object and its array headers, in bytes. */
+    private static final int STRING_OVERHEAD = 40;
+    /** Bytes saved by the pool of the latest full load, shown by {@link #summary()}. */
+    private static volatile long reportedSavedBytes;
+
+    /** Pooled strings by slot. */
+    private final String[] slots = new String[CAPACITY];
+    /** Number of lookups answered from this pool. */
+    private final LongAdder hits = new LongAdder();
+    /** Estimated bytes not allocated or retained thanks to this pool. */
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Constructs an empty pool.
+     */
+    public PZStringPool() {
+    }
+
+    /**
+     * Returns a pooled string equal to a range of chars.
+     *
+     * @param chars  the chars
+     * @param offset start of the range
+     * @param length length of the range
+     * @return the pooled or newly created string
+     */
+    public String intern(char[] chars, int offset, int length) {
+        int hash = 0;
+        int bits = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+            bits |= chars[i];
+        }
+        int slot = slotOf(hash);
+        String pooled = slots[slot];
+        if (pooled != null && pooled.length() == length && pooled.hashCode() == hash
+                && regionEquals(pooled, chars, offset)) {
+            recordHit(length, bits < 256);
+            return pooled;
+        }
+        String created = new String(chars, offset, length);
+        slots[slot] = created;
+        return created;
+    }
+
+    /**
+     * Returns a pooled string equal to the given one. Savings of a hit are
+     * counted as if the text were Latin-1, so they are not overestimated.
+     *
+     * @param text the text, may be null
+     * @return the pooled string, the given one if it is new, or null
+     */
+    public String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        int slot = slotOf(text.hashCode());
+        String pooled = slots[slot];
+        if (text.equals(pooled)) {
+            if (pooled != text) {
+                recordHit(pooled.length(), true);
+            }
+            return pooled;
+        }
+        slots[slot] = text;
+        return text;
+    }
+
+    /**
+     * Records that a string was shared instead of kept as a separate copy,
+     * for deduplication done outside the pools. Counted as Latin-1, like
+     * {@link #intern(String)} hits.
+     *
+     * @param shared the string that is shared
+     */
+    public void recordShared(String shared) {
+        recordHit(shared.length(), true);
+    }
+
+    /**
+     * Returns the number of lookups answered from this pool.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes saved by this pool.
+     *
+     * @return the saved bytes
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * Makes the savings of this pool the figure shown by {@link #summary()},
+     * replacing the one of the previous load.
+     */
+    public void report() {
+        reportedSavedBytes = getSavedBytes();
+    }
+
+    /**
+     * Returns a one-line summary of the latest reported pool, suitable for the
+     * system monitor.
+     *
+     * @return the summary, or an empty string if nothing was deduplicated
+     */
+    public static String summary() {
+        long saved = reportedSavedBytes;
+        if (saved == 0) {
+            return "";
+        }
+        return String.format("Dedup: %.1f MB saved", saved / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Maps a hash code to a slot, spreading the high bits.
+     *
+     * @param hash the hash code
+     * @return the slot
+     */
+    private static int slotOf(int hash) {
+        return (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+    }
+
+    /**
+     * Compares a string with a char range of the same length.
+     *
+     * @param text   the string
+     * @param chars  the chars
+     * @param offset start of the range
+     * @return true if they are equal
+     */
+    private static boolean regionEquals(String text, char[] chars, int offset) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts a hit and the bytes of the copy it avoided.
+     *
+     * @param length the length of the shared string
+     * @param latin1 whether the string is stored with one byte per char
+     */
+    private void recordHit(int length, boolean latin1) {
+        hits.increment();
+        savedBytes.add(STRING_OVERHEAD + (long) length * (latin1 ? 1 : 2));
+    }
+}
@@ -0,0 +1,523 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.utils.AtomicFileUtils;
+
+/**
+ * Binary snapshot of parsed translation files, stored next to the config file
+ * so unchanged files do not have to be parsed again on the next start.
+ * <p>
+ * Each cached file is keyed by its absolute path, size, modification time and
+ * the list of candidate charsets it was decoded with; a change to any of them
+ * makes the entry stale. The snapshot is memory-mapped when opened and only the
+ * small per-file headers are read eagerly; translation pairs are decoded when a
+ * file is looked up.
+ * <p>
+ * A new snapshot is written to a pending file while translations are loaded,
+ * one file at a time, and moved over the old one atomically. If the move
+ * fails because the old snapshot is still mapped (as on Windows), the pending
+ * file is promoted the next time the cache is opened.
+ */
+public final class PZTranslationCache {
+    /**
+     * A parsed translation file as stored in the cache.
+     *
+     * @param path         absolute normalized path of the file
+     * @param size         file size in bytes
+     * @param lastModified file modification time in milliseconds
+     * @param charsets     key describing the candidate charsets, see
+     *                     {@link #charsetsKey(Collection)}
+     * @param charset      the charset used to decode the file, or null if none
+     *                     worked
+     * @param fallback     whether a less preferred charset was used
+     * @param reason       explanation of why the charset was chosen
+     * @param pairs        the translation pairs in file order
+     */
+    public record Entry(String path, long size, long lastModified, String charsets, Charset charset,
+            boolean fallback, String reason, List<PZTranslationParser.Pair> pairs) {
+    }
+
+    /**
+     * Location and metadata of a cached file inside the mapped snapshot.
+     *
+     * @param size          file size in bytes
+     * @param lastModified  file modification time in milliseconds
+     * @param charsets      candidate charsets key
+     * @param charset       name of the detected charset, empty if none
+     * @param fallback      whether a less preferred charset was used
+     * @param reason        explanation of why the charset was chosen
+     * @param payloadOffset offset of the pair count in the snapshot
+     * @param payloadLength length of the pairs in the snapshot, in bytes
+     */
+    private record IndexEntry(long size, long lastModified, String charsets, String charset, boolean fallback,
+            String reason, int payloadOffset, int payloadLength) {
+    }
+
+    /** Name of the snapshot file. */
+    public static final String FILE_NAME = "translations.cache";
+    /** Magic number identifying snapshot files ("PZTC"). */
+    private static final int MAGIC = 0x505A5443;
+    /** Snapshot format version; bump when the layout or parser semantics change. */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * Files modified this recently before a snapshot is written are left out, so
+     * an edit within the same timestamp granularity cannot go unnoticed.
+     */
+    private static final long RACY_WINDOW_MILLIS = 2_000;
+
+    /** Path to the snapshot file. */
+    private final Path path;
+    /** The mapped snapshot, or null if there is none. */
+    private final ByteBuffer buffer;
+    /** Cached files indexed by path. */
+    private final Map<String, IndexEntry> index;
+
+    /**
+     * Constructs a cache over an opened snapshot.
+     *
+     * @param path   path to the snapshot file
+     * @param buffer the mapped snapshot, or null
+     * @param index  cached files indexed by path
+     */
+    private PZTranslationCache(Path path, ByteBuffer buffer, Map<String, IndexEntry> index) {
+        this.path = path;
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    /**
+     * Opens the snapshot in the given directory. A missing, outdated or corrupt
+     * snapshot results in an empty cache.
+     *
+     * @param directory the directory holding the snapshot
+     * @return the opened cache
+     */
+    public static PZTranslationCache open(Path directory) {
+        Path path = directory.resolve(FILE_NAME);
+        promotePending(path);
+        if (!Files.isRegularFile(path)) {
+            return new PZTranslationCache(path, null, Map.of());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                Logger.warning("Translation cache is too large, ignoring it: " + path);
+                return new PZTranslationCache(path, null, Map.of());
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PZTranslationCache(path, mapped, readIndex(mapped));
+        } catch (IOException | RuntimeException e) {
+            Logger.warning("Ignoring unreadable translation cache: " + path, e);
+            return new PZTranslationCache(path, null, Map.of());
+        }
+    }
+
+    /**
+     * Moves a snapshot left pending by a previous run over the current one.
+     *
+     * @param path path to the snapshot file
+     */
+    private static void promotePending(Path path) {
+        Path pending = pendingPath(path);
+        if (!Files.exists(pending)) {
+            return;
+        }
+        try {
+            AtomicFileUtils.move(pending, path);
+        } catch (IOException e) {
+            Logger.warning("Failed to promote pending translation cache: " + pending, e);
+        }
+    }
+
+    /**
+     * Reads the per-file headers of a snapshot.
+     *
+     * @param buffer the mapped snapshot
+     * @return cached files indexed by path
+     * @throws IOException if the snapshot has an unknown format
+     */
+    private static Map<String, IndexEntry> readIndex(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < 12 || in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown translation cache format");
+        }
+        int count = in.getInt();
+        Map<String, IndexEntry> index = HashMap.newHashMap(Math.max(0, Math.min(count, in.remaining() / 32)));
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < count; i++) {
+            String filePath = readString(in, scratch);
+            long size = in.getLong();
+            long lastModified = in.getLong();
+            String charsets = readString(in, scratch);
+            String charset = readString(in, scratch);
+            boolean fallback = in.get() != 0;
+            String reason = readString(in, scratch);
+            int payloadLength = in.getInt();
+            int payloadOffset = in.position();
+            in.position(payloadOffset + payloadLength);
+            index.put(filePath, new IndexEntry(size, lastModified, charsets, charset, fallback, reason, payloadOffset,
+                    payloadLength));
+        }
+        return index;
+    }
+
+    /**
+     * Returns the cached entry for a file if it is still valid for the given
+     * attributes and charset candidates.
+     * Safe to call from multiple threads.
+     *
+     * @param file         the translation file
+     * @param size         current file size in bytes
+     * @param lastModified current modification time in milliseconds
+     * @param charsets     current candidate charsets key
+     * @param pool         the string pool of the load, or null
+     * @return the cached entry, or empty if missing or stale
+     */
+    public Optional<Entry> lookup(Path file, long size, long lastModified, String charsets, PZStringPool pool) {
+        String key = keyOf(file);
+        IndexEntry meta = index.get(key);
+        if (meta == null || meta.size() != size || meta.lastModified() != lastModified
+                || !meta.charsets().equals(charsets)) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer in = buffer.duplicate().position(meta.payloadOffset());
+            int count = in.getInt();
+            List<PZTranslationParser.Pair> pairs = new ArrayList<>(count);
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                String pairKey = readString(in, scratch);
+                String pairValue = readString(in, scratch);
+                if (pool != null) {
+                    pairKey = pool.intern(pairKey);
+                    pairValue = pool.intern(pairValue);
+                }
+                pairs.add(new PZTranslationParser.Pair(pairKey, pairValue));
+            }
+            Charset charset = meta.charset().isEmpty() ? null : Charset.forName(meta.charset());
+            return Optional.of(new Entry(key, size, lastModified, charsets, charset, meta.fallback(), meta.reason(),
+                    pairs));
+        } catch (RuntimeException e) {
+            Logger.warning("Ignoring corrupt translation cache entry: " + key, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the number of files in the opened snapshot.
+     *
+     * @return the number of cached files
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Starts a new snapshot that will replace this one.
+     *
+     * @return the writer of the new snapshot
+     */
+    public Writer writer() {
+        return new Writer();
+    }
+
+    /**
+     * Writes a new snapshot while files are loaded, so the pairs of a file can
+     * be dropped as soon as it has been merged. Entries taken from the current
+     * snapshot are copied from it as they are, without encoding their pairs
+     * again. Nothing is written if the new snapshot would hold the same files
+     * as the current one. Entries of files modified very recently are skipped.
+     * <p>
+     * Not thread-safe; entries must be added from one thread, in load order.
+     */
+    public final class Writer implements AutoCloseable {
+        /** Entries of files modified after this time are left out. */
+        private final long racyThreshold = System.currentTimeMillis() - RACY_WINDOW_MILLIS;
+        /** Paths of the entries taken from the current snapshot before anything changed. */
+        private final List<String> unchanged = new ArrayList<>();
+        /** Reused buffer for the pairs of one entry. */
+        private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        /** The pending file, or null until something changed. */
+        private FileChannel channel;
+        /** Buffered stream over {@link #channel}. */
+        private DataOutputStream out;
+        /** Number of entries added. */
+        private int added;
+        /** Number of entries written to the pending file. */
+        private int written;
+        /** Whether writing failed; further entries are then ignored. */
+        private boolean failed;
+
+        private Writer() {
+        }
+
+        /**
+         * Adds the entry of a loaded file.
+         *
+         * @param entry  the entry
+         * @param cached whether the entry was taken from the current snapshot
+         */
+        public void add(Entry entry, boolean cached) {
+            added++;
+            if (failed) {
+                return;
+            }
+            if (cached && out == null) {
+                unchanged.add(entry.path());
+                return;
+            }
+            try {
+                start();
+                if (cached) {
+                    copy(entry.path());
+                } else if (entry.size() >= 0 && entry.lastModified() < racyThreshold) {
+                    write(entry);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Completes the snapshot and moves it over the current one, unless it
+         * holds the same files.
+         */
+        public void finish() {
+            if (failed || (out == null && added == index.size())) {
+                return;
+            }
+            Path pending = pendingPath(path);
+            try {
+                start();
+                out.flush();
+                // The file count at the start of the snapshot is known only now
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, written), 8);
+                channel.force(true);
+                out.close();
+                out = null;
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            try {
+                AtomicFileUtils.move(pending, path);
+            } catch (IOException e) {
+                // The current snapshot may still be mapped; it is replaced on next open
+                Logger.debug("Translation cache will be replaced on next start: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Discards the pending file unless the snapshot was completed.
+         */
+        @Override
+        public void close() {
+            if (out != null) {
+                discard();
+            }
+        }
+
+        /**
+         * Opens the pending file if needed and writes the entries that were
+         * taken from the current snapshot so far.
+         *
+         * @throws IOException if writing fails
+         */
+        private void start() throws IOException {
+            if (out != null) {
+                return;
+            }
+            Files.createDirectories(path.getParent());
+            channel = FileChannel.open(pendingPath(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(0);
+            for (String key : unchanged) {
+                copy(key);
+            }
+            unchanged.clear();
+        }
+
+        /**
+         * Writes an entry with its pairs.
+         *
+         * @param entry the entry
+         * @throws IOException if writing fails
+         */
+        private void write(Entry entry) throws IOException {
+            writeHeader(entry.path(), entry.size(), entry.lastModified(), entry.charsets(),
+                    entry.charset() == null ? "" : entry.charset().name(), entry.fallback(), entry.reason());
+            payloadBytes.reset();
+            DataOutputStream payload = new DataOutputStream(payloadBytes);
+            payload.writeInt(entry.pairs().size());
+            for (PZTranslationParser.Pair pair : entry.pairs()) {
+                writeString(payload, pair.key());
+                writeString(payload, pair.value());
+            }
+            payload.flush();
+            out.writeInt(payloadBytes.size());
+            payloadBytes.writeTo(out);
+            written++;
+        }
+
+        /**
+         * Copies an entry of the current snapshot byte for byte.
+         *
+         * @param key the path the entry is stored under
+         * @throws IOException if writing fails
+         */
+        private void copy(String key) throws IOException {
+            IndexEntry meta = index.get(key);
+            writeHeader(key, meta.size(), meta.lastModified(), meta.charsets(), meta.charset(), meta.fallback(),
+                    meta.reason());
+            out.writeInt(meta.payloadLength());
+            ByteBuffer payload = buffer.duplicate().position(meta.payloadOffset())
+                    .limit(meta.payloadOffset() + meta.payloadLength());
+            byte[] chunk = new byte[Math.min(payload.remaining(), 1 << 16)];
+            while (payload.hasRemaining()) {
+                int length = Math.min(chunk.length, payload.remaining());
+                payload.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+            written++;
+        }
+
+        /**
+         * Writes the header of an entry.
+         *
+         * @param key          the path the entry is stored under
+         * @param size         file size in bytes
+         * @param lastModified file modification time in milliseconds
+         * @param charsets     candidate charsets key
+         * @param charset      name of the detected charset, empty if none
+         * @param fallback     whether a less preferred charset was used
+         * @param reason       explanation of why the charset was chosen
+         * @throws IOException if writing fails
+         */
+        private void writeHeader(String key, long size, long lastModified, String charsets, String charset,
+                boolean fallback, String reason) throws IOException {
+            writeString(out, key);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            writeString(out, charsets);
+            writeString(out, charset);
+            out.writeBoolean(fallback);
+            writeString(out, reason);
+        }
+
+        /**
+         * Gives up on the snapshot after a write error.
+         *
+         * @param e the error
+         */
+        private void fail(IOException e) {
+            Logger.warning("Failed to write translation cache: " + pendingPath(path), e);
+            failed = true;
+            unchanged.clear();
+            discard();
+        }
+
+        /**
+         * Closes and deletes the pending file.
+         */
+        private void discard() {
+            try {
+                if (out != null) {
+                    out.close();
+                } else if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException ignored) {
+            }
+            out = null;
+            channel = null;
+            try {
+                Files.deleteIfExists(pendingPath(path));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Builds the key describing the candidate charsets of a file.
+     *
+     * @param charsets the candidate charsets in order of preference
+     * @return the key
+     */
+    public static String charsetsKey(Collection<Charset> charsets) {
+        return charsets.stream().map(Charset::name).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Returns the key a file is stored under.
+     *
+     * @param file the translation file
+     * @return absolute normalized path string
+     */
+    public static String keyOf(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Returns the path of the pending snapshot for a snapshot path.
+     *
+     * @param path path to the snapshot file
+     * @return path to the pending snapshot file
+     */
+    private static Path pendingPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".pending");
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param out   the stream to write to
+     * @param value the string to write
+     * @throws IOException if writing fails
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param in      the buffer to read from
+     * @param scratch reusable scratch buffer for short strings
+     * @return the string
+     */
+    private static String readString(ByteBuffer in, byte[] scratch) {
+        int length = in.getInt();
+        if (length <= scratch.length) {
+            in.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
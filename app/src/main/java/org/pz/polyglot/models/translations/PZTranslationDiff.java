@@ -0,0 +1,239 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+
+/**
+ * Compares the translation files of two sets of sources, such as the
+ * {@code [41]} and {@code [42]} sources of a mod or two game installs, per
+ * language and translation type.
+ * <p>
+ * Each side is read into a {@link Snapshot}: its rows sorted by language,
+ * type and key. Both snapshots are then walked in one linear merge pass, so
+ * comparing the full game corpus costs two sorts and a single scan. Texts are
+ * read from the files on disk, so unsaved edits are not compared.
+ */
+public final class PZTranslationDiff {
+    /**
+     * How a key differs between the old and the new side.
+     */
+    public enum Change {
+        /** The key exists only on the new side. */
+        ADDED,
+        /** The key exists only on the old side. */
+        REMOVED,
+        /** The key exists on both sides with different texts. */
+        CHANGED
+    }
+
+    /**
+     * One key that differs between the two sides.
+     *
+     * @param language the language code
+     * @param type     the translation type
+     * @param key      the translation key
+     * @param change   how the key differs
+     * @param oldText  the text on the old side, null if added
+     * @param newText  the text on the new side, null if removed
+     */
+    public record Difference(String language, PZTranslationType type, String key, Change change, String oldText,
+            String newText) {
+    }
+
+    /**
+     * One translation of a snapshot.
+     *
+     * @param language the language code
+     * @param type     the translation type
+     * @param key      the translation key
+     * @param text     the text
+     */
+    private record Row(String language, PZTranslationType type, String key, String text) {
+    }
+
+    /**
+     * A translation file with the source it belongs to.
+     *
+     * @param source the source
+     * @param file   the file
+     */
+    private record SourceFile(PZSource source, PZTranslationManager.TranslationFile file) {
+    }
+
+    /** Order of snapshot rows, which both sides of a merge must share. */
+    private static final Comparator<Row> ORDER = Comparator.comparing(Row::language)
+            .thenComparing(Row::type)
+            .thenComparing(Row::key);
+
+    /**
+     * The translations of one side, sorted by language, type and key, with at
+     * most one row per key.
+     */
+    public static final class Snapshot {
+        /** The sorted rows. */
+        private final Row[] rows;
+
+        /**
+         * Creates a snapshot from sorted rows without duplicates.
+         *
+         * @param rows the rows
+         */
+        private Snapshot(Row[] rows) {
+            this.rows = rows;
+        }
+
+        /**
+         * Returns the number of translations.
+         *
+         * @return the row count
+         */
+        public int size() {
+            return rows.length;
+        }
+
+        /**
+         * Reads the translation files of the given sources in parallel. If a
+         * key is defined more than once for a language and type, the
+         * definition read last wins, as it does in the game: later sources
+         * override earlier ones.
+         *
+         * @param sources  the sources of one side, in load order
+         * @param selected which languages and types to read
+         * @return the snapshot
+         */
+        public static Snapshot read(List<PZSource> sources, BiPredicate<PZLanguage, PZTranslationType> selected) {
+            Builder builder = new Builder();
+            // Shares the texts repeated within this side only
+            PZStringPool pool = new PZStringPool();
+            sources.stream()
+                    .flatMap(source -> PZTranslationManager.listTranslationFiles(source).stream()
+                            .filter(file -> selected.test(file.language(), file.type()))
+                            .map(file -> new SourceFile(source, file)))
+                    .toList()
+                    .parallelStream()
+                    .map(file -> readFile(file, pool))
+                    .toList()
+                    .forEach(rows -> rows.forEach(builder::add));
+            return builder.build();
+        }
+
+        /**
+         * Parses one translation file into rows.
+         *
+         * @param sourceFile the file and its source
+         * @param pool       the string pool of the snapshot
+         * @return the rows in file order
+         */
+        private static List<Row> readFile(SourceFile sourceFile, PZStringPool pool) {
+            PZTranslationManager.TranslationFile file = sourceFile.file();
+            String language = file.language().getCode();
+            try (PZTranslationParser reader = new PZTranslationParser(file.path(), file.language(),
+                    sourceFile.source(), pool);
+                    Stream<PZTranslationParser.Pair> pairs = reader.stream()) {
+                return pairs.map(pair -> new Row(language, file.type(), pair.key(), pair.value())).toList();
+            }
+        }
+    }
+
+    /**
+     * Collects the translations of one side in any order.
+     */
+    public static final class Builder {
+        /** The rows in the order they were added. */
+        private final List<Row> rows = new ArrayList<>();
+
+        /**
+         * Adds a translation. A later translation of the same language, type
+         * and key replaces an earlier one.
+         *
+         * @param language the language code
+         * @param type     the translation type
+         * @param key      the translation key
+         * @param text     the text
+         * @return this builder
+         */
+        public Builder add(String language, PZTranslationType type, String key, String text) {
+            return add(new Row(language, type, key, text));
+        }
+
+        /**
+         * Adds a row.
+         *
+         * @param row the row
+         * @return this builder
+         */
+        private Builder add(Row row) {
+            rows.add(row);
+            return this;
+        }
+
+        /**
+         * Sorts the rows and keeps the last one of every key.
+         *
+         * @return the snapshot
+         */
+        public Snapshot build() {
+            Row[] sorted = rows.toArray(Row[]::new);
+            // Stable, so rows of the same key stay in the order they were added
+            Arrays.parallelSort(sorted, ORDER);
+            int size = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i + 1 < sorted.length && ORDER.compare(sorted[i], sorted[i + 1]) == 0) {
+                    continue;
+                }
+                sorted[size++] = sorted[i];
+            }
+            return new Snapshot(Arrays.copyOf(sorted, size));
+        }
+    }
+
+    private PZTranslationDiff() {
+    }
+
+    /**
+     * Compares two snapshots in one merge pass over their sorted rows.
+     *
+     * @param older the old side
+     * @param newer the new side
+     * @return the differences, ordered by language, type and key
+     */
+    public static List<Difference> compare(Snapshot older, Snapshot newer) {
+        long startTime = System.nanoTime();
+        Row[] left = older.rows;
+        Row[] right = newer.rows;
+        List<Difference> differences = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < left.length || j < right.length) {
+            int order = i == left.length ? 1 : j == right.length ? -1 : ORDER.compare(left[i], right[j]);
+            if (order < 0) {
+                Row row = left[i++];
+                differences.add(new Difference(row.language(), row.type(), row.key(), Change.REMOVED, row.text(),
+                        null));
+            } else if (order > 0) {
+                Row row = right[j++];
+                differences.add(new Difference(row.language(), row.type(), row.key(), Change.ADDED, null,
+                        row.text()));
+            } else {
+                Row oldRow = left[i++];
+                Row newRow = right[j++];
+                if (!Objects.equals(oldRow.text(), newRow.text())) {
+                    differences.add(new Difference(newRow.language(), newRow.type(), newRow.key(), Change.CHANGED,
+                            oldRow.text(), newRow.text()));
+                }
+            }
+        }
+        Logger.info("Compared " + left.length + " with " + right.length + " translations, " + differences.size()
+                + " differences, in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        return differences;
+    }
+}
@@ -2,6 +2,7 @@ package org.pz.polyglot.models.translations;
 
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.pz.polyglot.models.languages.PZLanguage;
@@ -18,9 +19,26 @@ public class PZTranslationEntry {
     private final String key;
 
     /**
-     * The list of translation variants associated with this entry.
+     * Dense id of the key, see {@link PZTranslations#getKeyId(String)}.
      */
-    private final ArrayList<PZTranslationVariant> variants = new ArrayList<>();
+    private final int keyId;
+
+    /**
+     * The list of translation variants associated with this entry. Empty while
+     * the variants are held in {@link #compact}. Changed and read by background
+     * tasks under the entry monitor.
+     */
+    private ArrayList<PZTranslationVariant> variants = new ArrayList<>();
+
+    /**
+     * Loaded variants not yet turned into objects, or null once they have been.
+     */
+    private volatile PZCompactVariants compact;
+
+    /**
+     * Id of this entry in {@link PZTranslationSearchIndex}, or -1 if not indexed.
+     */
+    private int searchId = -1;
 
     /**
      * Constructs a translation entry for the specified key.
@@ -28,7 +46,8 @@ public class PZTranslationEntry {
      * @param key the unique key for this translation entry
      */
     public PZTranslationEntry(String key) {
-        this.key = key;
+        this.keyId = PZTranslations.getKeyId(key);
+        this.key = PZTranslations.getKey(this.keyId);
     }
 
     /**
@@ -41,11 +60,22 @@ public class PZTranslationEntry {
     }
 
     /**
-     * Returns all translation variants for this entry.
+     * Returns the dense id of the key for this translation entry.
+     *
+     * @return the key id
+     */
+    public int getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Returns all translation variants for this entry, creating the variant
+     * objects of compactly stored rows first.
      *
      * @return the list of translation variants
      */
     public ArrayList<PZTranslationVariant> getVariants() {
+        materialize();
         return variants;
     }
 
@@ -55,11 +85,195 @@ public class PZTranslationEntry {
      * @return the list of changed translation variants
      */
     public ArrayList<PZTranslationVariant> getChangedVariants() {
+        // Compact rows cannot have been edited
+        if (compact != null) {
+            return new ArrayList<>();
+        }
         // Filter variants to only those marked as changed
         return variants.stream().filter(PZTranslationVariant::isChanged)
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    /**
+     * Returns whether the variants of this entry exist as objects, rather than
+     * only as compact rows.
+     *
+     * @return true if {@link #getVariants()} will not create objects
+     */
+    public boolean hasVariantObjects() {
+        return compact == null;
+    }
+
+    /**
+     * Returns the number of variants without creating variant objects.
+     *
+     * @return the variant count
+     */
+    public int getVariantCount() {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.size() : variants.size();
+    }
+
+    /**
+     * Returns the language id of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the language id, or -1 if the variant has no language
+     */
+    public int getVariantLanguageId(int index) {
+        PZCompactVariants rows = compact;
+        if (rows != null) {
+            return rows.languageId(index);
+        }
+        PZLanguage language = variants.get(index).getLanguage();
+        return language != null ? language.getId() : -1;
+    }
+
+    /**
+     * Returns the source id of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the source id
+     */
+    public int getVariantSourceId(int index) {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.sourceId(index) : variants.get(index).getSource().getId();
+    }
+
+    /**
+     * Returns the source of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the source
+     */
+    public PZSource getVariantSource(int index) {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.source(index) : variants.get(index).getSource();
+    }
+
+    /**
+     * Returns the language of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the language
+     */
+    public PZLanguage getVariantLanguage(int index) {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.language(index) : variants.get(index).getLanguage();
+    }
+
+    /**
+     * Returns the type of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the type, may be null
+     */
+    public PZTranslationType getVariantType(int index) {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.type(index) : variants.get(index).getType();
+    }
+
+    /**
+     * Returns whether a variant has unsaved edits, without creating variant
+     * objects.
+     *
+     * @param index the variant index
+     * @return true if the variant is changed
+     */
+    public boolean isVariantChanged(int index) {
+        return compact == null && variants.get(index).isChanged();
+    }
+
+    /**
+     * Returns whether a variant has saved, non-empty text, without creating
+     * variant objects. A text that is not loaded yet counts as present.
+     *
+     * @param index the variant index
+     * @return true if the saved text of the variant is not empty
+     */
+    public boolean hasSavedVariantText(int index) {
+        PZCompactVariants rows = compact;
+        if (rows != null) {
+            String text = rows.text(index);
+            return text == null || !text.isEmpty();
+        }
+        String text = variants.get(index).getOriginalText();
+        return text != null && !text.isEmpty();
+    }
+
+    /**
+     * Returns the edited text of a variant without creating variant objects.
+     *
+     * @param index the variant index
+     * @return the text, or null if it is not loaded
+     */
+    public String getVariantText(int index) {
+        PZCompactVariants rows = compact;
+        return rows != null ? rows.text(index) : variants.get(index).getEditedText();
+    }
+
+    /**
+     * Checks whether any edited variant text satisfies a condition, without
+     * creating variant objects. Safe to call from background tasks.
+     *
+     * @param condition the condition, given each non-null text
+     * @return true if the condition holds for at least one text
+     */
+    public boolean anyVariantText(Predicate<String> condition) {
+        PZCompactVariants rows = compact;
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                String text = rows.text(i);
+                if (text != null && condition.test(text)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        synchronized (this) {
+            for (PZTranslationVariant variant : variants) {
+                String text = variant.getEditedText();
+                if (text != null && condition.test(text)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any edited variant text of a language satisfies a
+     * condition, without creating variant objects. Texts that are not loaded are
+     * skipped. Safe to call from background tasks.
+     *
+     * @param languageId the language id
+     * @param condition  the condition, given each non-null text
+     * @return true if the condition holds for at least one text
+     */
+    public boolean anyVariantText(int languageId, Predicate<String> condition) {
+        PZCompactVariants rows = compact;
+        if (rows != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                String text = rows.text(i);
+                if (text != null && rows.languageId(i) == languageId && condition.test(text)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        synchronized (this) {
+            for (PZTranslationVariant variant : variants) {
+                String text = variant.getEditedText();
+                PZLanguage language = variant.getLanguage();
+                if (text != null && language != null && language.getId() == languageId
+                        && condition.test(text)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Adds a new translation variant to this entry.
      *
@@ -72,14 +286,163 @@ public class PZTranslationEntry {
      */
     public PZTranslationVariant addVariant(PZSource source, PZLanguage language, PZTranslationType type, String text,
             Charset charset) {
+        materialize();
         // Determine the supposed charset for the language and source version
         Charset supposedCharset = language.getCharset(source.getVersion()).orElse(null);
         PZTranslationVariant variant = new PZTranslationVariant(this, source, language, type, text, supposedCharset,
                 charset);
-        variants.add(variant);
+        synchronized (this) {
+            variants.add(variant);
+        }
+        PZTranslationLint.getInstance().recheck(this);
+        PZTranslationOverrides.getInstance().recheck(this);
         return variant;
     }
 
+    /**
+     * Removes a translation variant from this entry.
+     *
+     * @param variant the variant to remove
+     * @return true if the entry held the variant
+     */
+    public boolean removeVariant(PZTranslationVariant variant) {
+        materialize();
+        synchronized (this) {
+            return variants.remove(variant);
+        }
+    }
+
+    /**
+     * Adds a loaded translation variant as a compact row. The variant object is
+     * created when {@link #getVariants()} is first called. If the entry already
+     * has variant objects, this is the same as
+     * {@link #addVariant(PZSource, PZLanguage, PZTranslationType, String, Charset)}.
+     *
+     * @param source   the source of the translation
+     * @param language the language of the translation
+     * @param type     the type of translation
+     * @param text     the translation text, or null to load it later
+     * @param charset  the charset used for the translation text
+     */
+    public void addCompactVariant(PZSource source, PZLanguage language, PZTranslationType type, String text,
+            Charset charset) {
+        PZCompactVariants rows = compact;
+        if (rows == null) {
+            if (!variants.isEmpty()) {
+                addVariant(source, language, type, text, charset);
+                return;
+            }
+            rows = new PZCompactVariants();
+        }
+        rows.add(source, language, type, text, language.getCharset(source.getVersion()).orElse(null), charset);
+        compact = rows;
+        PZTranslationSearchIndex.getInstance().addText(this, text);
+    }
+
+    /**
+     * Releases spare capacity of the compact rows after loading.
+     */
+    public void trimVariants() {
+        PZCompactVariants rows = compact;
+        if (rows != null) {
+            rows.trim();
+        }
+    }
+
+    /**
+     * Sets the text of the first compact row from a file that has no text
+     * loaded.
+     *
+     * @param source   the source of the file
+     * @param language the language of the file
+     * @param type     the type of the file
+     * @param text     the text
+     * @return true if a row was filled
+     */
+    boolean fillText(PZSource source, PZLanguage language, PZTranslationType type, String text) {
+        PZCompactVariants rows = compact;
+        if (rows == null) {
+            return false;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.text(i) == null && rows.isFrom(i, source, language, type)) {
+                rows.setText(i, text);
+                PZTranslationSearchIndex.getInstance().addText(this, text);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the texts of the compact rows of a language. Variant objects keep
+     * their texts. Synchronized so that {@link #materialize()} never creates
+     * variants from rows whose texts are dropped while it runs.
+     *
+     * @param language the language
+     * @return the number of characters dropped
+     */
+    synchronized long evictTexts(PZLanguage language) {
+        PZCompactVariants rows = compact;
+        if (rows == null) {
+            return 0;
+        }
+        long evicted = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            String text = rows.text(i);
+            if (text != null && rows.language(i) == language) {
+                evicted += text.length();
+                rows.setText(i, null);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Creates the variant objects of the compact rows, if any, loading texts
+     * that were left out first. Synchronized because background tasks may read
+     * the variants of an entry while the UI opens it; the rows are published
+     * as objects before {@link #compact} is cleared.
+     */
+    private void materialize() {
+        if (compact == null) {
+            return;
+        }
+        synchronized (this) {
+            PZCompactVariants rows = compact;
+            if (rows == null) {
+                return;
+            }
+            if (rows.hasMissingText()) {
+                PZVariantTextLoader.getInstance().loadEntry(this, rows);
+            }
+            ArrayList<PZTranslationVariant> created = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                created.add(rows.toVariant(this, i));
+            }
+            variants = created;
+            compact = null;
+        }
+    }
+
+    /**
+     * Returns the id of this entry in the search index.
+     *
+     * @return the search id, or -1 if not indexed
+     */
+    int getSearchId() {
+        return searchId;
+    }
+
+    /**
+     * Sets the id of this entry in the search index.
+     *
+     * @param searchId the search id, or -1 if not indexed
+     */
+    void setSearchId(int searchId) {
+        this.searchId = searchId;
+    }
+
     /**
      * Returns the type of this entry, determined from the first variant, or
      * {@code null} if no variants exist.
@@ -87,6 +450,6 @@ public class PZTranslationEntry {
      * @return the translation type, or {@code null} if no variants exist
      */
     public PZTranslationType getType() {
-        return variants.isEmpty() ? null : variants.get(0).getType();
+        return getVariantCount() == 0 ? null : getVariantType(0);
     }
 }
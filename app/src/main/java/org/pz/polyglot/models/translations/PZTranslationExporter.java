@@ -0,0 +1,625 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.utils.CsvUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Streams translations out of {@link PZTranslations} for external
+ * translators.
+ * <p>
+ * Entries are visited in key order and written one at a time straight to the
+ * given writer, so neither the document nor a copy of all selected variants
+ * is held. The variants of a batch of entries are copied into rows, read from
+ * the variant columns so no variant objects are created, and written before
+ * the next batch is copied. Copying is the only step that reads entries, so a
+ * UI can copy each batch on its own thread and write on another. Edited texts
+ * are exported; texts that are not loaded are left out, so with lazy variant
+ * texts the exported languages must be loaded first, see
+ * {@link PZVariantTextLoader#whenLoaded(Collection, Runnable)}.
+ * <p>
+ * CSV and JSON formats write one row per variant. XLIFF and PO are bilingual:
+ * they write one unit per reference language variant, paired with the target
+ * language text of the same source and type.
+ */
+public final class PZTranslationExporter {
+    /**
+     * Export formats.
+     */
+    public enum Format {
+        /** Comma-separated values with a header row. */
+        CSV("CSV", "csv", false),
+        /** A JSON array of objects. */
+        JSON("JSON", "json", false),
+        /** One JSON object per line. */
+        JSON_LINES("JSON Lines", "jsonl", false),
+        /** XLIFF 2.0 with one unit per reference text. */
+        XLIFF("XLIFF 2.0", "xlf", true),
+        /** A gettext PO catalog with one message per reference text. */
+        PO("gettext PO", "po", true);
+
+        /** Name shown to the user. */
+        private final String label;
+        /** Usual file extension, without the dot. */
+        private final String extension;
+        /** Whether the format pairs reference and target texts. */
+        private final boolean bilingual;
+
+        Format(String label, String extension, boolean bilingual) {
+            this.label = label;
+            this.extension = extension;
+            this.bilingual = bilingual;
+        }
+
+        /**
+         * Returns the name shown to the user.
+         *
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Returns the usual file extension.
+         *
+         * @return the extension, without the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Returns whether the format pairs reference and target texts, so it
+         * holds a single target language.
+         *
+         * @return true for XLIFF and PO
+         */
+        public boolean isBilingual() {
+            return bilingual;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Decides which variants are exported.
+     */
+    @FunctionalInterface
+    public interface Filter {
+        /**
+         * Checks whether a variant is exported. Bilingual formats ask with the
+         * target language for every reference variant.
+         *
+         * @param source   the source of the variant
+         * @param language the language of the variant
+         * @param type     the type of the variant, may be null
+         * @return true if the variant is exported
+         */
+        boolean accepts(PZSource source, PZLanguage language, PZTranslationType type);
+    }
+
+    /**
+     * A variant copied for export.
+     *
+     * @param source   the source of the variant
+     * @param language the language of the variant
+     * @param type     the type of the variant, may be null
+     * @param text     the edited text, or null if not loaded
+     */
+    private record Row(PZSource source, PZLanguage language, PZTranslationType type, String text) {
+    }
+
+    /**
+     * The copied rows of one entry.
+     *
+     * @param key  the translation key
+     * @param rows the selected variants, in variant order
+     */
+    private record KeyRows(String key, List<Row> rows) {
+    }
+
+    /**
+     * Writes the rows of one format, one key after the other.
+     */
+    private interface Output {
+        /**
+         * Writes what comes before the first key.
+         *
+         * @throws IOException if writing fails
+         */
+        void begin() throws IOException;
+
+        /**
+         * Writes the rows of one key.
+         *
+         * @param key the copied rows of the key
+         * @return the number of rows or units written
+         * @throws IOException if writing fails
+         */
+        int write(KeyRows key) throws IOException;
+
+        /**
+         * Writes what comes after the last key.
+         *
+         * @throws IOException if writing fails
+         */
+        void end() throws IOException;
+    }
+
+    /**
+     * BCP 47 tags of the game language codes that are not simply the
+     * lowercase code.
+     */
+    private static final Map<String, String> LANGUAGE_TAGS = Map.of(
+            "CH", "zh-Hant",
+            "CN", "zh-Hans",
+            "JP", "ja",
+            "PH", "fil",
+            "PTBR", "pt-BR",
+            "UA", "uk");
+
+    /** Number of entries copied at a time. */
+    private static final int COPY_BATCH = 512;
+
+    private PZTranslationExporter() {
+    }
+
+    /**
+     * Writes the selected translations of the given entries, copying them on
+     * the calling thread. The writer is flushed but not closed.
+     *
+     * @param entries   the entries to export, in any order
+     * @param format    the format to write
+     * @param filter    the variants to export
+     * @param reference the reference language, used by bilingual formats only
+     * @param target    the target language, used by bilingual formats only
+     * @param writer    the writer to write to, ideally buffered
+     * @return the number of rows or units written
+     * @throws IOException if writing fails
+     */
+    public static int export(Collection<PZTranslationEntry> entries, Format format, Filter filter,
+            PZLanguage reference, PZLanguage target, Writer writer) throws IOException {
+        return export(entries, format, filter, reference, target, writer, Runnable::run);
+    }
+
+    /**
+     * Writes the selected translations of the given entries in key order. The
+     * variants of each batch of entries are copied on {@code copyExecutor},
+     * which should run on the thread that changes the entries, while this
+     * thread waits; the copy is then written on this thread. Non-bilingual
+     * formats copy the selected variants with loaded texts; bilingual formats
+     * copy the reference and target variants of the sources and types the
+     * filter accepts with the target language. The writer is flushed but not
+     * closed.
+     *
+     * @param entries      the entries to export, in any order; not changed
+     *                     while exporting
+     * @param format       the format to write
+     * @param filter       the variants to export
+     * @param reference    the reference language, used by bilingual formats
+     *                     only
+     * @param target       the target language, used by bilingual formats only
+     * @param writer       the writer to write to, ideally buffered
+     * @param copyExecutor the executor that copies the variants of the entries
+     * @return the number of rows or units written
+     * @throws IOException if writing fails
+     */
+    public static int export(Collection<PZTranslationEntry> entries, Format format, Filter filter,
+            PZLanguage reference, PZLanguage target, Writer writer, Executor copyExecutor) throws IOException {
+        List<PZTranslationEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(PZTranslationEntry::getKey));
+        Output output = switch (format) {
+            case CSV -> csv(writer);
+            case JSON -> json(writer, false);
+            case JSON_LINES -> json(writer, true);
+            case XLIFF -> xliff(reference, target, writer);
+            case PO -> po(reference, target, writer);
+        };
+        int count = 0;
+        output.begin();
+        for (int start = 0; start < sorted.size(); start += COPY_BATCH) {
+            List<PZTranslationEntry> batch = sorted.subList(start, Math.min(start + COPY_BATCH, sorted.size()));
+            for (KeyRows key : copy(batch, format, filter, reference, target, copyExecutor)) {
+                count += output.write(key);
+            }
+        }
+        output.end();
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Returns the BCP 47 tag of a game language.
+     *
+     * @param language the language
+     * @return the tag, such as {@code pt-BR} for {@code PTBR}
+     */
+    public static String languageTag(PZLanguage language) {
+        return LANGUAGE_TAGS.getOrDefault(language.getCode(), language.getCode().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Copies the variants a format needs from a batch of entries on the given
+     * executor and waits for the copy.
+     *
+     * @param batch        the entries, in output order
+     * @param format       the format to write
+     * @param filter       the variants to export
+     * @param reference    the reference language, used by bilingual formats
+     *                     only
+     * @param target       the target language, used by bilingual formats only
+     * @param copyExecutor the executor that copies the variants
+     * @return the rows of the entries with selected variants, in entry order
+     */
+    private static List<KeyRows> copy(List<PZTranslationEntry> batch, Format format, Filter filter,
+            PZLanguage reference, PZLanguage target, Executor copyExecutor) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                List<KeyRows> copied = new ArrayList<>(batch.size());
+                for (PZTranslationEntry entry : batch) {
+                    List<Row> rows = rows(entry, format, filter, reference, target);
+                    if (!rows.isEmpty()) {
+                        copied.add(new KeyRows(entry.getKey(), rows));
+                    }
+                }
+                return copied;
+            }, copyExecutor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Copies the variants a format needs from one entry.
+     *
+     * @param entry     the entry
+     * @param format    the format to write
+     * @param filter    the variants to export
+     * @param reference the reference language, used by bilingual formats only
+     * @param target    the target language, used by bilingual formats only
+     * @return the rows, in variant order
+     */
+    private static List<Row> rows(PZTranslationEntry entry, Format format, Filter filter, PZLanguage reference,
+            PZLanguage target) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < entry.getVariantCount(); i++) {
+            PZLanguage language = entry.getVariantLanguage(i);
+            if (language == null) {
+                continue;
+            }
+            PZSource source = entry.getVariantSource(i);
+            PZTranslationType type = entry.getVariantType(i);
+            String text = entry.getVariantText(i);
+            boolean selected = format.isBilingual()
+                    ? (language.getId() == reference.getId() || language.getId() == target.getId())
+                            && filter.accepts(source, target, type)
+                    : text != null && filter.accepts(source, language, type);
+            if (selected) {
+                rows.add(new Row(source, language, type, text));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Creates the CSV output: a header row, then one row per variant.
+     *
+     * @param writer the writer to write to
+     * @return the output
+     */
+    private static Output csv(Writer writer) {
+        return new Output() {
+            @Override
+            public void begin() throws IOException {
+                writer.write("key,language,source,type,text\n");
+            }
+
+            @Override
+            public int write(KeyRows key) throws IOException {
+                for (Row row : key.rows()) {
+                    writer.write(CsvUtils.line(key.key(), row.language().getCode(), row.source().getName(),
+                            row.type(), row.text()));
+                    writer.write('\n');
+                }
+                return key.rows().size();
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+    }
+
+    /**
+     * Creates the JSON output: one object per variant, either as an indented
+     * array or as JSON Lines.
+     *
+     * @param writer the writer to write to
+     * @param lines  true for one object per line, false for an array
+     * @return the output
+     */
+    private static Output json(Writer writer, boolean lines) {
+        return new Output() {
+            private JsonGenerator generator;
+
+            @Override
+            public void begin() throws IOException {
+                generator = new JsonFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (lines) {
+                    // Objects are separated by the line breaks written below
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.useDefaultPrettyPrinter();
+                    generator.writeStartArray();
+                }
+            }
+
+            @Override
+            public int write(KeyRows key) throws IOException {
+                for (Row row : key.rows()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("key", key.key());
+                    generator.writeStringField("language", row.language().getCode());
+                    generator.writeStringField("source", row.source().getName());
+                    generator.writeStringField("type", String.valueOf(row.type()));
+                    generator.writeStringField("text", row.text());
+                    generator.writeEndObject();
+                    if (lines) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                return key.rows().size();
+            }
+
+            @Override
+            public void end() throws IOException {
+                if (!lines) {
+                    generator.writeEndArray();
+                    generator.writeRaw('\n');
+                }
+                generator.close();
+            }
+        };
+    }
+
+    /**
+     * Creates the XLIFF 2.0 output, with one unit per reference text. Units
+     * are named after the key and note the source and type; untranslated
+     * units have no target.
+     *
+     * @param reference the reference language
+     * @param target    the target language
+     * @param writer    the writer to write to
+     * @return the output
+     */
+    private static Output xliff(PZLanguage reference, PZLanguage target, Writer writer) {
+        return new Output() {
+            private int units;
+
+            @Override
+            public void begin() throws IOException {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                writer.write("<xliff xmlns=\"urn:oasis:names:tc:xliff:document:2.0\" version=\"2.0\" srcLang=\"");
+                writer.write(languageTag(reference));
+                writer.write("\" trgLang=\"");
+                writer.write(languageTag(target));
+                writer.write("\">\n  <file id=\"f1\">\n");
+            }
+
+            @Override
+            public int write(KeyRows key) throws IOException {
+                return writeUnits(key, reference, target, (row, targetText) -> {
+                    writer.write("    <unit id=\"u" + ++units + "\" name=\"");
+                    writeXml(writer, key.key(), true);
+                    writer.write("\">\n      <notes>\n        <note category=\"source\">");
+                    writeXml(writer, row.source().getName(), false);
+                    writer.write("</note>\n        <note category=\"type\">");
+                    writeXml(writer, String.valueOf(row.type()), false);
+                    writer.write("</note>\n      </notes>\n      <segment state=\"");
+                    writer.write(targetText != null ? "translated" : "initial");
+                    writer.write("\">\n        <source>");
+                    writeXml(writer, row.text(), false);
+                    writer.write("</source>\n");
+                    if (targetText != null) {
+                        writer.write("        <target>");
+                        writeXml(writer, targetText, false);
+                        writer.write("</target>\n");
+                    }
+                    writer.write("      </segment>\n    </unit>\n");
+                });
+            }
+
+            @Override
+            public void end() throws IOException {
+                writer.write("  </file>\n</xliff>\n");
+            }
+        };
+    }
+
+    /**
+     * Creates the gettext PO output, with one message per reference text. The
+     * message context is {@code <source>/<type>/<key>}, so keys defined by
+     * several sources stay distinct; untranslated messages have an empty
+     * {@code msgstr}.
+     *
+     * @param reference the reference language
+     * @param target    the target language
+     * @param writer    the writer to write to
+     * @return the output
+     */
+    private static Output po(PZLanguage reference, PZLanguage target, Writer writer) {
+        return new Output() {
+            @Override
+            public void begin() throws IOException {
+                writer.write("msgid \"\"\nmsgstr \"\"\n");
+                writer.write("\"Content-Type: text/plain; charset=UTF-8\\n\"\n");
+                writer.write("\"Content-Transfer-Encoding: 8bit\\n\"\n");
+                writer.write("\"Language: " + languageTag(target).replace('-', '_') + "\\n\"\n");
+                writer.write("\"X-Source-Language: " + languageTag(reference).replace('-', '_') + "\\n\"\n");
+            }
+
+            @Override
+            public int write(KeyRows key) throws IOException {
+                return writeUnits(key, reference, target, (row, targetText) -> {
+                    writer.write("\n#. ");
+                    writer.write(row.source().getName() + ", " + row.type());
+                    writer.write("\nmsgctxt ");
+                    writePoString(writer, row.source().getName() + "/" + row.type() + "/" + key.key());
+                    writer.write("\nmsgid ");
+                    writePoString(writer, row.text());
+                    writer.write("\nmsgstr ");
+                    writePoString(writer, targetText != null ? targetText : "");
+                    writer.write('\n');
+                });
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+    }
+
+    /**
+     * Writes one bilingual unit.
+     */
+    @FunctionalInterface
+    private interface UnitWriter {
+        /**
+         * Writes a unit.
+         *
+         * @param row        the reference row
+         * @param targetText the target text, or null if not translated
+         * @throws IOException if writing fails
+         */
+        void write(Row row, String targetText) throws IOException;
+    }
+
+    /**
+     * Pairs the non-empty reference texts of a key with the target texts of
+     * the same source and type, and writes each pair. Of several definitions
+     * in one source and type, the last one is used, as in the game.
+     *
+     * @param key       the copied rows of the key
+     * @param reference the reference language
+     * @param target    the target language
+     * @param unit      writes one unit
+     * @return the number of units written
+     * @throws IOException if writing fails
+     */
+    private static int writeUnits(KeyRows key, PZLanguage reference, PZLanguage target, UnitWriter unit)
+            throws IOException {
+        List<Row> rows = key.rows();
+        int count = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            if (row.language().getId() != reference.getId() || redefinedLater(rows, i) || row.text() == null
+                    || row.text().isEmpty()) {
+                continue;
+            }
+            String targetText = null;
+            for (Row other : rows) {
+                if (other.language().getId() == target.getId() && other.source().getId() == row.source().getId()
+                        && other.type() == row.type()) {
+                    targetText = other.text();
+                }
+            }
+            unit.write(row, targetText);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a later row of the same key has the same language,
+     * source and type.
+     *
+     * @param keyRows the rows of one key
+     * @param index   the row index
+     * @return true if the row is redefined by a later one
+     */
+    private static boolean redefinedLater(List<Row> keyRows, int index) {
+        Row row = keyRows.get(index);
+        for (int k = index + 1; k < keyRows.size(); k++) {
+            Row later = keyRows.get(k);
+            if (later.language().getId() == row.language().getId() && later.source().getId() == row.source().getId()
+                    && later.type() == row.type()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes text as XML character data or attribute value. Characters that
+     * XML does not allow are written as XLIFF {@code <cp>} elements in
+     * content and dropped in attributes.
+     *
+     * @param writer    the writer
+     * @param text      the text
+     * @param attribute whether the text is an attribute value
+     * @throws IOException if writing fails
+     */
+    private static void writeXml(Writer writer, String text, boolean attribute) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '"' -> writer.write(attribute ? "&quot;" : "\"");
+                default -> {
+                    if (c < 0x20 && c != '\t' && c != '\n' && c != '\r' || c == 0xFFFE || c == 0xFFFF) {
+                        if (!attribute) {
+                            writer.write(String.format(Locale.ROOT, "<cp hex=\"%04X\"/>", (int) c));
+                        }
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted PO string with C escapes.
+     *
+     * @param writer the writer
+     * @param text   the text
+     * @throws IOException if writing fails
+     */
+    private static void writePoString(Writer writer, String text) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> writer.write("\\\\");
+                case '"' -> writer.write("\\\"");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,365 @@
+package org.pz.polyglot.models.translations;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers where each key of a translation file is located, so saving or
+ * deleting a key does not have to search the file line by line.
+ * <p>
+ * Indexes are recorded while files are parsed and stamped with the size and
+ * modification time of the file they describe. A stale index is rebuilt from
+ * the lines that were read for the edit, and every lookup is checked against
+ * the actual line before it is used.
+ */
+public final class PZTranslationIndex {
+    /**
+     * Line spans of the keys of one translation file. Line numbers are 1-based
+     * and inclusive, matching the lines returned by
+     * {@link java.nio.file.Files#readAllLines(Path, java.nio.charset.Charset)}.
+     * The spans are kept up to date as edits are applied to the lines.
+     */
+    public static final class FileIndex {
+        /** Keys in file order. */
+        private String[] keys = new String[16];
+        /** First line of each key, or -1 if the key was removed. */
+        private int[] starts = new int[16];
+        /** Last line of each key. */
+        private int[] ends = new int[16];
+        /** Number of recorded keys. */
+        private int count;
+        /** Slot of the first occurrence of each key, built on first lookup. */
+        private Map<String, Integer> slots;
+        /** Size of the described file in bytes, or -1 if unknown. */
+        private long size = -1;
+        /** Modification time of the described file in milliseconds. */
+        private long lastModified = -1;
+
+        /**
+         * Constructs an empty index.
+         */
+        FileIndex() {
+        }
+
+        /**
+         * Records the span of a key. Only the first occurrence of a key is
+         * found by lookups.
+         *
+         * @param key       the key
+         * @param startLine the first line of the entry (1-based)
+         * @param endLine   the last line of the entry (1-based, inclusive)
+         */
+        synchronized void add(String key, int startLine, int endLine) {
+            if (count == keys.length) {
+                int capacity = count * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            keys[count] = key;
+            starts[count] = startLine;
+            ends[count] = endLine;
+            if (slots != null) {
+                slots.putIfAbsent(key, count);
+            }
+            count++;
+        }
+
+        /**
+         * Builds an index by scanning the given lines.
+         *
+         * @param lines the lines of the file
+         * @return the index, not stamped
+         */
+        static FileIndex build(List<String> lines) {
+            FileIndex index = new FileIndex();
+            index.scan(lines);
+            return index;
+        }
+
+        /**
+         * Replaces the recorded spans with the spans found in the given lines.
+         *
+         * @param lines the lines of the file
+         */
+        private synchronized void scan(List<String> lines) {
+            count = 0;
+            slots = null;
+            StringBuilder text = new StringBuilder();
+            for (String line : lines) {
+                text.append(line).append('\n');
+            }
+            char[] chars = new char[text.length()];
+            text.getChars(0, chars.length, chars, 0);
+            PZTranslationScanner scanner = new PZTranslationScanner(chars, chars.length);
+            while (scanner.next()) {
+                add(scanner.key(), scanner.entryStartLine() + 1, scanner.entryEndLine() + 1);
+            }
+        }
+
+        /**
+         * Returns the span of a key in the given lines. If the recorded span does
+         * not point at the key, the index is rebuilt from the lines first. Keys on
+         * lines the scanner rejects, such as unquoted values, are found by
+         * looking for a {@code key =} line, so saving replaces them instead of
+         * adding a duplicate.
+         *
+         * @param lines the current lines of the file
+         * @param key   the key to find
+         * @return [startLine, endLine] (inclusive, 1-based), or null if the key is
+         *         not in the file
+         */
+        public synchronized int[] locate(List<String> lines, String key) {
+            int slot = slotOf(key);
+            if (slot >= 0 && startsEntry(lines, starts[slot], key)) {
+                return new int[] { starts[slot], ends[slot] };
+            }
+            scan(lines);
+            slot = slotOf(key);
+            if (slot < 0) {
+                slot = findRaw(lines, key);
+            }
+            return slot >= 0 ? new int[] { starts[slot], ends[slot] } : null;
+        }
+
+        /**
+         * Looks for the first line that starts the entry of a key and records its
+         * span. The span continues over lines ending with {@code ..}.
+         *
+         * @param lines the lines of the file
+         * @param key   the key
+         * @return the slot of the recorded span, or -1 if no line holds the key
+         */
+        private int findRaw(List<String> lines, String key) {
+            for (int line = 1; line <= lines.size(); line++) {
+                if (startsEntry(lines, line, key)) {
+                    int end = line;
+                    while (end < lines.size() && lines.get(end - 1).stripTrailing().endsWith("..")) {
+                        end++;
+                    }
+                    add(key, line, end);
+                    return slotOf(key);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Updates the index after the lines of a key were replaced with a single
+         * line.
+         *
+         * @param key the replaced key
+         */
+        public synchronized void replaced(String key) {
+            int slot = slotOf(key);
+            int removedLines = ends[slot] - starts[slot];
+            ends[slot] = starts[slot];
+            shift(starts[slot] + 1, -removedLines);
+        }
+
+        /**
+         * Updates the index after a key was inserted as a single line.
+         *
+         * @param key  the inserted key
+         * @param line the line the key was inserted at (1-based)
+         */
+        public synchronized void inserted(String key, int line) {
+            shift(line, 1);
+            add(key, line, line);
+        }
+
+        /**
+         * Updates the index after the lines of a key were removed.
+         *
+         * @param key the removed key
+         */
+        public synchronized void removed(String key) {
+            int slot = slotOf(key);
+            int start = starts[slot];
+            int removedLines = ends[slot] - start + 1;
+            starts[slot] = -1;
+            slots.remove(key);
+            // A later duplicate of the key becomes the one found by lookups
+            for (int i = slot + 1; i < count; i++) {
+                if (starts[i] >= 0 && keys[i].equals(key)) {
+                    slots.put(key, i);
+                    break;
+                }
+            }
+            shift(start, -removedLines);
+        }
+
+        /**
+         * Checks whether the index describes the file with the given attributes.
+         *
+         * @param size         current file size in bytes
+         * @param lastModified current modification time in milliseconds
+         * @return true if the index is current
+         */
+        public synchronized boolean isCurrent(long size, long lastModified) {
+            return this.size >= 0 && this.size == size && this.lastModified == lastModified;
+        }
+
+        /**
+         * Records the attributes of the file the index describes.
+         *
+         * @param size         file size in bytes
+         * @param lastModified modification time in milliseconds
+         */
+        public synchronized void stamp(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Marks the index as not describing any file version, so it is rebuilt
+         * on the next edit.
+         */
+        public synchronized void invalidate() {
+            size = -1;
+            lastModified = -1;
+        }
+
+        /**
+         * Returns the slot of the first occurrence of a key.
+         *
+         * @param key the key
+         * @return the slot, or -1 if not recorded
+         */
+        private int slotOf(String key) {
+            if (slots == null) {
+                slots = HashMap.newHashMap(count);
+                for (int i = 0; i < count; i++) {
+                    if (starts[i] >= 0) {
+                        slots.putIfAbsent(keys[i], i);
+                    }
+                }
+            }
+            Integer slot = slots.get(key);
+            return slot == null ? -1 : slot;
+        }
+
+        /**
+         * Moves the spans of all keys starting at or after a line.
+         *
+         * @param fromLine first affected line (1-based)
+         * @param delta    number of lines to move by
+         */
+        private void shift(int fromLine, int delta) {
+            if (delta == 0) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                if (starts[i] >= fromLine) {
+                    starts[i] += delta;
+                    ends[i] += delta;
+                }
+            }
+        }
+
+        /**
+         * Checks whether the given line starts the entry of a key.
+         *
+         * @param lines the lines of the file
+         * @param line  the line number (1-based)
+         * @param key   the key
+         * @return true if the line holds {@code key =}
+         */
+        private static boolean startsEntry(List<String> lines, int line, String key) {
+            if (line < 1 || line > lines.size()) {
+                return false;
+            }
+            String text = lines.get(line - 1);
+            int i = 0;
+            while (i < text.length() && text.charAt(i) <= ' ') {
+                i++;
+            }
+            if (!text.startsWith(key, i)) {
+                return false;
+            }
+            i += key.length();
+            while (i < text.length() && text.charAt(i) <= ' ') {
+                i++;
+            }
+            return i < text.length() && text.charAt(i) == '=';
+        }
+    }
+
+    /** Singleton instance. */
+    private static final PZTranslationIndex INSTANCE = new PZTranslationIndex();
+
+    /** Indexes by normalized file path. */
+    private final Map<Path, FileIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationIndex() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Stores the index of a parsed file, replacing any previous one.
+     *
+     * @param path         the translation file
+     * @param index        the index built while parsing
+     * @param size         size of the parsed file in bytes
+     * @param lastModified modification time of the parsed file in milliseconds
+     */
+    public void put(Path path, FileIndex index, long size, long lastModified) {
+        index.stamp(size, lastModified);
+        indexes.put(path.toAbsolutePath().normalize(), index);
+    }
+
+    /**
+     * Returns the index for the given lines of a file. The stored index is used
+     * if it matches the file attributes; otherwise a new index is built from
+     * the lines and stored.
+     *
+     * @param path         the translation file
+     * @param lines        the lines read from the file
+     * @param size         file size in bytes when the lines were read
+     * @param lastModified modification time in milliseconds when the lines were
+     *                     read
+     * @return the index
+     */
+    public FileIndex forLines(Path path, List<String> lines, long size, long lastModified) {
+        Path key = path.toAbsolutePath().normalize();
+        FileIndex index = indexes.get(key);
+        if (index != null && index.isCurrent(size, lastModified)) {
+            return index;
+        }
+        index = FileIndex.build(lines);
+        index.stamp(size, lastModified);
+        indexes.put(key, index);
+        return index;
+    }
+
+    /**
+     * Returns the number of indexed files.
+     *
+     * @return the file count
+     */
+    public int getFileCount() {
+        return indexes.size();
+    }
+
+    /**
+     * Removes all indexes.
+     */
+    public void clear() {
+        indexes.clear();
+    }
+}
@@ -0,0 +1,403 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+
+/**
+ * Format checks of translated texts, for problems that otherwise only show up
+ * in game:
+ * <ul>
+ * <li>{@code %1}-style placeholders that differ from the English text;</li>
+ * <li>rich-text tags such as {@code <RGB:1,0,0>}, {@code <LINE>} or
+ * {@code <BR>} that differ from the English text or are not closed;</li>
+ * <li>an odd number of double quotes;</li>
+ * <li>lines ending with the {@code ..} continuation operator of the
+ * translation files.</li>
+ * </ul>
+ * Each variant is compared with the English variant of the same source, or of
+ * any source if its own has none. Empty texts and texts that are not loaded
+ * are skipped.
+ * <p>
+ * The findings are kept per entry so the table can filter on them. They are
+ * computed in one parallel pass after translations are loaded, and an entry
+ * is checked again through {@link #recheck(PZTranslationEntry)} whenever one
+ * of its texts changes. Until the first {@link #recompute(Collection)},
+ * rechecks are ignored.
+ */
+public final class PZTranslationLint {
+    /**
+     * Kinds of problems.
+     */
+    public enum Problem {
+        /** Placeholders differ from the reference text. */
+        PLACEHOLDERS("placeholders"),
+        /** Rich-text tags differ from the reference text or are not closed. */
+        RICH_TEXT("rich text"),
+        /** The text has an odd number of double quotes. */
+        QUOTES("quotes"),
+        /** A line of the text ends with {@code ..}. */
+        TRAILING_DOTS("trailing dots");
+
+        /** Short name shown to the user. */
+        private final String label;
+
+        /**
+         * Constructs a problem kind.
+         *
+         * @param label the short name shown to the user
+         */
+        Problem(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the short name shown to the user.
+         *
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * A problem of one variant.
+     *
+     * @param source   the source of the variant
+     * @param language the language of the variant
+     * @param type     the translation type of the variant, may be null
+     * @param problem  the kind of problem
+     * @param detail   a description of the problem
+     */
+    public record Finding(PZSource source, PZLanguage language, PZTranslationType type, Problem problem,
+            String detail) {
+        /**
+         * Checks whether the finding belongs to a variant.
+         *
+         * @param variant the variant
+         * @return true if source, language and type match
+         */
+        public boolean isFor(PZTranslationVariant variant) {
+            return variant.getSource() == source && variant.getLanguage() == language && variant.getType() == type;
+        }
+    }
+
+    /** Language the other texts are compared with. */
+    public static final String REFERENCE = "EN";
+
+    /** Game placeholders substituted at runtime. */
+    private static final Pattern PLACEHOLDER = Pattern.compile("%\\d+");
+    /** A rich-text tag, with the tag name as group 1. */
+    private static final Pattern TAG = Pattern.compile("<([A-Za-z][A-Za-z0-9_]*)(?::[^<>\\n]*)?>");
+    /** A rich-text tag with arguments that runs into the next tag or line end. */
+    private static final Pattern UNCLOSED_TAG = Pattern.compile("<[A-Za-z][A-Za-z0-9_]*:[^<>\\n]*(?=<|\\n|$)");
+
+    /** Singleton instance. */
+    private static final PZTranslationLint INSTANCE = new PZTranslationLint();
+
+    /** Findings of the entries that have any. */
+    private Map<PZTranslationEntry, List<Finding>> findings = new ConcurrentHashMap<>();
+    /** Whether the findings cover all loaded translations. */
+    private volatile boolean built;
+    /** Incremented after every change of the findings. */
+    private final ReadOnlyIntegerWrapper revision = new ReadOnlyIntegerWrapper();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationLint() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationLint getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a counter that changes whenever the findings change. Listeners
+     * are notified on the thread that made the change, so they should only
+     * schedule work.
+     *
+     * @return the revision property
+     */
+    public ReadOnlyIntegerProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+
+    /**
+     * Discards the findings. Until the next {@link #recompute(Collection)},
+     * rechecks are ignored.
+     */
+    public synchronized void clear() {
+        findings = new ConcurrentHashMap<>();
+        built = false;
+    }
+
+    /**
+     * Checks the given entries in one parallel pass and replaces all findings.
+     * The entries must not change during the pass.
+     *
+     * @param all all translation entries
+     */
+    public void recompute(Collection<PZTranslationEntry> all) {
+        long startTime = System.nanoTime();
+        int referenceId = PZLanguages.getLanguageId(REFERENCE);
+        Map<PZTranslationEntry, List<Finding>> result = new ConcurrentHashMap<>();
+        all.parallelStream().forEach(entry -> {
+            List<Finding> found = check(entry, referenceId);
+            if (!found.isEmpty()) {
+                result.put(entry, found);
+            }
+        });
+        synchronized (this) {
+            findings = result;
+            built = true;
+            revision.set(revision.get() + 1);
+        }
+        Logger.info("Checked " + all.size() + " translation keys, " + result.size() + " with problems, in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Checks one entry again after one of its texts or variants changed.
+     *
+     * @param entry the entry
+     */
+    public void recheck(PZTranslationEntry entry) {
+        if (!built) {
+            return;
+        }
+        List<Finding> found = check(entry, PZLanguages.getLanguageId(REFERENCE));
+        synchronized (this) {
+            if (built && store(entry, found)) {
+                revision.set(revision.get() + 1);
+            }
+        }
+    }
+
+    /**
+     * Checks several entries again in parallel, for example after the texts
+     * of a language were loaded.
+     *
+     * @param entries the entries
+     */
+    public void recheck(Collection<PZTranslationEntry> entries) {
+        if (!built) {
+            return;
+        }
+        int referenceId = PZLanguages.getLanguageId(REFERENCE);
+        Map<PZTranslationEntry, List<Finding>> checked = new ConcurrentHashMap<>();
+        entries.parallelStream().forEach(entry -> checked.put(entry, check(entry, referenceId)));
+        synchronized (this) {
+            boolean changed = false;
+            for (Map.Entry<PZTranslationEntry, List<Finding>> entry : checked.entrySet()) {
+                changed |= built && store(entry.getKey(), entry.getValue());
+            }
+            if (changed) {
+                revision.set(revision.get() + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the findings of an entry.
+     *
+     * @param entry the entry
+     * @return the findings, empty if the entry has no problems
+     */
+    public List<Finding> getFindings(PZTranslationEntry entry) {
+        return findings.getOrDefault(entry, List.of());
+    }
+
+    /**
+     * Returns whether an entry has any problems.
+     *
+     * @param entry the entry
+     * @return true if the entry has findings
+     */
+    public boolean hasProblems(PZTranslationEntry entry) {
+        return findings.containsKey(entry);
+    }
+
+    /**
+     * Returns the number of entries with problems.
+     *
+     * @return the entry count
+     */
+    public int getProblemEntryCount() {
+        return findings.size();
+    }
+
+    /**
+     * Checks all variants of an entry against a reference language. Reads the
+     * variant columns only, so no variant objects are created.
+     *
+     * @param entry         the entry
+     * @param referenceCode the code of the reference language
+     * @return the findings, in variant order
+     */
+    public static List<Finding> check(PZTranslationEntry entry, String referenceCode) {
+        return check(entry, PZLanguages.getLanguageId(referenceCode));
+    }
+
+    /**
+     * Checks one text against its reference text.
+     *
+     * @param text      the text to check
+     * @param reference the reference text, or null to skip the comparisons
+     * @return a description of each problem found
+     */
+    public static Map<Problem, String> check(String text, String reference) {
+        Map<Problem, String> problems = new EnumMap<>(Problem.class);
+        if (reference != null) {
+            Set<String> expected = placeholders(reference);
+            Set<String> found = placeholders(text);
+            if (!found.equals(expected)) {
+                problems.put(Problem.PLACEHOLDERS, "expected " + expected + ", found " + found);
+            }
+        }
+
+        Matcher unclosed = UNCLOSED_TAG.matcher(text);
+        if (unclosed.find()) {
+            problems.put(Problem.RICH_TEXT, "unclosed tag " + unclosed.group().strip());
+        } else if (reference != null) {
+            List<String> expected = tags(reference);
+            List<String> found = tags(text);
+            if (!found.equals(expected)) {
+                problems.put(Problem.RICH_TEXT, "expected " + expected + ", found " + found);
+            }
+        }
+
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"' && (i == 0 || text.charAt(i - 1) != '\\')) {
+                quotes++;
+            }
+        }
+        if (quotes % 2 != 0) {
+            problems.put(Problem.QUOTES, quotes + " double quotes");
+        }
+
+        String[] lines = text.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].stripTrailing();
+            if (line.endsWith("..") && !line.endsWith("...")) {
+                problems.put(Problem.TRAILING_DOTS, lines.length == 1 ? "text ends with .."
+                        : "line " + (i + 1) + " ends with ..");
+                break;
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Checks all variants of an entry against a reference language.
+     *
+     * @param entry       the entry
+     * @param referenceId the id of the reference language
+     * @return the findings, in variant order
+     */
+    private static List<Finding> check(PZTranslationEntry entry, int referenceId) {
+        int count = entry.getVariantCount();
+        if (count == 0) {
+            return List.of();
+        }
+        // Reference texts by source id, and one of any source as a fallback
+        Map<Integer, String> references = new HashMap<>(4);
+        String anyReference = null;
+        for (int i = 0; i < count; i++) {
+            String text = entry.getVariantText(i);
+            if (entry.getVariantLanguageId(i) == referenceId && text != null && !text.isEmpty()) {
+                references.putIfAbsent(entry.getVariantSourceId(i), text);
+                if (anyReference == null) {
+                    anyReference = text;
+                }
+            }
+        }
+
+        List<Finding> found = new ArrayList<>(0);
+        for (int i = 0; i < count; i++) {
+            String text = entry.getVariantText(i);
+            int languageId = entry.getVariantLanguageId(i);
+            if (text == null || text.isEmpty() || languageId < 0) {
+                continue;
+            }
+            String reference = languageId == referenceId ? null
+                    : references.getOrDefault(entry.getVariantSourceId(i), anyReference);
+            for (Map.Entry<Problem, String> problem : check(text, reference).entrySet()) {
+                found.add(new Finding(entry.getVariantSource(i), entry.getVariantLanguage(i),
+                        entry.getVariantType(i), problem.getKey(), problem.getValue()));
+            }
+        }
+        return found.isEmpty() ? List.of() : List.copyOf(found);
+    }
+
+    /**
+     * Replaces the findings of one entry.
+     *
+     * @param entry the entry
+     * @param found its findings, may be empty
+     * @return true if the findings changed
+     */
+    private boolean store(PZTranslationEntry entry, List<Finding> found) {
+        if (found.isEmpty()) {
+            return findings.remove(entry) != null;
+        }
+        return !found.equals(findings.put(entry, found));
+    }
+
+    /**
+     * Extracts the placeholders of a text. A placeholder may be used more than
+     * once, so only the distinct ones are compared.
+     *
+     * @param text the text
+     * @return the distinct placeholders, sorted
+     */
+    private static Set<String> placeholders(String text) {
+        Set<String> found = new TreeSet<>();
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        while (matcher.find()) {
+            found.add(matcher.group());
+        }
+        return found;
+    }
+
+    /**
+     * Extracts the names of the rich-text tags of a text. Tag arguments such
+     * as colors are not compared.
+     *
+     * @param text the text
+     * @return the uppercased tag names, sorted
+     */
+    private static List<String> tags(String text) {
+        List<String> found = new ArrayList<>();
+        Matcher matcher = TAG.matcher(text);
+        while (matcher.find()) {
+            found.add(matcher.group(1).toUpperCase(Locale.ROOT));
+        }
+        found.sort(null);
+        return found;
+    }
+}
@@ -1,71 +1,453 @@
 package org.pz.polyglot.models.translations;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Stream;
 
+import org.pz.polyglot.Config;
+import org.pz.polyglot.Logger;
 import org.pz.polyglot.models.TranslationSession;
 import org.pz.polyglot.models.languages.PZLanguage;
 import org.pz.polyglot.models.languages.PZLanguages;
 import org.pz.polyglot.models.sources.PZSource;
 import org.pz.polyglot.models.sources.PZSources;
+import org.pz.polyglot.utils.AtomicFileUtils;
 
 /**
  * Manages translation files and variants for Polyglot.
  * Handles loading, saving, and updating translation entries and files.
  */
 public class PZTranslationManager {
+    /**
+     * Receives progress notifications while translation files are loaded.
+     */
+    @FunctionalInterface
+    public interface LoadProgressListener {
+        /**
+         * Called after all files of a source have been merged into the registry.
+         *
+         * @param source        the source that has just been loaded
+         * @param loadedSources the number of sources loaded so far
+         * @param totalSources  the total number of sources to load
+         */
+        void onSourceLoaded(PZSource source, int loadedSources, int totalSources);
+    }
+
+    /**
+     * The outcome of saving the changed variants of one translation file.
+     *
+     * @param path     the translation file
+     * @param variants the number of variants written to the file
+     * @param success  whether the file was written
+     * @param error    the error message if the file could not be written, or null
+     */
+    public record FileSaveResult(Path path, int variants, boolean success, String error) {
+    }
+
+    /**
+     * A translation file discovered inside a source.
+     *
+     * @param path     the path to the file
+     * @param language the language of the file
+     * @param type     the translation type of the file
+     */
+    record TranslationFile(Path path, PZLanguage language, PZTranslationType type) {
+    }
+
+    /**
+     * The parsed contents of a translation file, ready to be merged.
+     *
+     * @param file   the parsed file
+     * @param entry  the parsed contents, in the form stored in the cache
+     * @param cached whether the contents came from the translation cache
+     */
+    record ParsedFile(TranslationFile file, PZTranslationCache.Entry entry, boolean cached) {
+    }
+
+    /**
+     * Counts merged files and streams them into the new cache snapshot, so the
+     * pairs of a file are not kept once the file has been merged.
+     */
+    private static final class MergedFiles {
+        /** The writer of the new cache snapshot, or null if the cache is disabled. */
+        private final PZTranslationCache.Writer cacheWriter;
+        /** The pool of the load, which also counts keys shared with the registry. */
+        private final PZStringPool pool;
+        /** Number of merged files. */
+        private int files;
+        /** Number of merged files taken from the cache. */
+        private int cachedFiles;
+
+        /**
+         * Creates the counters.
+         *
+         * @param cacheWriter the writer of the new cache snapshot, or null
+         * @param pool        the pool of the load
+         */
+        MergedFiles(PZTranslationCache.Writer cacheWriter, PZStringPool pool) {
+            this.cacheWriter = cacheWriter;
+            this.pool = pool;
+        }
+
+        /**
+         * Records a merged file.
+         *
+         * @param parsed the merged file
+         */
+        void add(ParsedFile parsed) {
+            files++;
+            if (parsed.cached()) {
+                cachedFiles++;
+            }
+            if (cacheWriter != null) {
+                cacheWriter.add(parsed.entry(), parsed.cached());
+            }
+        }
+    }
+
     /**
      * Loads all translation files from all sources into the translation registry.
      * After execution, all translations from all sources are loaded.
      */
     public static void loadFilesFromSources() {
-        for (PZSource source : PZSources.getInstance().getSources()) {
-            loadFilesFromSource(source);
+        loadFilesFromSources((source, loadedSources, totalSources) -> {
+        });
+    }
+
+    /**
+     * Loads all translation files from all sources into the translation registry,
+     * reporting progress after each source.
+     * <p>
+     * In parallel mode files are parsed on a bounded pool of virtual threads, but
+     * the results are always merged on the calling thread in source priority
+     * order, so variant order inside each entry is the same as in sequential
+     * mode.
+     * <p>
+     * When the translation cache is enabled, files whose path, size and
+     * modification time match the snapshot from the previous run are taken from
+     * the snapshot instead of being parsed, and the snapshot is rewritten if
+     * anything changed. Each file is written to the new snapshot as soon as it
+     * is merged, so the parsed pairs of all files are never held at once.
+     * <p>
+     * When lazy variant texts are enabled, only the texts of the visible
+     * languages are kept; see {@link PZVariantTextLoader}.
+     *
+     * @param listener the listener notified after each source has been merged
+     */
+    public static void loadFilesFromSources(LoadProgressListener listener) {
+        loadFilesFromSources(PZSources.getInstance().getSources(), listener);
+    }
+
+    /**
+     * Loads all translation files from the given sources into the translation
+     * registry, reporting progress after each source.
+     *
+     * @param sources  the sources to load, in priority order
+     * @param listener the listener notified after each source has been merged
+     */
+    static void loadFilesFromSources(List<PZSource> sources, LoadProgressListener listener) {
+        long startTime = System.nanoTime();
+        PZTranslationCache cache = Config.getInstance().isTranslationCache()
+                ? PZTranslationCache.open(Config.getConfigDirectory())
+                : null;
+        // Rebuilt once below instead of updated per variant
+        PZTranslationSearchIndex.getInstance().clear();
+        PZCoverageStats.getInstance().clear();
+        PZTranslationLint.getInstance().clear();
+        PZTranslationOverrides.getInstance().clear();
+        PZVariantTextLoader.getInstance().reset();
+        PZTranslationWatcher.getInstance().reset();
+        // Shares strings across the files of this load only, so it keeps nothing alive afterwards
+        PZStringPool pool = new PZStringPool();
+
+        try (PZTranslationCache.Writer cacheWriter = cache != null ? cache.writer() : null) {
+            MergedFiles merged = new MergedFiles(cacheWriter, pool);
+            if (Config.getInstance().isParallelLoading()) {
+                loadFilesInParallel(sources, listener, cache, pool, merged);
+            } else {
+                for (int i = 0; i < sources.size(); i++) {
+                    PZSource source = sources.get(i);
+                    List<ParsedFile> parsedFiles = new ArrayList<>();
+                    for (TranslationFile file : listTranslationFiles(source)) {
+                        parsedFiles.add(parseFile(source, file, cache, pool));
+                    }
+                    mergeParsedFiles(source, parsedFiles, merged);
+                    listener.onSourceLoaded(source, i + 1, sources.size());
+                }
+            }
+
+            Logger.info("Loaded translations from " + sources.size() + " sources (" + merged.files + " files, "
+                    + merged.cachedFiles + " from cache) in " + (System.nanoTime() - startTime) / 1_000_000
+                    + " ms");
+            if (cacheWriter != null) {
+                cacheWriter.finish();
+            }
+        }
+        if (Config.getInstance().isCompactVariants()) {
+            PZTranslations.getInstance().getAllTranslations().values().forEach(PZTranslationEntry::trimVariants);
         }
+        Logger.info("Deduplicated " + pool.getHits() + " strings, about " + pool.getSavedBytes() / 1024
+                + " KB saved");
+        pool.report();
+        PZTranslationSearchIndex.getInstance().rebuild(PZTranslations.getInstance().getAllTranslations().values());
+        PZCoverageStats.getInstance().recompute(PZTranslations.getInstance().getAllTranslations().values());
+        PZTranslationLint.getInstance().recompute(PZTranslations.getInstance().getAllTranslations().values());
+        PZTranslationOverrides.getInstance().recompute(PZTranslations.getInstance().getAllTranslations().values());
     }
 
     /**
-     * Loads all translation files of known types from the given source into the
-     * translation registry.
-     * It creates or updates translation keys with specific translations.
+     * Parses the files of all sources concurrently and merges them in order.
+     * Concurrency is bounded by the number of available processors, and only a
+     * window of sources ahead of the merge is parsed, so a slow early source
+     * does not leave the pairs of all later sources waiting in memory.
+     *
+     * @param sources  the sources to load, in priority order
+     * @param listener the listener notified after each source has been merged
+     * @param cache    the translation cache, or null if disabled
+     * @param pool     the string pool of the load
+     * @param merged   receives the merged files in merge order
+     */
+    private static void loadFilesInParallel(List<PZSource> sources, LoadProgressListener listener,
+            PZTranslationCache cache, PZStringPool pool, MergedFiles merged) {
+        int processors = Math.max(1, Runtime.getRuntime().availableProcessors());
+        Semaphore permits = new Semaphore(processors);
+        // Sources being parsed or waiting to be merged; twice the permits keeps every processor busy
+        int window = processors * 2;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<ParsedFile>>> results = new ArrayList<>(sources.size());
+            for (int i = 0; i < Math.min(window, sources.size()); i++) {
+                PZSource source = sources.get(i);
+                results.add(executor.submit(() -> parseSourceFiles(source, executor, permits, cache, pool)));
+            }
+
+            // Merge strictly in source order to keep variant order deterministic
+            for (int i = 0; i < sources.size(); i++) {
+                PZSource source = sources.get(i);
+                try {
+                    mergeParsedFiles(source, results.get(i).get(), merged);
+                } catch (ExecutionException e) {
+                    Logger.warning("Failed to load translations from source: " + source, e.getCause());
+                }
+                // Let the parsed pairs of the source be collected
+                results.set(i, null);
+                if (i + window < sources.size()) {
+                    PZSource next = sources.get(i + window);
+                    results.add(executor.submit(() -> parseSourceFiles(next, executor, permits, cache, pool)));
+                }
+                listener.onSourceLoaded(source, i + 1, sources.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.warning("Translation loading was interrupted");
+        }
+    }
+
+    /**
+     * Lists and parses all translation files of a source, each file on its own
+     * virtual thread.
      *
-     * @param source the translation source to load files from
+     * @param source   the source to parse
+     * @param executor the executor to submit file parsing tasks to
+     * @param permits  the semaphore bounding concurrent file system work
+     * @param cache    the translation cache, or null if disabled
+     * @param pool     the string pool of the load
+     * @return parsed files in deterministic file order
+     * @throws InterruptedException if interrupted while waiting for a permit
+     * @throws ExecutionException   if parsing a file failed
      */
-    private static void loadFilesFromSource(PZSource source) {
+    private static List<ParsedFile> parseSourceFiles(PZSource source, ExecutorService executor, Semaphore permits,
+            PZTranslationCache cache, PZStringPool pool) throws InterruptedException, ExecutionException {
+        List<TranslationFile> files;
+        permits.acquire();
+        try {
+            files = listTranslationFiles(source);
+        } finally {
+            permits.release();
+        }
+
+        List<Future<ParsedFile>> futures = new ArrayList<>(files.size());
+        for (TranslationFile file : files) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return parseFile(source, file, cache, pool);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<ParsedFile> parsedFiles = new ArrayList<>(futures.size());
+        for (Future<ParsedFile> future : futures) {
+            parsedFiles.add(future.get());
+        }
+        return parsedFiles;
+    }
+
+    /**
+     * Lists all translation files of known types and languages in a source.
+     * Files are sorted by language directory and file name so loading order does
+     * not depend on the file system.
+     *
+     * @param source the source to scan
+     * @return the list of translation files
+     */
+    static List<TranslationFile> listTranslationFiles(PZSource source) {
+        List<TranslationFile> result = new ArrayList<>();
         try (DirectoryStream<Path> langDirs = Files.newDirectoryStream(source.getPath(), p -> Files.isDirectory(p)
                 && PZLanguages.getInstance().getLanguage(p.getFileName().toString()).isPresent())) {
             for (Path langDir : langDirs) {
                 PZLanguage lang = PZLanguages.getInstance().getLanguage(langDir.getFileName().toString()).get();
 
                 try (DirectoryStream<Path> files = Files.newDirectoryStream(langDir, p -> Files.isRegularFile(p)
-                        && p.getFileName().toString().endsWith("_" + lang.getCode() + ".txt")
-                        && PZTranslationType
-                                .fromString(extractTypeFromFileName(p.getFileName().toString(), lang.getCode()))
-                                .isPresent())) {
+                        && p.getFileName().toString().endsWith("_" + lang.getCode() + ".txt"))) {
                     for (Path file : files) {
-                        PZTranslationType translationType = PZTranslationType
+                        PZTranslationType
                                 .fromString(extractTypeFromFileName(file.getFileName().toString(), lang.getCode()))
-                                .get();
-
-                        try (PZTranslationParser reader = new PZTranslationParser(file, lang, source);
-                                Stream<PZTranslationParser.Pair> stream = reader.stream()) {
-                            stream.forEach(s -> {
-                                PZTranslationEntry entry = PZTranslations.getInstance().getOrCreateTranslation(s.key());
-                                entry.addVariant(source, lang, translationType, s.value(), reader.getUsedCharset());
-                            });
-                        }
+                                .ifPresent(type -> result.add(new TranslationFile(file, lang, type)));
                     }
-
                 } catch (IOException e) {
                 }
             }
         } catch (IOException e) {
         }
+        result.sort(Comparator.comparing((TranslationFile f) -> f.language().getCode())
+                .thenComparing(f -> f.path().getFileName().toString()));
+        return result;
+    }
+
+    /**
+     * Resolves a path inside a source to a translation file of a known language
+     * and type.
+     *
+     * @param file the path to check, expected as
+     *             {@code <source>/<LANG>/<TYPE>_<LANG>.txt}
+     * @return the translation file, or empty if the path is not one
+     */
+    static Optional<TranslationFile> resolveTranslationFile(Path file) {
+        Path langDir = file.getParent();
+        if (langDir == null || langDir.getFileName() == null) {
+            return Optional.empty();
+        }
+        Optional<PZLanguage> language = PZLanguages.getInstance().getLanguage(langDir.getFileName().toString());
+        String fileName = file.getFileName().toString();
+        if (language.isEmpty() || !fileName.endsWith("_" + language.get().getCode() + ".txt")) {
+            return Optional.empty();
+        }
+        return PZTranslationType.fromString(extractTypeFromFileName(fileName, language.get().getCode()))
+                .map(type -> new TranslationFile(file, language.get(), type));
+    }
+
+    /**
+     * Parses a single translation file into memory, or takes it from the cache
+     * if the file has not changed since it was cached.
+     *
+     * @param source the source the file belongs to
+     * @param file   the file to parse
+     * @param cache  the translation cache, or null if disabled
+     * @param pool   the string pool of a bulk load, or null
+     * @return the parsed file
+     */
+    static ParsedFile parseFile(PZSource source, TranslationFile file, PZTranslationCache cache,
+            PZStringPool pool) {
+        long size = -1;
+        long lastModified = -1;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.path(), BasicFileAttributes.class);
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            // Parse without caching; the parser reports unreadable files
+        }
+        String charsets = PZTranslationCache.charsetsKey(file.language().getCharsetsDownFrom(source.getVersion()));
+
+        if (cache != null && size >= 0) {
+            Optional<PZTranslationCache.Entry> cached = cache.lookup(file.path(), size, lastModified, charsets,
+                    pool);
+            if (cached.isPresent()) {
+                PZTranslationCache.Entry entry = cached.get();
+                PZCharsetStats.getInstance().record(file.path(), entry.charset(), entry.fallback(), entry.reason());
+                return new ParsedFile(file, entry, true);
+            }
+        }
+
+        try (PZTranslationParser reader = new PZTranslationParser(file.path(), file.language(), source, pool);
+                Stream<PZTranslationParser.Pair> stream = reader.stream()) {
+            PZCharsetDetector.Detection detection = reader.getDetection();
+            PZCharsetStats.getInstance().record(file.path(), detection);
+            List<PZTranslationParser.Pair> pairs = stream.toList();
+            if (detection.charset() != null && size >= 0) {
+                PZTranslationIndex.getInstance().put(file.path(), reader.getIndex(), size, lastModified);
+            }
+            PZTranslationCache.Entry entry = new PZTranslationCache.Entry(PZTranslationCache.keyOf(file.path()),
+                    size, lastModified, charsets, detection.charset(), detection.isFallback(), detection.describe(),
+                    pairs);
+            return new ParsedFile(file, entry, false);
+        }
+    }
+
+    /**
+     * Merges parsed files of a source into the translation registry.
+     * It creates or updates translation keys with specific translations.
+     * Must be called from a single thread.
+     *
+     * @param source      the source the files belong to
+     * @param parsedFiles the parsed files in merge order
+     * @param merged      receives each file once it is merged
+     */
+    private static void mergeParsedFiles(PZSource source, List<ParsedFile> parsedFiles, MergedFiles merged) {
+        PZTranslations translations = PZTranslations.getInstance();
+        PZVariantTextLoader texts = PZVariantTextLoader.getInstance();
+        PZTranslationWatcher watcher = PZTranslationWatcher.getInstance();
+        boolean compact = Config.getInstance().isCompactVariants();
+        boolean watched = watcher.tracksFiles();
+        for (ParsedFile parsed : parsedFiles) {
+            TranslationFile file = parsed.file();
+            Charset charset = parsed.entry().charset();
+            // Texts of hidden languages are loaded when first needed
+            boolean keepText = texts.keepsText(file.language());
+            texts.addFile(source, file);
+            List<PZTranslationParser.Pair> pairs = parsed.entry().pairs();
+            String[] keys = watched ? new String[pairs.size()] : null;
+            for (int i = 0; i < pairs.size(); i++) {
+                PZTranslationParser.Pair pair = pairs.get(i);
+                PZTranslationEntry entry = translations.getOrCreateTranslation(pair.key());
+                if (entry.getKey() != pair.key()) {
+                    merged.pool.recordShared(entry.getKey());
+                }
+                if (keys != null) {
+                    keys[i] = entry.getKey();
+                }
+                if (compact) {
+                    entry.addCompactVariant(source, file.language(), file.type(), keepText ? pair.value() : null,
+                            charset);
+                } else {
+                    entry.addVariant(source, file.language(), file.type(), pair.value(), charset);
+                }
+            }
+            if (keys != null) {
+                watcher.addFile(source, file, keys);
+            }
+            merged.add(parsed);
+        }
     }
 
     /**
@@ -90,37 +472,12 @@ public class PZTranslationManager {
      * @param variant the translation variant to save
      */
     public static void saveVariant(PZTranslationVariant variant) {
-        try {
-            Path filePath = constructFilePath(variant);
-
-            // Create file if it doesn't exist
-            if (!Files.exists(filePath)) {
-                createNewTranslationFile(filePath, variant);
-            }
-
-            // Read all lines from the file
-            List<String> lines = Files.readAllLines(filePath, variant.getUsedCharset());
-
-            String key = variant.getKey().getKey();
-            String textToSave = variant.getEditedText();
-
-            // Find existing key or add new one
-            int[] keyLines = findKeyInFile(lines, key);
-
-            if (keyLines != null) {
-                // Replace existing key
-                replaceLines(lines, keyLines[0], keyLines[1], key, textToSave);
-            } else {
-                // Add new key before closing brace
-                addNewKeyToFile(lines, key, textToSave);
-            }
-
-            // Write the modified lines back to the file
-            Files.write(filePath, lines, variant.getUsedCharset());
-
+        FileSaveResult result = saveFile(constructFilePath(variant), List.of(variant));
+        if (result.success()) {
             variant.markSaved();
-        } catch (IOException e) {
-            System.err.println("Failed to save variant: " + e.getMessage());
+            PZTranslationMemory.getInstance().updateInBackground(List.of(variant.getKey()));
+        } else {
+            System.err.println("Failed to save variant: " + result.error());
         }
     }
 
@@ -164,43 +521,13 @@ public class PZTranslationManager {
      * @param variant the translation variant
      * @return the path to the translation file
      */
-    private static Path constructFilePath(PZTranslationVariant variant) {
+    public static Path constructFilePath(PZTranslationVariant variant) {
         Path sourcePath = variant.getSource().getPath();
         String languageCode = variant.getLanguage().getCode();
         String fileName = variant.getType().name() + "_" + languageCode + ".txt";
         return sourcePath.resolve(languageCode).resolve(fileName);
     }
 
-    /**
-     * Finds the line numbers of a translation key in the file.
-     * Returns an array with start and end line numbers (inclusive, 1-based), or
-     * null if not found.
-     *
-     * @param lines the lines of the file
-     * @param key   the translation key to search for
-     * @return int array [startLine, endLine] or null if not found
-     */
-    private static int[] findKeyInFile(List<String> lines, String key) {
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
-            if (line.startsWith(key + " =")) {
-                int endLine = i + 1;
-                // If it's a multiline value, find the actual end
-                if (!line.endsWith(",") && !line.endsWith("}")) {
-                    for (int j = i + 1; j < lines.size(); j++) {
-                        String nextLine = lines.get(j).trim();
-                        if (nextLine.endsWith(",") || nextLine.equals("}")) {
-                            endLine = j + 1;
-                            break;
-                        }
-                    }
-                }
-                return new int[] { i + 1, endLine }; // Convert to 1-based indexing
-            }
-        }
-        return null; // Key not found
-    }
-
     /**
      * Adds a new translation key-value pair to the file, inserting before the
      * closing brace.
@@ -208,8 +535,9 @@ public class PZTranslationManager {
      * @param lines the lines of the file
      * @param key   the translation key
      * @param value the translation value
+     * @return the line the key was inserted at (1-based)
      */
-    private static void addNewKeyToFile(List<String> lines, String key, String value) {
+    private static int addNewKeyToFile(List<String> lines, String key, String value) {
         int insertPosition = lines.size(); // Default to end
         for (int i = lines.size() - 1; i >= 0; i--) {
             String line = lines.get(i).trim();
@@ -220,6 +548,7 @@ public class PZTranslationManager {
         }
         String newLine = "    " + key + " = \"" + value + "\",";
         lines.add(insertPosition, newLine);
+        return insertPosition + 1;
     }
 
     /**
@@ -232,16 +561,169 @@ public class PZTranslationManager {
     private static void createNewTranslationFile(Path filePath, PZTranslationVariant variant) throws IOException {
         Files.createDirectories(filePath.getParent());
         String fileTemplate = variant.getType().name() + "_" + variant.getLanguage().getCode() + " = {\n}";
-        Files.write(filePath, fileTemplate.getBytes(variant.getSupposedCharset()));
+        AtomicFileUtils.write(filePath, fileTemplate.getBytes(variant.getSupposedCharset()), 0);
+    }
+
+    /**
+     * Replaces the contents of a translation file atomically, keeping as many
+     * backups of the previous version as configured.
+     *
+     * @param filePath the translation file
+     * @param lines    the new lines
+     * @param charset  the charset of the file
+     * @throws IOException if the file could not be written; it is then unchanged
+     */
+    private static void writeLines(Path filePath, List<String> lines, Charset charset) throws IOException {
+        AtomicFileUtils.write(filePath, lines, charset, Config.getInstance().getTranslationBackups());
     }
 
     /**
      * Saves all translation variants in the current session.
      * Uses a copy of the collection to avoid ConcurrentModificationException.
+     * <p>
+     * Variants are grouped by target file; each file is read once, receives all
+     * of its edits in one pass and is written once. Different files are written
+     * in parallel. Variants are marked as saved on the calling thread, and only
+     * if their file was written successfully.
+     *
+     * @return the outcome for each file, ordered by path
      */
-    public static void saveAll() {
+    public static List<FileSaveResult> saveAll() {
         var variantsCopy = new ArrayList<>(TranslationSession.getInstance().getVariants());
-        variantsCopy.forEach(PZTranslationManager::saveVariant);
+        long startTime = System.nanoTime();
+
+        Map<Path, List<PZTranslationVariant>> byFile = new TreeMap<>();
+        for (PZTranslationVariant variant : variantsCopy) {
+            byFile.computeIfAbsent(constructFilePath(variant), path -> new ArrayList<>()).add(variant);
+        }
+        // New keys are appended in key order so repeated saves produce the same file
+        byFile.values().forEach(variants -> variants.sort(Comparator.comparing(v -> v.getKey().getKey())));
+
+        List<FileSaveResult> results = new ArrayList<>(byFile.size());
+        // Writes are atomic, so a failure mid-batch cannot corrupt files; allow more I/O in flight
+        Semaphore permits = new Semaphore(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<Path, Future<FileSaveResult>> futures = new TreeMap<>();
+            for (Map.Entry<Path, List<PZTranslationVariant>> file : byFile.entrySet()) {
+                futures.put(file.getKey(), executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return saveFile(file.getKey(), file.getValue());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Map.Entry<Path, Future<FileSaveResult>> future : futures.entrySet()) {
+                try {
+                    results.add(future.getValue().get());
+                } catch (ExecutionException e) {
+                    // Only this file failed; the others are still marked as saved
+                    Logger.error("Unexpected error while saving " + future.getKey(), e.getCause());
+                    results.add(new FileSaveResult(future.getKey(), byFile.get(future.getKey()).size(), false,
+                            String.valueOf(e.getCause())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Logger.warning("Saving translations was interrupted");
+        }
+
+        int saved = 0;
+        Set<PZTranslationEntry> savedEntries = new LinkedHashSet<>();
+        for (FileSaveResult result : results) {
+            if (result.success()) {
+                for (PZTranslationVariant variant : byFile.get(result.path())) {
+                    variant.markSaved();
+                    savedEntries.add(variant.getKey());
+                }
+                saved += result.variants();
+            } else {
+                Logger.error("Failed to save " + result.path() + ": " + result.error());
+            }
+        }
+        PZTranslationMemory.getInstance().updateInBackground(savedEntries);
+        Logger.info("Saved " + saved + " of " + variantsCopy.size() + " variants to " + byFile.size() + " files in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        return results;
+    }
+
+    /**
+     * Writes the edits of several variants into one translation file with a
+     * single read and a single write. Does not mark the variants as saved.
+     *
+     * @param filePath the translation file
+     * @param variants the variants to save, all targeting {@code filePath}
+     * @return the outcome for the file
+     */
+    private static FileSaveResult saveFile(Path filePath, List<PZTranslationVariant> variants) {
+        try {
+            PZTranslationVariant first = variants.get(0);
+
+            // Create file if it doesn't exist
+            if (!Files.exists(filePath)) {
+                createNewTranslationFile(filePath, first);
+            }
+
+            Charset charset = first.getUsedCharset();
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            List<String> lines = Files.readAllLines(filePath, charset);
+            PZTranslationIndex.FileIndex index = PZTranslationIndex.getInstance().forLines(filePath, lines,
+                    attributes.size(), attributes.lastModifiedTime().toMillis());
+            try {
+                applyEdits(lines, index, variants);
+                writeLines(filePath, lines, charset);
+            } catch (IOException | RuntimeException e) {
+                // The index now describes lines that were never written
+                index.invalidate();
+                throw e;
+            }
+            stampIndex(filePath, index);
+            return new FileSaveResult(filePath, variants.size(), true, null);
+        } catch (IOException | RuntimeException e) {
+            return new FileSaveResult(filePath, variants.size(), false, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the edited texts of the variants to the lines of their file.
+     * Existing keys are replaced in place at the span recorded in the index;
+     * new keys are added before the closing brace. The index is updated after
+     * each change.
+     *
+     * @param lines    the lines of the file, modified in place
+     * @param index    the key index of the lines
+     * @param variants the variants to apply
+     */
+    private static void applyEdits(List<String> lines, PZTranslationIndex.FileIndex index,
+            List<PZTranslationVariant> variants) {
+        for (PZTranslationVariant variant : variants) {
+            String key = variant.getKey().getKey();
+            int[] keyLines = index.locate(lines, key);
+            if (keyLines != null) {
+                replaceLines(lines, keyLines[0], keyLines[1], key, variant.getEditedText());
+                index.replaced(key);
+            } else {
+                index.inserted(key, addNewKeyToFile(lines, key, variant.getEditedText()));
+            }
+        }
+    }
+
+    /**
+     * Records the attributes of a file that was just written in its index, so
+     * the next edit can reuse the index.
+     *
+     * @param filePath the translation file
+     * @param index    the index describing the written lines
+     */
+    private static void stampIndex(Path filePath, PZTranslationIndex.FileIndex index) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            index.stamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            // The index is rebuilt on the next edit
+            index.invalidate();
+        }
     }
 
     /**
@@ -256,19 +738,24 @@ public class PZTranslationManager {
                 return;
             }
 
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
             List<String> lines = Files.readAllLines(filePath, variant.getUsedCharset());
+            PZTranslationIndex.FileIndex index = PZTranslationIndex.getInstance().forLines(filePath, lines,
+                    attributes.size(), attributes.lastModifiedTime().toMillis());
             String key = variant.getKey().getKey();
-            int[] keyLines = findKeyInFile(lines, key);
+            int[] keyLines = index.locate(lines, key);
 
             if (keyLines != null) {
                 // Remove lines for the key (inclusive)
-                int startIndex = keyLines[0] - 1;
-                int endIndex = keyLines[1] - 1;
-                for (int i = endIndex; i >= startIndex; i--) {
-                    lines.remove(i);
+                lines.subList(keyLines[0] - 1, keyLines[1]).clear();
+                try {
+                    writeLines(filePath, lines, variant.getUsedCharset());
+                } catch (IOException e) {
+                    index.invalidate();
+                    throw e;
                 }
-
-                Files.write(filePath, lines, variant.getUsedCharset());
+                index.removed(key);
+                stampIndex(filePath, index);
             }
         } catch (IOException e) {
             System.err.println("Failed to delete variant: " + e.getMessage());
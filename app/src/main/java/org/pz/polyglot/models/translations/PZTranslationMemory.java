@@ -0,0 +1,628 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguages;
+
+/**
+ * Translation memory over all loaded translations: given the English text of
+ * a key, finds keys with similar English texts and offers their translations
+ * into the target language.
+ * <p>
+ * Texts are compared by the Jaccard similarity of their character trigrams.
+ * Candidates are found with MinHash locality-sensitive hashing: every distinct
+ * English text gets a signature of {@value #HASHES} minimum hashes, split into
+ * {@value #BANDS} bands; texts that agree on a whole band share a bucket. Each
+ * band is kept as one sorted array of (band hash, text id) pairs, so a lookup
+ * is a binary search per band and the index costs a few bytes per text.
+ * Candidates are then ranked by their exact similarity.
+ * <p>
+ * The English texts are copied on the thread that loads the translations, and
+ * again for the changed entries when files are reloaded, edits are saved or
+ * variants are added; the index is built from that copy on a background
+ * thread, so the build never reads entries that may be changing. Changes only
+ * hash the texts that were added and merge them into the sorted bands; the
+ * index is built from scratch once most of its text ids belong to removed
+ * texts. Translations are read from the entries when
+ * suggesting, so edits to them show up at once. Texts of languages that are
+ * not loaded yet (see {@link PZVariantTextLoader}) are neither indexed nor
+ * suggested.
+ */
+public final class PZTranslationMemory {
+    /**
+     * A suggested translation.
+     *
+     * @param key         the key the translation comes from
+     * @param sourceText  the English text of that key
+     * @param translation the translation into the target language
+     * @param similarity  the similarity of the English texts, from 0 to 1
+     */
+    public record Suggestion(String key, String sourceText, String translation, double similarity) {
+    }
+
+    /** Language the memory is indexed by. */
+    public static final String REFERENCE = "EN";
+    /** Lowest similarity a suggestion may have. */
+    public static final double MIN_SIMILARITY = 0.4;
+
+    /** Number of minimum hashes per text. */
+    private static final int HASHES = 48;
+    /** Number of bands the signature is split into. */
+    private static final int BANDS = 16;
+    /** Number of hashes per band. */
+    private static final int ROWS = HASHES / BANDS;
+    /** Upper bound on the candidates ranked per query, to keep lookups fast. */
+    private static final int MAX_CANDIDATES = 2000;
+    /** Seeds of the hash functions; fixed so signatures are reproducible. */
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_7A11L).longs(HASHES).toArray();
+
+    /**
+     * An immutable index.
+     *
+     * @param texts   the distinct English texts, by text id; null for removed
+     *                texts
+     * @param entries the entries of each text, by text id
+     * @param bands   per band, (band hash, text id) pairs packed into longs and
+     *                sorted
+     * @param ids     the text id of each text
+     * @param removed the number of text ids of removed texts
+     */
+    private record Index(String[] texts, PZTranslationEntry[][] entries, long[][] bands, Map<String, Integer> ids,
+            int removed) {
+    }
+
+    /** Singleton instance. */
+    private static final PZTranslationMemory INSTANCE = new PZTranslationMemory();
+
+    /** The current index, or null until the first build has finished. */
+    private volatile Index index;
+    /** The English texts of the entries in {@link #index}; replaced, never changed. */
+    private volatile Map<PZTranslationEntry, String[]> indexedTexts = Map.of();
+    /** Incremented for every full build, so an outdated build does not win. */
+    private final AtomicInteger generation = new AtomicInteger();
+    /** Worker thread that builds the index, one build after the other. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = Executors.defaultThreadFactory().newThread(runnable);
+        t.setName("translation-memory");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationMemory() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationMemory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether an index is available.
+     *
+     * @return true once a build has finished
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Builds the index on a background thread. The English texts are copied on
+     * the calling thread, which must be the one that changes the entries.
+     * Suggestions use the previous index until the build has finished.
+     *
+     * @param all all translation entries
+     */
+    public void rebuildInBackground(Collection<PZTranslationEntry> all) {
+        Map<PZTranslationEntry, String[]> texts = referenceTexts(all, false);
+        int build = generation.incrementAndGet();
+        worker.execute(() -> build(build, texts));
+    }
+
+    /**
+     * Updates the index on a background thread after some entries changed,
+     * for example because their files were reloaded or their edits were saved.
+     * Only the English texts of those entries are copied, on the calling
+     * thread, and only texts that were added or removed are rehashed. Does
+     * nothing before the first build.
+     *
+     * @param changed the changed entries, including removed ones
+     */
+    public void updateInBackground(Collection<PZTranslationEntry> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Map<PZTranslationEntry, String[]> changes = referenceTexts(changed, true);
+        int build = generation.get();
+        worker.execute(() -> apply(build, changes));
+    }
+
+    /**
+     * Updates the index on the calling thread after some entries changed.
+     *
+     * @param changed the changed entries, including removed ones
+     */
+    public void update(Collection<PZTranslationEntry> changed) {
+        apply(generation.get(), referenceTexts(changed, true));
+    }
+
+    /**
+     * Builds the index on the calling thread.
+     *
+     * @param all all translation entries
+     */
+    public void rebuild(Collection<PZTranslationEntry> all) {
+        int build = generation.incrementAndGet();
+        Map<PZTranslationEntry, String[]> texts = referenceTexts(all, false);
+        publish(build, texts, buildIndex(texts));
+    }
+
+    /**
+     * Discards the index.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        index = null;
+        indexedTexts = Map.of();
+    }
+
+    /**
+     * Suggests translations for an entry from keys with similar English texts.
+     * The entry itself and empty translations are skipped; equal translations
+     * are listed once, with their best similarity.
+     *
+     * @param entry    the entry being translated
+     * @param language the target language code
+     * @param limit    the maximum number of suggestions
+     * @return the suggestions, most similar first; empty if the index is not
+     *         ready or the entry has no English text
+     */
+    public List<Suggestion> suggest(PZTranslationEntry entry, String language, int limit) {
+        Index current = index;
+        if (current == null || language.equals(REFERENCE) || limit <= 0) {
+            return List.of();
+        }
+        int referenceId = PZLanguages.getLanguageId(REFERENCE);
+        int targetId = PZLanguages.getLanguageId(language);
+        List<String> queries = new ArrayList<>(1);
+        entry.anyVariantText(referenceId, text -> {
+            if (!text.isBlank() && !queries.contains(text)) {
+                queries.add(text);
+            }
+            return false;
+        });
+
+        Map<String, Suggestion> best = new HashMap<>();
+        for (String query : queries) {
+            int[] shingles = shingles(query);
+            for (int textId : candidates(current, signature(shingles))) {
+                String text = current.texts()[textId];
+                double similarity = jaccard(shingles, shingles(text));
+                if (similarity < MIN_SIMILARITY) {
+                    continue;
+                }
+                for (PZTranslationEntry match : current.entries()[textId]) {
+                    if (match == entry) {
+                        continue;
+                    }
+                    match.anyVariantText(targetId, translation -> {
+                        if (!translation.isBlank()) {
+                            best.merge(translation, new Suggestion(match.getKey(), text, translation, similarity),
+                                    (a, b) -> b.similarity() > a.similarity() ? b : a);
+                        }
+                        return false;
+                    });
+                }
+            }
+        }
+        return best.values().stream()
+                .sorted(Comparator.comparingDouble(Suggestion::similarity).reversed()
+                        .thenComparing(Suggestion::key))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Builds an index on the worker thread and publishes it.
+     *
+     * @param build the generation of the build
+     * @param texts the English texts to index, by entry
+     */
+    private void build(int build, Map<PZTranslationEntry, String[]> texts) {
+        try {
+            publish(build, texts, buildIndex(texts));
+        } catch (RuntimeException e) {
+            Logger.warning("Failed to build translation memory", e);
+        }
+    }
+
+    /**
+     * Applies the copied English texts of changed entries to the current index
+     * and publishes the result.
+     *
+     * @param build   the generation the texts were copied in
+     * @param changes the English texts of the changed entries, empty for
+     *                entries without English text
+     */
+    private void apply(int build, Map<PZTranslationEntry, String[]> changes) {
+        Index current = index;
+        if (build != generation.get() || current == null) {
+            // Cleared, or a full build is queued that reads these entries again
+            return;
+        }
+        Map<PZTranslationEntry, String[]> texts = new LinkedHashMap<>(indexedTexts);
+        Set<String> affected = new LinkedHashSet<>();
+        changes.forEach((entry, entryTexts) -> {
+            String[] previous = entryTexts.length == 0 ? texts.remove(entry) : texts.put(entry, entryTexts);
+            if (previous == null || !Arrays.equals(previous, entryTexts)) {
+                if (previous != null) {
+                    affected.addAll(Arrays.asList(previous));
+                }
+                affected.addAll(Arrays.asList(entryTexts));
+            }
+        });
+        if (affected.isEmpty()) {
+            return;
+        }
+        try {
+            publish(build, texts, current.removed() > current.texts().length / 2 ? buildIndex(texts)
+                    : updateIndex(current, texts, changes.keySet(), affected));
+        } catch (RuntimeException e) {
+            Logger.warning("Failed to update translation memory", e);
+        }
+    }
+
+    /**
+     * Replaces the index unless a newer build has started meanwhile.
+     *
+     * @param build the generation of the build
+     * @param texts the English texts the index was built from
+     * @param built the built index
+     */
+    private synchronized void publish(int build, Map<PZTranslationEntry, String[]> texts, Index built) {
+        if (build == generation.get()) {
+            indexedTexts = texts;
+            index = built;
+        }
+    }
+
+    /**
+     * Copies the distinct, non-blank English texts of entries.
+     *
+     * @param entries   the entries
+     * @param keepEmpty whether entries without English text are kept, with no
+     *                  texts
+     * @return the texts by entry
+     */
+    private static Map<PZTranslationEntry, String[]> referenceTexts(Collection<PZTranslationEntry> entries,
+            boolean keepEmpty) {
+        int referenceId = PZLanguages.getLanguageId(REFERENCE);
+        Map<PZTranslationEntry, String[]> texts = new LinkedHashMap<>();
+        List<String> entryTexts = new ArrayList<>(1);
+        for (PZTranslationEntry entry : entries) {
+            entryTexts.clear();
+            entry.anyVariantText(referenceId, text -> {
+                if (!text.isBlank() && !entryTexts.contains(text)) {
+                    entryTexts.add(text);
+                }
+                return false;
+            });
+            if (keepEmpty || !entryTexts.isEmpty()) {
+                texts.put(entry, entryTexts.toArray(new String[0]));
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Builds an index from copied English texts.
+     *
+     * @param entryTexts the English texts, by entry
+     * @return the index
+     */
+    private static Index buildIndex(Map<PZTranslationEntry, String[]> entryTexts) {
+        long startTime = System.nanoTime();
+        Map<String, List<PZTranslationEntry>> byText = new LinkedHashMap<>();
+        entryTexts.forEach((entry, texts) -> {
+            for (String text : texts) {
+                byText.computeIfAbsent(text, t -> new ArrayList<>(1)).add(entry);
+            }
+        });
+
+        int count = byText.size();
+        String[] texts = byText.keySet().toArray(new String[0]);
+        PZTranslationEntry[][] textEntries = byText.values().stream()
+                .map(list -> list.toArray(new PZTranslationEntry[0]))
+                .toArray(PZTranslationEntry[][]::new);
+        long[][] bands = new long[BANDS][count];
+        IntStream.range(0, count).parallel().forEach(textId -> {
+            int[] signature = signature(shingles(texts[textId]));
+            for (int band = 0; band < BANDS; band++) {
+                bands[band][textId] = pack(bandHash(signature, band), textId);
+            }
+        });
+        for (long[] band : bands) {
+            Arrays.parallelSort(band);
+        }
+
+        Map<String, Integer> ids = HashMap.newHashMap(count);
+        for (int textId = 0; textId < count; textId++) {
+            ids.put(texts[textId], textId);
+        }
+
+        Logger.info("Built translation memory of " + count + " " + REFERENCE + " texts in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        return new Index(texts, textEntries, bands, ids, 0);
+    }
+
+    /**
+     * Derives an index from the previous one after some entries changed.
+     * Texts keep their ids; new texts get new ids, and the ids of texts no
+     * entry has any more are left unused. Only the new texts are hashed, and
+     * the bands are merged rather than sorted again.
+     *
+     * @param previous   the previous index
+     * @param entryTexts the English texts after the change, by entry
+     * @param changed    the changed entries
+     * @param affected   the texts the changed entries had or have now
+     * @return the index
+     */
+    private static Index updateIndex(Index previous, Map<PZTranslationEntry, String[]> entryTexts,
+            Set<PZTranslationEntry> changed, Set<String> affected) {
+        long startTime = System.nanoTime();
+        Map<String, List<PZTranslationEntry>> holders = new HashMap<>();
+        for (PZTranslationEntry entry : changed) {
+            for (String text : entryTexts.getOrDefault(entry, new String[0])) {
+                holders.computeIfAbsent(text, t -> new ArrayList<>(1)).add(entry);
+            }
+        }
+
+        Map<String, Integer> ids = new HashMap<>(previous.ids());
+        int count = previous.texts().length;
+        String[] texts = Arrays.copyOf(previous.texts(), count + affected.size());
+        PZTranslationEntry[][] textEntries = Arrays.copyOf(previous.entries(), texts.length);
+        int removed = previous.removed();
+        BitSet removedIds = new BitSet();
+        List<Integer> addedIds = new ArrayList<>();
+        for (String text : affected) {
+            List<PZTranslationEntry> entries = new ArrayList<>(1);
+            Integer textId = ids.get(text);
+            if (textId != null) {
+                for (PZTranslationEntry entry : textEntries[textId]) {
+                    if (!changed.contains(entry)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+            entries.addAll(holders.getOrDefault(text, List.of()));
+            if (textId == null) {
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                textId = count++;
+                ids.put(text, textId);
+                texts[textId] = text;
+                addedIds.add(textId);
+            } else if (entries.isEmpty()) {
+                ids.remove(text);
+                texts[textId] = null;
+                removedIds.set(textId);
+                removed++;
+            }
+            textEntries[textId] = entries.toArray(new PZTranslationEntry[0]);
+        }
+        texts = Arrays.copyOf(texts, count);
+        textEntries = Arrays.copyOf(textEntries, count);
+
+        long[][] added = new long[BANDS][addedIds.size()];
+        for (int i = 0; i < addedIds.size(); i++) {
+            int textId = addedIds.get(i);
+            int[] signature = signature(shingles(texts[textId]));
+            for (int band = 0; band < BANDS; band++) {
+                added[band][i] = pack(bandHash(signature, band), textId);
+            }
+        }
+        long[][] bands = new long[BANDS][];
+        for (int band = 0; band < BANDS; band++) {
+            Arrays.sort(added[band]);
+            bands[band] = merge(previous.bands()[band], removedIds, added[band]);
+        }
+
+        Logger.debug("Updated translation memory with " + affected.size() + " changed " + REFERENCE + " texts in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        return new Index(texts, textEntries, bands, ids, removed);
+    }
+
+    /**
+     * Merges two sorted bands, leaving out the pairs of removed texts.
+     *
+     * @param band       the pairs of the previous index, sorted
+     * @param removedIds the ids of removed texts
+     * @param added      the pairs of new texts, sorted
+     * @return the merged pairs, sorted
+     */
+    private static long[] merge(long[] band, BitSet removedIds, long[] added) {
+        long[] merged = new long[band.length - removedIds.cardinality() + added.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < band.length || j < added.length) {
+            if (i < band.length && removedIds.get((int) band[i])) {
+                i++;
+            } else if (j == added.length || (i < band.length && band[i] <= added[j])) {
+                merged[size++] = band[i++];
+            } else {
+                merged[size++] = added[j++];
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Collects the texts that share at least one band with a signature.
+     *
+     * @param current   the index
+     * @param signature the signature of the query
+     * @return the candidate text ids, at most {@link #MAX_CANDIDATES}
+     */
+    private static int[] candidates(Index current, int[] signature) {
+        int[] found = new int[16];
+        int size = 0;
+        BitSet seen = new BitSet();
+        for (int band = 0; band < BANDS && size < MAX_CANDIDATES; band++) {
+            long[] pairs = current.bands()[band];
+            int hash = bandHash(signature, band);
+            int position = Arrays.binarySearch(pairs, pack(hash, 0));
+            if (position < 0) {
+                position = -position - 1;
+            }
+            for (; position < pairs.length && (int) (pairs[position] >> 32) == hash && size < MAX_CANDIDATES;
+                    position++) {
+                int textId = (int) pairs[position];
+                if (!seen.get(textId)) {
+                    seen.set(textId);
+                    if (size == found.length) {
+                        found = Arrays.copyOf(found, size * 2);
+                    }
+                    found[size++] = textId;
+                }
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /**
+     * Returns the distinct trigram hashes of a text, lowercased and padded
+     * with a space on each side so that short words still have trigrams.
+     *
+     * @param text the text
+     * @return the sorted, distinct trigram hashes
+     */
+    private static int[] shingles(String text) {
+        String padded = " " + text.toLowerCase(Locale.ROOT) + " ";
+        int count = Math.max(0, padded.length() - 2);
+        int[] hashes = new int[count];
+        for (int i = 0; i < count; i++) {
+            long gram = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            hashes[i] = (int) mix(gram);
+        }
+        Arrays.sort(hashes);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    /**
+     * Computes the MinHash signature of a set of trigram hashes.
+     *
+     * @param shingles the trigram hashes
+     * @return one minimum per hash function
+     */
+    private static int[] signature(int[] shingles) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < HASHES; i++) {
+                int hash = (int) mix(shingle ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Combines the minimums of one band into a bucket hash.
+     *
+     * @param signature the signature
+     * @param band      the band index
+     * @return the bucket hash
+     */
+    private static int bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int row = 0; row < ROWS; row++) {
+            hash = mix(hash * 31 + signature[band * ROWS + row]);
+        }
+        return (int) hash;
+    }
+
+    /**
+     * Packs a band hash and a text id so that sorting groups equal hashes.
+     *
+     * @param hash   the band hash
+     * @param textId the text id
+     * @return the packed pair
+     */
+    private static long pack(int hash, int textId) {
+        return ((long) hash << 32) | textId;
+    }
+
+    /**
+     * Computes the Jaccard similarity of two sorted sets.
+     *
+     * @param a the first sorted set
+     * @param b the second sorted set
+     * @return the size of the intersection divided by the size of the union
+     */
+    private static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 1.0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * Mixes the bits of a value (the SplitMix64 finalizer).
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
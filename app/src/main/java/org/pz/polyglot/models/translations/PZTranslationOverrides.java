@@ -0,0 +1,410 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.PZSources;
+
+/**
+ * Finds keys that several sources define for the same language and resolves
+ * which definition the game uses.
+ * <p>
+ * Definitions compete when they come from different sources and are for the
+ * same language and game build (the major version of the source). The
+ * definition of the source with the highest priority is effective and shadows
+ * the others. Sources of equal priority keep the order they were loaded in,
+ * the later one winning; such a resolution is marked ambiguous, because in
+ * game the mod load order decides.
+ * <p>
+ * The analysis runs in one parallel pass after translations are loaded and
+ * remembers the entries with competing definitions. When sources are enabled
+ * or disabled, only the remembered entries that involve a toggled source are
+ * resolved again; disabled sources neither win nor are shadowed. Entries
+ * whose variants are added or removed are updated through
+ * {@link #recheck(PZTranslationEntry)}.
+ */
+public final class PZTranslationOverrides {
+    /**
+     * One definition of a key.
+     *
+     * @param source the source
+     * @param type   the translation type, may be null
+     * @param text   the text, or null if it is not loaded
+     */
+    public record Definition(PZSource source, PZTranslationType type, String text) {
+    }
+
+    /**
+     * The definitions of a key for one language and game build.
+     *
+     * @param key       the translation key
+     * @param language  the language code
+     * @param build     the game build, the major version of the sources
+     * @param effective the definition the game uses
+     * @param shadowed  the definitions it hides, highest priority first
+     */
+    public record Resolution(String key, String language, int build, Definition effective,
+            List<Definition> shadowed) {
+        /**
+         * Returns whether a shadowed definition has the same priority as the
+         * effective one, so the mod load order decides.
+         *
+         * @return true if the resolution is ambiguous
+         */
+        public boolean isAmbiguous() {
+            return shadowed.stream()
+                    .anyMatch(definition -> definition.source().getPriority() == effective.source().getPriority());
+        }
+
+        /**
+         * Returns whether a shadowed definition has a different text than the
+         * effective one.
+         *
+         * @return true if the texts differ
+         */
+        public boolean differs() {
+            return shadowed.stream().anyMatch(definition -> !Objects.equals(definition.text(), effective.text()));
+        }
+    }
+
+    /** Singleton instance. */
+    private static final PZTranslationOverrides INSTANCE = new PZTranslationOverrides();
+
+    /** Ids of the sources with competing definitions, by entry. */
+    private Map<PZTranslationEntry, BitSet> candidates = new HashMap<>();
+    /** Entries with competing definitions, by source id. */
+    private Map<Integer, Set<PZTranslationEntry>> candidatesBySource = new HashMap<>();
+    /** Entries with competing definitions among the enabled sources. */
+    private Set<PZTranslationEntry> overridden = ConcurrentHashMap.newKeySet();
+    /** Ids of the enabled sources, or null if all sources are enabled. */
+    private BitSet enabledSources;
+    /** Whether the analysis covers all loaded translations. */
+    private boolean built;
+    /** Incremented after every change of the overridden entries. */
+    private final ReadOnlyIntegerWrapper revision = new ReadOnlyIntegerWrapper();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationOverrides() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationOverrides getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a counter that changes whenever the overridden entries change.
+     * Listeners are notified on the thread that made the change, while the
+     * analysis is locked, so they should only schedule work.
+     *
+     * @return the revision property
+     */
+    public ReadOnlyIntegerProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+
+    /**
+     * Discards the analysis and enables all sources. Until the next
+     * {@link #recompute(Collection)}, rechecks are ignored.
+     */
+    public synchronized void clear() {
+        candidates = new HashMap<>();
+        candidatesBySource = new HashMap<>();
+        overridden = ConcurrentHashMap.newKeySet();
+        enabledSources = null;
+        built = false;
+    }
+
+    /**
+     * Analyzes the given entries in one parallel pass. The entries must not
+     * change during the pass.
+     *
+     * @param all all translation entries
+     */
+    public void recompute(Collection<PZTranslationEntry> all) {
+        long startTime = System.nanoTime();
+        Map<PZTranslationEntry, BitSet> found = new ConcurrentHashMap<>();
+        all.parallelStream().forEach(entry -> {
+            BitSet sources = competingSources(entry);
+            if (!sources.isEmpty()) {
+                found.put(entry, sources);
+            }
+        });
+        synchronized (this) {
+            candidates = new HashMap<>(found);
+            candidatesBySource = new HashMap<>();
+            found.forEach(this::index);
+            Predicate<PZSource> enabled = enabledPredicate();
+            Set<PZTranslationEntry> result = ConcurrentHashMap.newKeySet();
+            found.keySet().parallelStream().filter(entry -> hasCompetition(entry, enabled)).forEach(result::add);
+            overridden = result;
+            built = true;
+            revision.set(revision.get() + 1);
+        }
+        Logger.info("Found " + found.size() + " translation keys defined by several sources, " + overridden.size()
+                + " overridden, in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Sets the enabled sources and resolves again the entries that involve a
+     * source whose state changed.
+     *
+     * @param names the names of the enabled sources
+     */
+    public synchronized void setEnabledSources(Set<String> names) {
+        BitSet ids = new BitSet();
+        for (String name : names) {
+            ids.set(PZSources.getSourceId(name));
+        }
+        if (ids.equals(enabledSources)) {
+            return;
+        }
+        BitSet previous = enabledSources;
+        enabledSources = ids;
+        if (!built) {
+            return;
+        }
+
+        Collection<PZTranslationEntry> affected;
+        if (previous == null) {
+            // All sources were enabled before, any of them may have been disabled
+            affected = candidates.keySet();
+        } else {
+            BitSet toggled = (BitSet) ids.clone();
+            toggled.xor(previous);
+            Set<PZTranslationEntry> touched = new HashSet<>();
+            for (int id = toggled.nextSetBit(0); id >= 0; id = toggled.nextSetBit(id + 1)) {
+                touched.addAll(candidatesBySource.getOrDefault(id, Set.of()));
+            }
+            affected = touched;
+        }
+        Predicate<PZSource> enabled = enabledPredicate();
+        boolean changed = affected.parallelStream()
+                .map(entry -> hasCompetition(entry, enabled) ? overridden.add(entry) : overridden.remove(entry))
+                .reduce(false, Boolean::logicalOr);
+        if (changed) {
+            revision.set(revision.get() + 1);
+        }
+    }
+
+    /**
+     * Analyzes one entry again after variants were added or removed.
+     *
+     * @param entry the entry
+     */
+    public synchronized void recheck(PZTranslationEntry entry) {
+        if (!built) {
+            return;
+        }
+        BitSet previous = candidates.remove(entry);
+        if (previous != null) {
+            for (int id = previous.nextSetBit(0); id >= 0; id = previous.nextSetBit(id + 1)) {
+                candidatesBySource.get(id).remove(entry);
+            }
+        }
+        BitSet sources = competingSources(entry);
+        boolean changed;
+        if (sources.isEmpty()) {
+            changed = overridden.remove(entry);
+        } else {
+            candidates.put(entry, sources);
+            index(entry, sources);
+            changed = hasCompetition(entry, enabledPredicate()) ? overridden.add(entry) : overridden.remove(entry);
+        }
+        if (changed) {
+            revision.set(revision.get() + 1);
+        }
+    }
+
+    /**
+     * Returns whether an entry has competing definitions among the enabled
+     * sources.
+     *
+     * @param entry the entry
+     * @return true if some definition of the entry is shadowed
+     */
+    public boolean isOverridden(PZTranslationEntry entry) {
+        return overridden.contains(entry);
+    }
+
+    /**
+     * Returns the number of entries with competing definitions among the
+     * enabled sources.
+     *
+     * @return the entry count
+     */
+    public int getOverriddenCount() {
+        return overridden.size();
+    }
+
+    /**
+     * Resolves all overridden entries among the enabled sources.
+     *
+     * @return the resolutions, by key, language and build
+     */
+    public List<Resolution> getReport() {
+        Predicate<PZSource> enabled;
+        List<PZTranslationEntry> entries;
+        synchronized (this) {
+            enabled = enabledPredicate();
+            entries = new ArrayList<>(overridden);
+        }
+        entries.sort(Comparator.comparing(PZTranslationEntry::getKey));
+        List<Resolution> report = new ArrayList<>();
+        for (PZTranslationEntry entry : entries) {
+            report.addAll(resolve(entry, enabled));
+        }
+        return report;
+    }
+
+    /**
+     * Resolves the competing definitions of an entry. Reads the variant
+     * columns only, so no variant objects are created.
+     *
+     * @param entry   the entry
+     * @param enabled the sources whose definitions count
+     * @return one resolution per language and build defined by several
+     *         sources, by language and build
+     */
+    public static List<Resolution> resolve(PZTranslationEntry entry, Predicate<PZSource> enabled) {
+        List<Resolution> resolutions = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> group : groups(entry, enabled).entrySet()) {
+            List<Integer> rows = group.getValue();
+            if (rows.size() < 2) {
+                continue;
+            }
+            int winner = rows.get(0);
+            for (int row : rows) {
+                if (entry.getVariantSource(row).getPriority() >= entry.getVariantSource(winner).getPriority()) {
+                    winner = row;
+                }
+            }
+            List<Definition> shadowed = new ArrayList<>(rows.size() - 1);
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                if (rows.get(i) != winner) {
+                    shadowed.add(definition(entry, rows.get(i)));
+                }
+            }
+            shadowed.sort(Comparator.comparingInt((Definition definition) -> definition.source().getPriority())
+                    .reversed());
+            long key = group.getKey();
+            resolutions.add(new Resolution(entry.getKey(), PZLanguages.getLanguageCode((int) (key >>> 32)),
+                    (int) key, definition(entry, winner), List.copyOf(shadowed)));
+        }
+        resolutions.sort(Comparator.comparing(Resolution::language).thenComparingInt(Resolution::build));
+        return resolutions;
+    }
+
+    /**
+     * Returns the ids of the sources whose definitions of an entry compete
+     * with another source's, whether the sources are enabled or not.
+     *
+     * @param entry the entry
+     * @return the source ids, empty if nothing competes
+     */
+    private static BitSet competingSources(PZTranslationEntry entry) {
+        BitSet sources = new BitSet();
+        if (entry.getVariantCount() < 2) {
+            return sources;
+        }
+        for (List<Integer> rows : groups(entry, source -> true).values()) {
+            if (rows.size() > 1) {
+                rows.forEach(row -> sources.set(entry.getVariantSourceId(row)));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Checks whether an entry has competing definitions among the enabled
+     * sources.
+     *
+     * @param entry   the entry
+     * @param enabled the enabled sources
+     * @return true if some definition is shadowed
+     */
+    private static boolean hasCompetition(PZTranslationEntry entry, Predicate<PZSource> enabled) {
+        return groups(entry, enabled).values().stream().anyMatch(rows -> rows.size() > 1);
+    }
+
+    /**
+     * Groups the variants of an entry by language and game build, keeping the
+     * first variant of every source.
+     *
+     * @param entry   the entry
+     * @param enabled the sources whose variants count
+     * @return the variant indexes in load order, by language id and build
+     *         packed into a long
+     */
+    private static Map<Long, List<Integer>> groups(PZTranslationEntry entry, Predicate<PZSource> enabled) {
+        Map<Long, List<Integer>> groups = new HashMap<>(4);
+        for (int i = 0; i < entry.getVariantCount(); i++) {
+            int languageId = entry.getVariantLanguageId(i);
+            PZSource source = entry.getVariantSource(i);
+            if (languageId < 0 || !enabled.test(source)) {
+                continue;
+            }
+            long group = ((long) languageId << 32) | source.getVersion().getMajor();
+            List<Integer> rows = groups.computeIfAbsent(group, key -> new ArrayList<>(2));
+            if (rows.stream().noneMatch(row -> entry.getVariantSourceId(row) == source.getId())) {
+                rows.add(i);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Creates the definition of a variant.
+     *
+     * @param entry the entry
+     * @param row   the variant index
+     * @return the definition
+     */
+    private static Definition definition(PZTranslationEntry entry, int row) {
+        return new Definition(entry.getVariantSource(row), entry.getVariantType(row), entry.getVariantText(row));
+    }
+
+    /**
+     * Adds an entry to the candidates of its sources.
+     *
+     * @param entry   the entry
+     * @param sources the ids of its competing sources
+     */
+    private void index(PZTranslationEntry entry, BitSet sources) {
+        for (int id = sources.nextSetBit(0); id >= 0; id = sources.nextSetBit(id + 1)) {
+            candidatesBySource.computeIfAbsent(id, key -> new HashSet<>()).add(entry);
+        }
+    }
+
+    /**
+     * Returns a predicate for the enabled sources.
+     *
+     * @return the predicate, a snapshot of the current setting
+     */
+    private Predicate<PZSource> enabledPredicate() {
+        BitSet ids = enabledSources;
+        return ids == null ? source -> true : source -> ids.get(source.getId());
+    }
+}
@@ -1,9 +1,11 @@
 package org.pz.polyglot.models.translations;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -19,6 +21,10 @@ import org.pz.polyglot.models.sources.PZSource;
 /**
  * Parses translation files and provides an iterator over translation key-value
  * pairs.
+ * The file is read once into a byte buffer and decoded by
+ * {@link PZCharsetDetector} with the first charset that accepts it; entries
+ * are then scanned in place by {@link PZTranslationScanner}, without building
+ * intermediate line strings.
  * Handles charset detection, comment skipping, and multiline values.
  */
 public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslationParser.Pair> {
@@ -31,25 +37,20 @@ public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslatio
     public record Pair(String key, String value) {
     }
 
-    /**
-     * Holds the result of reading lines from a file, including the charset used.
-     * 
-     * @param lines   the lines read from the file
-     * @param charset the charset used to decode the file
-     */
-    private record ReadResult(List<String> lines, Charset charset) {
-    }
-
     /** Path to the translation file. */
     private Path path;
     /** Charsets to try for reading the file, in order of preference. */
     private final LinkedHashSet<Charset> availableCharsets;
-    /** All lines read from the file. */
-    private final List<String> allLines;
-    /** The charset that was successfully used to read the file. */
-    private final Charset usedCharset;
+    /** The charset detection result, holding the decoded file contents. */
+    private final PZCharsetDetector.Detection detection;
     /** Indicates whether the parser has been closed. */
     private boolean closed;
+    /** Line spans of the keys found by the first iteration. */
+    private final PZTranslationIndex.FileIndex index = new PZTranslationIndex.FileIndex();
+    /** Whether an iterator has already been created. */
+    private boolean iterated;
+    /** Pool that shares keys and values of the parse, or null. */
+    private final PZStringPool pool;
 
     /**
      * Constructs a parser for the given file, language, and source.
@@ -59,33 +60,70 @@ public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslatio
      * @param source   the source configuration
      */
     public PZTranslationParser(Path path, PZLanguage language, PZSource source) {
+        this(path, language, source, null);
+    }
+
+    /**
+     * Constructs a parser for the given file, language, and source that shares
+     * keys and values through the pool of a bulk parse.
+     * 
+     * @param path     the path to the translation file
+     * @param language the language configuration
+     * @param source   the source configuration
+     * @param pool     the pool of the parse, or null
+     */
+    public PZTranslationParser(Path path, PZLanguage language, PZSource source, PZStringPool pool) {
         this.path = path;
+        this.pool = pool;
         this.availableCharsets = language.getCharsetsDownFrom(source.getVersion());
         this.closed = false;
-        var result = readAllLinesWithCorrectCharset();
-        this.allLines = result.lines();
-        this.usedCharset = result.charset();
+        this.detection = decodeWithCorrectCharset();
     }
 
     /**
-     * Reads all lines from the file using the first available charset that works.
-     * If no charset works, returns an empty list and null charset.
+     * Reads the file once and decodes it with the first available charset that
+     * accepts its bytes, falling back to the next charset in memory.
+     * If no charset works, the result has no characters and a null charset.
      * 
-     * @return the result containing lines and charset
+     * @return the detection result
      */
-    private ReadResult readAllLinesWithCorrectCharset() {
-        for (Charset charset : availableCharsets) {
-            try {
-                List<String> lines = Files.readAllLines(path, charset);
-                return new ReadResult(lines, charset);
-            } catch (IOException e) {
-                // Try next charset if reading fails
-                continue;
+    private PZCharsetDetector.Detection decodeWithCorrectCharset() {
+        ByteBuffer bytes;
+        try {
+            bytes = readAllBytes(path);
+        } catch (IOException e) {
+            Logger.warning("Failed to read file: " + path, e);
+            return new PZCharsetDetector.Detection(null, new char[0], 0, List.of());
+        }
+        PZCharsetDetector.Detection result = PZCharsetDetector.detect(bytes, availableCharsets);
+        if (result.charset() == null) {
+            Logger.warning("Failed to read file with any available charset: " + path + ". Tried charsets: "
+                    + availableCharsets);
+        } else if (result.isFallback()) {
+            Logger.debug("Decoded " + path + " as " + result.describe());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the whole file into a heap byte buffer with a single channel.
+     * 
+     * @param path the file to read
+     * @return the buffer, flipped for reading
+     * @throws IOException if the file cannot be read
+     */
+    private static ByteBuffer readAllBytes(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File too large: " + path);
             }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // Keep reading until the buffer is full or the file ends
+            }
+            return buffer.flip();
         }
-        Logger.warning(
-                "Failed to read file with any available charset: " + path + ". Tried charsets: " + availableCharsets);
-        return new ReadResult(List.of(), null); // Return empty list if no charset works
     }
 
     /**
@@ -96,11 +134,11 @@ public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslatio
      */
     @Override
     public Iterator<Pair> iterator() {
+        boolean recordIndex = !iterated;
+        iterated = true;
         return new Iterator<Pair>() {
-            private int currentLineIndex = 0;
-            private boolean multiline = false;
-            private String currentKey = "";
-            private StringBuilder currentValue = new StringBuilder();
+            private final PZTranslationScanner scanner = new PZTranslationScanner(detection.chars(),
+                    detection.length(), pool);
             private Pair nextPair = null;
             private boolean hasNextCalled = false;
 
@@ -116,87 +154,12 @@ public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslatio
                 if (hasNextCalled)
                     return nextPair != null;
 
-                while (currentLineIndex < allLines.size()) {
-                    String line = allLines.get(currentLineIndex++);
-                    String trimmed = line.trim();
-
-                    // Skip empty lines and comment lines
-                    if (trimmed.isEmpty() || trimmed.startsWith("--")) {
-                        multiline = false;
-                        continue;
-                    }
-                    // Skip lines that do not look like translation entries
-                    if (!multiline && (!trimmed.contains("=") || !trimmed.contains("\""))) {
-                        multiline = false;
-                        continue;
-                    }
-                    if (!multiline) {
-                        String[] parts = trimmed.split("=", 2);
-                        currentKey = parts[0].trim();
-                        String valuePart = parts[1].trim();
-                        if (valuePart.isEmpty() || valuePart.indexOf('"') == -1) {
-                            multiline = false;
-                            continue;
-                        }
-                        // Multiline value starts with '..' at the end
-                        if (trimmed.endsWith("..")) {
-                            multiline = true;
-                            valuePart = valuePart.substring(0, valuePart.length() - 2).trim();
-                            int firstQuote = valuePart.indexOf('"');
-                            int lastQuote = valuePart.lastIndexOf('"');
-                            currentValue.setLength(0);
-                            if (firstQuote != -1 && lastQuote > firstQuote) {
-                                currentValue.append(valuePart.substring(firstQuote + 1, lastQuote));
-                            } else if (firstQuote != -1) {
-                                currentValue.append(valuePart.substring(firstQuote + 1));
-                            }
-                            continue;
-                        } else {
-                            int firstQuote = valuePart.indexOf('"');
-                            int lastQuote = valuePart.lastIndexOf('"');
-                            if (firstQuote == -1 || lastQuote <= firstQuote) {
-                                multiline = false;
-                                continue;
-                            }
-                            currentValue.setLength(0);
-                            currentValue.append(valuePart.substring(firstQuote + 1, lastQuote));
-                            nextPair = new Pair(currentKey, currentValue.toString());
-                            hasNextCalled = true;
-                            return true;
-                        }
-                    } else {
-                        // Multiline value continuation
-                        String valuePart = trimmed;
-                        if (valuePart.isEmpty() || valuePart.indexOf('"') == -1) {
-                            continue;
-                        }
-                        if (trimmed.endsWith("..")) {
-                            valuePart = valuePart.substring(0, valuePart.length() - 2).trim();
-                            int firstQuote = valuePart.indexOf('"');
-                            String toAppend = valuePart.substring(firstQuote + 1);
-                            if (toAppend.endsWith("\"")) {
-                                toAppend = toAppend.substring(0, toAppend.length() - 1);
-                            }
-                            currentValue.append(toAppend);
-                            continue;
-                        } else {
-                            int firstQuote = valuePart.indexOf('"');
-                            int lastQuote = valuePart.lastIndexOf('"');
-                            if (firstQuote == -1 || lastQuote <= firstQuote) {
-                                multiline = false;
-                                continue;
-                            }
-                            currentValue.append(valuePart.substring(firstQuote + 1, lastQuote));
-                            nextPair = new Pair(currentKey, currentValue.toString());
-                            hasNextCalled = true;
-                            multiline = false;
-                            return true;
-                        }
-                    }
+                nextPair = scanner.next() ? new Pair(scanner.key(), scanner.value()) : null;
+                if (nextPair != null && recordIndex) {
+                    index.add(nextPair.key(), scanner.entryStartLine() + 1, scanner.entryEndLine() + 1);
                 }
-                nextPair = null;
                 hasNextCalled = true;
-                return false;
+                return nextPair != null;
             }
 
             /**
@@ -231,7 +194,26 @@ public class PZTranslationParser implements AutoCloseable, Iterable<PZTranslatio
      * @return the used charset, or null if none worked
      */
     public Charset getUsedCharset() {
-        return usedCharset;
+        return detection.charset();
+    }
+
+    /**
+     * Returns the charset detection result, including rejected candidates.
+     * 
+     * @return the detection result
+     */
+    public PZCharsetDetector.Detection getDetection() {
+        return detection;
+    }
+
+    /**
+     * Returns the line spans of the keys found so far by the first iteration.
+     * The index is complete once all pairs have been consumed.
+     * 
+     * @return the index, not yet stamped with file attributes
+     */
+    public PZTranslationIndex.FileIndex getIndex() {
+        return index;
     }
 
     /**
@@ -0,0 +1,327 @@
+package org.pz.polyglot.models.translations;
+
+/**
+ * Allocation-light scanner over the decoded characters of a translation file.
+ * Walks the buffer line by line using index bounds only, so no intermediate
+ * line, trimmed or split strings are created. Only the key and value of each
+ * entry are materialized as strings, through the {@link PZStringPool} of the
+ * parse if one is given, so that repeated ones are shared.
+ * <p>
+ * The recognized syntax matches the historical line-based parser exactly:
+ * comment lines starting with {@code --}, entries of the form
+ * {@code key = "value"} and multiline values continued with a trailing
+ * {@code ..}.
+ */
+public final class PZTranslationScanner {
+    /** The decoded file contents. */
+    private final char[] chars;
+    /** Number of valid characters in {@link #chars}. */
+    private final int length;
+    /** Reusable buffer for assembling multiline values. */
+    private final StringBuilder multilineValue = new StringBuilder();
+    /** Pool that shares keys and values repeated across files, or null. */
+    private final PZStringPool pool;
+
+    /** Offset of the next line to scan. */
+    private int position;
+    /** Index of the next line to scan. */
+    private int line;
+    /** Key of the last entry found. */
+    private String key;
+    /** Value of the last entry found. */
+    private String value;
+    /** Offset of the first line of the last entry found. */
+    private int entryStart;
+    /** Offset just past the last line of the last entry found. */
+    private int entryEnd;
+    /** Index of the first line of the last entry found. */
+    private int entryStartLine;
+    /** Index of the last line of the last entry found. */
+    private int entryEndLine;
+
+    /**
+     * Constructs a scanner over the given characters.
+     *
+     * @param chars  the decoded file contents
+     * @param length the number of valid characters in {@code chars}
+     */
+    public PZTranslationScanner(char[] chars, int length) {
+        this(chars, length, null);
+    }
+
+    /**
+     * Constructs a scanner over the given characters that shares keys and
+     * values through a pool.
+     *
+     * @param chars  the decoded file contents
+     * @param length the number of valid characters in {@code chars}
+     * @param pool   the pool of the parse, or null to create every string
+     */
+    public PZTranslationScanner(char[] chars, int length, PZStringPool pool) {
+        this.chars = chars;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    /**
+     * Advances to the next translation entry.
+     *
+     * @return true if an entry was found, false at end of input
+     */
+    public boolean next() {
+        boolean multiline = false;
+        String currentKey = null;
+        int currentStart = 0;
+        int currentStartLine = 0;
+
+        while (position < length) {
+            int lineStart = position;
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars[lineEnd] != '\n' && chars[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            position = skipLineTerminator(lineEnd);
+            int lineIndex = line++;
+
+            int s = trimStart(lineStart, lineEnd);
+            int e = trimEnd(s, lineEnd);
+
+            // Skip empty lines and comment lines
+            if (s == e || (e - s >= 2 && chars[s] == '-' && chars[s + 1] == '-')) {
+                multiline = false;
+                continue;
+            }
+            boolean continued = endsWithDots(s, e);
+
+            if (!multiline) {
+                int eq = indexOf('=', s, e);
+                // Skip lines that do not look like translation entries
+                if (eq == -1 || indexOf('"', s, e) == -1) {
+                    continue;
+                }
+                int vs = trimStart(eq + 1, e);
+                int ve = trimEnd(vs, e);
+                if (vs == ve || indexOf('"', vs, ve) == -1) {
+                    continue;
+                }
+                int ks = s;
+                int ke = trimEnd(ks, eq);
+                if (continued) {
+                    // Multiline value starts with '..' at the end
+                    ve = trimEnd(vs, ve - 2);
+                    vs = trimStart(vs, ve);
+                    int firstQuote = indexOf('"', vs, ve);
+                    int lastQuote = lastIndexOf('"', vs, ve);
+                    multilineValue.setLength(0);
+                    if (firstQuote != -1 && lastQuote > firstQuote) {
+                        multilineValue.append(chars, firstQuote + 1, lastQuote - firstQuote - 1);
+                    } else if (firstQuote != -1) {
+                        multilineValue.append(chars, firstQuote + 1, ve - firstQuote - 1);
+                    }
+                    currentKey = string(ks, ke - ks);
+                    currentStart = lineStart;
+                    currentStartLine = lineIndex;
+                    multiline = true;
+                    continue;
+                }
+                int firstQuote = indexOf('"', vs, ve);
+                int lastQuote = lastIndexOf('"', vs, ve);
+                if (lastQuote <= firstQuote) {
+                    continue;
+                }
+                return found(string(ks, ke - ks), string(firstQuote + 1, lastQuote - firstQuote - 1), lineStart,
+                        lineEnd, lineIndex, lineIndex);
+            }
+
+            // Multiline value continuation
+            if (indexOf('"', s, e) == -1) {
+                continue;
+            }
+            if (continued) {
+                int ve = trimEnd(s, e - 2);
+                int vs = trimStart(s, ve);
+                int from = indexOf('"', vs, ve) + 1;
+                int to = ve;
+                if (to > from && chars[to - 1] == '"') {
+                    to--;
+                }
+                multilineValue.append(chars, from, to - from);
+                continue;
+            }
+            int firstQuote = indexOf('"', s, e);
+            int lastQuote = lastIndexOf('"', s, e);
+            if (lastQuote <= firstQuote) {
+                multiline = false;
+                continue;
+            }
+            multilineValue.append(chars, firstQuote + 1, lastQuote - firstQuote - 1);
+            String text = multilineValue.toString();
+            return found(currentKey, pool != null ? pool.intern(text) : text, currentStart, lineEnd,
+                    currentStartLine, lineIndex);
+        }
+        key = null;
+        value = null;
+        return false;
+    }
+
+    /**
+     * Creates the string of a char range, shared through the pool if there is
+     * one.
+     *
+     * @param offset start of the range
+     * @param count  length of the range
+     * @return the string
+     */
+    private String string(int offset, int count) {
+        return pool != null ? pool.intern(chars, offset, count) : new String(chars, offset, count);
+    }
+
+    /**
+     * Records the entry that was just found.
+     *
+     * @param key   the entry key
+     * @param value the entry value
+     * @param start     offset of the first line of the entry
+     * @param end       offset just past the last line of the entry
+     * @param startLine index of the first line of the entry
+     * @param endLine   index of the last line of the entry
+     * @return always true
+     */
+    private boolean found(String key, String value, int start, int end, int startLine, int endLine) {
+        this.key = key;
+        this.value = value;
+        this.entryStart = start;
+        this.entryEnd = end;
+        this.entryStartLine = startLine;
+        this.entryEndLine = endLine;
+        return true;
+    }
+
+    /**
+     * Returns the key of the current entry.
+     *
+     * @return the key, or null if no entry is current
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Returns the value of the current entry.
+     *
+     * @return the value, or null if no entry is current
+     */
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Returns the offset of the first line of the current entry.
+     *
+     * @return the start offset in characters
+     */
+    public int entryStart() {
+        return entryStart;
+    }
+
+    /**
+     * Returns the offset just past the last line of the current entry,
+     * excluding the line terminator.
+     *
+     * @return the end offset in characters
+     */
+    public int entryEnd() {
+        return entryEnd;
+    }
+
+    /**
+     * Returns the index of the first line of the current entry. Lines are split
+     * on {@code \n}, {@code \r} and {@code \r\n}, like
+     * {@link java.io.BufferedReader#readLine()}.
+     *
+     * @return the 0-based start line
+     */
+    public int entryStartLine() {
+        return entryStartLine;
+    }
+
+    /**
+     * Returns the index of the last line of the current entry.
+     *
+     * @return the 0-based end line, inclusive
+     */
+    public int entryEndLine() {
+        return entryEndLine;
+    }
+
+    /**
+     * Skips a single line terminator ({@code \n}, {@code \r} or {@code \r\n}).
+     *
+     * @param index offset of the terminator or of the end of input
+     * @return offset of the following line
+     */
+    private int skipLineTerminator(int index) {
+        if (index < length && chars[index] == '\r') {
+            index++;
+        }
+        if (index < length && chars[index] == '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the first offset in the range that is not whitespace, using the
+     * same definition of whitespace as {@link String#trim()}.
+     */
+    private int trimStart(int from, int to) {
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Returns the offset just past the last non-whitespace character in the
+     * range, using the same definition of whitespace as {@link String#trim()}.
+     */
+    private int trimEnd(int from, int to) {
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Checks whether the range ends with {@code ..}.
+     */
+    private boolean endsWithDots(int from, int to) {
+        return to - from >= 2 && chars[to - 1] == '.' && chars[to - 2] == '.';
+    }
+
+    /**
+     * Returns the offset of the first occurrence of {@code c} in the range, or
+     * -1.
+     */
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset of the last occurrence of {@code c} in the range, or
+     * -1.
+     */
+    private int lastIndexOf(char c, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
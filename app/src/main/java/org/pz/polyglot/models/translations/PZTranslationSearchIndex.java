@@ -0,0 +1,315 @@
+package org.pz.polyglot.models.translations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.pz.polyglot.Logger;
+
+/**
+ * Trigram inverted index over translation keys and edited variant texts, used
+ * to answer the table's text filter without scanning every variant.
+ * <p>
+ * Every entry gets a dense id; each distinct trigram of the lowercased key or
+ * of a lowercased variant text maps to the sorted ids of the entries that
+ * contain it. A query intersects the lists of its trigrams and then checks
+ * the few remaining candidates with the same substring test the table used
+ * before, so results are identical to a full scan.
+ * <p>
+ * Texts are added as they appear (new entries, new variants, edits). Trigrams
+ * of replaced texts are not removed: an outdated posting only yields an extra
+ * candidate, which the final check rejects. The index is rebuilt from scratch
+ * after translations are loaded.
+ */
+public final class PZTranslationSearchIndex {
+    /**
+     * Sorted, growable list of entry ids.
+     */
+    private static final class Postings {
+        /** The ids, sorted ascending. */
+        private int[] ids = new int[4];
+        /** Number of valid ids. */
+        private int size;
+
+        /**
+         * Adds an id, keeping the list sorted and free of duplicates.
+         *
+         * @param id the entry id
+         */
+        void add(int id) {
+            // Ids mostly arrive in increasing order
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        /**
+         * Inserts an id at a position.
+         *
+         * @param position the insert position
+         * @param id       the entry id
+         */
+        private void insertAt(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+
+    /** Singleton instance. */
+    private static final PZTranslationSearchIndex INSTANCE = new PZTranslationSearchIndex();
+    /** Number of characters per indexed gram. */
+    private static final int GRAM_LENGTH = 3;
+
+    /** Entries by id. */
+    private final List<PZTranslationEntry> entries = new ArrayList<>();
+    /** Entry ids by trigram, packed as three 16-bit chars. */
+    private final Map<Long, Postings> postings = new HashMap<>();
+    /** Whether the index covers all loaded translations. */
+    private boolean built;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationSearchIndex() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Discards the index. Until the next {@link #rebuild(Collection)}, updates
+     * are ignored and queries fall back to scanning.
+     */
+    public synchronized void clear() {
+        for (PZTranslationEntry entry : entries) {
+            entry.setSearchId(-1);
+        }
+        entries.clear();
+        postings.clear();
+        built = false;
+    }
+
+    /**
+     * Rebuilds the index from the given entries.
+     *
+     * @param all all translation entries
+     */
+    public synchronized void rebuild(Collection<PZTranslationEntry> all) {
+        long startTime = System.nanoTime();
+        clear();
+        long[][] grams = { new long[64] };
+        for (PZTranslationEntry entry : all) {
+            int id = register(entry);
+            grams[0] = addGrams(id, entry.getKey(), grams[0]);
+            // Reads compact rows directly so indexing does not create variant objects
+            entry.anyVariantText(text -> {
+                grams[0] = addGrams(id, text, grams[0]);
+                return false;
+            });
+        }
+        built = true;
+        Logger.info("Indexed " + entries.size() + " translation keys (" + postings.size()
+                + " trigrams) in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Indexes the key of an entry that was just created.
+     *
+     * @param entry the new entry
+     */
+    public synchronized void addEntry(PZTranslationEntry entry) {
+        if (built && entry.getSearchId() < 0) {
+            addGrams(register(entry), entry.getKey(), new long[64]);
+        }
+    }
+
+    /**
+     * Indexes a text that now belongs to an entry, for example after an edit.
+     *
+     * @param entry the entry the text belongs to
+     * @param text  the new text
+     */
+    public synchronized void addText(PZTranslationEntry entry, String text) {
+        if (!built || text == null || text.length() < GRAM_LENGTH) {
+            return;
+        }
+        int id = entry.getSearchId();
+        if (id < 0) {
+            id = register(entry);
+            addGrams(id, entry.getKey(), new long[64]);
+        }
+        addGrams(id, text, new long[64]);
+    }
+
+    /**
+     * Returns a predicate matching the entries whose key or any edited variant
+     * text contains the query, ignoring case. The predicate gives the same
+     * result as {@link #containsText(PZTranslationEntry, String)}.
+     *
+     * @param query the filter text, not blank
+     * @return the predicate; it captures the result and does not change when
+     *         the index is updated later
+     */
+    public Predicate<PZTranslationEntry> matcher(String query) {
+        String lowerQuery = query.toLowerCase();
+        BitSet matches = search(lowerQuery);
+        if (matches == null) {
+            return entry -> containsText(entry, lowerQuery);
+        }
+        return entry -> {
+            int id = entry.getSearchId();
+            return id < 0 ? containsText(entry, lowerQuery) : matches.get(id);
+        };
+    }
+
+    /**
+     * Finds the ids of all indexed entries containing the query.
+     *
+     * @param lowerQuery the lowercased query
+     * @return the matching ids, or null if the index cannot answer the query
+     */
+    private synchronized BitSet search(String lowerQuery) {
+        if (!built || lowerQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+        long[] grams = new long[lowerQuery.length()];
+        int count = uniqueGrams(lowerQuery, grams);
+        Postings[] lists = new Postings[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new BitSet();
+            }
+        }
+        // Intersect starting with the rarest trigram
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = candidates.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = intersect(candidates, size, lists[i]);
+        }
+
+        BitSet matches = new BitSet(entries.size());
+        for (int i = 0; i < size; i++) {
+            if (containsText(entries.get(candidates[i]), lowerQuery)) {
+                matches.set(candidates[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks whether the key or any edited variant text of an entry contains
+     * the query, ignoring case.
+     *
+     * @param entry      the entry
+     * @param lowerQuery the lowercased query
+     * @return true if the entry matches
+     */
+    public static boolean containsText(PZTranslationEntry entry, String lowerQuery) {
+        return entry.getKey().toLowerCase().contains(lowerQuery)
+                || entry.anyVariantText(text -> text.toLowerCase().contains(lowerQuery));
+    }
+
+    /**
+     * Assigns the next id to an entry.
+     *
+     * @param entry the entry
+     * @return the new id
+     */
+    private int register(PZTranslationEntry entry) {
+        int id = entries.size();
+        entries.add(entry);
+        entry.setSearchId(id);
+        return id;
+    }
+
+    /**
+     * Adds an entry id to the postings of every trigram of a text.
+     *
+     * @param id      the entry id
+     * @param text    the text, may be null
+     * @param scratch reusable gram buffer
+     * @return the scratch buffer, grown if needed
+     */
+    private long[] addGrams(int id, String text, long[] scratch) {
+        if (text == null || text.length() < GRAM_LENGTH) {
+            return scratch;
+        }
+        String lower = text.toLowerCase();
+        if (scratch.length < lower.length()) {
+            scratch = new long[lower.length()];
+        }
+        int count = uniqueGrams(lower, scratch);
+        for (int i = 0; i < count; i++) {
+            postings.computeIfAbsent(scratch[i], gram -> new Postings()).add(id);
+        }
+        return scratch;
+    }
+
+    /**
+     * Collects the distinct trigrams of a lowercased text.
+     *
+     * @param lower the lowercased text, at least {@link #GRAM_LENGTH} long
+     * @param grams receives the trigrams; must hold {@code lower.length()} values
+     * @return the number of distinct trigrams
+     */
+    private static int uniqueGrams(String lower, long[] grams) {
+        int count = lower.length() - GRAM_LENGTH + 1;
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2);
+        }
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Keeps only the candidates that are also in a postings list.
+     *
+     * @param candidates sorted candidate ids, updated in place
+     * @param size       number of valid candidates
+     * @param list       the postings to intersect with
+     * @return the new number of candidates
+     */
+    private static int intersect(int[] candidates, int size, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < list.size; i++) {
+            int id = candidates[i];
+            while (j < list.size && list.ids[j] < id) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == id) {
+                candidates[kept++] = id;
+            }
+        }
+        return kept;
+    }
+}
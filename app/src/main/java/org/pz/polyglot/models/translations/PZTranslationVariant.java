@@ -56,6 +56,7 @@ public class PZTranslationVariant {
         this.editedText = text;
         this.supposedCharset = supposedCharset;
         this.usedCharset = detectedCharset;
+        PZTranslationSearchIndex.getInstance().addText(key, text);
     }
 
     /**
@@ -77,12 +78,13 @@ public class PZTranslationVariant {
     }
 
     /**
-     * Sets the original text of the translation variant.
+     * Sets the original text of the translation variant and updates the
+     * coverage statistics.
      * 
      * @param text the new original text
      */
     public void setOriginalText(String text) {
-        this.originalText = text;
+        PZCoverageStats.getInstance().update(key, () -> this.originalText = text);
     }
 
     /**
@@ -142,13 +144,24 @@ public class PZTranslationVariant {
     /**
      * Sets the edited text and updates the translation session accordingly.
      * If the text is changed, adds this variant to the session; otherwise removes
-     * it.
+     * it. The entry is checked again for format problems.
      * 
      * @param editedText the new edited text
      */
     public void setEditedText(String editedText) {
         this.editedText = editedText;
-        // Update session with changed variants
+        PZTranslationSearchIndex.getInstance().addText(key, editedText);
+        PZTranslationLint.getInstance().recheck(key);
+        refreshChanged();
+    }
+
+    /**
+     * Adds this variant to the translation session if its edited text differs
+     * from the original text, and removes it otherwise. Called when either
+     * text changes, for example when the file is reloaded under an unsaved
+     * edit.
+     */
+    public void refreshChanged() {
         if (this.isChanged()) {
             TranslationSession.getInstance().addVariant(this);
         } else {
@@ -166,10 +179,12 @@ public class PZTranslationVariant {
     }
 
     /**
-     * Resets the edited text to the original text.
+     * Resets the edited text to the original text, resolving any conflict with
+     * the file on disk.
      */
     public void reset() {
         this.setEditedText(this.originalText);
+        TranslationSession.getInstance().removeConflict(this);
     }
 
     /**
@@ -177,7 +192,8 @@ public class PZTranslationVariant {
      * session.
      */
     public void markSaved() {
-        this.originalText = editedText;
+        PZCoverageStats.getInstance().update(key, () -> this.originalText = editedText);
         TranslationSession.getInstance().removeVariant(this);
+        TranslationSession.getInstance().removeConflict(this);
     }
 }
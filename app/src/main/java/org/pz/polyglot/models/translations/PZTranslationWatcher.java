@@ -0,0 +1,489 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.pz.polyglot.Config;
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.TranslationSession;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.PZSources;
+
+/**
+ * Watches the directories of all translation sources and reloads translation
+ * files that change on disk while the application is running.
+ * <p>
+ * Events are collected on a background thread and debounced into batches.
+ * Touched files are parsed on that thread; the differences are then applied to
+ * the translation registry through the supplied executor (the JavaFX
+ * application thread in the UI), one batch at a time. The watcher remembers
+ * which keys each file defined, so applying a change only looks at the
+ * entries of those keys and of the new file contents, not at the whole
+ * registry. Unsaved edits are kept:
+ * when the file version of an edited variant changes, the variant is flagged
+ * as a conflict in {@link TranslationSession}.
+ */
+public final class PZTranslationWatcher {
+    /**
+     * Summary of a batch of reloaded files, after it has been applied.
+     *
+     * @param files            number of files reloaded
+     * @param added            number of variants added
+     * @param updated          number of variants whose file text changed
+     * @param removed          number of variants removed
+     * @param changedEntries   entries whose variants were added, updated or
+     *                         removed
+     * @param changedVariants  variants whose texts were updated
+     * @param conflicts        variants with unsaved edits that changed on disk
+     * @param structureChanged whether entries were created or removed, so the
+     *                         set of table rows changed
+     */
+    public record ReloadResult(int files, int added, int updated, int removed, Set<PZTranslationEntry> changedEntries,
+            List<PZTranslationVariant> changedVariants, List<PZTranslationVariant> conflicts,
+            boolean structureChanged) {
+    }
+
+    /**
+     * A watched directory.
+     *
+     * @param source the source the directory belongs to
+     * @param dir    the directory
+     * @param root   whether this is the source root rather than a language
+     *               directory
+     */
+    private record WatchedDir(PZSource source, Path dir, boolean root) {
+    }
+
+    /**
+     * A translation file reparsed after a change.
+     *
+     * @param source the source the file belongs to
+     * @param file   the translation file
+     * @param parsed the parsed contents, or null if the file was deleted
+     */
+    private record ReloadedFile(PZSource source, PZTranslationManager.TranslationFile file,
+            PZTranslationManager.ParsedFile parsed) {
+    }
+
+    /**
+     * Identifies the variants that come from one translation file.
+     *
+     * @param source   the source
+     * @param language the language
+     * @param type     the translation type
+     */
+    private record FileKey(PZSource source, PZLanguage language, PZTranslationType type) {
+    }
+
+    /** Singleton instance. */
+    private static final PZTranslationWatcher INSTANCE = new PZTranslationWatcher();
+    /** Quiet period after the last event before a batch is reloaded. */
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    /** Watched directories by watch key. */
+    private final Map<WatchKey, WatchedDir> watchedDirs = new ConcurrentHashMap<>();
+    /** Keys defined by each translation file, as of the last load or reload. */
+    private final Map<FileKey, String[]> fileKeys = new ConcurrentHashMap<>();
+    /** The active watch service, or null if stopped. */
+    private WatchService watchService;
+    /** The background thread collecting events. */
+    private Thread thread;
+    /** Executor that applies batches to the translation registry. */
+    private Executor applyExecutor;
+    /** Callback receiving the summary of each applied batch. */
+    private Consumer<ReloadResult> onReloaded;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZTranslationWatcher() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZTranslationWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts watching all current sources. Does nothing if already started.
+     *
+     * @param applyExecutor executor that applies changes to the translation
+     *                      registry, typically the UI thread
+     * @param onReloaded    callback invoked on {@code applyExecutor} after each
+     *                      batch has been applied
+     */
+    public synchronized void start(Executor applyExecutor, Consumer<ReloadResult> onReloaded) {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            Logger.warning("File watching is not available, external changes require a restart", e);
+            return;
+        }
+        this.applyExecutor = applyExecutor;
+        this.onReloaded = onReloaded;
+        for (PZSource source : PZSources.getInstance().getSources()) {
+            registerSource(source);
+        }
+        thread = Thread.ofPlatform().daemon().name("translation-watcher").start(this::run);
+        Logger.info("Watching " + watchedDirs.size() + " translation directories for changes");
+    }
+
+    /**
+     * Stops watching and releases the watch service.
+     */
+    public synchronized void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            Logger.warning("Failed to close translation watcher", e);
+        }
+        thread.interrupt();
+        watchService = null;
+        thread = null;
+        watchedDirs.clear();
+    }
+
+    /**
+     * Forgets the keys of all files before all translations are loaded again.
+     */
+    void reset() {
+        fileKeys.clear();
+    }
+
+    /**
+     * Returns whether loaded files should be remembered with
+     * {@link #addFile(PZSource, PZTranslationManager.TranslationFile, String[])}.
+     *
+     * @return true if translation files are watched
+     */
+    boolean tracksFiles() {
+        return Config.getInstance().isWatchTranslationFiles();
+    }
+
+    /**
+     * Remembers the keys a loaded translation file defines, so a later change
+     * to the file can find the variants it held without scanning all entries.
+     *
+     * @param source the source the file belongs to
+     * @param file   the translation file
+     * @param keys   the keys of the file, in file order
+     */
+    void addFile(PZSource source, PZTranslationManager.TranslationFile file, String[] keys) {
+        fileKeys.put(new FileKey(source, file.language(), file.type()), keys);
+    }
+
+    /**
+     * Registers a source root and its language directories.
+     *
+     * @param source the source to watch
+     */
+    private void registerSource(PZSource source) {
+        if (!Files.isDirectory(source.getPath())) {
+            return;
+        }
+        register(new WatchedDir(source, source.getPath(), true));
+        try (DirectoryStream<Path> langDirs = Files.newDirectoryStream(source.getPath(), Files::isDirectory)) {
+            for (Path langDir : langDirs) {
+                if (isLanguageDir(langDir)) {
+                    register(new WatchedDir(source, langDir, false));
+                }
+            }
+        } catch (IOException e) {
+            Logger.warning("Failed to watch source: " + source.getPath(), e);
+        }
+    }
+
+    /**
+     * Registers a single directory with the watch service.
+     *
+     * @param dir the directory to watch
+     */
+    private void register(WatchedDir dir) {
+        try {
+            WatchKey key = dir.root()
+                    ? dir.dir().register(watchService, StandardWatchEventKinds.ENTRY_CREATE)
+                    : dir.dir().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirs.put(key, dir);
+        } catch (IOException e) {
+            Logger.warning("Failed to watch directory: " + dir.dir(), e);
+        }
+    }
+
+    /**
+     * Checks whether a directory is named after a known language.
+     *
+     * @param dir the directory
+     * @return true if it is a language directory
+     */
+    private static boolean isLanguageDir(Path dir) {
+        return PZLanguages.getInstance().getLanguage(dir.getFileName().toString()).isPresent();
+    }
+
+    /**
+     * Collects events into debounced batches until the watch service is closed.
+     */
+    private void run() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                Map<Path, PZSource> touched = new LinkedHashMap<>();
+                collect(service.take(), touched);
+                WatchKey key;
+                while ((key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, touched);
+                }
+                if (!touched.isEmpty()) {
+                    reload(touched);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Watcher stopped
+        } catch (RuntimeException e) {
+            Logger.error("Translation watcher stopped unexpectedly", e);
+        }
+    }
+
+    /**
+     * Adds the translation files touched by the events of a watch key.
+     *
+     * @param key     the signalled key
+     * @param touched receives touched files and their sources
+     */
+    private void collect(WatchKey key, Map<Path, PZSource> touched) {
+        WatchedDir dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost; reload every file of the source
+                for (PZTranslationManager.TranslationFile file : PZTranslationManager
+                        .listTranslationFiles(dir.source())) {
+                    touched.put(file.path(), dir.source());
+                }
+                continue;
+            }
+            Path child = dir.dir().resolve((Path) event.context());
+            if (dir.root()) {
+                if (Files.isDirectory(child) && isLanguageDir(child)) {
+                    register(new WatchedDir(dir.source(), child, false));
+                    // Files may have been created before the directory was registered
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(child, Files::isRegularFile)) {
+                        files.forEach(file -> touched.put(file, dir.source()));
+                    } catch (IOException e) {
+                        Logger.warning("Failed to list new language directory: " + child, e);
+                    }
+                }
+            } else {
+                touched.put(child, dir.source());
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    /**
+     * Parses the touched translation files and schedules the differences to be
+     * applied.
+     *
+     * @param touched touched files and their sources
+     */
+    private void reload(Map<Path, PZSource> touched) {
+        List<ReloadedFile> reloaded = new ArrayList<>();
+        for (Map.Entry<Path, PZSource> change : touched.entrySet()) {
+            PZSource source = change.getValue();
+            PZTranslationManager.resolveTranslationFile(change.getKey()).ifPresent(file -> {
+                if (!Files.exists(file.path())) {
+                    reloaded.add(new ReloadedFile(source, file, null));
+                    return;
+                }
+                PZTranslationManager.ParsedFile parsed = PZTranslationManager.parseFile(source, file, null, null);
+                // Keep current variants if the file could not be decoded, e.g. while being written
+                if (parsed.entry().charset() != null) {
+                    reloaded.add(new ReloadedFile(source, file, parsed));
+                }
+            });
+        }
+        if (reloaded.isEmpty()) {
+            return;
+        }
+        applyExecutor.execute(() -> {
+            ReloadResult result = apply(reloaded);
+            Logger.info("Reloaded " + result.files() + " changed translation files: " + result.added() + " added, "
+                    + result.updated() + " updated, " + result.removed() + " removed, " + result.conflicts().size()
+                    + " conflicts");
+            onReloaded.accept(result);
+        });
+    }
+
+    /**
+     * Finds the current variants of a touched file. Only the entries of keys
+     * the file defined before, defines now or has unsaved variants for are
+     * looked at, and only those get variant objects.
+     *
+     * @param key   the file
+     * @param pairs the new contents of the file
+     * @return the first variant of the file per key
+     */
+    private Map<String, PZTranslationVariant> currentVariants(FileKey key, List<PZTranslationParser.Pair> pairs) {
+        Set<String> candidates = new LinkedHashSet<>();
+        String[] known = fileKeys.get(key);
+        if (known != null) {
+            candidates.addAll(List.of(known));
+        }
+        for (PZTranslationParser.Pair pair : pairs) {
+            candidates.add(pair.key());
+        }
+        // Variants created in the editor are not in any file until saved
+        for (PZTranslationVariant variant : TranslationSession.getInstance().getVariants()) {
+            if (key.equals(new FileKey(variant.getSource(), variant.getLanguage(), variant.getType()))) {
+                candidates.add(variant.getKey().getKey());
+            }
+        }
+
+        Map<String, PZTranslationEntry> translations = PZTranslations.getInstance().getAllTranslations();
+        Map<String, PZTranslationVariant> current = new HashMap<>();
+        for (String candidate : candidates) {
+            PZTranslationEntry entry = translations.get(candidate);
+            if (entry == null) {
+                continue;
+            }
+            for (int i = 0; i < entry.getVariantCount(); i++) {
+                if (entry.getVariantSource(i) == key.source() && entry.getVariantLanguage(i) == key.language()
+                        && entry.getVariantType(i) == key.type()) {
+                    current.put(entry.getKey(), entry.getVariants().get(i));
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applies reparsed files to the translation registry. Must run on the thread
+     * that owns the registry.
+     *
+     * @param reloaded the reparsed files
+     * @return the summary of applied changes
+     */
+    private ReloadResult apply(List<ReloadedFile> reloaded) {
+        PZTranslations translations = PZTranslations.getInstance();
+        TranslationSession session = TranslationSession.getInstance();
+
+        Map<FileKey, ReloadedFile> byFile = new LinkedHashMap<>();
+        for (ReloadedFile file : reloaded) {
+            byFile.put(new FileKey(file.source(), file.file().language(), file.file().type()), file);
+        }
+
+        int added = 0;
+        int updated = 0;
+        int removed = 0;
+        boolean structureChanged = false;
+        Set<PZTranslationEntry> changedEntries = new LinkedHashSet<>();
+        List<PZTranslationVariant> changedVariants = new ArrayList<>();
+        List<PZTranslationVariant> conflicts = new ArrayList<>();
+
+        for (Map.Entry<FileKey, ReloadedFile> change : byFile.entrySet()) {
+            FileKey key = change.getKey();
+            ReloadedFile file = change.getValue();
+            List<PZTranslationParser.Pair> pairs = file.parsed() == null ? List.of()
+                    : file.parsed().entry().pairs();
+            Map<String, PZTranslationVariant> current = currentVariants(key, pairs);
+            Set<String> seen = new LinkedHashSet<>();
+
+            for (PZTranslationParser.Pair pair : pairs) {
+                if (!seen.add(pair.key())) {
+                    continue;
+                }
+                PZTranslationVariant variant = current.remove(pair.key());
+                if (variant == null) {
+                    structureChanged |= !translations.getAllTranslations().containsKey(pair.key());
+                    PZTranslationEntry entry = translations.getOrCreateTranslation(pair.key());
+                    PZCoverageStats.getInstance().update(entry, () -> entry.addVariant(key.source(),
+                            key.language(), key.type(), pair.value(), file.parsed().entry().charset()));
+                    changedEntries.add(entry);
+                    added++;
+                    continue;
+                }
+                if (variant.getOriginalText().equals(pair.value())) {
+                    continue;
+                }
+                if (variant.isChanged()) {
+                    // Keep the unsaved edit; reset now restores the new file text
+                    if (!variant.getEditedText().equals(pair.value())) {
+                        session.addConflict(variant);
+                        conflicts.add(variant);
+                    }
+                    variant.setOriginalText(pair.value());
+                    // The edit may now match the file, which ends the unsaved change
+                    variant.refreshChanged();
+                } else {
+                    variant.setOriginalText(pair.value());
+                    variant.setEditedText(pair.value());
+                }
+                changedEntries.add(variant.getKey());
+                changedVariants.add(variant);
+                updated++;
+            }
+
+            // Variants whose keys disappeared from the file
+            for (PZTranslationVariant variant : current.values()) {
+                if (variant.isChanged()) {
+                    session.addConflict(variant);
+                    conflicts.add(variant);
+                    // Still held by the entry, so look at it again on the next change
+                    seen.add(variant.getKey().getKey());
+                    continue;
+                }
+                PZTranslationEntry entry = variant.getKey();
+                PZCoverageStats.getInstance().update(entry, () -> entry.removeVariant(variant));
+                PZTranslationLint.getInstance().recheck(entry);
+                PZTranslationOverrides.getInstance().recheck(entry);
+                if (entry.getVariants().isEmpty()) {
+                    translations.getAllTranslations().remove(entry.getKey());
+                    structureChanged = true;
+                }
+                changedEntries.add(entry);
+                removed++;
+            }
+            fileKeys.put(key, seen.toArray(String[]::new));
+        }
+        PZTranslationMemory.getInstance().updateInBackground(changedEntries);
+
+        return new ReloadResult(byFile.size(), added, updated, removed, changedEntries, changedVariants, conflicts,
+                structureChanged);
+    }
+}
@@ -3,6 +3,8 @@ package org.pz.polyglot.models.translations;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
+import org.pz.polyglot.structs.IdRegistry;
+
 /**
  * Singleton class that manages all translation entries for the application.
  */
@@ -12,6 +14,12 @@ public class PZTranslations {
      */
     private static PZTranslations instance;
 
+    /**
+     * Dense ids of translation keys. Ids outlive removed entries, so a key that
+     * comes back gets its old id.
+     */
+    private static final IdRegistry KEY_IDS = new IdRegistry();
+
     /**
      * Stores all translation entries mapped by their keys.
      */
@@ -30,6 +38,38 @@ public class PZTranslations {
         return instance;
     }
 
+    /**
+     * Returns the dense id of a translation key, assigning the next id if the key
+     * has none yet.
+     *
+     * @param key the translation key
+     * @return the id of the key
+     */
+    public static int getKeyId(String key) {
+        return KEY_IDS.intern(key);
+    }
+
+    /**
+     * Returns the canonical instance of a translation key, shared by the registry
+     * and every entry with that key.
+     *
+     * @param key the translation key
+     * @return the canonical key instance
+     */
+    public static String canonicalKey(String key) {
+        return KEY_IDS.canonical(key);
+    }
+
+    /**
+     * Returns the translation key with the given id.
+     *
+     * @param id the key id
+     * @return the translation key
+     */
+    public static String getKey(int id) {
+        return KEY_IDS.getName(id);
+    }
+
     /**
      * Retrieves the translation entry for the specified key, creating it if it does
      * not exist.
@@ -39,7 +79,11 @@ public class PZTranslations {
      */
     public PZTranslationEntry getOrCreateTranslation(String key) {
         // Creates a new entry if the key is not present
-        return this.translations.computeIfAbsent(key, k -> new PZTranslationEntry(k));
+        return this.translations.computeIfAbsent(canonicalKey(key), k -> {
+            PZTranslationEntry entry = new PZTranslationEntry(k);
+            PZTranslationSearchIndex.getInstance().addEntry(entry);
+            return entry;
+        });
     }
 
     /**
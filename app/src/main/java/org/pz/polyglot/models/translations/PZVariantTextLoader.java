@@ -0,0 +1,402 @@
+package org.pz.polyglot.models.translations;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import org.pz.polyglot.Config;
+import org.pz.polyglot.Logger;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+
+/**
+ * Loads variant texts of hidden languages on demand.
+ * <p>
+ * With lazy variant texts enabled, only the texts of the visible languages are
+ * kept when translations are loaded; the rows of other languages are stored
+ * without text, which is enough to know which keys and languages exist. The
+ * texts of a language are loaded in the background when it becomes visible,
+ * and the texts of an entry's files are read when its variant objects are
+ * created, for example when it is opened. When the heap is still
+ * nearly full after a garbage collection, the texts of hidden languages are
+ * dropped again, least recently shown first, unless they are pinned.
+ * <p>
+ * Files are parsed on a background thread; the texts are applied through the
+ * supplied executor (the JavaFX application thread in the UI). Until texts
+ * are loaded, the filter text does not match them.
+ */
+public final class PZVariantTextLoader {
+    /**
+     * Identifies the variants that come from one translation file.
+     *
+     * @param source   the source
+     * @param language the language
+     * @param type     the translation type
+     */
+    private record FileKey(PZSource source, PZLanguage language, PZTranslationType type) {
+    }
+
+    /**
+     * Parsed contents of a translation file.
+     *
+     * @param file  the file the pairs belong to
+     * @param pairs the parsed pairs
+     */
+    private record LoadedFile(FileKey file, List<PZTranslationParser.Pair> pairs) {
+    }
+
+    /** Singleton instance. */
+    private static final PZVariantTextLoader INSTANCE = new PZVariantTextLoader();
+    /** Share of a heap pool that counts as memory pressure after a collection. */
+    private static final double PRESSURE_THRESHOLD = 0.75;
+
+    /** Translation files by the variants they hold. */
+    private final Map<FileKey, Path> files = new ConcurrentHashMap<>();
+    /** Languages with all texts loaded, least recently shown first. */
+    private final LinkedHashSet<PZLanguage> loadedLanguages = new LinkedHashSet<>();
+    /** Languages being loaded in the background. */
+    private final Set<PZLanguage> loadingLanguages = new HashSet<>();
+    /** Files whose texts have been read for opened entries since their language was last dropped. */
+    private final Set<FileKey> filledFiles = new LinkedHashSet<>();
+    /** Languages currently visible; their texts are never dropped. */
+    private Set<PZLanguage> shownLanguages = Set.of();
+    /** Languages whose texts are in use, with the number of users; never dropped either. */
+    private final Map<PZLanguage, Integer> pinnedLanguages = new HashMap<>();
+    /** Whether texts of hidden languages are left out. */
+    private boolean lazy;
+    /** Worker thread that parses files of newly shown languages. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread t = Executors.defaultThreadFactory().newThread(runnable);
+        t.setName("variant-text-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Executor that applies loaded and dropped texts. */
+    private Executor applyExecutor = Runnable::run;
+    /** Callback invoked on {@link #applyExecutor} after a language is loaded. */
+    private Runnable onLoaded = () -> {
+    };
+    /** Whether memory pressure is being watched. */
+    private boolean started;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PZVariantTextLoader() {
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static PZVariantTextLoader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Prepares a new load of all translations. The languages configured as
+     * visible keep their texts; if none are configured, all languages do.
+     */
+    synchronized void reset() {
+        files.clear();
+        filledFiles.clear();
+        loadedLanguages.clear();
+        loadingLanguages.clear();
+        Set<PZLanguage> shown = new HashSet<>();
+        String[] codes = Config.getInstance().getPzLanguages();
+        if (codes != null) {
+            for (String code : codes) {
+                PZLanguages.getInstance().getLanguage(code).ifPresent(shown::add);
+            }
+        }
+        shownLanguages = shown;
+        loadedLanguages.addAll(shown);
+        lazy = Config.getInstance().isCompactVariants() && Config.getInstance().isLazyVariantTexts()
+                && !shown.isEmpty();
+    }
+
+    /**
+     * Returns whether texts of a language are kept while loading.
+     *
+     * @param language the language
+     * @return true if the texts are kept, false if they are loaded on demand
+     */
+    synchronized boolean keepsText(PZLanguage language) {
+        return !lazy || shownLanguages.contains(language);
+    }
+
+    /**
+     * Remembers a loaded translation file, so its texts can be read again.
+     *
+     * @param source the source the file belongs to
+     * @param file   the translation file
+     */
+    void addFile(PZSource source, PZTranslationManager.TranslationFile file) {
+        if (lazy) {
+            files.put(new FileKey(source, file.language(), file.type()), file.path());
+        }
+    }
+
+    /**
+     * Starts dropping texts of hidden languages under memory pressure. Does
+     * nothing if lazy variant texts are disabled or if already started.
+     *
+     * @param applyExecutor executor that applies loaded and dropped texts,
+     *                      typically the UI thread
+     * @param onLoaded      callback invoked on {@code applyExecutor} after the
+     *                      texts of a language have been loaded
+     */
+    public synchronized void start(Executor applyExecutor, Runnable onLoaded) {
+        if (started || !lazy) {
+            return;
+        }
+        this.applyExecutor = applyExecutor;
+        this.onLoaded = onLoaded;
+        started = true;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+                    && pool.getUsage().getMax() > 0) {
+                pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * PRESSURE_THRESHOLD));
+            }
+        }
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener((notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                MemoryUsage usage = MemoryNotificationInfo.from((CompositeData) notification.getUserData()).getUsage();
+                long excess = usage.getUsed() - (long) (usage.getMax() * PRESSURE_THRESHOLD);
+                this.applyExecutor.execute(() -> evict(excess));
+            }
+        }, null, null);
+    }
+
+    /**
+     * Sets the visible languages and loads the texts of those not loaded yet in
+     * the background. Does nothing if lazy variant texts are disabled.
+     *
+     * @param codes the codes of the visible languages
+     */
+    public synchronized void showLanguages(Collection<String> codes) {
+        if (!lazy) {
+            return;
+        }
+        Set<PZLanguage> shown = new HashSet<>();
+        for (String code : codes) {
+            PZLanguages.getInstance().getLanguage(code).ifPresent(shown::add);
+        }
+        shownLanguages = shown;
+        for (PZLanguage language : shown) {
+            if (loadedLanguages.remove(language)) {
+                // Move to the most recently shown end
+                loadedLanguages.add(language);
+            } else if (loadingLanguages.add(language)) {
+                worker.execute(() -> loadLanguage(language));
+            }
+        }
+    }
+
+    /**
+     * Loads the texts of the given languages that are not loaded yet, without
+     * showing them, and then runs a task on the apply executor. Runs the task
+     * right away there if lazy variant texts are disabled or all texts are
+     * loaded. The texts may be dropped again under memory pressure later,
+     * unless the languages are pinned first, see {@link #pin(Collection)}.
+     *
+     * @param languages the languages whose texts the task needs
+     * @param task      the task to run once the texts are loaded
+     */
+    public synchronized void whenLoaded(Collection<PZLanguage> languages, Runnable task) {
+        if (!lazy) {
+            applyExecutor.execute(task);
+            return;
+        }
+        for (PZLanguage language : languages) {
+            if (!loadedLanguages.contains(language) && loadingLanguages.add(language)) {
+                worker.execute(() -> loadLanguage(language));
+            }
+        }
+        // The worker hands each loaded language to the apply executor in order
+        worker.execute(() -> applyExecutor.execute(task));
+    }
+
+    /**
+     * Keeps the texts of languages loaded until they are unpinned, for
+     * example while they are exported. Pins are counted, so every call needs
+     * a matching {@link #unpin(Collection)}.
+     *
+     * @param languages the languages
+     */
+    public synchronized void pin(Collection<PZLanguage> languages) {
+        for (PZLanguage language : languages) {
+            pinnedLanguages.merge(language, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Releases languages pinned with {@link #pin(Collection)}.
+     *
+     * @param languages the languages
+     */
+    public synchronized void unpin(Collection<PZLanguage> languages) {
+        for (PZLanguage language : languages) {
+            pinnedLanguages.computeIfPresent(language, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Parses all files of a language and applies their texts.
+     *
+     * @param language the language
+     */
+    private void loadLanguage(PZLanguage language) {
+        long startTime = System.nanoTime();
+        List<LoadedFile> loaded = new ArrayList<>();
+        PZStringPool pool = new PZStringPool();
+        for (Map.Entry<FileKey, Path> file : files.entrySet()) {
+            if (file.getKey().language() == language) {
+                loaded.add(new LoadedFile(file.getKey(), readPairs(file.getKey(), file.getValue(), pool)));
+            }
+        }
+        applyExecutor.execute(() -> {
+            Map<String, PZTranslationEntry> translations = PZTranslations.getInstance().getAllTranslations();
+            Set<PZTranslationEntry> filled = new HashSet<>();
+            for (LoadedFile file : loaded) {
+                FileKey key = file.file();
+                for (PZTranslationParser.Pair pair : file.pairs()) {
+                    PZTranslationEntry entry = translations.get(pair.key());
+                    if (entry != null && entry.fillText(key.source(), key.language(), key.type(), pair.value())) {
+                        filled.add(entry);
+                    }
+                }
+            }
+            PZTranslationLint.getInstance().recheck(filled);
+            synchronized (this) {
+                loadingLanguages.remove(language);
+                loadedLanguages.add(language);
+            }
+            Logger.info("Loaded texts of " + language.getCode() + " from " + loaded.size() + " files in "
+                    + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+            onLoaded.run();
+        });
+    }
+
+    /**
+     * Reads the missing texts of an entry from its files. Called before the
+     * variant objects of the entry are created. Each file fills the missing
+     * texts of all entries it holds, so opening more entries of the same file
+     * reads nothing until its language is dropped again. The file is recorded,
+     * so the texts can be dropped even if its language is not fully loaded.
+     *
+     * @param entry the entry
+     * @param rows  the compact rows of the entry
+     */
+    synchronized void loadEntry(PZTranslationEntry entry, PZCompactVariants rows) {
+        Set<FileKey> missing = new LinkedHashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.text(i) == null) {
+                missing.add(new FileKey(rows.source(i), rows.language(i), rows.type(i)));
+            }
+        }
+        Map<String, PZTranslationEntry> translations = PZTranslations.getInstance().getAllTranslations();
+        Set<PZTranslationEntry> filled = new HashSet<>();
+        for (FileKey file : missing) {
+            Path path = files.get(file);
+            if (path == null) {
+                continue;
+            }
+            filledFiles.add(file);
+            PZStringPool pool = new PZStringPool();
+            for (PZTranslationParser.Pair pair : readPairs(file, path, pool)) {
+                PZTranslationEntry owner = pair.key().equals(entry.getKey()) ? entry : translations.get(pair.key());
+                if (owner != null && owner.fillText(file.source(), file.language(), file.type(), pair.value())) {
+                    filled.add(owner);
+                }
+            }
+        }
+        PZTranslationLint.getInstance().recheck(filled);
+    }
+
+    /**
+     * Drops the texts of hidden languages, least recently shown first, until
+     * about the given number of bytes has been released. Languages whose texts
+     * were only read for opened entries are dropped after the fully loaded ones.
+     * <p>
+     * Texts are dropped without holding the loader lock, because entries take
+     * it while their monitor is held, see {@link #loadEntry}.
+     *
+     * @param bytes the number of bytes to release
+     */
+    private void evict(long bytes) {
+        Collection<PZTranslationEntry> entries = PZTranslations.getInstance().getAllTranslations().values();
+        List<String> evicted = new ArrayList<>();
+        long released = 0;
+        while (released < bytes) {
+            PZLanguage language;
+            synchronized (this) {
+                language = nextEvictable();
+                if (language == null) {
+                    break;
+                }
+                loadedLanguages.remove(language);
+                filledFiles.removeIf(file -> file.language() == language);
+            }
+            for (PZTranslationEntry entry : entries) {
+                released += entry.evictTexts(language) * Character.BYTES;
+            }
+            evicted.add(language.getCode());
+        }
+        if (!evicted.isEmpty()) {
+            Logger.info("Memory is low, dropped texts of " + evicted + ", about " + released / 1024 + " KB");
+        }
+    }
+
+    /**
+     * Returns the next language whose texts may be dropped: hidden, not pinned
+     * and not being loaded, least recently shown first, then languages with
+     * files read for opened entries.
+     *
+     * @return the language, or null if no texts can be dropped
+     */
+    private PZLanguage nextEvictable() {
+        Stream<PZLanguage> candidates = Stream.concat(loadedLanguages.stream(),
+                filledFiles.stream().map(FileKey::language));
+        return candidates.filter(language -> !shownLanguages.contains(language)
+                && !pinnedLanguages.containsKey(language) && !loadingLanguages.contains(language))
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Parses a translation file.
+     *
+     * @param file the variants the file holds
+     * @param path the path to the file
+     * @param pool the string pool of the parse, or null
+     * @return the parsed pairs
+     */
+    private static List<PZTranslationParser.Pair> readPairs(FileKey file, Path path, PZStringPool pool) {
+        try (PZTranslationParser reader = new PZTranslationParser(path, file.language(), file.source(), pool);
+                Stream<PZTranslationParser.Pair> stream = reader.stream()) {
+            return stream.toList();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.pz.polyglot.structs;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns names into stable, dense integer ids.
+ * <p>
+ * Ids start at 0 and are never reused or reassigned, so they can serve as
+ * array indices and bit positions for the lifetime of the registry. Lookups of
+ * known names and of names by id do not lock; assigning a new id does.
+ */
+public class IdRegistry {
+    /**
+     * Ids by name.
+     */
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Names by id. Grown by copying, and published only after the new name is
+     * stored, so readers never lock.
+     */
+    private volatile String[] names = new String[16];
+
+    /**
+     * Number of interned names.
+     */
+    private volatile int size;
+
+    /**
+     * Returns the id of a name, assigning the next id if the name is new.
+     *
+     * @param name the name
+     * @return the id of the name
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : assign(name);
+    }
+
+    /**
+     * Returns the canonical instance of a name: the instance that was interned
+     * first. The name is interned if it is new.
+     *
+     * @param name the name
+     * @return the canonical instance equal to the name
+     */
+    public String canonical(String name) {
+        return getName(intern(name));
+    }
+
+    /**
+     * Returns the id of a name without assigning one.
+     *
+     * @param name the name
+     * @return the id of the name, or -1 if it has none
+     */
+    public int find(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the name with the given id.
+     *
+     * @param id the id
+     * @return the name
+     * @throws IndexOutOfBoundsException if no name has this id
+     */
+    public String getName(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No name with id " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * Returns the number of interned names, which is also the next id.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Assigns the next id to a name unless another thread already did.
+     *
+     * @param name the name
+     * @return the id of the name
+     */
+    private synchronized int assign(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = size;
+            String[] grown = id < names.length ? names : Arrays.copyOf(names, id * 2);
+            grown[id] = name;
+            names = grown;
+            size = id + 1;
+            ids.put(name, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,219 @@
+package org.pz.polyglot.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utility class for replacing files without ever leaving them truncated.
+ * <p>
+ * New contents are written to a temporary file in the same directory, flushed
+ * to disk, and then moved over the target in a single atomic rename. A crash
+ * at any point leaves either the old or the new version of the file, plus at
+ * worst a stray temporary file. Optionally, the previous version is kept as a
+ * numbered backup ({@code name.bak1} being the most recent).
+ */
+public final class AtomicFileUtils {
+    /** Suffix of temporary files. */
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Infix of backup files, followed by the backup number. */
+    private static final String BACKUP_INFIX = ".bak";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private AtomicFileUtils() {
+    }
+
+    /**
+     * Atomically replaces a file with the given lines, each followed by the
+     * platform line separator, like {@link Files#write(Path, Iterable, Charset,
+     * java.nio.file.OpenOption...)}.
+     *
+     * @param target  the file to write
+     * @param lines   the lines to write
+     * @param charset the charset to encode with; unmappable characters fail
+     * @param backups number of previous versions to keep, 0 for none
+     * @throws IOException if the file could not be written; the target is then
+     *                     unchanged
+     */
+    public static void write(Path target, List<String> lines, Charset charset, int backups) throws IOException {
+        String separator = System.lineSeparator();
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append(separator);
+        }
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        write(target, encoder.encode(CharBuffer.wrap(text)), backups);
+    }
+
+    /**
+     * Atomically replaces a file with the given bytes.
+     *
+     * @param target  the file to write
+     * @param bytes   the contents to write
+     * @param backups number of previous versions to keep, 0 for none
+     * @throws IOException if the file could not be written; the target is then
+     *                     unchanged
+     */
+    public static void write(Path target, byte[] bytes, int backups) throws IOException {
+        write(target, ByteBuffer.wrap(bytes), backups);
+    }
+
+    /**
+     * Atomically replaces a file with the remaining bytes of a buffer.
+     *
+     * @param target  the file to write
+     * @param bytes   the contents to write
+     * @param backups number of previous versions to keep, 0 for none
+     * @throws IOException if the file could not be written; the target is then
+     *                     unchanged
+     */
+    private static void write(Path target, ByteBuffer bytes, int backups) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        boolean exists = Files.exists(absolute);
+        // A rename would succeed on a read-only file; refuse like a direct write
+        if (exists && !Files.isWritable(absolute)) {
+            throw new AccessDeniedException(absolute.toString());
+        }
+
+        Path temp = createTempFile(absolute);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            if (exists) {
+                copyPermissions(absolute, temp);
+                if (backups > 0) {
+                    rotateBackups(absolute, backups);
+                }
+            }
+            move(temp, absolute);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        syncDirectory(absolute.getParent());
+    }
+
+    /**
+     * Moves a file over another, atomically where the file system supports it.
+     *
+     * @param from the file to move
+     * @param to   the target path
+     * @throws IOException if the move fails
+     */
+    public static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the path of a numbered backup of a file.
+     *
+     * @param target the file
+     * @param number the backup number, 1 being the most recent
+     * @return the backup path
+     */
+    public static Path backupPath(Path target, int number) {
+        return target.resolveSibling(target.getFileName() + BACKUP_INFIX + number);
+    }
+
+    /**
+     * Creates an empty temporary file next to the target, with default
+     * permissions for new files.
+     *
+     * @param target the file that will be replaced
+     * @return the temporary file
+     * @throws IOException if the file could not be created
+     */
+    private static Path createTempFile(Path target) throws IOException {
+        while (true) {
+            Path temp = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+            try {
+                return Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                // Try another name
+            }
+        }
+    }
+
+    /**
+     * Shifts existing backups up by one, dropping the oldest, and keeps the
+     * current version of the file as backup number 1.
+     *
+     * @param target  the file about to be replaced
+     * @param backups number of backups to keep
+     * @throws IOException if the current version could not be kept
+     */
+    private static void rotateBackups(Path target, int backups) throws IOException {
+        Files.deleteIfExists(backupPath(target, backups));
+        for (int i = backups - 1; i >= 1; i--) {
+            Path backup = backupPath(target, i);
+            if (Files.exists(backup)) {
+                Files.move(backup, backupPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path latest = backupPath(target, 1);
+        try {
+            // A hard link keeps the old contents once the target is renamed over
+            Files.createLink(latest, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, latest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    /**
+     * Gives the temporary file the POSIX permissions of the file it replaces.
+     * Does nothing on file systems without POSIX permissions.
+     *
+     * @param from the file being replaced
+     * @param to   the temporary file
+     * @throws IOException if the permissions could not be read or set
+     */
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        PosixFileAttributeView temp = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (source != null && temp != null) {
+            temp.setPermissions(source.readAttributes().permissions());
+        }
+    }
+
+    /**
+     * Flushes a directory so a completed rename survives a crash. Not every
+     * platform allows opening directories; failures are ignored since the file
+     * contents are already on disk.
+     *
+     * @param directory the directory to flush
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            // Not supported on this platform
+        }
+    }
+}
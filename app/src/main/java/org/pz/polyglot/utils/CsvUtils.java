@@ -0,0 +1,43 @@
+package org.pz.polyglot.utils;
+
+import java.util.StringJoiner;
+
+/**
+ * Utility class for writing comma-separated values. Values are quoted only if
+ * they contain a separator, quote or line break, as RFC 4180 allows.
+ */
+public final class CsvUtils {
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CsvUtils() {
+    }
+
+    /**
+     * Quotes a value if it needs it.
+     *
+     * @param value the value
+     * @return the value as written in a CSV field
+     */
+    public static String value(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Joins values into one CSV line, quoting values that need it.
+     *
+     * @param values the values of the row
+     * @return the CSV line, without line terminator
+     */
+    public static String line(Object... values) {
+        StringJoiner line = new StringJoiner(",");
+        for (Object value : values) {
+            line.add(value(String.valueOf(value)));
+        }
+        return line.toString();
+    }
+}
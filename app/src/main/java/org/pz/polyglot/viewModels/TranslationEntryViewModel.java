@@ -1,11 +1,12 @@
 package org.pz.polyglot.viewModels;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -17,9 +18,12 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import org.pz.polyglot.models.languages.PZLanguage;
 import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSources;
 import org.pz.polyglot.models.translations.PZTranslationEntry;
 import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.models.translations.PZTranslations;
 import org.pz.polyglot.models.translations.PZTranslationVariant;
 import org.pz.polyglot.viewModels.registries.TranslationVariantViewModelRegistry;
 
@@ -34,13 +38,39 @@ public class TranslationEntryViewModel {
      * @return a set of language codes present in the translation entry
      */
     public Set<String> getLanguages() {
-        return getVariantViewModels().stream()
-                .map(TranslationVariantViewModel::getLanguage)
-                .filter(Objects::nonNull)
-                .map(lang -> lang.getCode())
+        return languageBits.stream()
+                .mapToObj(PZLanguages::getLanguageCode)
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Ids of the languages that have a variant, see
+     * {@link PZLanguages#getLanguageId(String)}. Replaced, never modified, so it
+     * can be read from other threads.
+     */
+    private volatile BitSet languageBits = new BitSet();
+
+    /**
+     * Ids of the languages that have a changed variant. Replaced, never modified.
+     */
+    private volatile BitSet changedLanguageBits = new BitSet();
+
+    /**
+     * Ids of the sources that have a variant, see
+     * {@link PZSources#getSourceId(String)}. Replaced, never modified.
+     */
+    private volatile BitSet sourceBits = new BitSet();
+
+    /**
+     * Ordinals of the translation types of all variants, as a bit mask.
+     */
+    private volatile long typeBits;
+
+    /**
+     * Type of the first variant, which is the type of the entry.
+     */
+    private volatile PZTranslationType primaryType;
+
     /**
      * The underlying translation entry model.
      */
@@ -56,6 +86,12 @@ public class TranslationEntryViewModel {
      */
     private final ObservableList<TranslationVariantViewModel> variantViewModels = FXCollections.observableArrayList();
 
+    /**
+     * Whether {@link #variantViewModels} has been built. Building it creates the
+     * variant objects of compactly stored entries, so it waits until needed.
+     */
+    private boolean variantViewModelsLoaded;
+
     /**
      * Property indicating if this entry has any changes.
      */
@@ -72,8 +108,12 @@ public class TranslationEntryViewModel {
 
         key.set(entry.getKey());
 
-        // Build initial variant ViewModels
-        refreshVariantViewModels();
+        // Build initial variant ViewModels, unless that would create variant objects
+        if (entry.hasVariantObjects()) {
+            refreshVariantViewModels();
+        } else {
+            rebuildSummaries();
+        }
 
         // Listen for changes in variant ViewModels to update hasChanges property
         variantViewModels.addListener((ListChangeListener<TranslationVariantViewModel>) change -> {
@@ -100,6 +140,15 @@ public class TranslationEntryViewModel {
         return key.get();
     }
 
+    /**
+     * Gets the dense id of the translation key.
+     * 
+     * @return the key id, see {@link PZTranslations#getKeyId(String)}
+     */
+    public int getKeyId() {
+        return entry.getKeyId();
+    }
+
     /**
      * Gets the translation key property.
      * 
@@ -124,6 +173,9 @@ public class TranslationEntryViewModel {
      * @return the list of variant ViewModels
      */
     public ObservableList<TranslationVariantViewModel> getVariantViewModels() {
+        if (!variantViewModelsLoaded) {
+            refreshVariantViewModels();
+        }
         return variantViewModels;
     }
 
@@ -134,8 +186,9 @@ public class TranslationEntryViewModel {
      * @return list of variant ViewModels for the language
      */
     public List<TranslationVariantViewModel> getVariantViewModelsForLanguage(String languageCode) {
-        return variantViewModels.stream()
-                .filter(vm -> vm.getLanguage() != null && languageCode.equals(vm.getLanguage().getCode()))
+        int languageId = PZLanguages.getLanguageId(languageCode);
+        return getVariantViewModels().stream()
+                .filter(vm -> vm.getLanguageId() == languageId)
                 .collect(Collectors.toList());
     }
 
@@ -149,9 +202,12 @@ public class TranslationEntryViewModel {
      */
     public List<TranslationVariantViewModel> getVariantViewModelsForLanguageFromEnabledSources(String languageCode,
             Set<String> enabledSources) {
-        return variantViewModels.stream()
-                .filter(vm -> vm.getLanguage() != null && languageCode.equals(vm.getLanguage().getCode()))
-                .filter(vm -> enabledSources.isEmpty() || enabledSources.contains(vm.getSource()))
+        int languageId = PZLanguages.getLanguageId(languageCode);
+        BitSet enabledSourceIds = new BitSet();
+        enabledSources.forEach(source -> enabledSourceIds.set(PZSources.getSourceId(source)));
+        return getVariantViewModels().stream()
+                .filter(vm -> vm.getLanguageId() == languageId)
+                .filter(vm -> enabledSources.isEmpty() || enabledSourceIds.get(vm.getSourceId()))
                 .collect(Collectors.toList());
     }
 
@@ -176,9 +232,18 @@ public class TranslationEntryViewModel {
      * @return true if there is at least one variant for the language
      */
     public boolean hasTranslationForLanguage(String languageCode) {
-        return variantViewModels.stream()
-                .anyMatch(vm -> vm.getLanguage() != null &&
-                        languageCode.equals(vm.getLanguage().getCode()));
+        return hasTranslationForLanguageId(PZLanguages.getLanguageId(languageCode));
+    }
+
+    /**
+     * Checks if this translation entry has variants for the language with the
+     * given id.
+     * 
+     * @param languageId the language id, see {@link PZLanguages#getLanguageId(String)}
+     * @return true if there is at least one variant for the language
+     */
+    public boolean hasTranslationForLanguageId(int languageId) {
+        return languageBits.get(languageId);
     }
 
     /**
@@ -188,10 +253,79 @@ public class TranslationEntryViewModel {
      * @return true if there are changes for the language
      */
     public boolean hasChangesForLanguage(String languageCode) {
-        return variantViewModels.stream()
-                .anyMatch(vm -> vm.getLanguage() != null &&
-                        languageCode.equals(vm.getLanguage().getCode()) &&
-                        vm.getVariant().isChanged());
+        return hasChangesForLanguageId(PZLanguages.getLanguageId(languageCode));
+    }
+
+    /**
+     * Checks if this translation entry has changes for the language with the given
+     * id.
+     * 
+     * @param languageId the language id, see {@link PZLanguages#getLanguageId(String)}
+     * @return true if there are changes for the language
+     */
+    public boolean hasChangesForLanguageId(int languageId) {
+        return changedLanguageBits.get(languageId);
+    }
+
+    /**
+     * Checks if this entry has no variants at all, as for a newly added key.
+     * Safe to call from any thread.
+     * 
+     * @return true if there are no variants
+     */
+    public boolean hasNoVariants() {
+        // Every variant has a source
+        return sourceBits.isEmpty();
+    }
+
+    /**
+     * Checks if this entry has variants for all the given languages. Safe to call
+     * from any thread.
+     * 
+     * @param languageIds ids of the required languages
+     * @return true if no required language is missing
+     */
+    public boolean hasAllLanguages(BitSet languageIds) {
+        BitSet present = languageBits;
+        for (int id = languageIds.nextSetBit(0); id >= 0; id = languageIds.nextSetBit(id + 1)) {
+            if (!present.get(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if any variant of this entry comes from one of the given sources.
+     * Safe to call from any thread.
+     * 
+     * @param sourceIds ids of the sources
+     * @return true if at least one source matches
+     */
+    public boolean hasAnySource(BitSet sourceIds) {
+        return sourceBits.intersects(sourceIds);
+    }
+
+    /**
+     * Returns the types of all variants as a bit mask of
+     * {@link PZTranslationType} ordinals. Safe to call from any thread.
+     * 
+     * @return the type mask
+     */
+    public long getTypeBits() {
+        return typeBits;
+    }
+
+    /**
+     * Checks if the type of this entry is in the given mask. Safe to call from any
+     * thread.
+     * 
+     * @param typeMask bit mask of {@link PZTranslationType} ordinals
+     * @return true if the entry has a type and it is in the mask
+     */
+    public boolean hasTypeIn(long typeMask) {
+        PZTranslationType type = primaryType;
+        return type != null && (typeMask & (1L << type.ordinal())) != 0;
     }
 
     /**
@@ -217,7 +351,11 @@ public class TranslationEntryViewModel {
      * tracking.
      */
     public void refresh() {
-        refreshVariantViewModels();
+        if (variantViewModelsLoaded || entry.hasVariantObjects()) {
+            refreshVariantViewModels();
+        } else {
+            rebuildSummaries();
+        }
         updateHasChangesProperty();
     }
 
@@ -284,10 +422,14 @@ public class TranslationEntryViewModel {
      * @return set of translation types from variants
      */
     public Set<PZTranslationType> getTypes() {
-        return entry.getVariants().stream()
-                .map(PZTranslationVariant::getType)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<PZTranslationType> types = EnumSet.noneOf(PZTranslationType.class);
+        long bits = typeBits;
+        for (PZTranslationType type : PZTranslationType.values()) {
+            if ((bits & (1L << type.ordinal())) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
     }
 
     /**
@@ -296,8 +438,8 @@ public class TranslationEntryViewModel {
      * @return set of source names from variants
      */
     public Set<String> getSources() {
-        return entry.getVariants().stream()
-                .map(variant -> variant.getSource().getName())
+        return sourceBits.stream()
+                .mapToObj(PZSources::getSourceName)
                 .collect(Collectors.toSet());
     }
 
@@ -306,6 +448,7 @@ public class TranslationEntryViewModel {
      * Listeners for change tracking are also attached here.
      */
     private void refreshVariantViewModels() {
+        variantViewModelsLoaded = true;
         variantViewModels.clear();
 
         // Create ViewModels for all variants
@@ -315,9 +458,63 @@ public class TranslationEntryViewModel {
 
             // Attach listener for changes in this variant ViewModel
             viewModel.changedProperty().addListener((obs, oldVal, newVal) -> {
+                updateChangedLanguage(viewModel.getLanguage());
                 updateHasChangesProperty();
             });
         }
+        rebuildSummaries();
+    }
+
+    /**
+     * Recomputes the language, source and type summaries from the entry, without
+     * creating variant objects.
+     */
+    private void rebuildSummaries() {
+        BitSet languages = new BitSet();
+        BitSet changedLanguages = new BitSet();
+        BitSet sources = new BitSet();
+        long types = 0;
+        int count = entry.getVariantCount();
+        for (int i = 0; i < count; i++) {
+            int languageId = entry.getVariantLanguageId(i);
+            if (languageId >= 0) {
+                languages.set(languageId);
+                if (entry.isVariantChanged(i)) {
+                    changedLanguages.set(languageId);
+                }
+            }
+            sources.set(entry.getVariantSourceId(i));
+            PZTranslationType type = entry.getVariantType(i);
+            if (type != null) {
+                types |= 1L << type.ordinal();
+            }
+        }
+        PZTranslationType firstType = count == 0 ? null : entry.getVariantType(0);
+        languageBits = languages;
+        changedLanguageBits = changedLanguages;
+        sourceBits = sources;
+        typeBits = types;
+        primaryType = firstType;
+    }
+
+    /**
+     * Updates the changed flag of one language after a variant was edited or
+     * saved.
+     * 
+     * @param language the language of the variant, may be null
+     */
+    private void updateChangedLanguage(PZLanguage language) {
+        if (language == null) {
+            return;
+        }
+        int languageId = language.getId();
+        boolean changed = variantViewModels.stream()
+                .anyMatch(vm -> vm.getLanguageId() == languageId && vm.getVariant().isChanged());
+        if (changedLanguageBits.get(languageId) != changed) {
+            BitSet changedLanguages = (BitSet) changedLanguageBits.clone();
+            changedLanguages.set(languageId, changed);
+            changedLanguageBits = changedLanguages;
+        }
     }
 
     /**
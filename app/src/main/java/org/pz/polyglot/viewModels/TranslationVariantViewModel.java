@@ -118,6 +118,15 @@ public class TranslationVariantViewModel {
         return variant.getLanguage();
     }
 
+    /**
+     * Returns the dense id of the language of the translation variant.
+     * 
+     * @return the language id, or -1 if the variant has no language
+     */
+    public int getLanguageId() {
+        return variant.getLanguage() != null ? variant.getLanguage().getId() : -1;
+    }
+
     /**
      * Returns the translation key for this variant.
      * 
@@ -136,6 +145,15 @@ public class TranslationVariantViewModel {
         return variant.getSource().getName();
     }
 
+    /**
+     * Returns the dense id of the source for this variant.
+     * 
+     * @return source id
+     */
+    public int getSourceId() {
+        return variant.getSource().getId();
+    }
+
     /**
      * Indicates whether the source of this variant is editable.
      * 
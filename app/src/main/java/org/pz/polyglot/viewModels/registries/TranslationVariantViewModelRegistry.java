@@ -39,6 +39,19 @@ public class TranslationVariantViewModelRegistry {
         return cache.computeIfAbsent(variant, TranslationVariantViewModel::new);
     }
 
+    /**
+     * Refreshes the view model of a variant from its domain model, if one has
+     * been created.
+     *
+     * @param variant the translation variant
+     */
+    public static void refreshViewModel(PZTranslationVariant variant) {
+        TranslationVariantViewModel viewModel = cache.get(variant);
+        if (viewModel != null) {
+            viewModel.refresh();
+        }
+    }
+
     /**
      * Returns the current size of the cache.
      *
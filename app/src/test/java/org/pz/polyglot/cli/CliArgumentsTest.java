@@ -0,0 +1,41 @@
+package org.pz.polyglot.cli;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CliArgumentsTest {
+    private static final Set<String> FLAGS = Set.of("dry-run");
+
+    @Test
+    void parse_readsCommandOptionsFlagsAndLists() {
+        CliArguments arguments = CliArguments.parse(new String[] { "rewrite", "--find", "a+", "--replace=",
+                "--dry-run", "--language", "RU, PL", "--language=DE" }, FLAGS);
+
+        assertEquals("rewrite", arguments.getCommand());
+        assertEquals(Optional.of("a+"), arguments.getOption("find"));
+        assertEquals("", arguments.getRequiredOption("replace"));
+        assertTrue(arguments.hasFlag("dry-run"));
+        assertEquals(List.of("RU", "PL", "DE"), arguments.getList("language"));
+        assertEquals(List.of(), arguments.getList("source"));
+    }
+
+    @Test
+    void parse_rejectsMalformedCommandLines() {
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] { "export", "--output" }, FLAGS));
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] { "export", "coverage" }, FLAGS));
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] { "--dry-run=yes" }, FLAGS));
+    }
+
+    @Test
+    void checkOptions_rejectsUnknownOptions() {
+        CliArguments arguments = CliArguments.parse(new String[] { "coverage", "--fromat", "csv" }, FLAGS);
+
+        assertThrows(IllegalArgumentException.class, () -> arguments.checkOptions(Set.of("format")));
+        assertThrows(IllegalArgumentException.class, () -> arguments.getRequiredOption("format"));
+    }
+}
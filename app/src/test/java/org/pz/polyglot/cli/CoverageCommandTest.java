@@ -0,0 +1,69 @@
+package org.pz.polyglot.cli;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.TestTranslations;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageCommandTest {
+    private TestTranslations translations;
+    private PZSource mod;
+    private PZLanguage polish;
+    private List<PZTranslationEntry> entries;
+
+    @BeforeEach
+    void setUp() {
+        translations = new TestTranslations();
+        PZSource game = translations.game;
+        PZLanguage english = translations.english;
+        PZLanguage russian = translations.russian;
+        mod = translations.mod("MyMod", "42", 1);
+        polish = translations.language("PL", "Polish");
+
+        PZTranslationEntry first = translations.entry("UI_First").ui(game, english, "First")
+                .ui(game, russian, "Pervyj").build();
+        PZTranslationEntry second = translations.entry("UI_Second").ui(mod, english, "Second")
+                .ui(mod, russian, "Vtoroj").ui(mod, polish, "Drugi").build();
+        // Keys without a reference text are not counted
+        PZTranslationEntry orphan = translations.entry("UI_Orphan").ui(mod, polish, "Sierota").build();
+        entries = List.of(first, second, orphan);
+    }
+
+    @Test
+    void compute_countsReferenceKeysTranslatedPerLanguage() {
+        List<CoverageCommand.Row> rows = CoverageCommand.compute(entries, "EN",
+                new VariantSelection(Set.of(), Set.of(), Set.of()));
+
+        assertEquals(List.of(new CoverageCommand.Row("EN", 2, 2), new CoverageCommand.Row("PL", 1, 2),
+                new CoverageCommand.Row("RU", 2, 2)), rows);
+        assertEquals(50.0, rows.get(1).percent(), 1e-9);
+    }
+
+    @Test
+    void compute_limitsKeysToSelectedSourcesAndListsRequestedLanguages() {
+        List<CoverageCommand.Row> rows = CoverageCommand.compute(entries, "EN",
+                new VariantSelection(Set.of("PL", "DE"), Set.of("Game Files"), Set.of()));
+
+        assertEquals(List.of(new CoverageCommand.Row("DE", 0, 1), new CoverageCommand.Row("PL", 0, 1)), rows);
+    }
+
+    @Test
+    void compute_countsOnlySavedNonEmptyTextsLikeTheCoverageDialog() {
+        PZTranslationEntry empty = translations.entry("UI_Empty").ui(mod, translations.english, "Empty")
+                .ui(mod, polish, "").build();
+        List<PZTranslationEntry> withEmpty = new ArrayList<>(entries);
+        withEmpty.add(empty);
+
+        List<CoverageCommand.Row> rows = CoverageCommand.compute(withEmpty, "EN",
+                new VariantSelection(Set.of("PL"), Set.of(), Set.of()));
+
+        assertEquals(List.of(new CoverageCommand.Row("PL", 1, 3)), rows);
+    }
+}
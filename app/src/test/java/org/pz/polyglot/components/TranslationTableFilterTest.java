@@ -0,0 +1,72 @@
+package org.pz.polyglot.components;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.viewModels.TranslationEntryViewModel;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranslationTableFilterTest {
+    private PZTranslationEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        PZSource source = new PZSource("mod", new org.pz.polyglot.structs.SemanticVersion("1.0.0"), Path.of("mod"),
+                true, 1);
+        entry = new PZTranslationEntry("UI_Key");
+        entry.addVariant(source, new PZLanguage("EN", "English"), PZTranslationType.IG_UI, "Text",
+                StandardCharsets.UTF_8);
+    }
+
+    private TranslationTableFilter.Criteria criteria(Set<PZTranslationType> types, Set<String> sources,
+            List<String> languages) {
+        return new TranslationTableFilter.Criteria("", types, sources, languages);
+    }
+
+    @Test
+    void matches_checksTypeSourceAndLanguages() {
+        TranslationEntryViewModel row = new TranslationEntryViewModel(entry);
+        Set<PZTranslationType> allTypes = EnumSet.allOf(PZTranslationType.class);
+        assertTrue(TranslationTableFilter.matches(row, criteria(allTypes, Set.of("mod"), List.of("EN")), null));
+        assertFalse(TranslationTableFilter.matches(row, criteria(Set.of(), Set.of("mod"), List.of()), null));
+        assertFalse(TranslationTableFilter.matches(row, criteria(allTypes, Set.of(), List.of()), null));
+        assertFalse(TranslationTableFilter.matches(row, criteria(allTypes, Set.of("mod"), List.of("EN", "RU")),
+                null));
+        assertFalse(TranslationTableFilter.matches(row, criteria(allTypes, Set.of("mod"), List.of()), e -> false));
+    }
+
+    @Test
+    void matches_alwaysShowsNewKeysWithoutVariants() {
+        TranslationEntryViewModel row = new TranslationEntryViewModel(new PZTranslationEntry("UI_New"));
+        assertTrue(TranslationTableFilter.matches(row, criteria(Set.of(), Set.of(), List.of("RU")), null));
+    }
+
+    @Test
+    void summaries_followEditsAndRefresh() {
+        TranslationEntryViewModel row = new TranslationEntryViewModel(entry);
+        assertTrue(row.hasTranslationForLanguage("EN"));
+        assertFalse(row.hasChangesForLanguage("EN"));
+        assertEquals(Set.of(PZTranslationType.IG_UI), row.getTypes());
+
+        row.getVariantViewModels().get(0).editedTextProperty().set("Edited");
+        assertTrue(row.hasChangesForLanguage("EN"));
+        row.getVariantViewModels().get(0).markSaved();
+        assertFalse(row.hasChangesForLanguage("EN"));
+
+        entry.addVariant(new PZSource("other", new org.pz.polyglot.structs.SemanticVersion("1.0.0"),
+                Path.of("other"), true, 2), new PZLanguage("RU", "Russian"), PZTranslationType.UI, "Text",
+                StandardCharsets.UTF_8);
+        row.refresh();
+        assertTrue(row.hasTranslationForLanguage("RU"));
+        assertEquals(Set.of(PZTranslationType.IG_UI, PZTranslationType.UI), row.getTypes());
+    }
+}
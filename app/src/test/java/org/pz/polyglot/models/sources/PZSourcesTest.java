@@ -0,0 +1,54 @@
+package org.pz.polyglot.models.sources;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+
+import org.pz.polyglot.structs.SemanticVersion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZSourcesTest {
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("pz-polyglot-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tempDir != null) {
+            Files.walk(tempDir)
+                    .sorted((a, b) -> b.compareTo(a))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {
+                        }
+                    });
+        }
+    }
+
+    @Test
+    void findTranslationPaths_ignoresCaseOfFolderNames() throws IOException {
+        Path legacy = Files.createDirectories(tempDir.resolve("Media/Lua/Shared/translate"));
+        Path common = Files.createDirectories(tempDir.resolve("Common/media/LUA/shared/Translate"));
+        Path versioned = Files.createDirectories(tempDir.resolve("42.1/MEDIA/lua/Shared/TRANSLATE"));
+        Files.createDirectories(tempDir.resolve("Media/Lua/Client/Translate"));
+
+        assertEquals(List.of(legacy, common, versioned), PZSources.findTranslationPaths(tempDir));
+    }
+
+    @Test
+    void detectBuildType_ignoresCaseOfFolderNames() {
+        assertEquals(new SemanticVersion("42"),
+                PZSources.detectBuildType(tempDir.resolve("Common/Media/Lua/Shared/translate")));
+        assertEquals(new SemanticVersion("42"),
+                PZSources.detectBuildType(tempDir.resolve("42.1/Media/Lua/Shared/translate")));
+        assertEquals(new SemanticVersion("41"),
+                PZSources.detectBuildType(tempDir.resolve("Media/Lua/Shared/translate")));
+    }
+}
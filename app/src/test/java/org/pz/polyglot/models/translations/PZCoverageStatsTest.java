@@ -0,0 +1,109 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.TestTranslations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZCoverageStatsTest {
+    private PZSource game;
+    private PZSource mod;
+    private PZLanguage english;
+    private PZLanguage russian;
+    private PZTranslationEntry both;
+    private PZTranslationEntry englishOnly;
+    private List<PZTranslationEntry> entries;
+
+    @BeforeEach
+    void setUp() {
+        TestTranslations translations = new TestTranslations();
+        game = translations.game;
+        mod = translations.mod("MyMod", "42", 1);
+        english = translations.english;
+        russian = translations.russian;
+
+        both = translations.entry("UI_Both").ui(game, english, "Both").ui(game, russian, "Oba").build();
+        // Empty texts are not translations
+        englishOnly = translations.entry("UI_EnglishOnly").ui(game, english, "English").ui(game, russian, "")
+                .build();
+        PZTranslationEntry modOnly = translations.entry("UI_ModOnly").ui(mod, russian, "Mod").build();
+        entries = List.of(both, englishOnly, modOnly);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PZCoverageStats.getInstance().clear();
+    }
+
+    @Test
+    void recompute_countsReferenceKeysAndTranslationsPerSourceAndType() {
+        PZCoverageStats.getInstance().recompute(entries);
+
+        PZCoverageStats.Cell gameRussian = cell(game, "RU");
+        assertEquals(2, gameRussian.referenceKeys());
+        assertEquals(1, gameRussian.translated());
+        assertEquals(1, gameRussian.missing());
+        assertEquals(50.0, gameRussian.percent(), 1e-9);
+        assertEquals(2, cell(game, "EN").translated());
+
+        PZCoverageStats.Cell modRussian = cell(mod, "RU");
+        assertEquals(0, modRussian.referenceKeys());
+        assertEquals(1, modRussian.keys());
+        assertEquals(0, cell(mod, "EN").keys());
+    }
+
+    @Test
+    void update_appliesSavesAndDeletionsOfOneEntry() {
+        PZCoverageStats stats = PZCoverageStats.getInstance();
+        stats.recompute(entries);
+        int revision = stats.revisionProperty().get();
+
+        PZTranslationVariant russianVariant = englishOnly.getVariants().get(1);
+        russianVariant.setEditedText("Anglijskij");
+        assertEquals(1, cell(game, "RU").translated(), "unsaved edits do not count");
+        russianVariant.markSaved();
+        assertEquals(2, cell(game, "RU").translated());
+        assertTrue(stats.revisionProperty().get() > revision);
+
+        PZTranslationVariant reference = both.getVariants().get(0);
+        stats.update(both, () -> both.getVariants().remove(reference));
+        assertEquals(1, cell(game, "RU").referenceKeys());
+        assertEquals(1, cell(game, "RU").translated());
+
+        stats.update(both, () -> both.addVariant(game, english, PZTranslationType.UI, "Both",
+                StandardCharsets.UTF_8));
+        assertEquals(2, cell(game, "RU").referenceKeys());
+        assertEquals(2, cell(game, "RU").translated());
+    }
+
+    @Test
+    void setReference_recountsFromTheNewLanguage() {
+        PZCoverageStats stats = PZCoverageStats.getInstance();
+        stats.recompute(entries);
+
+        PZTranslations.getInstance().getAllTranslations().clear();
+        entries.forEach(entry -> PZTranslations.getInstance().getAllTranslations().put(entry.getKey(), entry));
+        try {
+            stats.setReference("RU");
+            assertEquals(1, cell(game, "EN").referenceKeys());
+            assertEquals(1, cell(game, "EN").translated());
+            assertEquals(1, cell(mod, "RU").referenceKeys());
+        } finally {
+            stats.setReference("EN");
+            PZTranslations.getInstance().getAllTranslations().clear();
+        }
+    }
+
+    private PZCoverageStats.Cell cell(PZSource source, String language) {
+        return PZCoverageStats.getInstance().getCells().stream()
+                .filter(cell -> cell.source() == source && cell.type() == PZTranslationType.UI
+                        && cell.language().equals(language))
+                .findFirst()
+                .orElseThrow();
+    }
+}
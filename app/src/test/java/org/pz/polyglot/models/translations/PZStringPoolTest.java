@@ -0,0 +1,68 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZStringPoolTest {
+    private final PZStringPool pool = new PZStringPool();
+
+    @Test
+    void intern_sharesEqualCharRangesAndCountsSavings() {
+        char[] chars = "IGUI_Key = IGUI_Key".toCharArray();
+        String first = pool.intern(chars, 0, 8);
+        String second = pool.intern(chars, 11, 8);
+        assertEquals("IGUI_Key", first);
+        assertSame(first, second);
+        assertEquals(1, pool.getHits());
+        assertTrue(pool.getSavedBytes() > 0);
+    }
+
+    @Test
+    void pools_countOnlyTheirOwnSavings() {
+        pool.intern(new String("Counted"));
+        pool.intern(new String("Counted"));
+        PZStringPool other = new PZStringPool();
+        assertEquals(0, other.getHits());
+        assertEquals(0, other.getSavedBytes());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    void intern_sharesEqualStrings() {
+        String first = pool.intern(new String("Placeholder text"));
+        String second = pool.intern(new String("Placeholder text"));
+        assertSame(first, second);
+        assertNull(pool.intern((String) null));
+    }
+
+    @Test
+    void pools_doNotShareStrings() {
+        String first = pool.intern(new String("Scoped"));
+        assertNotSame(first, new PZStringPool().intern(new String("Scoped")));
+    }
+
+    @Test
+    void scanner_sharesThroughItsPoolOnly() {
+        char[] chars = "A = \"Same\",\nB = \"Same\",\n".toCharArray();
+        PZTranslationScanner pooled = new PZTranslationScanner(chars, chars.length, pool);
+        assertTrue(pooled.next());
+        String first = pooled.value();
+        assertTrue(pooled.next());
+        assertSame(first, pooled.value());
+
+        PZTranslationScanner unpooled = new PZTranslationScanner(chars, chars.length);
+        assertTrue(unpooled.next());
+        first = unpooled.value();
+        assertTrue(unpooled.next());
+        assertEquals(first, unpooled.value());
+        assertNotSame(first, unpooled.value());
+    }
+
+    @Test
+    void canonicalKey_returnsFirstInstance() {
+        String first = PZTranslations.canonicalKey(new String("UI_CanonicalKeyTest"));
+        assertSame(first, PZTranslations.canonicalKey(new String("UI_CanonicalKeyTest")));
+        assertSame(first, new PZTranslationEntry(new String("UI_CanonicalKeyTest")).getKey());
+    }
+}
@@ -0,0 +1,70 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationDiffTest {
+    @Test
+    void compare_reportsAddedRemovedAndChangedKeysInOrder() {
+        PZTranslationDiff.Snapshot older = new PZTranslationDiff.Builder()
+                .add("EN", PZTranslationType.UI, "UI_Open", "Open")
+                .add("EN", PZTranslationType.UI, "UI_Close", "Close")
+                .add("EN", PZTranslationType.UI, "UI_Old", "Old")
+                .add("RU", PZTranslationType.UI, "UI_Open", "Открыть")
+                .build();
+        PZTranslationDiff.Snapshot newer = new PZTranslationDiff.Builder()
+                .add("RU", PZTranslationType.UI, "UI_Open", "Открыть")
+                .add("EN", PZTranslationType.UI, "UI_Open", "Open it")
+                .add("EN", PZTranslationType.UI, "UI_Close", "Close")
+                .add("EN", PZTranslationType.UI, "UI_New", "New")
+                .add("EN", PZTranslationType.Sandbox, "Sandbox_Old", "Old")
+                .build();
+
+        List<PZTranslationDiff.Difference> differences = PZTranslationDiff.compare(older, newer);
+
+        assertEquals(List.of(
+                new PZTranslationDiff.Difference("EN", PZTranslationType.Sandbox, "Sandbox_Old",
+                        PZTranslationDiff.Change.ADDED, null, "Old"),
+                new PZTranslationDiff.Difference("EN", PZTranslationType.UI, "UI_New",
+                        PZTranslationDiff.Change.ADDED, null, "New"),
+                new PZTranslationDiff.Difference("EN", PZTranslationType.UI, "UI_Old",
+                        PZTranslationDiff.Change.REMOVED, "Old", null),
+                new PZTranslationDiff.Difference("EN", PZTranslationType.UI, "UI_Open",
+                        PZTranslationDiff.Change.CHANGED, "Open", "Open it")), differences);
+    }
+
+    @Test
+    void build_keepsTheLastDefinitionOfAKey() {
+        PZTranslationDiff.Snapshot older = new PZTranslationDiff.Builder()
+                .add("EN", PZTranslationType.UI, "UI_Open", "Open")
+                .build();
+        PZTranslationDiff.Snapshot newer = new PZTranslationDiff.Builder()
+                .add("EN", PZTranslationType.UI, "UI_Open", "Common")
+                .add("EN", PZTranslationType.UI, "UI_Open", "Open")
+                .build();
+
+        assertEquals(1, newer.size());
+        assertTrue(PZTranslationDiff.compare(older, newer).isEmpty());
+    }
+
+    @Test
+    void compare_treatsTheSameKeyOfAnotherTypeAsDifferent() {
+        PZTranslationDiff.Snapshot older = new PZTranslationDiff.Builder()
+                .add("EN", PZTranslationType.UI, "Shared", "Text")
+                .build();
+        PZTranslationDiff.Snapshot newer = new PZTranslationDiff.Builder()
+                .add("EN", PZTranslationType.IG_UI, "Shared", "Text")
+                .build();
+
+        List<PZTranslationDiff.Difference> differences = PZTranslationDiff.compare(older, newer);
+
+        assertEquals(2, differences.size());
+        assertTrue(differences.stream().anyMatch(d -> d.change() == PZTranslationDiff.Change.ADDED
+                && d.type() == PZTranslationType.IG_UI));
+        assertTrue(differences.stream().anyMatch(d -> d.change() == PZTranslationDiff.Change.REMOVED
+                && d.type() == PZTranslationType.UI));
+    }
+}
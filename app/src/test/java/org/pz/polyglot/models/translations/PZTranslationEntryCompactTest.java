@@ -0,0 +1,83 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationEntryCompactTest {
+    private PZSource gameA;
+    private PZSource gameB;
+    private PZLanguage english;
+    private PZLanguage russian;
+
+    @BeforeEach
+    void setUp() {
+        // Two sources with the same name must stay distinct
+        gameA = new PZSource("Game Files", new org.pz.polyglot.structs.SemanticVersion("42"), Path.of("a"), false, 0);
+        gameB = new PZSource("Game Files", new org.pz.polyglot.structs.SemanticVersion("42"), Path.of("b"), false, 0);
+        english = new PZLanguage("EN", "English");
+        russian = new PZLanguage("RU", "Russian");
+    }
+
+    @Test
+    void compactRows_areReadableWithoutVariantObjects() {
+        PZTranslationEntry entry = new PZTranslationEntry("UI_Compact");
+        entry.addCompactVariant(gameA, english, PZTranslationType.UI, "Hello", StandardCharsets.UTF_8);
+        entry.addCompactVariant(gameB, russian, PZTranslationType.UI, "Privet", null);
+        entry.trimVariants();
+
+        assertFalse(entry.hasVariantObjects());
+        assertEquals(2, entry.getVariantCount());
+        assertEquals(PZTranslationType.UI, entry.getType());
+        assertEquals(russian.getId(), entry.getVariantLanguageId(1));
+        assertSame(gameB, entry.getVariantSource(1));
+        assertFalse(entry.isVariantChanged(0));
+        assertTrue(entry.anyVariantText("Privet"::equals));
+        assertTrue(entry.getChangedVariants().isEmpty());
+        assertFalse(entry.hasVariantObjects());
+    }
+
+    @Test
+    void getVariants_createsObjectsFromRowsOnce() {
+        PZTranslationEntry entry = new PZTranslationEntry("UI_Compact");
+        entry.addCompactVariant(gameA, english, PZTranslationType.UI, "Hello", StandardCharsets.UTF_8);
+        entry.addCompactVariant(gameB, russian, PZTranslationType.UI, "Privet", null);
+
+        PZTranslationVariant variant = entry.getVariants().get(1);
+        assertTrue(entry.hasVariantObjects());
+        assertSame(entry, variant.getKey());
+        assertSame(gameB, variant.getSource());
+        assertSame(russian, variant.getLanguage());
+        assertEquals("Privet", variant.getOriginalText());
+        assertNull(variant.getUsedCharset());
+        assertEquals(StandardCharsets.UTF_8, entry.getVariants().get(0).getUsedCharset());
+        assertSame(variant, entry.getVariants().get(1));
+
+        // Rows added after that become objects right away
+        entry.addCompactVariant(gameA, russian, PZTranslationType.UI, "Zdravo", null);
+        assertEquals(3, entry.getVariants().size());
+    }
+
+    @Test
+    void fillAndEvictTexts_onlyTouchRowsOfTheirFileAndLanguage() {
+        PZTranslationEntry entry = new PZTranslationEntry("UI_Lazy");
+        entry.addCompactVariant(gameA, english, PZTranslationType.UI, "Hello", null);
+        entry.addCompactVariant(gameA, russian, PZTranslationType.UI, null, null);
+        entry.addCompactVariant(gameB, russian, PZTranslationType.UI, null, null);
+
+        assertFalse(entry.anyVariantText(russian.getId(), text -> true));
+        assertTrue(entry.fillText(gameB, russian, PZTranslationType.UI, "Privet"));
+        assertFalse(entry.fillText(gameB, russian, PZTranslationType.UI, "Again"));
+        assertTrue(entry.anyVariantText(russian.getId(), "Privet"::equals));
+        assertFalse(entry.anyVariantText(english.getId(), "Privet"::equals));
+
+        assertEquals("Privet".length(), entry.evictTexts(russian));
+        assertFalse(entry.anyVariantText(russian.getId(), text -> true));
+        assertTrue(entry.anyVariantText(english.getId(), "Hello"::equals));
+    }
+}
@@ -0,0 +1,102 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.TestTranslations;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationExporterTest {
+    private PZSource game;
+    private PZSource mod;
+    private PZLanguage english;
+    private PZLanguage russian;
+    private List<PZTranslationEntry> entries;
+
+    @BeforeEach
+    void setUp() {
+        TestTranslations translations = new TestTranslations();
+        game = translations.game;
+        mod = translations.mod("MyMod [42]", "42", 2);
+        english = translations.english;
+        russian = translations.russian;
+
+        PZTranslationEntry open = translations.entry("UI_Open").ui(game, english, "Open")
+                .ui(game, russian, "Открыть").ui(mod, english, "Open \"it\", <now>").build();
+        PZTranslationEntry close = translations.entry("UI_Close").ui(game, english, "Close").build();
+        entries = List.of(open, close);
+    }
+
+    private String export(PZTranslationExporter.Format format, PZTranslationExporter.Filter filter)
+            throws IOException {
+        StringWriter writer = new StringWriter();
+        PZTranslationExporter.export(entries, format, filter, english, russian, writer);
+        return writer.toString();
+    }
+
+    @Test
+    void csv_writesOneQuotedRowPerVariantInKeyOrder() throws IOException {
+        String csv = export(PZTranslationExporter.Format.CSV, (source, language, type) -> true);
+
+        assertEquals("key,language,source,type,text\n"
+                + "UI_Close,EN,Game Files,UI,Close\n"
+                + "UI_Open,EN,Game Files,UI,Open\n"
+                + "UI_Open,RU,Game Files,UI,Открыть\n"
+                + "UI_Open,EN,MyMod [42],UI,\"Open \"\"it\"\", <now>\"\n", csv);
+    }
+
+    @Test
+    void jsonLines_writesOneObjectPerLineForSelectedVariants() throws IOException {
+        String json = export(PZTranslationExporter.Format.JSON_LINES, (source, language, type) -> language == russian);
+
+        assertEquals("{\"key\":\"UI_Open\",\"language\":\"RU\",\"source\":\"Game Files\",\"type\":\"UI\","
+                + "\"text\":\"Открыть\"}\n", json);
+    }
+
+    @Test
+    void xliff_pairsReferenceTextsWithTargetTexts() throws IOException {
+        String xliff = export(PZTranslationExporter.Format.XLIFF, (source, language, type) -> true);
+
+        assertTrue(xliff.contains("srcLang=\"en\" trgLang=\"ru\""));
+        assertTrue(xliff.contains("<source>Open</source>\n        <target>Открыть</target>"));
+        assertTrue(xliff.contains("<source>Open \"it\", &lt;now&gt;</source>\n      </segment>"));
+        assertEquals(3, xliff.split("<unit ", -1).length - 1);
+        assertTrue(xliff.endsWith("</xliff>\n"));
+    }
+
+    @Test
+    void po_writesOneMessagePerReferenceTextOfSelectedSources() throws IOException {
+        String po = export(PZTranslationExporter.Format.PO, (source, language, type) -> source == mod);
+
+        assertTrue(po.startsWith("msgid \"\"\nmsgstr \"\"\n"));
+        assertTrue(po.contains("\"Language: ru\\n\"\n"));
+        assertTrue(po.contains("msgctxt \"MyMod [42]/UI/UI_Open\"\nmsgid \"Open \\\"it\\\", <now>\"\nmsgstr \"\"\n"));
+        assertFalse(po.contains("Game Files/UI"));
+    }
+
+    @Test
+    void rows_areCopiedSoLaterEditsDoNotChangeTheExport() throws IOException {
+        AtomicInteger copies = new AtomicInteger();
+        // Edits the entry right after each copy, as the UI thread may while the file is written
+        Executor copyThenEdit = task -> {
+            copies.incrementAndGet();
+            task.run();
+            entries.get(1).getVariants().get(0).setEditedText("Shut");
+        };
+
+        StringWriter writer = new StringWriter();
+        int written = PZTranslationExporter.export(entries, PZTranslationExporter.Format.CSV,
+                (source, language, type) -> true, english, russian, writer, copyThenEdit);
+
+        assertEquals(4, written);
+        assertEquals(1, copies.get());
+        assertTrue(writer.toString().contains("UI_Close,EN,Game Files,UI,Close\n"));
+    }
+}
@@ -0,0 +1,73 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationIndexTest {
+    private List<String> lines;
+
+    @BeforeEach
+    void setUp() {
+        lines = new ArrayList<>(List.of(
+                "IG_UI_EN = {",
+                "    -- comment",
+                "    FirstKey = \"First\",",
+                "    MultiKey = \"Multi\" ..",
+                "        \"line\" ..",
+                "        \"value\",",
+                "    LastKey=\"Last\",",
+                "}"));
+    }
+
+    @Test
+    void build_recordsLineSpansIncludingMultilineValues() {
+        PZTranslationIndex.FileIndex index = PZTranslationIndex.FileIndex.build(lines);
+        assertArrayEquals(new int[] { 3, 3 }, index.locate(lines, "FirstKey"));
+        assertArrayEquals(new int[] { 4, 6 }, index.locate(lines, "MultiKey"));
+        assertArrayEquals(new int[] { 7, 7 }, index.locate(lines, "LastKey"));
+        assertNull(index.locate(lines, "Missing"));
+    }
+
+    @Test
+    void edits_keepFollowingSpansInPlace() {
+        PZTranslationIndex.FileIndex index = PZTranslationIndex.FileIndex.build(lines);
+        lines.subList(3, 6).clear();
+        lines.add(3, "    MultiKey = \"Single\",");
+        index.replaced("MultiKey");
+        assertArrayEquals(new int[] { 5, 5 }, index.locate(lines, "LastKey"));
+
+        lines.add(5, "    NewKey = \"New\",");
+        index.inserted("NewKey", 6);
+        assertArrayEquals(new int[] { 6, 6 }, index.locate(lines, "NewKey"));
+
+        lines.remove(2);
+        index.removed("FirstKey");
+        assertArrayEquals(new int[] { 3, 3 }, index.locate(lines, "MultiKey"));
+        assertArrayEquals(new int[] { 5, 5 }, index.locate(lines, "NewKey"));
+        assertNull(index.locate(lines, "FirstKey"));
+    }
+
+    @Test
+    void locate_rebuildsWhenLinesChangedOutsideTheIndex() {
+        PZTranslationIndex.FileIndex index = PZTranslationIndex.FileIndex.build(lines);
+        lines.add(1, "    Inserted = \"Elsewhere\",");
+        assertArrayEquals(new int[] { 8, 8 }, index.locate(lines, "LastKey"));
+        assertArrayEquals(new int[] { 2, 2 }, index.locate(lines, "Inserted"));
+    }
+
+    @Test
+    void locate_findsKeysOnLinesTheScannerRejects() {
+        lines.add(7, "    Unquoted = Plain text,");
+        PZTranslationIndex.FileIndex index = PZTranslationIndex.FileIndex.build(lines);
+        assertArrayEquals(new int[] { 8, 8 }, index.locate(lines, "Unquoted"));
+
+        lines.set(7, "    Unquoted = \"Quoted\",");
+        index.replaced("Unquoted");
+        assertArrayEquals(new int[] { 8, 8 }, index.locate(lines, "Unquoted"));
+        assertArrayEquals(new int[] { 7, 7 }, index.locate(lines, "LastKey"));
+    }
+}
@@ -0,0 +1,95 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.TestTranslations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationLintTest {
+    private TestTranslations translations;
+    private PZSource game;
+    private PZLanguage english;
+    private PZLanguage russian;
+
+    @BeforeEach
+    void setUp() {
+        translations = new TestTranslations();
+        game = translations.game;
+        english = translations.english;
+        russian = translations.russian;
+    }
+
+    @AfterEach
+    void tearDown() {
+        PZTranslationLint.getInstance().clear();
+    }
+
+    @Test
+    void check_comparesPlaceholdersAndTagsWithTheReference() {
+        String reference = "<RGB:1,0,0>%1 <LINE> of %2";
+
+        assertTrue(PZTranslationLint.check("<RGB:0,1,0>%2 iz %1 <line>", reference).isEmpty());
+        Map<PZTranslationLint.Problem, String> problems = PZTranslationLint.check("<RGB:1,0,0>%1 iz %3", reference);
+        assertEquals(Set.of(PZTranslationLint.Problem.PLACEHOLDERS, PZTranslationLint.Problem.RICH_TEXT),
+                problems.keySet());
+        assertEquals("expected [%1, %2], found [%1, %3]", problems.get(PZTranslationLint.Problem.PLACEHOLDERS));
+        assertEquals("expected [LINE, RGB], found [RGB]", problems.get(PZTranslationLint.Problem.RICH_TEXT));
+    }
+
+    @Test
+    void check_findsBrokenTagsQuotesAndTrailingDots() {
+        assertEquals(Set.of(PZTranslationLint.Problem.RICH_TEXT),
+                PZTranslationLint.check("<RGB:1,0,0 red", null).keySet());
+        assertEquals(Set.of(PZTranslationLint.Problem.QUOTES),
+                PZTranslationLint.check("Say \"hello", null).keySet());
+        assertTrue(PZTranslationLint.check("Say \"hello\" and \\\"", null).isEmpty());
+        assertEquals("line 1 ends with ..",
+                PZTranslationLint.check("First ..\nSecond", null).get(PZTranslationLint.Problem.TRAILING_DOTS));
+        assertTrue(PZTranslationLint.check("Wait...", null).isEmpty());
+    }
+
+    @Test
+    void recompute_comparesWithTheReferenceOfTheSameSourceFirst() {
+        PZSource mod = translations.mod("MyMod", "42", 1);
+        PZTranslationEntry entry = translations.entry("UI_Count").ui(game, english, "%1 items")
+                .ui(mod, english, "%1 of %2 items").ui(mod, russian, "%1 iz %2").build();
+        PZTranslationEntry untranslated = translations.entry("UI_Empty").ui(game, english, "%1 items")
+                .ui(game, russian, "").build();
+
+        PZTranslationLint lint = PZTranslationLint.getInstance();
+        lint.recompute(List.of(entry, untranslated));
+
+        assertFalse(lint.hasProblems(entry));
+        assertFalse(lint.hasProblems(untranslated));
+        assertEquals(0, lint.getProblemEntryCount());
+    }
+
+    @Test
+    void setEditedText_rechecksTheEntry() {
+        PZTranslationEntry entry = new PZTranslationEntry("UI_Hello");
+        entry.addVariant(game, english, PZTranslationType.UI, "Hello, %1", StandardCharsets.UTF_8);
+        PZTranslationVariant translation = entry.addVariant(game, russian, PZTranslationType.UI, "Privet, %1",
+                StandardCharsets.UTF_8);
+        PZTranslationLint lint = PZTranslationLint.getInstance();
+        lint.recompute(List.of(entry));
+        int revision = lint.revisionProperty().get();
+
+        translation.setEditedText("Privet");
+
+        List<PZTranslationLint.Finding> findings = lint.getFindings(entry);
+        assertEquals(1, findings.size());
+        assertEquals(PZTranslationLint.Problem.PLACEHOLDERS, findings.get(0).problem());
+        assertTrue(findings.get(0).isFor(translation));
+        assertEquals(revision + 1, lint.revisionProperty().get());
+
+        translation.setEditedText("Privet, %1");
+        assertFalse(lint.hasProblems(entry));
+    }
+}
@@ -0,0 +1,54 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.Config;
+import org.pz.polyglot.models.sources.SyntheticModTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationManagerCorpusTest {
+    private Path root;
+    private boolean translationCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("pz-polyglot-corpus-test");
+        // Keep the cache file out of the working directory
+        translationCache = Config.getInstance().isTranslationCache();
+        Config.getInstance().setTranslationCache(false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Config.getInstance().setTranslationCache(translationCache);
+        PZTranslations.getInstance().getAllTranslations().clear();
+        SyntheticModTree.delete(root);
+    }
+
+    @Test
+    void loadFilesFromSources_loadsEveryWellFormedEntryOfAMixedTree() throws IOException {
+        SyntheticModTree.Corpus corpus = SyntheticModTree.write(root, new SyntheticModTree.Options()
+                .mods(60)
+                .languages(List.of("EN", "RU", "PL", "TR", "CN", "KO"))
+                .languagesPerMod(2)
+                .keysPerGameFile(20)
+                .multilineRatio(0.1)
+                .malformedRatio(0.05));
+        assertTrue(corpus.malformedLines() > 0);
+
+        PZTranslationManager.loadFilesFromSources(corpus.sources(), (source, loadedSources, totalSources) -> {
+        });
+
+        Map<String, PZTranslationEntry> translations = PZTranslations.getInstance().getAllTranslations();
+        assertEquals(corpus.distinctKeys(), translations.size());
+        assertEquals(corpus.entries(),
+                translations.values().stream().mapToInt(PZTranslationEntry::getVariantCount).sum());
+        assertTrue(translations.keySet().stream().noneMatch(key -> key.startsWith("Broken_")));
+    }
+}
@@ -0,0 +1,84 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.TranslationSession;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationManagerSaveAllTest {
+    private Path tempDir;
+    private PZSource source;
+    private PZLanguage language;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("pz-polyglot-test");
+        source = new PZSource("test", new org.pz.polyglot.structs.SemanticVersion("1.0.0"), tempDir, true, 1);
+        language = new PZLanguage("EN", "English");
+        Path langDir = tempDir.resolve("EN");
+        Files.createDirectories(langDir);
+        Files.write(langDir.resolve("IG_UI_EN.txt"), List.of(
+                "IG_UI_EN = {",
+                "    FirstKey = \"First\",",
+                "    MultiKey = \"Multi\" ..",
+                "        \"line\",",
+                "    LastKey = \"Last\",",
+                "}"), StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        new java.util.ArrayList<>(TranslationSession.getInstance().getVariants())
+                .forEach(v -> TranslationSession.getInstance().removeVariant(v));
+        if (tempDir != null) {
+            Files.walk(tempDir)
+                    .sorted((a, b) -> b.compareTo(a))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {
+                        }
+                    });
+        }
+    }
+
+    private PZTranslationVariant edit(String key, PZTranslationType type, String original, String edited) {
+        PZTranslationVariant variant = new PZTranslationVariant(new PZTranslationEntry(key), source, language, type,
+                original, StandardCharsets.UTF_8, StandardCharsets.UTF_8);
+        variant.setEditedText(edited);
+        return variant;
+    }
+
+    @Test
+    void saveAll_writesAllEditsPerFileAndReportsEachFile() throws IOException {
+        PZTranslationVariant first = edit("FirstKey", PZTranslationType.IG_UI, "First", "First edited");
+        PZTranslationVariant multi = edit("MultiKey", PZTranslationType.IG_UI, "Multiline", "Single");
+        PZTranslationVariant added = edit("NewKey", PZTranslationType.IG_UI, "", "New");
+        PZTranslationVariant other = edit("OtherKey", PZTranslationType.Sandbox, "", "Other");
+
+        List<PZTranslationManager.FileSaveResult> results = PZTranslationManager.saveAll();
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(PZTranslationManager.FileSaveResult::success));
+        assertEquals(List.of(
+                "IG_UI_EN = {",
+                "    FirstKey = \"First edited\",",
+                "    MultiKey = \"Single\",",
+                "    LastKey = \"Last\",",
+                "    NewKey = \"New\",",
+                "}"), Files.readAllLines(tempDir.resolve("EN").resolve("IG_UI_EN.txt")));
+        assertTrue(Files.readAllLines(tempDir.resolve("EN").resolve("Sandbox_EN.txt")).stream()
+                .anyMatch(l -> l.contains("OtherKey = \"Other\"")));
+        for (PZTranslationVariant variant : List.of(first, multi, added, other)) {
+            assertFalse(variant.isChanged());
+        }
+        assertTrue(TranslationSession.getInstance().getVariants().isEmpty());
+    }
+}
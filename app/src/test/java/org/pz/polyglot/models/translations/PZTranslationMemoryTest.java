@@ -0,0 +1,101 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.sources.TestTranslations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationMemoryTest {
+    private TestTranslations translations;
+
+    @BeforeEach
+    void setUp() {
+        translations = new TestTranslations();
+    }
+
+    @AfterEach
+    void tearDown() {
+        PZTranslationMemory.getInstance().clear();
+    }
+
+    @Test
+    void suggest_ranksTranslationsOfSimilarTextsAndSkipsUnrelatedOnes() {
+        PZTranslationEntry open = entry("UI_Open", "Open the door", "Otkryt dver");
+        PZTranslationEntry eat = entry("UI_Eat", "Eat some canned food", "Poest konservy");
+        PZTranslationEntry query = entry("UI_OpenDoors", "Open the doors", null);
+        PZTranslationMemory memory = PZTranslationMemory.getInstance();
+        memory.rebuild(List.of(open, eat, query));
+
+        List<PZTranslationMemory.Suggestion> suggestions = memory.suggest(query, "RU", 3);
+
+        assertFalse(suggestions.isEmpty());
+        assertEquals("UI_Open", suggestions.get(0).key());
+        assertEquals("Otkryt dver", suggestions.get(0).translation());
+        assertEquals("Open the door", suggestions.get(0).sourceText());
+        assertTrue(suggestions.stream().allMatch(s -> s.similarity() >= PZTranslationMemory.MIN_SIMILARITY));
+        assertTrue(suggestions.stream().noneMatch(s -> s.key().equals("UI_Eat")));
+        assertTrue(memory.suggest(query, "EN", 3).isEmpty());
+    }
+
+    @Test
+    void suggest_listsEqualTranslationsOnceAndNeverTheEntryItself() {
+        PZTranslationEntry first = entry("UI_Save", "Save game", "Sokhranit igru");
+        PZTranslationEntry second = entry("UI_SaveAgain", "Save game", "Sokhranit igru");
+        PZTranslationMemory memory = PZTranslationMemory.getInstance();
+        memory.rebuild(List.of(first, second));
+
+        List<PZTranslationMemory.Suggestion> suggestions = memory.suggest(first, "RU", 5);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("UI_SaveAgain", suggestions.get(0).key());
+        assertEquals(1.0, suggestions.get(0).similarity(), 1e-9);
+    }
+
+    @Test
+    void update_addsAndRemovesTextsOfChangedEntries() {
+        PZTranslationEntry open = entry("UI_Open", "Open the door", "Otkryt dver");
+        PZTranslationEntry query = entry("UI_OpenDoors", "Open the doors", null);
+        PZTranslationMemory memory = PZTranslationMemory.getInstance();
+        memory.rebuild(List.of(open, query));
+
+        PZTranslationEntry eat = entry("UI_Eat", "Eat some canned food", "Poest konservy");
+        PZTranslationEntry eatQuery = entry("UI_EatCanned", "Eat the canned food", null);
+        PZTranslationEntry openAll = entry("UI_OpenAll", "Open the doors", "Otkryt dveri");
+        memory.update(List.of(eat, eatQuery, openAll));
+
+        assertEquals("UI_Eat", memory.suggest(eatQuery, "RU", 3).get(0).key());
+        assertEquals("UI_OpenAll", memory.suggest(query, "RU", 3).get(0).key());
+
+        openAll.removeVariant(openAll.getVariants().get(0));
+        memory.update(List.of(openAll));
+
+        List<PZTranslationMemory.Suggestion> suggestions = memory.suggest(query, "RU", 3);
+        assertEquals("UI_Open", suggestions.get(0).key());
+        assertTrue(suggestions.stream().noneMatch(s -> s.key().equals("UI_OpenAll")));
+        assertEquals("UI_Eat", memory.suggest(eatQuery, "RU", 3).get(0).key());
+
+        eat.removeVariant(eat.getVariants().get(0));
+        memory.update(List.of(eat));
+
+        assertTrue(memory.suggest(eatQuery, "RU", 3).isEmpty());
+    }
+
+    @Test
+    void suggest_isEmptyUntilTheIndexIsBuilt() {
+        PZTranslationEntry first = entry("UI_Save", "Save game", "Sokhranit igru");
+
+        assertFalse(PZTranslationMemory.getInstance().isReady());
+        assertTrue(PZTranslationMemory.getInstance().suggest(first, "RU", 3).isEmpty());
+    }
+
+    private PZTranslationEntry entry(String key, String englishText, String russianText) {
+        TestTranslations.Entry entry = translations.entry(key).ui(translations.game, translations.english,
+                englishText);
+        if (russianText != null) {
+            entry.ui(translations.game, translations.russian, russianText);
+        }
+        return entry.build();
+    }
+}
@@ -0,0 +1,104 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.TestTranslations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationOverridesTest {
+    private TestTranslations translations;
+    private PZSource game;
+    private PZSource mod;
+    private PZSource otherMod;
+    private PZSource oldMod;
+    private PZLanguage english;
+
+    @BeforeEach
+    void setUp() {
+        translations = new TestTranslations();
+        game = translations.game;
+        mod = translations.mod("MyMod [42]", "42", 2);
+        otherMod = translations.mod("OtherMod [42]", "42", 2);
+        oldMod = translations.mod("MyMod [41]", "41", 2);
+        english = translations.english;
+    }
+
+    @AfterEach
+    void tearDown() {
+        PZTranslationOverrides.getInstance().clear();
+    }
+
+    @Test
+    void resolve_prefersTheHigherPriorityOfTheSameBuild() {
+        PZTranslationEntry entry = translations.entry("UI_Open").ui(game, english, "Open").ui(mod, english, "Open!")
+                .ui(oldMod, english, "Open").build();
+
+        List<PZTranslationOverrides.Resolution> resolutions = PZTranslationOverrides.resolve(entry, source -> true);
+
+        assertEquals(1, resolutions.size());
+        PZTranslationOverrides.Resolution resolution = resolutions.get(0);
+        assertEquals("EN", resolution.language());
+        assertEquals(42, resolution.build());
+        assertSame(mod, resolution.effective().source());
+        assertEquals("Open!", resolution.effective().text());
+        assertEquals(List.of(game), resolution.shadowed().stream().map(PZTranslationOverrides.Definition::source)
+                .toList());
+        assertTrue(resolution.differs());
+        assertFalse(resolution.isAmbiguous());
+    }
+
+    @Test
+    void resolve_letsTheLaterSourceOfEqualPriorityWinAndMarksItAmbiguous() {
+        PZTranslationEntry entry = translations.entry("UI_Shared").ui(mod, english, "Shared")
+                .ui(otherMod, english, "Shared").build();
+
+        PZTranslationOverrides.Resolution resolution = PZTranslationOverrides.resolve(entry, source -> true).get(0);
+
+        assertSame(otherMod, resolution.effective().source());
+        assertTrue(resolution.isAmbiguous());
+        assertFalse(resolution.differs());
+    }
+
+    @Test
+    void setEnabledSources_updatesOverriddenEntries() {
+        PZTranslationEntry entry = translations.entry("UI_Open").ui(game, english, "Open").ui(mod, english, "Open!")
+                .build();
+        PZTranslationEntry single = translations.entry("UI_Single").ui(game, english, "Single").build();
+        PZTranslationOverrides overrides = PZTranslationOverrides.getInstance();
+        overrides.recompute(List.of(entry, single));
+        assertTrue(overrides.isOverridden(entry));
+        assertFalse(overrides.isOverridden(single));
+
+        int revision = overrides.revisionProperty().get();
+        overrides.setEnabledSources(Set.of("Game Files", "OtherMod [42]"));
+        assertFalse(overrides.isOverridden(entry));
+        assertEquals(0, overrides.getOverriddenCount());
+        assertEquals(revision + 1, overrides.revisionProperty().get());
+
+        overrides.setEnabledSources(Set.of("Game Files", "MyMod [42]", "OtherMod [42]"));
+        assertTrue(overrides.isOverridden(entry));
+        assertEquals(1, overrides.getReport().size());
+    }
+
+    @Test
+    void recheck_followsAddedVariants() {
+        PZTranslationEntry entry = new PZTranslationEntry("UI_Later");
+        entry.addVariant(game, english, PZTranslationType.UI, "Later", StandardCharsets.UTF_8);
+        PZTranslationOverrides overrides = PZTranslationOverrides.getInstance();
+        overrides.recompute(List.of(entry));
+        assertFalse(overrides.isOverridden(entry));
+
+        entry.addVariant(mod, english, PZTranslationType.UI, "Later!", StandardCharsets.UTF_8);
+        assertTrue(overrides.isOverridden(entry));
+
+        entry.getVariants().remove(1);
+        overrides.recheck(entry);
+        assertFalse(overrides.isOverridden(entry));
+    }
+}
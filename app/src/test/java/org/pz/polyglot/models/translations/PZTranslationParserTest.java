@@ -0,0 +1,101 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.structs.SemanticVersion;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationParserTest {
+    private Path tempDir;
+    private PZSource source;
+    private PZLanguage language;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("pz-polyglot-parser-test");
+        source = new PZSource("test", new SemanticVersion("42"), tempDir, true, 1);
+        language = new PZLanguage("RU", "Russian");
+        language.setCharset(new SemanticVersion("41"), Charset.forName("Cp1251"));
+        language.setCharset(new SemanticVersion("42"), StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tempDir != null) {
+            Files.walk(tempDir)
+                    .sorted((a, b) -> b.compareTo(a))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {
+                        }
+                    });
+        }
+    }
+
+    private List<PZTranslationParser.Pair> parse(String content, Charset charset) throws IOException {
+        Path file = tempDir.resolve("IG_UI_RU.txt");
+        Files.writeString(file, content, charset);
+        try (PZTranslationParser parser = new PZTranslationParser(file, language, source)) {
+            return parser.stream().toList();
+        }
+    }
+
+    @Test
+    void parsesEntriesAndSkipsCommentsAndHeader() throws IOException {
+        List<PZTranslationParser.Pair> pairs = parse(
+                "IG_UI_RU = {\r\n"
+                        + "    -- comment = \"ignored\",\r\n"
+                        + "    First = \"One\",\r\n"
+                        + "\tSecond=\"Two = \"quoted\"\",\n"
+                        + "    NoQuotes = value,\r"
+                        + "    Third = \"Three\"\r\n"
+                        + "}",
+                StandardCharsets.UTF_8);
+
+        assertEquals(List.of(
+                new PZTranslationParser.Pair("First", "One"),
+                new PZTranslationParser.Pair("Second", "Two = \"quoted\""),
+                new PZTranslationParser.Pair("Third", "Three")), pairs);
+    }
+
+    @Test
+    void joinsMultilineValues() throws IOException {
+        List<PZTranslationParser.Pair> pairs = parse(
+                "IG_UI_RU = {\n"
+                        + "    Multi = \"Line one \" ..\n"
+                        + "        \"line two \"..\n"
+                        + "        \"line three\",\n"
+                        + "    Broken = \"start\" ..\n"
+                        + "\n"
+                        + "    After = \"ok\",\n"
+                        + "}\n",
+                StandardCharsets.UTF_8);
+
+        assertEquals(List.of(
+                new PZTranslationParser.Pair("Multi", "Line one line two line three"),
+                new PZTranslationParser.Pair("After", "ok")), pairs);
+    }
+
+    @Test
+    void fallsBackToOlderCharset() throws IOException {
+        Path file = tempDir.resolve("IG_UI_RU.txt");
+        Files.writeString(file, "Key = \"Привет\",\n", Charset.forName("Cp1251"));
+
+        try (PZTranslationParser parser = new PZTranslationParser(file, language, source)) {
+            assertEquals(Charset.forName("Cp1251"), parser.getUsedCharset());
+            assertTrue(parser.getDetection().isFallback());
+            assertEquals(StandardCharsets.UTF_8, parser.getDetection().rejections().get(0).charset());
+            assertEquals(7, parser.getDetection().rejections().get(0).byteOffset());
+            assertEquals(List.of(new PZTranslationParser.Pair("Key", "Привет")), parser.stream().toList());
+        }
+    }
+}
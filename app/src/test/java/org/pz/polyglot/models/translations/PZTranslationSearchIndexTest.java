@@ -0,0 +1,84 @@
+package org.pz.polyglot.models.translations;
+
+import org.junit.jupiter.api.*;
+import org.pz.polyglot.models.TranslationSession;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.sources.PZSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PZTranslationSearchIndexTest {
+    private PZSource source;
+    private PZLanguage language;
+    private PZTranslationEntry apple;
+    private PZTranslationEntry banana;
+    private PZTranslationEntry cherry;
+
+    @BeforeEach
+    void setUp() {
+        source = new PZSource("test", new org.pz.polyglot.structs.SemanticVersion("1.0.0"), Path.of("test"), true, 1);
+        language = new PZLanguage("EN", "English");
+        apple = entry("UI_Apple", "Red Apple");
+        banana = entry("UI_Banana", "Yellow fruit");
+        cherry = entry("UI_Cherry", null);
+        PZTranslationSearchIndex.getInstance().rebuild(List.of(apple, banana, cherry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PZTranslationSearchIndex.getInstance().clear();
+        new java.util.ArrayList<>(TranslationSession.getInstance().getVariants())
+                .forEach(v -> TranslationSession.getInstance().removeVariant(v));
+    }
+
+    private PZTranslationEntry entry(String key, String text) {
+        PZTranslationEntry entry = new PZTranslationEntry(key);
+        entry.addVariant(source, language, PZTranslationType.IG_UI, text, StandardCharsets.UTF_8);
+        return entry;
+    }
+
+    private void assertMatches(String query, PZTranslationEntry... expected) {
+        Predicate<PZTranslationEntry> matcher = PZTranslationSearchIndex.getInstance().matcher(query);
+        List<PZTranslationEntry> matched = List.of(apple, banana, cherry).stream().filter(matcher).toList();
+        assertEquals(List.of(expected), matched, "query: " + query);
+    }
+
+    @Test
+    void matcher_findsKeysAndTextsIgnoringCase() {
+        assertMatches("APPLE", apple);
+        assertMatches("yellow", banana);
+        assertMatches("ui_", apple, banana, cherry);
+        assertMatches("an", banana);
+        assertMatches("missing");
+    }
+
+    @Test
+    void matcher_rejectsPartialOverlaps() {
+        // Apple shares most trigrams of "red apples" but not the phrase itself
+        assertMatches("ppl", apple);
+        assertMatches("red apples");
+    }
+
+    @Test
+    void setEditedText_updatesIndexAndDropsReplacedText() {
+        PZTranslationVariant variant = banana.getVariants().get(0);
+        variant.setEditedText("Curved snack");
+        assertMatches("snack", banana);
+        assertMatches("yellow");
+    }
+
+    @Test
+    void addEntry_indexesNewVariantsAfterRebuild() {
+        PZTranslationEntry date = new PZTranslationEntry("UI_Date");
+        PZTranslationSearchIndex.getInstance().addEntry(date);
+        date.addVariant(source, language, PZTranslationType.IG_UI, "Sweet date", StandardCharsets.UTF_8);
+        Predicate<PZTranslationEntry> matcher = PZTranslationSearchIndex.getInstance().matcher("sweet");
+        assertTrue(matcher.test(date));
+        assertFalse(matcher.test(apple));
+    }
+}
@@ -0,0 +1,39 @@
+package org.pz.polyglot.structs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdRegistryTest {
+    @Test
+    void intern_assignsDenseStableIds() {
+        IdRegistry registry = new IdRegistry();
+        assertEquals(0, registry.intern("EN"));
+        assertEquals(1, registry.intern("RU"));
+        assertEquals(0, registry.intern("EN"));
+        assertEquals(2, registry.size());
+        assertEquals("RU", registry.getName(1));
+    }
+
+    @Test
+    void find_doesNotAssign() {
+        IdRegistry registry = new IdRegistry();
+        assertEquals(-1, registry.find("EN"));
+        assertEquals(0, registry.size());
+        registry.intern("EN");
+        assertEquals(0, registry.find("EN"));
+    }
+
+    @Test
+    void getName_keepsNamesAcrossGrowthAndRejectsUnknownIds() {
+        IdRegistry registry = new IdRegistry();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, registry.intern("key" + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals("key" + i, registry.getName(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.getName(100));
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.getName(-1));
+    }
+}
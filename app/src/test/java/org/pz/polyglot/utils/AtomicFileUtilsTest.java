@@ -0,0 +1,61 @@
+package org.pz.polyglot.utils;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileUtilsTest {
+    private Path tempDir;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("pz-polyglot-test");
+        file = tempDir.resolve("IG_UI_EN.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tempDir != null) {
+            Files.walk(tempDir)
+                    .sorted((a, b) -> b.compareTo(a))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {
+                        }
+                    });
+        }
+    }
+
+    @Test
+    void write_keepsRotatingBackups() throws IOException {
+        for (int version = 1; version <= 4; version++) {
+            AtomicFileUtils.write(file, List.of("v" + version), StandardCharsets.UTF_8, 2);
+        }
+        assertEquals(List.of("v4"), Files.readAllLines(file));
+        assertEquals(List.of("v3"), Files.readAllLines(AtomicFileUtils.backupPath(file, 1)));
+        assertEquals(List.of("v2"), Files.readAllLines(AtomicFileUtils.backupPath(file, 2)));
+        assertFalse(Files.exists(AtomicFileUtils.backupPath(file, 3)));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(3, files.count(), "temporary files must not be left behind");
+        }
+    }
+
+    @Test
+    void write_leavesFileUnchangedWhenEncodingFails() throws IOException {
+        AtomicFileUtils.write(file, List.of("original"), StandardCharsets.UTF_8, 0);
+        assertThrows(IOException.class,
+                () -> AtomicFileUtils.write(file, List.of("Ж"), Charset.forName("ISO-8859-1"), 0));
+        assertEquals(List.of("original"), Files.readAllLines(file));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package org.pz.polyglot.models.sources;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.structs.SemanticVersion;
+
+/**
+ * Writes synthetic mod trees that look like a real installation, for load
+ * benchmarks and stress tests.
+ * <p>
+ * The tree has the three mod folders scanned by {@link PZSources} (Steam user
+ * folders, Workshop items and local mods) and, optionally, the game files.
+ * Each mod uses one of the layouts found by discovery: Build 41
+ * {@code media/lua/shared/Translate}, Build 42 {@code common/...} or
+ * {@code 42.x/...}, or Build 41 and {@code common} together. Files are
+ * {@code Translate/<LANG>/<Type>_<LANG>.txt}, written in the charset
+ * {@link PZLanguages} expects for the language and build, with texts that use
+ * the language's own letters where that charset can encode them. A share of
+ * the values span several lines joined with {@code ..}, and a share of the
+ * lines are malformed in ways the parser must skip.
+ * <p>
+ * Generation is deterministic for a given seed.
+ */
+public final class SyntheticModTree {
+    /**
+     * Generation settings. Setters return this, so settings can be chained.
+     */
+    public static final class Options {
+        private int mods = 100;
+        private List<String> languages = List.copyOf(PZLanguages.getInstance().getAllLanguageCodes());
+        private int languagesPerMod = 3;
+        private int typesPerMod = 2;
+        private int keysPerModFile = 50;
+        private boolean gameFiles = true;
+        private int keysPerGameFile = 500;
+        private double multilineRatio = 0.05;
+        private double malformedRatio = 0.01;
+        private long seed = 42;
+
+        /**
+         * Sets the number of mods, spread over Steam, Workshop and local mods.
+         *
+         * @param mods the number of mods, default 100
+         * @return these options
+         */
+        public Options mods(int mods) {
+            this.mods = mods;
+            return this;
+        }
+
+        /**
+         * Sets the languages to pick from. English is always written.
+         *
+         * @param languages the language codes, default all known languages
+         * @return these options
+         */
+        public Options languages(List<String> languages) {
+            this.languages = List.copyOf(languages);
+            return this;
+        }
+
+        /**
+         * Sets the number of languages each mod has besides English.
+         *
+         * @param languagesPerMod the number of languages, default 3
+         * @return these options
+         */
+        public Options languagesPerMod(int languagesPerMod) {
+            this.languagesPerMod = languagesPerMod;
+            return this;
+        }
+
+        /**
+         * Sets the number of translation types each mod has.
+         *
+         * @param typesPerMod the number of types, default 2
+         * @return these options
+         */
+        public Options typesPerMod(int typesPerMod) {
+            this.typesPerMod = typesPerMod;
+            return this;
+        }
+
+        /**
+         * Sets the average number of keys in a mod file. Actual counts vary
+         * from half to one and a half times this.
+         *
+         * @param keysPerModFile the number of keys, default 50
+         * @return these options
+         */
+        public Options keysPerModFile(int keysPerModFile) {
+            this.keysPerModFile = keysPerModFile;
+            return this;
+        }
+
+        /**
+         * Sets whether game files are written, with every language and type.
+         *
+         * @param gameFiles whether to write game files, default true
+         * @return these options
+         */
+        public Options gameFiles(boolean gameFiles) {
+            this.gameFiles = gameFiles;
+            return this;
+        }
+
+        /**
+         * Sets the number of keys in each game file.
+         *
+         * @param keysPerGameFile the number of keys, default 500
+         * @return these options
+         */
+        public Options keysPerGameFile(int keysPerGameFile) {
+            this.keysPerGameFile = keysPerGameFile;
+            return this;
+        }
+
+        /**
+         * Sets the share of values written over several lines with {@code ..}.
+         *
+         * @param multilineRatio the share from 0 to 1, default 0.05
+         * @return these options
+         */
+        public Options multilineRatio(double multilineRatio) {
+            this.multilineRatio = multilineRatio;
+            return this;
+        }
+
+        /**
+         * Sets the share of malformed lines added between entries.
+         *
+         * @param malformedRatio the share from 0 to 1, default 0.01
+         * @return these options
+         */
+        public Options malformedRatio(double malformedRatio) {
+            this.malformedRatio = malformedRatio;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random generator.
+         *
+         * @param seed the seed, default 42
+         * @return these options
+         */
+        public Options seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+
+    /**
+     * A generated tree.
+     *
+     * @param root           the directory holding the tree
+     * @param steamModsPath  the Steam mods folder, as in the config
+     * @param cachePath      the cache folder holding {@code Workshop} and
+     *                       {@code mods}, as in the config
+     * @param gamePath       the game folder, as in the config
+     * @param sources        the sources discovery finds in the tree, in
+     *                       priority order
+     * @param files          the number of translation files
+     * @param bytes          the total size of the files
+     * @param entries        the number of well-formed entries
+     * @param malformedLines the number of malformed lines
+     * @param distinctKeys   the number of distinct keys
+     */
+    public record Corpus(Path root, Path steamModsPath, Path cachePath, Path gamePath, List<PZSource> sources,
+            int files, long bytes, int entries, int malformedLines, int distinctKeys) {
+    }
+
+    /** Game version of Build 41 layouts. */
+    private static final SemanticVersion BUILD_41 = new SemanticVersion("41");
+    /** Game version of Build 42 layouts. */
+    private static final SemanticVersion BUILD_42 = new SemanticVersion("42");
+    /** Folders from a layout root to its translations. */
+    private static final String TRANSLATE_PATH = "media/lua/shared/Translate";
+    /** Words in the letters of some languages; others use plain ASCII. */
+    private static final List<String> NATIVE_WORDS = List.of("RU:Привет мир", "UA:Привіт світ", "DE:Größe Übung",
+            "FR:Élément été", "ES:Canción año", "PL:Zażółć gęślą", "CS:Příliš žluťoučký", "TR:Güçlü ağaç",
+            "CN:你好世界", "CH:你好世界", "JP:こんにちは", "KO:안녕하세요", "TH:สวัสดี", "HU:Árvíztűrő", "PTBR:Ação pão",
+            "PT:Ação pão", "IT:Città più", "DA:Blåbær øl", "NO:Blåbær øl", "FI:Hyvää päivää");
+
+    /** Settings of the tree being written. */
+    private final Options options;
+    /** Random source, seeded from the options. */
+    private final Random random;
+    /** Keys written so far. */
+    private final Set<String> keys = new HashSet<>();
+    /** Number of files written so far. */
+    private int files;
+    /** Total size of the files written so far. */
+    private long bytes;
+    /** Number of well-formed entries written so far. */
+    private int entries;
+    /** Number of malformed lines written so far. */
+    private int malformedLines;
+
+    /**
+     * Creates a writer for one tree.
+     *
+     * @param options the settings
+     */
+    private SyntheticModTree(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    /**
+     * Writes a tree.
+     *
+     * @param root    the directory to write into, created if needed
+     * @param options the settings
+     * @return the generated tree
+     * @throws IOException if a file cannot be written
+     */
+    public static Corpus write(Path root, Options options) throws IOException {
+        return new SyntheticModTree(options).writeTree(root);
+    }
+
+    /**
+     * Writes a single translation file with keys {@code <Type>_Key<n>}.
+     *
+     * @param file     the file to write, parent directories are created
+     * @param language the language of the file
+     * @param type     the translation type of the file
+     * @param version  the game version, selecting the charset
+     * @param keys     the number of keys
+     * @param options  the multiline, malformed and seed settings
+     * @return the size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    public static long writeFile(Path file, PZLanguage language, PZTranslationType type, SemanticVersion version,
+            int keys, Options options) throws IOException {
+        SyntheticModTree tree = new SyntheticModTree(options);
+        tree.writeTranslationFile(file, language, type, version, "", keys);
+        return tree.bytes;
+    }
+
+    /**
+     * Returns the key written at a position of a game file, or of a file from
+     * {@link #writeFile}.
+     *
+     * @param type  the translation type
+     * @param index the position
+     * @return the key
+     */
+    public static String key(PZTranslationType type, int index) {
+        return type.name() + "_Key" + index;
+    }
+
+    /**
+     * Deletes a tree.
+     *
+     * @param root the directory holding the tree
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void delete(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Writes the game files and all mods.
+     *
+     * @param root the directory to write into
+     * @return the generated tree
+     * @throws IOException if a file cannot be written
+     */
+    private Corpus writeTree(Path root) throws IOException {
+        Path steamModsPath = root.resolve("steam");
+        Path cachePath = root.resolve("cache");
+        Path gamePath = root.resolve("game");
+        Files.createDirectories(steamModsPath);
+        Files.createDirectories(cachePath.resolve("Workshop"));
+        Files.createDirectories(cachePath.resolve("mods"));
+        Files.createDirectories(gamePath);
+
+        List<PZSource> sources = new ArrayList<>();
+        if (options.gameFiles) {
+            Path translatePath = gamePath.resolve(TRANSLATE_PATH);
+            for (String code : options.languages) {
+                PZLanguage language = language(code);
+                for (PZTranslationType type : PZTranslationType.values()) {
+                    writeTranslationFile(languageFile(translatePath, code, type), language, type, BUILD_42, "",
+                            options.keysPerGameFile);
+                }
+            }
+            sources.add(new PZSource("Game Files", BUILD_42, translatePath, true, 0));
+        }
+
+        for (int i = 0; i < options.mods; i++) {
+            String modName = String.format("Mod%05d", i);
+            Path modFolder;
+            int priority;
+            switch (i % 3) {
+                case 0 -> {
+                    modFolder = steamModsPath.resolve(String.valueOf(100000 + i)).resolve("mods").resolve(modName);
+                    priority = 3;
+                }
+                case 1 -> {
+                    modFolder = cachePath.resolve("Workshop").resolve(modName + "Project").resolve("Contents")
+                            .resolve("mods").resolve(modName);
+                    priority = 1;
+                }
+                default -> {
+                    modFolder = cachePath.resolve("mods").resolve(modName);
+                    priority = 2;
+                }
+            }
+            writeMod(modName, modFolder, priority, sources);
+        }
+
+        // Same order as PZSources.getSources()
+        sources.sort(Comparator.comparingInt(PZSource::getPriority));
+        return new Corpus(root, steamModsPath, cachePath, gamePath, List.copyOf(sources), files, bytes, entries,
+                malformedLines, keys.size());
+    }
+
+    /**
+     * Writes one mod in a random layout.
+     *
+     * @param modName   the mod name
+     * @param modFolder the mod folder
+     * @param priority  the source priority of the mod folder
+     * @param sources   receives the sources of the mod
+     * @throws IOException if a file cannot be written
+     */
+    private void writeMod(String modName, Path modFolder, int priority, List<PZSource> sources) throws IOException {
+        List<Path> translatePaths = new ArrayList<>();
+        List<SemanticVersion> versions = new ArrayList<>();
+        int layout = random.nextInt(4);
+        if (layout == 0 || layout == 3) {
+            translatePaths.add(modFolder.resolve(TRANSLATE_PATH));
+            versions.add(BUILD_41);
+        }
+        if (layout == 1 || layout == 3) {
+            translatePaths.add(modFolder.resolve("common").resolve(TRANSLATE_PATH));
+            versions.add(BUILD_42);
+        }
+        if (layout == 2) {
+            translatePaths.add(modFolder.resolve("42." + random.nextInt(10)).resolve(TRANSLATE_PATH));
+            versions.add(BUILD_42);
+        }
+
+        List<String> languages = new ArrayList<>(options.languages);
+        languages.remove("EN");
+        Collections.shuffle(languages, random);
+        languages = new ArrayList<>(languages.subList(0, Math.min(options.languagesPerMod, languages.size())));
+        languages.add(0, "EN");
+        List<PZTranslationType> types = new ArrayList<>(List.of(PZTranslationType.values()));
+        Collections.shuffle(types, random);
+        types = types.subList(0, Math.min(options.typesPerMod, types.size()));
+
+        for (int p = 0; p < translatePaths.size(); p++) {
+            SemanticVersion version = versions.get(p);
+            for (String code : languages) {
+                PZLanguage language = language(code);
+                // Languages added in Build 42 cannot appear in Build 41 layouts
+                if (language.getCharsetsDownFrom(version).isEmpty()) {
+                    continue;
+                }
+                for (PZTranslationType type : types) {
+                    int keyCount = options.keysPerModFile / 2 + random.nextInt(options.keysPerModFile + 1);
+                    writeTranslationFile(languageFile(translatePaths.get(p), code, type), language, type, version,
+                            modName, keyCount);
+                }
+            }
+            sources.add(new PZSource(modName + " [" + version.getMajor() + "]", version, translatePaths.get(p), true,
+                    priority));
+        }
+    }
+
+    /**
+     * Writes a translation file. Mod files override some game keys and add
+     * keys of their own.
+     *
+     * @param file     the file to write
+     * @param language the language of the file
+     * @param type     the translation type of the file
+     * @param version  the game version, selecting the charset
+     * @param modName  the mod name, or empty for game files
+     * @param keyCount the number of entries
+     * @throws IOException if the file cannot be written
+     */
+    private void writeTranslationFile(Path file, PZLanguage language, PZTranslationType type,
+            SemanticVersion version, String modName, int keyCount) throws IOException {
+        Charset charset = language.getCharsetsDownFrom(version).stream().findFirst().orElse(StandardCharsets.UTF_8);
+        CharsetEncoder encoder = charset.newEncoder();
+        String word = nativeWord(language.getCode());
+        if (word != null && !encoder.canEncode(word)) {
+            word = null;
+        }
+
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, charset)) {
+            writer.write(type.name() + "_" + language.getCode() + " = {\n");
+            for (int i = 0; i < keyCount; i++) {
+                if (random.nextDouble() < options.malformedRatio) {
+                    writer.write(malformedLine(i));
+                    malformedLines++;
+                }
+                String key = modName.isEmpty() || random.nextBoolean() ? key(type, i)
+                        : modName + "_" + type.name() + "_" + i;
+                String text = (word != null ? word + " " : "") + "text " + i + " of " + type.name();
+                writer.write("    " + key + " = \"");
+                if (random.nextDouble() < options.multilineRatio) {
+                    writer.write(text + "\" ..\n        \" second line\" ..\n        \" third line");
+                } else {
+                    writer.write(text);
+                }
+                writer.write("\",\n");
+                keys.add(key);
+                entries++;
+            }
+            writer.write("}\n");
+        }
+        files++;
+        bytes += Files.size(file);
+    }
+
+    /**
+     * Returns a line the parser must skip.
+     *
+     * @param index the position in the file
+     * @return the line, with a line break
+     */
+    private String malformedLine(int index) {
+        return switch (random.nextInt(4)) {
+            case 0 -> "    Broken_" + index + " \"missing equals sign\",\n";
+            case 1 -> "    Broken_" + index + " = missing quotes,\n";
+            case 2 -> "    Broken_" + index + " = \"missing closing quote,\n";
+            default -> "    ~~ stray text " + index + "\n";
+        };
+    }
+
+    /**
+     * Returns the path of a translation file.
+     *
+     * @param translatePath the {@code Translate} folder
+     * @param code          the language code
+     * @param type          the translation type
+     * @return the file path
+     */
+    private static Path languageFile(Path translatePath, String code, PZTranslationType type) {
+        return translatePath.resolve(code).resolve(type.name() + "_" + code + ".txt");
+    }
+
+    /**
+     * Returns a known language.
+     *
+     * @param code the language code
+     * @return the language
+     */
+    private static PZLanguage language(String code) {
+        return PZLanguages.getInstance().getLanguage(code)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown language: " + code));
+    }
+
+    /**
+     * Returns words in the letters of a language.
+     *
+     * @param code the language code
+     * @return the words, or null if the language has none here
+     */
+    private static String nativeWord(String code) {
+        for (String word : NATIVE_WORDS) {
+            if (word.startsWith(code + ":")) {
+                return word.substring(code.length() + 1);
+            }
+        }
+        return null;
+    }
+}
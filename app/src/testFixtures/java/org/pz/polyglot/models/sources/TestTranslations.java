@@ -0,0 +1,112 @@
+package org.pz.polyglot.models.sources;
+
+import java.nio.file.Path;
+
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.structs.SemanticVersion;
+
+/**
+ * Sources, languages and entries for tests that work on translations in
+ * memory, without files.
+ * <p>
+ * A new instance has the Build 42 game source and English and Russian; tests
+ * add the mods and languages they need and build entries from compact rows:
+ *
+ * <pre>{@code
+ * TestTranslations translations = new TestTranslations();
+ * PZTranslationEntry entry = translations.entry("UI_Open")
+ *         .ui(translations.game, translations.english, "Open")
+ *         .ui(translations.game, translations.russian, "Otkryt")
+ *         .build();
+ * }</pre>
+ */
+public final class TestTranslations {
+    /** The game files, Build 42 with the lowest priority. */
+    public final PZSource game = new PZSource("Game Files", new SemanticVersion("42"), Path.of("game"), false, 0);
+    /** English, the reference language. */
+    public final PZLanguage english = new PZLanguage("EN", "English");
+    /** Russian. */
+    public final PZLanguage russian = new PZLanguage("RU", "Russian");
+
+    /**
+     * Creates an editable mod source.
+     *
+     * @param name     the source name
+     * @param build    the build, such as {@code "42"}
+     * @param priority the priority; the game files have 0
+     * @return the source
+     */
+    public PZSource mod(String name, String build, int priority) {
+        return new PZSource(name, new SemanticVersion(build), Path.of(name), true, priority);
+    }
+
+    /**
+     * Creates a language.
+     *
+     * @param code the language code
+     * @param name the language name
+     * @return the language
+     */
+    public PZLanguage language(String code, String name) {
+        return new PZLanguage(code, name);
+    }
+
+    /**
+     * Starts an entry.
+     *
+     * @param key the translation key
+     * @return a builder for the entry's variants
+     */
+    public Entry entry(String key) {
+        return new Entry(new PZTranslationEntry(key));
+    }
+
+    /**
+     * Adds variants to an entry as compact rows, as loading does. Methods
+     * return this, so variants can be chained.
+     */
+    public static final class Entry {
+        private final PZTranslationEntry entry;
+
+        private Entry(PZTranslationEntry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Adds a UI variant.
+         *
+         * @param source   the source
+         * @param language the language
+         * @param text     the text, may be empty
+         * @return this builder
+         */
+        public Entry ui(PZSource source, PZLanguage language, String text) {
+            return variant(source, language, PZTranslationType.UI, text);
+        }
+
+        /**
+         * Adds a variant.
+         *
+         * @param source   the source
+         * @param language the language
+         * @param type     the translation type
+         * @param text     the text, may be empty
+         * @return this builder
+         */
+        public Entry variant(PZSource source, PZLanguage language, PZTranslationType type, String text) {
+            entry.addCompactVariant(source, language, type, text, null);
+            return this;
+        }
+
+        /**
+         * Returns the entry.
+         *
+         * @return the entry with the added variants
+         */
+        public PZTranslationEntry build() {
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+plugins {
+    java
+    id("org.openjfx.javafxplugin") version "0.1.0"
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmhImplementation(project(":app"))
+    jmhImplementation(testFixtures(project(":app")))
+}
+
+// View models use JavaFX properties; the toolkit itself is never started
+javafx {
+    version = "21"
+    modules = listOf("javafx.controls", "javafx.fxml")
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Reports allocated bytes per operation next to the throughput
+    profilers = listOf("gc")
+    jvmArgsAppend = listOf("-Djava.awt.headless=true")
+    resultFormat = "JSON"
+}
@@ -0,0 +1,103 @@
+package org.pz.polyglot.components;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.translations.PZTranslationEntry;
+import org.pz.polyglot.models.translations.PZTranslationSearchIndex;
+import org.pz.polyglot.models.translations.PZTranslationType;
+import org.pz.polyglot.structs.SemanticVersion;
+import org.pz.polyglot.viewModels.TranslationEntryViewModel;
+
+/**
+ * Cost of one pass of the {@link TranslationTable} filter over all rows, as
+ * run by {@link TranslationTableFilter} on its worker thread.
+ * <p>
+ * View models only use JavaFX properties and collections, so no toolkit is
+ * started.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranslationTableFilterBenchmark {
+    /** Languages the rows are translated into. */
+    private static final List<String> LANGUAGES = List.of("EN", "RU", "DE", "FR", "ES", "PL", "PTBR", "CN");
+    /** Types the rows are spread over. */
+    private static final PZTranslationType[] TYPES = { PZTranslationType.IG_UI, PZTranslationType.ItemName,
+            PZTranslationType.Recipes, PZTranslationType.Sandbox };
+
+    /** Number of table rows. */
+    @Param({ "100000" })
+    public int rows;
+
+    /** Filter text; blank skips the text check. */
+    @Param({ "", "label 4", "missing text" })
+    public String text;
+
+    /** All rows of the table. */
+    private final List<TranslationEntryViewModel> viewModels = new ArrayList<>();
+    /** Filter settings: all types, two of three sources, one required language. */
+    private TranslationTableFilter.Criteria criteria;
+
+    /**
+     * Creates the rows and indexes their texts.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SemanticVersion version = new SemanticVersion("42");
+        List<PZSource> sources = List.of(new PZSource("Game Files", version, Path.of("game"), false, 0),
+                new PZSource("Mod A", version, Path.of("a"), true, 1),
+                new PZSource("Mod B", version, Path.of("b"), true, 2));
+        List<PZLanguage> languages = LANGUAGES.stream()
+                .map(code -> PZLanguages.getInstance().getLanguage(code).orElseThrow()).toList();
+
+        List<PZTranslationEntry> entries = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            PZTranslationEntry entry = new PZTranslationEntry("Bench_Key" + i);
+            PZTranslationType type = TYPES[i % TYPES.length];
+            // Every row has English, later languages are increasingly sparse
+            for (int l = 0; l < languages.size(); l++) {
+                if (i % (l + 1) == 0) {
+                    entry.addCompactVariant(sources.get(i % sources.size()), languages.get(l), type,
+                            "Common label " + (i % 97) + " in " + LANGUAGES.get(l), StandardCharsets.UTF_8);
+                }
+            }
+            entries.add(entry);
+            viewModels.add(new TranslationEntryViewModel(entry));
+        }
+        PZTranslationSearchIndex.getInstance().rebuild(entries);
+        criteria = new TranslationTableFilter.Criteria(text, EnumSet.allOf(PZTranslationType.class),
+                Set.of("Game Files", "Mod A"), List.of("RU"));
+    }
+
+    /**
+     * Checks every row against the criteria.
+     *
+     * @return the number of matching rows
+     */
+    @Benchmark
+    public int filter() {
+        Predicate<PZTranslationEntry> textMatcher = criteria.text().isBlank() ? null
+                : PZTranslationSearchIndex.getInstance().matcher(criteria.text());
+        int matches = 0;
+        for (TranslationEntryViewModel row : viewModels) {
+            if (TranslationTableFilter.matches(row, criteria, textMatcher)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,90 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.pz.polyglot.Config;
+import org.pz.polyglot.models.sources.SyntheticModTree;
+
+/**
+ * Time to load a synthetic mod tree with
+ * {@link PZTranslationManager#loadFilesFromSources}.
+ * <p>
+ * The tree comes from {@link SyntheticModTree}: game files in every language
+ * and type plus mods in mixed Build 41 and Build 42 layouts that override
+ * part of the game keys. The translation cache is disabled, so every file is
+ * parsed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PZTranslationLoadBenchmark {
+    /** Number of mods. */
+    @Param({ "100", "2000" })
+    public int mods;
+
+    /** Whether files are parsed in parallel. */
+    @Param({ "true", "false" })
+    public boolean parallel;
+
+    /** Whether loaded variants are stored compactly. */
+    @Param({ "true", "false" })
+    public boolean compact;
+
+    /** Directory holding the synthetic tree. */
+    private Path root;
+    /** The synthetic tree. */
+    private SyntheticModTree.Corpus corpus;
+
+    /**
+     * Writes the synthetic tree and applies the settings. Settings are not
+     * saved, since auto-save is never enabled here.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("pz-polyglot-bench");
+        corpus = SyntheticModTree.write(root, new SyntheticModTree.Options().mods(mods));
+        Config config = Config.getInstance();
+        config.setTranslationCache(false);
+        config.setParallelLoading(parallel);
+        config.setCompactVariants(compact);
+    }
+
+    /**
+     * Empties the translation registry before each load.
+     */
+    @Setup(Level.Invocation)
+    public void clearTranslations() {
+        PZTranslations.getInstance().getAllTranslations().clear();
+    }
+
+    /**
+     * Deletes the synthetic tree.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticModTree.delete(root);
+    }
+
+    /**
+     * Loads all files of the tree into the registry.
+     *
+     * @return the number of loaded entries
+     */
+    @Benchmark
+    public int load() {
+        PZTranslationManager.loadFilesFromSources(corpus.sources(), (source, loadedSources, totalSources) -> {
+        });
+        return PZTranslations.getInstance().getAllTranslations().size();
+    }
+}
@@ -0,0 +1,109 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.SyntheticModTree;
+import org.pz.polyglot.structs.SemanticVersion;
+
+/**
+ * Throughput of {@link PZTranslationParser} on a single synthetic file, with
+ * the default share of multiline values and malformed lines.
+ * <p>
+ * One operation parses the whole file. The {@code entries} and
+ * {@code megabytes} counters give entries/s and MB/s; allocation per entry is
+ * {@code gc.alloc.rate.norm} divided by {@link #keys}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PZTranslationParserBenchmark {
+    /**
+     * Entries and bytes parsed, reported as rates.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        /** Number of entries parsed. */
+        public long entries;
+        /** Number of megabytes parsed. */
+        public double megabytes;
+
+        /**
+         * Resets the counters before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            entries = 0;
+            megabytes = 0;
+        }
+    }
+
+    /** Number of keys in the file. */
+    @Param({ "1000", "20000" })
+    public int keys;
+
+    /** Directory holding the synthetic file. */
+    private Path root;
+    /** The synthetic file. */
+    private Path file;
+    /** Size of the file in megabytes. */
+    private double fileMegabytes;
+    /** Language of the file. */
+    private PZLanguage language;
+    /** Source the file belongs to. */
+    private PZSource source;
+
+    /**
+     * Writes the synthetic file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("pz-polyglot-bench");
+        language = PZLanguages.getInstance().getLanguage("EN").orElseThrow();
+        SemanticVersion version = new SemanticVersion("42");
+        source = new PZSource("Synthetic", version, root, true, 0);
+        file = root.resolve("EN").resolve("IG_UI_EN.txt");
+        fileMegabytes = SyntheticModTree.writeFile(file, language, PZTranslationType.IG_UI, version, keys,
+                new SyntheticModTree.Options()) / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Deletes the synthetic file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticModTree.delete(root);
+    }
+
+    /**
+     * Reads, decodes and parses the file.
+     *
+     * @param counters  the entry and byte counters
+     * @param blackhole sink for the parsed pairs
+     */
+    @Benchmark
+    public void parse(Counters counters, Blackhole blackhole) {
+        try (PZTranslationParser parser = new PZTranslationParser(file, language, source)) {
+            for (PZTranslationParser.Pair pair : parser) {
+                blackhole.consume(pair);
+                counters.entries++;
+            }
+        }
+        counters.megabytes += fileMegabytes;
+    }
+}
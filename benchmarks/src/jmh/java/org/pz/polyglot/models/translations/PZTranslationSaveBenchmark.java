@@ -0,0 +1,108 @@
+package org.pz.polyglot.models.translations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.pz.polyglot.models.languages.PZLanguage;
+import org.pz.polyglot.models.languages.PZLanguages;
+import org.pz.polyglot.models.sources.PZSource;
+import org.pz.polyglot.models.sources.SyntheticModTree;
+import org.pz.polyglot.structs.SemanticVersion;
+
+/**
+ * Time to write edits into large translation files with
+ * {@link PZTranslationManager#saveVariant} and
+ * {@link PZTranslationManager#saveAll}.
+ * <p>
+ * Every invocation gives the edited variants a new text, so each save really
+ * rewrites the files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PZTranslationSaveBenchmark {
+    /** Translation types of the synthetic files, one file each. */
+    private static final List<PZTranslationType> TYPES = List.of(PZTranslationType.IG_UI,
+            PZTranslationType.ItemName, PZTranslationType.Recipes, PZTranslationType.Sandbox);
+
+    /** Number of keys in each file. */
+    @Param({ "20000" })
+    public int keysPerFile;
+
+    /** Number of variants edited before each {@code saveAll}. */
+    @Param({ "1", "100" })
+    public int edits;
+
+    /** Directory holding the synthetic files. */
+    private Path root;
+    /** Edited variants, spread evenly over the files. */
+    private final List<PZTranslationVariant> variants = new ArrayList<>();
+    /** Counter making every edited text different. */
+    private long revision;
+
+    /**
+     * Writes the synthetic files and creates the variants to edit.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("pz-polyglot-bench");
+        SemanticVersion version = new SemanticVersion("42");
+        PZSource source = new PZSource("Synthetic", version, root, true, 0);
+        PZLanguage language = PZLanguages.getInstance().getLanguage("EN").orElseThrow();
+        for (PZTranslationType type : TYPES) {
+            SyntheticModTree.writeFile(root.resolve("EN").resolve(type.name() + "_EN.txt"), language, type, version,
+                    keysPerFile, new SyntheticModTree.Options());
+        }
+        for (int i = 0; i < edits; i++) {
+            PZTranslationType type = TYPES.get(i % TYPES.size());
+            // Spread the keys over the whole file
+            String key = SyntheticModTree.key(type, (int) ((long) i * keysPerFile / edits));
+            variants.add(new PZTranslationVariant(new PZTranslationEntry(key), source, language, type, "",
+                    StandardCharsets.UTF_8, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Deletes the synthetic files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticModTree.delete(root);
+    }
+
+    /**
+     * Saves a single edited variant.
+     */
+    @Benchmark
+    public void saveVariant() {
+        PZTranslationVariant variant = variants.get(0);
+        variant.setEditedText("Edited text " + revision++);
+        PZTranslationManager.saveVariant(variant);
+    }
+
+    /**
+     * Saves all edited variants in one batch.
+     *
+     * @return the results for each file
+     */
+    @Benchmark
+    public List<PZTranslationManager.FileSaveResult> saveAll() {
+        for (PZTranslationVariant variant : variants) {
+            variant.setEditedText("Edited text " + revision++);
+        }
+        return PZTranslationManager.saveAll();
+    }
+}
@@ -0,0 +1,56 @@
+package org.pz.polyglot.structs;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of {@link SemanticVersionMap#getCharsetsDownFrom}, which the parser and
+ * loader call for every file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticVersionMapBenchmark {
+    /** Charsets assigned to the versions in turn. */
+    private static final List<Charset> CHARSETS = List.of(Charset.forName("Cp1251"), StandardCharsets.UTF_8,
+            StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16);
+
+    /** Number of versions in the map; the game has two today. */
+    @Param({ "2", "16" })
+    public int versions;
+
+    /** The map under test. */
+    private SemanticVersionMap<Charset> map;
+    /** The newest version in the map. */
+    private SemanticVersion newest;
+
+    /**
+     * Fills the map with consecutive major versions.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new SemanticVersionMap<>();
+        for (int i = 0; i < versions; i++) {
+            newest = new SemanticVersion(String.valueOf(41 + i));
+            map.put(newest, CHARSETS.get(i % CHARSETS.size()));
+        }
+    }
+
+    /**
+     * Collects the charsets from the newest version down.
+     *
+     * @return the charsets
+     */
+    @Benchmark
+    public LinkedHashSet<Charset> getCharsetsDownFrom() {
+        return map.getCharsetsDownFrom(newest);
+    }
+}
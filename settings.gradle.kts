@@ -12,3 +12,4 @@ plugins {
 
 rootProject.name = "pz-polyglot"
 include("app")
+include("benchmarks")